@@ -0,0 +1,96 @@
+package com.dimensionopening.bench;
+
+import org.bukkit.World;
+import org.bukkit.event.player.PlayerPortalEvent;
+import org.bukkit.event.player.PlayerTeleportEvent;
+import org.bukkit.event.player.PlayerTeleportEvent.TeleportCause;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import com.dimensionopening.listeners.DimensionListener;
+import com.dimensionopening.permissions.PermissionManager;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-teleport cost: the listener's allow and deny paths and the permission
+ * checks behind them. The listener runs on the main thread, so these are
+ * single-threaded. Denials schedule boss bar removal, so the fake server is
+ * ticked every 1024 operations to run those tasks as a server would.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AccessBenchmark {
+    
+    private DimensionListener listener;
+    private PermissionManager permissionManager;
+    private int next;
+    
+    @Setup(Level.Trial)
+    public void setUp(PluginState state) {
+        listener = state.server.getListener(DimensionListener.class);
+        permissionManager = state.plugin.getPermissionManager();
+    }
+    
+    private FakePlayer nextPlayer(PluginState state) {
+        int index = next++;
+        if ((index & 1023) == 0) {
+            state.server.tick();
+        }
+        return state.players[index % state.players.length];
+    }
+    
+    @Benchmark
+    public boolean teleportIntoOpenDimension(PluginState state) {
+        PlayerTeleportEvent event = new PlayerTeleportEvent(nextPlayer(state).getPlayer(), state.spawn, state.endSpawn, TeleportCause.COMMAND);
+        listener.onPlayerTeleport(event);
+        return event.isCancelled();
+    }
+    
+    @Benchmark
+    public boolean teleportIntoClosedDimension(PluginState state) {
+        PlayerTeleportEvent event = new PlayerTeleportEvent(nextPlayer(state).getPlayer(), state.spawn, state.netherSpawn, TeleportCause.COMMAND);
+        listener.onPlayerTeleport(event);
+        return event.isCancelled();
+    }
+    
+    @Benchmark
+    public boolean portalIntoClosedDimension(PluginState state) {
+        PlayerPortalEvent event = new PlayerPortalEvent(nextPlayer(state).getPlayer(), state.spawn, state.netherSpawn, TeleportCause.NETHER_PORTAL);
+        listener.onPlayerPortal(event);
+        return event.isCancelled();
+    }
+    
+    @Benchmark
+    public boolean portalWithAccessNode(PluginState state) {
+        PlayerPortalEvent event = new PlayerPortalEvent(state.netherMember.getPlayer(), state.spawn, state.netherSpawn, TeleportCause.NETHER_PORTAL);
+        listener.onPlayerPortal(event);
+        return event.isCancelled();
+    }
+    
+    @Benchmark
+    public boolean canAccessOpenDimension(PluginState state) {
+        return permissionManager.canAccessDimension(nextPlayer(state).getPlayer(), World.Environment.THE_END);
+    }
+    
+    @Benchmark
+    public boolean canAccessClosedDimension(PluginState state) {
+        return permissionManager.canAccessDimension(nextPlayer(state).getPlayer(), World.Environment.NETHER);
+    }
+    
+    @Benchmark
+    public boolean canAccessWithAccessNode(PluginState state) {
+        return permissionManager.canAccessDimension(state.netherMember.getPlayer(), World.Environment.NETHER);
+    }
+}
\ No newline at end of file
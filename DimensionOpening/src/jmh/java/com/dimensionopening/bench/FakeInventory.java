@@ -0,0 +1,75 @@
+package com.dimensionopening.bench;
+
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.InventoryHolder;
+import org.bukkit.inventory.ItemFactory;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.ItemMeta;
+import java.util.Arrays;
+
+/**
+ * Inventories and item metadata for the GUI code. Inventories only store
+ * their items; metadata accepts everything and keeps nothing.
+ */
+final class FakeInventory {
+    
+    private FakeInventory() {
+    }
+    
+    static Inventory create(InventoryHolder holder, int size) {
+        ItemStack[] items = new ItemStack[size];
+        return FakeServer.proxy(Inventory.class, (method, args) -> {
+            switch (method.getName()) {
+                case "getHolder":
+                    return holder;
+                case "getSize":
+                    return size;
+                case "getItem":
+                    return items[(Integer) args[0]];
+                case "setItem":
+                    items[(Integer) args[0]] = (ItemStack) args[1];
+                    return null;
+                case "getContents":
+                case "getStorageContents":
+                    return items.clone();
+                case "clear":
+                    if (args.length == 0) {
+                        Arrays.fill(items, null);
+                    } else {
+                        items[(Integer) args[0]] = null;
+                    }
+                    return null;
+                default:
+                    return FakeServer.defaultValue(method);
+            }
+        });
+    }
+    
+    static ItemFactory itemFactory() {
+        return FakeServer.proxy(ItemFactory.class, (method, args) -> {
+            switch (method.getName()) {
+                case "getItemMeta":
+                    return itemMeta();
+                case "isApplicable":
+                    return true;
+                case "asMetaFor":
+                    return args[0];
+                case "equals":
+                    return args[0] == args[1];
+                default:
+                    return FakeServer.defaultValue(method);
+            }
+        });
+    }
+    
+    private static ItemMeta itemMeta() {
+        ItemMeta[] self = new ItemMeta[1];
+        self[0] = FakeServer.proxy(ItemMeta.class, (method, args) -> {
+            if (method.getName().equals("clone")) {
+                return self[0];
+            }
+            return FakeServer.defaultValue(method);
+        });
+        return self[0];
+    }
+}
\ No newline at end of file
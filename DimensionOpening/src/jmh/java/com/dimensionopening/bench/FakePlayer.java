@@ -0,0 +1,110 @@
+package com.dimensionopening.bench;
+
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.bukkit.permissions.Permission;
+import java.lang.reflect.Method;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Online player backed by a proxy. Permissions are a plain set of granted
+ * nodes, and whatever the plugin sends is counted on the server.
+ */
+public final class FakePlayer {
+    
+    private final FakeServer server;
+    private final UUID uniqueId;
+    private final String name;
+    private final Set<String> permissions;
+    private final Player player;
+    private volatile World world;
+    private volatile boolean op;
+    
+    FakePlayer(FakeServer server, UUID uniqueId, String name, World world) {
+        this.server = server;
+        this.uniqueId = uniqueId;
+        this.name = name;
+        this.world = world;
+        this.permissions = ConcurrentHashMap.newKeySet();
+        this.player = FakeServer.proxy(Player.class, this::onCall);
+    }
+    
+    public Player getPlayer() {
+        return player;
+    }
+    
+    public UUID getUniqueId() {
+        return uniqueId;
+    }
+    
+    public String getName() {
+        return name;
+    }
+    
+    public World getWorld() {
+        return world;
+    }
+    
+    public void setWorld(World world) {
+        this.world = world;
+    }
+    
+    public FakePlayer grant(String permission) {
+        permissions.add(permission);
+        return this;
+    }
+    
+    public FakePlayer setOp(boolean op) {
+        this.op = op;
+        return this;
+    }
+    
+    private Object onCall(Method method, Object[] args) {
+        switch (method.getName()) {
+            case "getUniqueId":
+                return uniqueId;
+            case "getName":
+            case "getDisplayName":
+                return name;
+            case "isOp":
+                return op;
+            case "isOnline":
+            case "isValid":
+                return true;
+            case "hasPermission":
+            case "isPermissionSet":
+                String node = args[0] instanceof Permission ? ((Permission) args[0]).getName() : (String) args[0];
+                return permissions.contains(node);
+            case "getWorld":
+                return world;
+            case "getLocation":
+                return new Location(world, 0, 64, 0);
+            case "teleport":
+                if (args[0] instanceof Location) {
+                    world = ((Location) args[0]).getWorld();
+                }
+                return true;
+            case "getServer":
+                return server.getServer();
+            case "sendMessage":
+            case "sendRawMessage":
+                server.messages.increment();
+                return null;
+            case "sendTitle":
+            case "showTitle":
+                server.titles.increment();
+                return null;
+            case "sendActionBar":
+                server.actionBars.increment();
+                return null;
+            case "playSound":
+                server.sounds.increment();
+                return null;
+            default:
+                return FakeServer.defaultValue(method);
+        }
+    }
+}
\ No newline at end of file
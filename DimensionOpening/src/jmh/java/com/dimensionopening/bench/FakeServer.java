@@ -0,0 +1,569 @@
+package com.dimensionopening.bench;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.Server;
+import org.bukkit.World;
+import org.bukkit.command.PluginCommand;
+import org.bukkit.entity.Player;
+import org.bukkit.event.Cancellable;
+import org.bukkit.event.Event;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.Listener;
+import org.bukkit.inventory.InventoryHolder;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.plugin.PluginManager;
+import org.bukkit.plugin.ServicesManager;
+import org.bukkit.scheduler.BukkitScheduler;
+import org.bukkit.scheduler.BukkitTask;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.logging.Logger;
+
+/**
+ * In-memory server for running the plugin outside Minecraft.
+ *
+ * Bukkit interfaces are dynamic proxies that answer the calls the plugin
+ * makes and return empty defaults for everything else, so the fakes keep
+ * working as the API grows. Scheduled tasks run when {@link #tick()} is
+ * called, events are delivered to registered listeners in priority order,
+ * and everything sent to players is counted rather than rendered.
+ */
+public final class FakeServer {
+    
+    private static FakeServer instance;
+    
+    private final Server server;
+    private final PluginManager pluginManager;
+    private final ServicesManager servicesManager;
+    private final BukkitScheduler scheduler;
+    private final Logger logger;
+    private final List<World> worlds;
+    private final List<Player> onlinePlayers;
+    private final Map<UUID, FakePlayer> players;
+    private final Map<String, PluginCommand> commands;
+    private final List<RegisteredHandler> handlers;
+    private final Map<Class<?>, List<RegisteredHandler>> handlersByEvent;
+    private final PriorityQueue<FakeTask> tasks;
+    private final List<Listener> listeners;
+    private Plugin plugin;
+    private int currentTick;
+    private int nextTaskId;
+    private long lastTickNanos;
+    private double averageTickMillis;
+    
+    // What the plugin sent to players
+    final LongAdder messages = new LongAdder();
+    final LongAdder titles = new LongAdder();
+    final LongAdder actionBars = new LongAdder();
+    final LongAdder sounds = new LongAdder();
+    final LongAdder bossBars = new LongAdder();
+    final LongAdder broadcasts = new LongAdder();
+    
+    private FakeServer() {
+        this.logger = Logger.getLogger("FakeServer");
+        this.worlds = new ArrayList<>();
+        this.onlinePlayers = new ArrayList<>();
+        this.players = new HashMap<>();
+        this.commands = new HashMap<>();
+        this.handlers = new ArrayList<>();
+        this.handlersByEvent = new ConcurrentHashMap<>();
+        this.tasks = new PriorityQueue<>(Comparator.comparingLong((FakeTask task) -> task.nextTick).thenComparingInt(task -> task.id));
+        this.listeners = new ArrayList<>();
+        this.pluginManager = proxy(PluginManager.class, this::onPluginManagerCall);
+        this.servicesManager = proxy(ServicesManager.class, (method, args) -> defaultValue(method));
+        this.scheduler = proxy(BukkitScheduler.class, this::onSchedulerCall);
+        this.server = proxy(Server.class, this::onServerCall);
+    }
+    
+    /**
+     * Get the fake server, installing it into {@link Bukkit} on first use. Bukkit only accepts one server per JVM.
+     */
+    public static synchronized FakeServer get() {
+        if (instance == null) {
+            instance = new FakeServer();
+            Bukkit.setServer(instance.server);
+        }
+        return instance;
+    }
+    
+    public Server getServer() {
+        return server;
+    }
+    
+    void setPlugin(Plugin plugin) {
+        this.plugin = plugin;
+    }
+    
+    /**
+     * Forget every world, player, listener and task, e.g. after the plugin was disabled
+     */
+    public void reset() {
+        worlds.clear();
+        onlinePlayers.clear();
+        players.clear();
+        commands.clear();
+        handlers.clear();
+        handlersByEvent.clear();
+        listeners.clear();
+        tasks.clear();
+        plugin = null;
+        resetCounters();
+    }
+    
+    public World addWorld(String name, World.Environment environment) {
+        UUID uid = UUID.nameUUIDFromBytes(name.getBytes());
+        World[] self = new World[1];
+        self[0] = proxy(World.class, (method, args) -> {
+            switch (method.getName()) {
+                case "getName":
+                    return name;
+                case "getEnvironment":
+                    return environment;
+                case "getUID":
+                    return uid;
+                case "getPlayerCount":
+                    return countPlayers(self[0]);
+                case "getPlayers":
+                    return getPlayers(self[0]);
+                case "getSpawnLocation":
+                    return new Location(self[0], 0, 64, 0);
+                default:
+                    return defaultValue(method);
+            }
+        });
+        worlds.add(self[0]);
+        return self[0];
+    }
+    
+    public World getWorld(String name) {
+        for (World world : worlds) {
+            if (world.getName().equals(name)) {
+                return world;
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * Add a player to the online list without firing a join event
+     */
+    public FakePlayer addPlayer(String name, World world) {
+        FakePlayer player = new FakePlayer(this, UUID.nameUUIDFromBytes(name.getBytes()), name, world);
+        players.put(player.getUniqueId(), player);
+        onlinePlayers.add(player.getPlayer());
+        return player;
+    }
+    
+    public void removePlayer(FakePlayer player) {
+        players.remove(player.getUniqueId());
+        onlinePlayers.remove(player.getPlayer());
+    }
+    
+    public Collection<FakePlayer> getFakePlayers() {
+        return Collections.unmodifiableCollection(players.values());
+    }
+    
+    private int countPlayers(World world) {
+        int count = 0;
+        for (FakePlayer player : players.values()) {
+            if (player.getWorld() == world) {
+                count++;
+            }
+        }
+        return count;
+    }
+    
+    private List<Player> getPlayers(World world) {
+        List<Player> result = new ArrayList<>();
+        for (FakePlayer player : players.values()) {
+            if (player.getWorld() == world) {
+                result.add(player.getPlayer());
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * Get a registered listener of the given class, to call its handlers without event dispatch
+     */
+    public <T extends Listener> T getListener(Class<T> type) {
+        for (Listener listener : listeners) {
+            if (type.isInstance(listener)) {
+                return type.cast(listener);
+            }
+        }
+        throw new IllegalStateException(type.getSimpleName() + " is not registered");
+    }
+    
+    /**
+     * Deliver an event to every registered handler for it, lowest priority first
+     */
+    public <T extends Event> T callEvent(T event) {
+        List<RegisteredHandler> matching = handlersByEvent.computeIfAbsent(event.getClass(), this::findHandlers);
+        for (RegisteredHandler handler : matching) {
+            if (handler.ignoreCancelled && event instanceof Cancellable && ((Cancellable) event).isCancelled()) {
+                continue;
+            }
+            try {
+                handler.method.invoke(handler.listener, event);
+            } catch (InvocationTargetException e) {
+                throw new IllegalStateException("Handler " + handler.method + " failed", e.getCause());
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+        return event;
+    }
+    
+    private List<RegisteredHandler> findHandlers(Class<?> eventClass) {
+        List<RegisteredHandler> matching = new ArrayList<>();
+        for (RegisteredHandler handler : handlers) {
+            if (handler.method.getParameterTypes()[0].isAssignableFrom(eventClass)) {
+                matching.add(handler);
+            }
+        }
+        matching.sort(Comparator.comparingInt(handler -> handler.priority));
+        return matching;
+    }
+    
+    private void registerEvents(Listener listener) {
+        listeners.add(listener);
+        for (Method method : listener.getClass().getMethods()) {
+            EventHandler annotation = method.getAnnotation(EventHandler.class);
+            if (annotation != null && method.getParameterCount() == 1) {
+                handlers.add(new RegisteredHandler(listener, method, annotation.priority().ordinal(), annotation.ignoreCancelled()));
+            }
+        }
+        handlersByEvent.clear();
+    }
+    
+    /**
+     * Advance one tick and run every task that is due. Returns the time the tasks took in nanoseconds.
+     */
+    public long tick() {
+        long start = System.nanoTime();
+        currentTick++;
+        while (!tasks.isEmpty() && tasks.peek().nextTick <= currentTick) {
+            FakeTask task = tasks.poll();
+            if (task.cancelled) {
+                continue;
+            }
+            task.run();
+            if (task.period > 0 && !task.cancelled) {
+                task.nextTick = currentTick + task.period;
+                tasks.add(task);
+            }
+        }
+        lastTickNanos = System.nanoTime() - start;
+        // Same smoothing as the server's average tick time
+        averageTickMillis = averageTickMillis * 0.95 + (lastTickNanos / 1_000_000.0) * 0.05;
+        return lastTickNanos;
+    }
+    
+    public int getCurrentTick() {
+        return currentTick;
+    }
+    
+    public int getPendingTaskCount() {
+        return tasks.size();
+    }
+    
+    public long getMessageCount() {
+        return messages.sum();
+    }
+    
+    public long getTitleCount() {
+        return titles.sum();
+    }
+    
+    public long getActionBarCount() {
+        return actionBars.sum();
+    }
+    
+    public long getSoundCount() {
+        return sounds.sum();
+    }
+    
+    public long getBossBarCount() {
+        return bossBars.sum();
+    }
+    
+    public long getBroadcastCount() {
+        return broadcasts.sum();
+    }
+    
+    public void resetCounters() {
+        messages.reset();
+        titles.reset();
+        actionBars.reset();
+        sounds.reset();
+        bossBars.reset();
+        broadcasts.reset();
+    }
+    
+    private Object onServerCall(Method method, Object[] args) {
+        switch (method.getName()) {
+            case "getName":
+                return "FakeServer";
+            case "getVersion":
+            case "getBukkitVersion":
+            case "getMinecraftVersion":
+                return "1.21-R0.1-SNAPSHOT";
+            case "getLogger":
+                return logger;
+            case "getOnlinePlayers":
+                return Collections.unmodifiableList(onlinePlayers);
+            case "getWorlds":
+                return Collections.unmodifiableList(worlds);
+            case "getWorld":
+                for (World world : worlds) {
+                    if (args[0].equals(world.getName()) || args[0].equals(world.getUID())) {
+                        return world;
+                    }
+                }
+                return null;
+            case "getPlayer":
+            case "getPlayerExact":
+                if (args[0] instanceof UUID) {
+                    FakePlayer player = players.get(args[0]);
+                    return player != null ? player.getPlayer() : null;
+                }
+                for (FakePlayer player : players.values()) {
+                    if (player.getName().equalsIgnoreCase((String) args[0])) {
+                        return player.getPlayer();
+                    }
+                }
+                return null;
+            case "broadcastMessage":
+                broadcasts.increment();
+                for (Player player : onlinePlayers) {
+                    player.sendMessage((String) args[0]);
+                }
+                return onlinePlayers.size();
+            case "getCurrentTick":
+                return currentTick;
+            case "getAverageTickTime":
+                return averageTickMillis;
+            case "getTPS":
+                return new double[] {20.0, 20.0, 20.0};
+            case "isPrimaryThread":
+                return true;
+            case "getPluginManager":
+                return pluginManager;
+            case "getServicesManager":
+                return servicesManager;
+            case "getScheduler":
+                return scheduler;
+            case "getPluginCommand":
+                return commands.computeIfAbsent((String) args[0], name -> new PluginCommand(name, plugin) {});
+            case "createBossBar":
+                bossBars.increment();
+                return proxy(method.getReturnType(), (bossBarMethod, bossBarArgs) -> defaultValue(bossBarMethod));
+            case "createInventory":
+                return FakeInventory.create((InventoryHolder) args[0], args[1] instanceof Integer ? (Integer) args[1] : 27);
+            case "getItemFactory":
+                return FakeInventory.itemFactory();
+            default:
+                return defaultValue(method);
+        }
+    }
+    
+    private Object onPluginManagerCall(Method method, Object[] args) {
+        switch (method.getName()) {
+            case "registerEvents":
+                registerEvents((Listener) args[0]);
+                return null;
+            case "callEvent":
+                callEvent((Event) args[0]);
+                return null;
+            case "getPlugin":
+                return plugin != null && plugin.getName().equals(args[0]) ? plugin : null;
+            case "isPluginEnabled":
+                return plugin != null && (args[0] == plugin || plugin.getName().equals(args[0]));
+            default:
+                return defaultValue(method);
+        }
+    }
+    
+    private Object onSchedulerCall(Method method, Object[] args) {
+        String name = method.getName();
+        if (name.startsWith("run") || name.startsWith("schedule")) {
+            // run*/schedule*(plugin, task[, delay[, period]])
+            long delay = args.length > 2 ? ((Number) args[2]).longValue() : 0L;
+            long period = args.length > 3 ? ((Number) args[3]).longValue() : -1L;
+            FakeTask task = new FakeTask(++nextTaskId, (Plugin) args[0], args[1], !name.contains("Async"), period);
+            task.nextTick = currentTick + Math.max(1L, delay);
+            tasks.add(task);
+            return method.getReturnType() == int.class ? (Object) task.id : task;
+        }
+        switch (name) {
+            case "cancelTask":
+                for (FakeTask task : tasks) {
+                    if (task.id == (Integer) args[0]) {
+                        task.cancel();
+                    }
+                }
+                return null;
+            case "cancelTasks":
+                for (FakeTask task : tasks) {
+                    if (task.owner == args[0]) {
+                        task.cancel();
+                    }
+                }
+                return null;
+            case "isQueued":
+            case "isCurrentlyRunning":
+                for (FakeTask task : tasks) {
+                    if (task.id == (Integer) args[0] && !task.cancelled) {
+                        return true;
+                    }
+                }
+                return false;
+            default:
+                return defaultValue(method);
+        }
+    }
+    
+    /**
+     * Implement an interface with a proxy, answering equals, hashCode and toString by identity
+     */
+    static <T> T proxy(Class<T> type, FakeHandler handler) {
+        InvocationHandler invocationHandler = (proxy, method, args) -> {
+            Object[] arguments = args != null ? args : new Object[0];
+            if (method.getDeclaringClass() == Object.class) {
+                switch (method.getName()) {
+                    case "equals":
+                        return proxy == arguments[0];
+                    case "hashCode":
+                        return System.identityHashCode(proxy);
+                    default:
+                        return "Fake" + type.getSimpleName() + "@" + Integer.toHexString(System.identityHashCode(proxy));
+                }
+            }
+            return handler.invoke(method, arguments);
+        };
+        return type.cast(Proxy.newProxyInstance(FakeServer.class.getClassLoader(), new Class<?>[] {type}, invocationHandler));
+    }
+    
+    /**
+     * Empty value for a method nothing in the plugin depends on
+     */
+    static Object defaultValue(Method method) {
+        Class<?> type = method.getReturnType();
+        if (type == boolean.class) {
+            return false;
+        }
+        if (type == int.class || type == short.class || type == byte.class) {
+            return 0;
+        }
+        if (type == long.class) {
+            return 0L;
+        }
+        if (type == double.class) {
+            return 0.0;
+        }
+        if (type == float.class) {
+            return 0.0f;
+        }
+        if (type == char.class) {
+            return '\0';
+        }
+        if (type == List.class || type == Collection.class) {
+            return Collections.emptyList();
+        }
+        if (type == Set.class) {
+            return Collections.emptySet();
+        }
+        if (type == Map.class) {
+            return Collections.emptyMap();
+        }
+        return null;
+    }
+    
+    @FunctionalInterface
+    interface FakeHandler {
+        Object invoke(Method method, Object[] args) throws Throwable;
+    }
+    
+    private static final class RegisteredHandler {
+        final Listener listener;
+        final Method method;
+        final int priority;
+        final boolean ignoreCancelled;
+        
+        RegisteredHandler(Listener listener, Method method, int priority, boolean ignoreCancelled) {
+            this.listener = listener;
+            this.method = method;
+            this.priority = priority;
+            this.ignoreCancelled = ignoreCancelled;
+        }
+    }
+    
+    private static final class FakeTask implements BukkitTask {
+        final int id;
+        final Plugin owner;
+        final Object body;
+        final boolean sync;
+        final long period;
+        long nextTick;
+        boolean cancelled;
+        
+        FakeTask(int id, Plugin owner, Object body, boolean sync, long period) {
+            this.id = id;
+            this.owner = owner;
+            this.body = body;
+            this.sync = sync;
+            this.period = period;
+        }
+        
+        @SuppressWarnings("unchecked")
+        void run() {
+            if (body instanceof Runnable) {
+                ((Runnable) body).run();
+            } else {
+                ((Consumer<BukkitTask>) body).accept(this);
+            }
+        }
+        
+        @Override
+        public int getTaskId() {
+            return id;
+        }
+        
+        @Override
+        public Plugin getOwner() {
+            return owner;
+        }
+        
+        @Override
+        public boolean isSync() {
+            return sync;
+        }
+        
+        @Override
+        public boolean isCancelled() {
+            return cancelled;
+        }
+        
+        @Override
+        public void cancel() {
+            cancelled = true;
+        }
+    }
+}
\ No newline at end of file
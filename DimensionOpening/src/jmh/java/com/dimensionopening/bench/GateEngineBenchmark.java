@@ -0,0 +1,104 @@
+package com.dimensionopening.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import com.dimensionopening.core.AccessDecision;
+import com.dimensionopening.core.CapabilityCache;
+import com.dimensionopening.core.GateEngine;
+import com.dimensionopening.core.GateRule;
+import com.dimensionopening.core.GateState;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The core gate engine on its own, without a server: the default rule set
+ * over primitive inputs, and the capability cache lookup in front of it.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GateEngineBenchmark {
+    
+    private static final int OVERWORLD = 0;
+    private static final int NETHER = 1;
+    private static final int END = 2;
+    private static final int PORTAL_CAUSE = 0;
+    private static final int CAUSES = 16;
+    private static final int SUBJECTS = 1024;
+    
+    private GateEngine engine;
+    private CapabilityCache capabilities;
+    private UUID[] subjects;
+    private long netherAccess;
+    private int overworld;
+    private int nether;
+    private int next;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        GateState state = new GateState();
+        overworld = state.register("world", OVERWORLD);
+        nether = state.register("world_nether", NETHER);
+        state.register("world_the_end", END);
+        state.setDimensionOpen(NETHER, false);
+        
+        // Same shape as the plugin's default rules
+        capabilities = new CapabilityCache(100);
+        List<GateRule> rules = new ArrayList<>();
+        rules.add(new GateRule(AccessDecision.ALLOW).require(capabilities.bit("dimensionopening.bypass")));
+        rules.add(new GateRule(AccessDecision.ALLOW).require(capabilities.bit("dimensionopening.admin")));
+        rules.add(new GateRule(AccessDecision.ALLOW).require(CapabilityCache.OP_BIT));
+        rules.add(new GateRule(AccessDecision.ALLOW).dimensions(OVERWORLD).require(capabilities.bit("dimensionopening.access.overworld")));
+        netherAccess = capabilities.bit("dimensionopening.access.nether");
+        rules.add(new GateRule(AccessDecision.ALLOW).dimensions(NETHER).require(netherAccess));
+        rules.add(new GateRule(AccessDecision.ALLOW).dimensions(END).require(capabilities.bit("dimensionopening.access.end")));
+        rules.add(new GateRule(AccessDecision.ALLOW).state(GateRule.STATE_OPEN));
+        engine = new GateEngine(state, 3, CAUSES, rules);
+        
+        subjects = new UUID[SUBJECTS];
+        for (int i = 0; i < SUBJECTS; i++) {
+            subjects[i] = UUID.randomUUID();
+            capabilities.put(subjects[i], i % 8 == 0 ? netherAccess : 0L, 0);
+        }
+    }
+    
+    @Benchmark
+    public AccessDecision decideOpen() {
+        return engine.decide(0L, overworld, PORTAL_CAUSE, 0);
+    }
+    
+    @Benchmark
+    public AccessDecision decideClosedDenied() {
+        return engine.decide(0L, nether, PORTAL_CAUSE, 0);
+    }
+    
+    @Benchmark
+    public AccessDecision decideClosedAllowed() {
+        return engine.decide(netherAccess, nether, PORTAL_CAUSE, 0);
+    }
+    
+    @Benchmark
+    public AccessDecision decideDimension() {
+        return engine.decideDimension(0L, NETHER, PORTAL_CAUSE);
+    }
+    
+    @Benchmark
+    public AccessDecision decideCachedSubject() {
+        long bits = capabilities.get(subjects[next++ & (SUBJECTS - 1)], 1);
+        return engine.decide(bits, nether, PORTAL_CAUSE, 0);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,60 @@
+package com.dimensionopening.bench;
+
+import org.bukkit.plugin.InvalidDescriptionException;
+import org.bukkit.plugin.PluginDescriptionFile;
+import org.bukkit.plugin.java.JavaPluginLoader;
+import com.dimensionopening.DimensionOpeningPlugin;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * The real plugin, enabled against {@link FakeServer} with a throwaway data folder.
+ */
+public final class HeadlessPlugin extends DimensionOpeningPlugin {
+    
+    private final File dataFolder;
+    
+    @SuppressWarnings({"deprecation", "removal"})
+    private HeadlessPlugin(PluginDescriptionFile description, File dataFolder) {
+        super(new JavaPluginLoader(FakeServer.get().getServer()), description, dataFolder, new File(dataFolder, "DimensionOpening.jar"));
+        this.dataFolder = dataFolder;
+    }
+    
+    /**
+     * Enable a fresh plugin, overriding config values before any manager reads them
+     */
+    public static HeadlessPlugin enable(Map<String, Object> settings) {
+        FakeServer server = FakeServer.get();
+        try (InputStream in = HeadlessPlugin.class.getClassLoader().getResourceAsStream("plugin.yml")) {
+            PluginDescriptionFile description = new PluginDescriptionFile(in);
+            HeadlessPlugin plugin = new HeadlessPlugin(description, Files.createTempDirectory("dimensionopening-").toFile());
+            server.setPlugin(plugin);
+            settings.forEach(plugin.getConfig()::set);
+            plugin.onEnable();
+            return plugin;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (InvalidDescriptionException e) {
+            throw new IllegalStateException("plugin.yml is not on the classpath or is invalid", e);
+        }
+    }
+    
+    /**
+     * Disable the plugin and delete its data folder
+     */
+    public void disable() {
+        onDisable();
+        try (Stream<Path> files = Files.walk(dataFolder.toPath())) {
+            files.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        } catch (IOException e) {
+            getLogger().warning("Could not delete " + dataFolder + ": " + e.getMessage());
+        }
+    }
+}
\ No newline at end of file
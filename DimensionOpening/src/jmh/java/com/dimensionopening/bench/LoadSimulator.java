@@ -0,0 +1,312 @@
+package com.dimensionopening.bench;
+
+import org.bukkit.ChatColor;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerPortalEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.event.player.PlayerTeleportEvent;
+import org.bukkit.event.player.PlayerTeleportEvent.TeleportCause;
+import com.dimensionopening.audit.AuditEvent;
+import com.dimensionopening.managers.DimensionManager;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Headless load simulation of the plugin's tick cost.
+ *
+ * Each scenario enables a fresh plugin against {@link FakeServer}, fires
+ * events through the registered listeners every tick and runs the scheduled
+ * tasks, so the whole listener, permission, metrics and notification chain
+ * is exercised as on a live server. Tick time and main-thread allocations
+ * are measured after a warmup, and everything sent to players is counted.
+ *
+ * Usage: {@code LoadSimulator [--scenario name|all] [--players n] [--rate f]
+ * [--ticks n] [--warmup n] [--admins n] [--max-p95-ms ms]}. With
+ * {@code --max-p95-ms} the exit code is 1 if any scenario's 95th percentile
+ * tick is slower, for use as a regression check.
+ */
+public final class LoadSimulator {
+    
+    private static final Map<String, String> SCENARIOS = new LinkedHashMap<>();
+    static {
+        SCENARIOS.put("portal-spam", "players walking into nether portals while the nether is closed");
+        SCENARIOS.put("teleport-spam", "players teleporting into the end while it is closed");
+        SCENARIOS.put("mass-join", "waves of players joining, each leaving again three seconds later");
+        SCENARIOS.put("gui-toggle", "admins toggling the end from the GUI every tick while everyone is online");
+    }
+    private static final int JOIN_STAY_TICKS = 60;
+    
+    private final int playerCount;
+    private final double rate;
+    private final int ticks;
+    private final int warmupTicks;
+    private final int adminCount;
+    private final com.sun.management.ThreadMXBean threads;
+    
+    // State of the scenario being run
+    private FakeServer server;
+    private HeadlessPlugin plugin;
+    private World overworld;
+    private World nether;
+    private World end;
+    private final List<FakePlayer> players = new ArrayList<>();
+    private final List<FakePlayer> admins = new ArrayList<>();
+    private final ArrayDeque<FakePlayer> joined = new ArrayDeque<>();
+    private long events;
+    private long cancelled;
+    private int nextPlayer;
+    private int nextName;
+    
+    private LoadSimulator(int playerCount, double rate, int ticks, int warmupTicks, int adminCount) {
+        this.playerCount = playerCount;
+        this.rate = rate;
+        this.ticks = ticks;
+        this.warmupTicks = warmupTicks;
+        this.adminCount = adminCount;
+        this.threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    }
+    
+    public static void main(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            if (!args[i].startsWith("--")) {
+                usage("Unexpected argument " + args[i]);
+            }
+            options.put(args[i].substring(2), args[i + 1]);
+        }
+        if (args.length % 2 != 0) {
+            usage("Missing value for " + args[args.length - 1]);
+        }
+        
+        String scenario = options.getOrDefault("scenario", "all");
+        if (!scenario.equals("all") && !SCENARIOS.containsKey(scenario)) {
+            usage("Unknown scenario " + scenario);
+        }
+        LoadSimulator simulator = new LoadSimulator(
+            Integer.parseInt(options.getOrDefault("players", "2000")),
+            Double.parseDouble(options.getOrDefault("rate", "0.25")),
+            Integer.parseInt(options.getOrDefault("ticks", "200")),
+            Integer.parseInt(options.getOrDefault("warmup", "100")),
+            Math.max(1, Integer.parseInt(options.getOrDefault("admins", "5")))
+        );
+        double maxP95 = Double.parseDouble(options.getOrDefault("max-p95-ms", "Infinity"));
+        
+        System.out.printf(Locale.ROOT, "%d players, %.0f%% acting per tick, %d ticks after %d warmup ticks%n%n",
+                simulator.playerCount, simulator.rate * 100, simulator.ticks, simulator.warmupTicks);
+        boolean failed = false;
+        for (String name : SCENARIOS.keySet()) {
+            if (scenario.equals("all") || scenario.equals(name)) {
+                Result result = simulator.run(name);
+                result.print();
+                if (result.percentile(0.95) > maxP95) {
+                    System.out.printf(Locale.ROOT, "  FAILED: p95 tick above %.2f ms%n", maxP95);
+                    failed = true;
+                }
+                System.out.println();
+            }
+        }
+        System.exit(failed ? 1 : 0);
+    }
+    
+    private static void usage(String error) {
+        System.err.println(error);
+        System.err.println("Usage: LoadSimulator [--scenario name|all] [--players n] [--rate fraction] [--ticks n] [--warmup n] [--admins n] [--max-p95-ms ms]");
+        for (Map.Entry<String, String> entry : SCENARIOS.entrySet()) {
+            System.err.println("  " + entry.getKey() + ": " + entry.getValue());
+        }
+        System.exit(2);
+    }
+    
+    private Result run(String scenario) {
+        server = FakeServer.get();
+        overworld = server.addWorld("world", World.Environment.NORMAL);
+        nether = server.addWorld("world_nether", World.Environment.NETHER);
+        end = server.addWorld("world_the_end", World.Environment.THE_END);
+        for (int i = 0; i < adminCount; i++) {
+            admins.add(server.addPlayer("admin" + i, overworld).grant("dimensionopening.admin"));
+        }
+        if (!scenario.equals("mass-join")) {
+            for (int i = 0; i < playerCount; i++) {
+                players.add(server.addPlayer("player" + i, overworld));
+            }
+        }
+        
+        Map<String, Object> settings = new HashMap<>();
+        settings.put("dimensions.nether.open", false);
+        settings.put("dimensions.end.open", false);
+        plugin = HeadlessPlugin.enable(settings);
+        if (scenario.equals("gui-toggle")) {
+            for (FakePlayer admin : admins) {
+                plugin.getDimensionGUI().openDimensionGUI(admin.getPlayer());
+            }
+        }
+        
+        try {
+            for (int tick = 0; tick < warmupTicks; tick++) {
+                step(scenario, tick);
+                server.tick();
+            }
+            server.resetCounters();
+            events = 0;
+            cancelled = 0;
+            long droppedBefore = plugin.getAuditLog().getDroppedCount();
+            
+            long threadId = Thread.currentThread().getId();
+            long[] tickNanos = new long[ticks];
+            long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+            for (int tick = 0; tick < ticks; tick++) {
+                long start = System.nanoTime();
+                step(scenario, warmupTicks + tick);
+                server.tick();
+                tickNanos[tick] = System.nanoTime() - start;
+            }
+            long allocated = threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+            
+            return new Result(scenario, tickNanos, allocated, events, cancelled, server,
+                    plugin.getAuditLog().getDroppedCount() - droppedBefore);
+        } finally {
+            plugin.disable();
+            server.reset();
+            players.clear();
+            admins.clear();
+            joined.clear();
+        }
+    }
+    
+    /**
+     * Fire one tick's worth of the scenario's events
+     */
+    private void step(String scenario, int tick) {
+        switch (scenario) {
+            case "portal-spam":
+                spam(nether, TeleportCause.NETHER_PORTAL, true);
+                break;
+            case "teleport-spam":
+                spam(end, tick % 2 == 0 ? TeleportCause.ENDER_PEARL : TeleportCause.COMMAND, false);
+                break;
+            case "mass-join":
+                joinWave();
+                break;
+            case "gui-toggle":
+                toggle(admins.get(tick % admins.size()), World.Environment.THE_END);
+                break;
+            default:
+                throw new IllegalArgumentException(scenario);
+        }
+    }
+    
+    private void spam(World destination, TeleportCause cause, boolean portal) {
+        int batch = Math.max(1, (int) (players.size() * rate));
+        Location to = new Location(destination, 0, 64, 0);
+        for (int i = 0; i < batch; i++) {
+            Player player = players.get(nextPlayer++ % players.size()).getPlayer();
+            Location from = player.getLocation();
+            PlayerTeleportEvent event = portal
+                    ? new PlayerPortalEvent(player, from, to, cause)
+                    : new PlayerTeleportEvent(player, from, to, cause);
+            server.callEvent(event);
+            events++;
+            if (event.isCancelled()) {
+                cancelled++;
+            }
+        }
+    }
+    
+    @SuppressWarnings("deprecation")
+    private void joinWave() {
+        // Enough joins per tick that about playerCount are online once the first wave starts leaving
+        int batch = Math.max(1, playerCount / JOIN_STAY_TICKS);
+        for (int i = 0; i < batch; i++) {
+            FakePlayer player = server.addPlayer("joiner" + nextName++, overworld);
+            server.callEvent(new PlayerJoinEvent(player.getPlayer(), player.getName() + " joined the game"));
+            joined.add(player);
+            events++;
+        }
+        while (joined.size() > playerCount) {
+            FakePlayer player = joined.poll();
+            server.callEvent(new PlayerQuitEvent(player.getPlayer(), player.getName() + " left the game"));
+            server.removePlayer(player);
+            events++;
+        }
+    }
+    
+    /**
+     * What a click on a dimension slot in the GUI does, without an inventory view to click in
+     */
+    private void toggle(FakePlayer admin, World.Environment environment) {
+        DimensionManager dimensionManager = plugin.getDimensionManager();
+        Player player = admin.getPlayer();
+        boolean open = !dimensionManager.isDimensionOpen(environment);
+        boolean changed = open ? dimensionManager.openDimension(environment) : dimensionManager.closeDimension(environment);
+        if (changed) {
+            plugin.getAuditLog().record(open ? AuditEvent.Action.DIMENSION_OPEN : AuditEvent.Action.DIMENSION_CLOSE,
+                    AuditEvent.Source.GUI, player, environment, null);
+            player.sendMessage((open ? ChatColor.GREEN : ChatColor.RED) + "End dimension has been " + (open ? "opened!" : "closed!"));
+            plugin.getNotificationManager().broadcastDimensionStateChange(environment, open);
+        }
+        events++;
+    }
+    
+    private static final class Result {
+        final String scenario;
+        final long[] sortedTickNanos;
+        final long totalNanos;
+        final long allocated;
+        final long events;
+        final long cancelled;
+        final long messages;
+        final long titles;
+        final long actionBars;
+        final long sounds;
+        final long bossBars;
+        final long broadcasts;
+        final long auditDropped;
+        final int pendingTasks;
+        
+        Result(String scenario, long[] tickNanos, long allocated, long events, long cancelled, FakeServer server, long auditDropped) {
+            this.scenario = scenario;
+            this.sortedTickNanos = tickNanos.clone();
+            Arrays.sort(sortedTickNanos);
+            this.totalNanos = Arrays.stream(tickNanos).sum();
+            this.allocated = allocated;
+            this.events = events;
+            this.cancelled = cancelled;
+            this.messages = server.getMessageCount();
+            this.titles = server.getTitleCount();
+            this.actionBars = server.getActionBarCount();
+            this.sounds = server.getSoundCount();
+            this.bossBars = server.getBossBarCount();
+            this.broadcasts = server.getBroadcastCount();
+            this.auditDropped = auditDropped;
+            this.pendingTasks = server.getPendingTaskCount();
+        }
+        
+        double percentile(double fraction) {
+            int index = Math.min(sortedTickNanos.length - 1, (int) Math.ceil(fraction * sortedTickNanos.length) - 1);
+            return sortedTickNanos[Math.max(0, index)] / 1_000_000.0;
+        }
+        
+        void print() {
+            int tickCount = sortedTickNanos.length;
+            double meanMillis = totalNanos / 1_000_000.0 / tickCount;
+            System.out.printf(Locale.ROOT, "%s: %d events (%d cancelled) over %d ticks%n", scenario, events, cancelled, tickCount);
+            System.out.printf(Locale.ROOT, "  tick ms: mean %.3f, p50 %.3f, p95 %.3f, p99 %.3f, max %.3f (%.1f%% of a 50 ms tick)%n",
+                    meanMillis, percentile(0.50), percentile(0.95), percentile(0.99), percentile(1.0), meanMillis / 50 * 100);
+            System.out.printf(Locale.ROOT, "  allocated: %.1f MB, %.1f KB per tick, %d B per event%n",
+                    allocated / 1_048_576.0, allocated / 1024.0 / tickCount, events > 0 ? allocated / events : 0);
+            System.out.printf(Locale.ROOT, "  sent: %d messages, %d titles, %d action bars, %d sounds, %d boss bars, %d broadcasts%n",
+                    messages, titles, actionBars, sounds, bossBars, broadcasts);
+            System.out.printf(Locale.ROOT, "  audit events dropped: %d, tasks still scheduled: %d%n", auditDropped, pendingTasks);
+        }
+    }
+}
\ No newline at end of file
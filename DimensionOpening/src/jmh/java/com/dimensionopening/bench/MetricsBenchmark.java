@@ -0,0 +1,71 @@
+package com.dimensionopening.bench;
+
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import com.dimensionopening.metrics.MetricsManager;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Recording access attempts and denials, from the main thread alone and from
+ * several threads at once, since the counters are shared with the exporter
+ * and the asynchronous saver.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MetricsBenchmark {
+    
+    private MetricsManager metricsManager;
+    private Player[] players;
+    private int next;
+    
+    @Setup(Level.Trial)
+    public void setUp(PluginState state) {
+        metricsManager = state.plugin.getMetricsManager();
+        players = new Player[state.players.length];
+        for (int i = 0; i < players.length; i++) {
+            players[i] = state.players[i].getPlayer();
+        }
+    }
+    
+    private Player nextPlayer() {
+        return players[next++ % players.length];
+    }
+    
+    @Benchmark
+    public void recordAttempt() {
+        metricsManager.recordPlayerAccessAttempt(nextPlayer(), World.Environment.NETHER);
+    }
+    
+    @Benchmark
+    public void recordDenied() {
+        metricsManager.recordPlayerAccessDenied(nextPlayer(), World.Environment.NETHER);
+    }
+    
+    @Benchmark
+    public void recordDimensionToggle() {
+        metricsManager.recordDimensionClose(World.Environment.THE_END);
+        metricsManager.recordDimensionOpen(World.Environment.THE_END);
+    }
+    
+    @Benchmark
+    @Threads(4)
+    public void recordDeniedContended() {
+        metricsManager.recordPlayerAccessDenied(nextPlayer(), World.Environment.NETHER);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,58 @@
+package com.dimensionopening.bench;
+
+import org.bukkit.World;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import com.dimensionopening.notifications.NotificationManager;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Building and sending the denial, admin and broadcast notifications.
+ * Admin and broadcast cost grows with the number of online players, so run
+ * with {@code -p onlinePlayers=10,100,1000} to see the scaling.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class NotificationBenchmark {
+    
+    private NotificationManager notificationManager;
+    private int next;
+    
+    @Setup(Level.Trial)
+    public void setUp(PluginState state) {
+        notificationManager = state.plugin.getNotificationManager();
+    }
+    
+    @Benchmark
+    public void notifyDimensionClosed(PluginState state) {
+        int index = next++;
+        if ((index & 1023) == 0) {
+            // Run the boss bar removals that denials schedule
+            state.server.tick();
+        }
+        notificationManager.notifyDimensionClosed(state.players[index % state.players.length].getPlayer(), World.Environment.NETHER);
+    }
+    
+    @Benchmark
+    public void notifyAdminsAccessAttempt(PluginState state) {
+        notificationManager.notifyAdminsAccessAttempt(state.players[next++ % state.players.length].getPlayer(), World.Environment.NETHER);
+    }
+    
+    @Benchmark
+    public void broadcastDimensionStateChange() {
+        notificationManager.broadcastDimensionStateChange(World.Environment.NETHER, (next++ & 1) == 0);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,72 @@
+package com.dimensionopening.bench;
+
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A plugin enabled against the fake server with the nether closed and the
+ * overworld and end open. Online players hold no permissions except one
+ * admin and one player with the nether access node.
+ */
+@State(Scope.Benchmark)
+public class PluginState {
+    
+    @Param({"100"})
+    public int onlinePlayers;
+    
+    public FakeServer server;
+    public HeadlessPlugin plugin;
+    public World overworld;
+    public World nether;
+    public World end;
+    public FakePlayer[] players;
+    public FakePlayer admin;
+    public FakePlayer netherMember;
+    public Location spawn;
+    public Location netherSpawn;
+    public Location endSpawn;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        server = FakeServer.get();
+        overworld = server.addWorld("world", World.Environment.NORMAL);
+        nether = server.addWorld("world_nether", World.Environment.NETHER);
+        end = server.addWorld("world_the_end", World.Environment.THE_END);
+        
+        players = new FakePlayer[onlinePlayers];
+        for (int i = 0; i < onlinePlayers; i++) {
+            players[i] = server.addPlayer("player" + i, overworld);
+        }
+        admin = server.addPlayer("admin", overworld).grant("dimensionopening.admin");
+        netherMember = server.addPlayer("member", overworld).grant("dimensionopening.access.nether");
+        
+        plugin = HeadlessPlugin.enable(settings());
+        spawn = new Location(overworld, 0, 64, 0);
+        netherSpawn = new Location(nether, 0, 64, 0);
+        endSpawn = new Location(end, 0, 64, 0);
+    }
+    
+    /**
+     * Config overrides applied before the plugin is enabled
+     */
+    protected Map<String, Object> settings() {
+        Map<String, Object> settings = new HashMap<>();
+        settings.put("dimensions.nether.open", false);
+        settings.put("metrics.timing.enabled", false);
+        return settings;
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        plugin.disable();
+        server.reset();
+    }
+}
\ No newline at end of file
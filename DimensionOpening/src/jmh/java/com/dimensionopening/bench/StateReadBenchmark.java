@@ -0,0 +1,73 @@
+package com.dimensionopening.bench;
+
+import org.bukkit.World;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import com.dimensionopening.core.GateState;
+import com.dimensionopening.managers.DimensionManager;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Dimension and world state reads, alone and while another thread keeps
+ * flipping a world override. The writer flips the gate state directly,
+ * without saving config.yml or notifying listeners, so the contended numbers
+ * measure the reads and not YAML writes.
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StateReadBenchmark {
+    
+    private DimensionManager dimensionManager;
+    private GateState gateState;
+    private World end;
+    private int endDestination;
+    private boolean open;
+    
+    @Setup(Level.Trial)
+    public void setUp(PluginState state) {
+        dimensionManager = state.plugin.getDimensionManager();
+        gateState = dimensionManager.getGateState();
+        end = state.end;
+        endDestination = dimensionManager.getDestination(end);
+    }
+    
+    @Benchmark
+    public boolean isDimensionOpen() {
+        return dimensionManager.isDimensionOpen(World.Environment.NETHER);
+    }
+    
+    @Benchmark
+    public boolean isWorldOpen() {
+        return dimensionManager.isWorldOpen(end);
+    }
+    
+    @Benchmark
+    @Group("contended")
+    @GroupThreads(3)
+    public boolean contendedRead() {
+        return dimensionManager.isWorldOpen(end);
+    }
+    
+    @Benchmark
+    @Group("contended")
+    @GroupThreads(1)
+    public boolean contendedWrite() {
+        open = !open;
+        return gateState.setOverride(endDestination, open);
+    }
+}
\ No newline at end of file
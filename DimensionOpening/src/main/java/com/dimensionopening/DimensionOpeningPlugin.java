@@ -1,27 +1,86 @@
 package com.dimensionopening;
 
+import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.plugin.PluginDescriptionFile;
+import org.bukkit.plugin.ServicePriority;
 import org.bukkit.plugin.java.JavaPlugin;
+import org.bukkit.plugin.java.JavaPluginLoader;
+import com.dimensionopening.api.DimensionOpeningAPI;
+import com.dimensionopening.audit.AuditLog;
 import com.dimensionopening.commands.DimensionCommand;
 import com.dimensionopening.commands.DimensionTabCompleter;
+import com.dimensionopening.config.Settings;
 import com.dimensionopening.listeners.DimensionListener;
+import com.dimensionopening.managers.CapacityTracker;
+import com.dimensionopening.managers.DimensionApiService;
 import com.dimensionopening.managers.DimensionManager;
+import com.dimensionopening.managers.LoadGovernor;
+import com.dimensionopening.managers.PassManager;
 import com.dimensionopening.managers.ScheduleManager;
 import com.dimensionopening.gui.DimensionGUI;
+import com.dimensionopening.gui.MetricsDashboard;
+import com.dimensionopening.gui.WorldBrowser;
 import com.dimensionopening.notifications.NotificationManager;
 import com.dimensionopening.permissions.PermissionManager;
+import com.dimensionopening.metrics.MetricsExporter;
 import com.dimensionopening.metrics.MetricsManager;
+import com.dimensionopening.metrics.PerformanceMonitor;
+import com.dimensionopening.scheduler.TaskScheduler;
+import com.dimensionopening.sync.SyncManager;
+import java.io.File;
+import java.util.function.Consumer;
 
 public class DimensionOpeningPlugin extends JavaPlugin {
     
     private DimensionManager dimensionManager;
     private ScheduleManager scheduleManager;
+    private PassManager passManager;
     private DimensionGUI dimensionGUI;
+    private WorldBrowser worldBrowser;
+    private MetricsDashboard metricsDashboard;
     private NotificationManager notificationManager;
     private PermissionManager permissionManager;
     private MetricsManager metricsManager;
+    private MetricsExporter metricsExporter;
+    private LoadGovernor loadGovernor;
+    private CapacityTracker capacityTracker;
+    private SyncManager syncManager;
+    private PerformanceMonitor performanceMonitor;
+    private AuditLog auditLog;
+    private TaskScheduler taskScheduler;
+    // Replaced as a whole on reload, so readers always see one consistent snapshot
+    private volatile Settings settings;
+    // FileConfiguration isn't thread-safe, and edits come from several region threads
+    private final Object configLock = new Object();
+    
+    public DimensionOpeningPlugin() {
+        super();
+    }
+    
+    /**
+     * Create the plugin without a server's plugin loader, for the benchmarks and load simulator
+     */
+    @SuppressWarnings({"deprecation", "removal"})
+    protected DimensionOpeningPlugin(JavaPluginLoader loader, PluginDescriptionFile description, File dataFolder, File file) {
+        super(loader, description, dataFolder, file);
+    }
     
     @Override
     public void onEnable() {
+        // Write the default config before anything reads it, then parse it once
+        saveDefaultConfig();
+        settings = Settings.load(getConfig(), getLogger());
+        
+        // Pick Folia's region schedulers or the Bukkit scheduler before anything schedules tasks
+        taskScheduler = TaskScheduler.create(this);
+        
+        // Initialize hot-path timing before anything that reports to it
+        performanceMonitor = new PerformanceMonitor(this);
+        
+        // Start the audit log writer so schedules and listeners can record to it
+        auditLog = new AuditLog(this);
+        auditLog.start();
+        
         // Initialize the dimension manager
         this.dimensionManager = new DimensionManager(this);
         
@@ -31,45 +90,116 @@ public class DimensionOpeningPlugin extends JavaPlugin {
         // Initialize notification manager
         notificationManager = new NotificationManager(this);
         
+        // Load access passes before the permission manager starts checking them
+        passManager = new PassManager(this);
+        getServer().getPluginManager().registerEvents(passManager, this);
+        
         // Initialize permission manager
         permissionManager = new PermissionManager(this);
         
         // Initialize metrics manager
         metricsManager = new MetricsManager(this);
         
+        // Start the optional metrics endpoint
+        metricsExporter = new MetricsExporter(this, metricsManager, dimensionManager);
+        metricsExporter.start();
+        
+        // Close dimensions automatically under load, if enabled
+        loadGovernor = new LoadGovernor(this, dimensionManager);
+        getServer().getPluginManager().registerEvents(loadGovernor, this);
+        
+        // Count chunks and entities per world for capacity limits, if enabled
+        capacityTracker = new CapacityTracker(this);
+        getServer().getPluginManager().registerEvents(capacityTracker, this);
+        
         // Initialize GUI
         this.dimensionGUI = new DimensionGUI(this, dimensionManager, notificationManager, permissionManager);
         getServer().getPluginManager().registerEvents(dimensionGUI, this);
+        this.worldBrowser = new WorldBrowser(this, dimensionManager, permissionManager);
+        getServer().getPluginManager().registerEvents(worldBrowser, this);
+        this.metricsDashboard = new MetricsDashboard(this, dimensionManager, permissionManager);
+        getServer().getPluginManager().registerEvents(metricsDashboard, this);
         
         // Register commands
         getCommand("dimension").setExecutor(new DimensionCommand(this, dimensionManager, notificationManager, permissionManager));
-        getCommand("dimension").setTabCompleter(new DimensionTabCompleter());
+        DimensionTabCompleter tabCompleter = new DimensionTabCompleter(this);
+        getCommand("dimension").setTabCompleter(tabCompleter);
+        getServer().getPluginManager().registerEvents(tabCompleter, this);
         
         // Register event listeners
         getServer().getPluginManager().registerEvents(new DimensionListener(this, dimensionManager, notificationManager, permissionManager), this);
         
-        // Save default config
-        saveDefaultConfig();
+        // Offer dimension states to other plugins
+        DimensionApiService apiService = new DimensionApiService(this, dimensionManager);
+        getServer().getPluginManager().registerEvents(apiService, this);
+        getServer().getServicesManager().register(DimensionOpeningAPI.class, apiService, this, ServicePriority.Normal);
+        
+        // Share state changes with the other servers behind the proxy, if enabled
+        if (settings.isSyncEnabled()) {
+            syncManager = new SyncManager(this, dimensionManager);
+            if (!syncManager.start()) {
+                syncManager = null;
+            }
+        }
         
+        if (taskScheduler.isRegionThreaded()) {
+            getLogger().info("Running on Folia, tasks use the region schedulers");
+        }
         getLogger().info("DimensionOpening plugin has been enabled!");
     }
     
     @Override
     public void onDisable() {
+        getServer().getServicesManager().unregisterAll(this);
+        
+        // Send the last batch of changes before disconnecting
+        if (syncManager != null) {
+            syncManager.stop();
+        }
+        
         // Cancel all scheduled tasks
         if (scheduleManager != null) {
             scheduleManager.cancelAllSchedules();
         }
         
+        if (passManager != null) {
+            passManager.cancel();
+        }
+        
+        // Menus hold items built by this plugin instance
+        if (dimensionGUI != null) {
+            dimensionGUI.closeAll();
+        }
+        if (worldBrowser != null) {
+            worldBrowser.closeAll();
+        }
+        if (metricsDashboard != null) {
+            metricsDashboard.closeAll();
+        }
+        
         if (notificationManager != null) {
             notificationManager.cleanup();
         }
         
+        if (metricsExporter != null) {
+            metricsExporter.stop();
+        }
+        
         // Cleanup metrics manager
         if (metricsManager != null) {
             metricsManager.cleanup();
         }
         
+        // Anything still scheduled, e.g. pending boss bar removals
+        if (taskScheduler != null) {
+            taskScheduler.cancelAll();
+        }
+        
+        // Write out queued audit events last
+        if (auditLog != null) {
+            auditLog.stop();
+        }
+        
         getLogger().info("DimensionOpening plugin has been disabled!");
     }
     
@@ -81,11 +211,92 @@ public class DimensionOpeningPlugin extends JavaPlugin {
         return scheduleManager;
     }
     
+    public PassManager getPassManager() {
+        return passManager;
+    }
+    
+    public NotificationManager getNotificationManager() {
+        return notificationManager;
+    }
+    
+    public PermissionManager getPermissionManager() {
+        return permissionManager;
+    }
+    
     public DimensionGUI getDimensionGUI() {
         return dimensionGUI;
     }
     
+    public WorldBrowser getWorldBrowser() {
+        return worldBrowser;
+    }
+    
+    public MetricsDashboard getMetricsDashboard() {
+        return metricsDashboard;
+    }
+    
     public MetricsManager getMetricsManager() {
         return metricsManager;
     }
+    
+    public LoadGovernor getLoadGovernor() {
+        return loadGovernor;
+    }
+    
+    public CapacityTracker getCapacityTracker() {
+        return capacityTracker;
+    }
+    
+    /**
+     * Get the cross-server sync, or null if it is disabled
+     */
+    public SyncManager getSyncManager() {
+        return syncManager;
+    }
+    
+    public PerformanceMonitor getPerformanceMonitor() {
+        return performanceMonitor;
+    }
+    
+    public AuditLog getAuditLog() {
+        return auditLog;
+    }
+    
+    public TaskScheduler getTaskScheduler() {
+        return taskScheduler;
+    }
+    
+    /**
+     * Get the current settings snapshot. Hold on to it only for the duration of one operation.
+     */
+    public Settings getSettings() {
+        return settings;
+    }
+    
+    /**
+     * Change {@code config.yml} and write it out. Edits and saves are serialized, so a save
+     * never runs while another thread is halfway through its changes.
+     */
+    public void editConfig(Consumer<FileConfiguration> edit) {
+        synchronized (configLock) {
+            edit.accept(getConfig());
+            saveConfig();
+        }
+    }
+    
+    /**
+     * Re-read {@code config.yml}, publish new settings and recompile the access policy.
+     * The metrics endpoint, audit log, fine-grained permissions and player tracking limit
+     * keep their startup values until the next restart.
+     */
+    public void reloadSettings() {
+        synchronized (configLock) {
+            reloadConfig();
+            settings = Settings.load(getConfig(), getLogger());
+        }
+        performanceMonitor.setEnabled(settings.isTimingEnabled());
+        permissionManager.reloadPolicy();
+        loadGovernor.onSettingsReloaded();
+        capacityTracker.resync();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,44 @@
+package com.dimensionopening.api;
+
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.Plugin;
+import java.util.function.Consumer;
+
+/**
+ * Read access to dimension states for other plugins.
+ *
+ * Get it from Bukkit's services manager:
+ * <pre>
+ * DimensionOpeningAPI api = Bukkit.getServicesManager().load(DimensionOpeningAPI.class);
+ * </pre>
+ * State reads never block and may be made from any thread. To veto changes or
+ * denials, listen for {@link com.dimensionopening.api.event.DimensionStateChangeEvent}
+ * and {@link com.dimensionopening.api.event.DimensionAccessDeniedEvent}.
+ */
+public interface DimensionOpeningAPI {
+    
+    /**
+     * Get the current states. The same instance is returned until something changes.
+     */
+    DimensionSnapshot getSnapshot();
+    
+    boolean isDimensionOpen(World.Environment environment);
+    
+    /**
+     * Check if a world is open, using its own override if it has one and its dimension's state otherwise
+     */
+    boolean isWorldOpen(World world);
+    
+    /**
+     * Check if a player would be let into a world right now by the access policy,
+     * including passes, bypass nodes and capacity limits. Checks permissions, so call it on the player's thread.
+     */
+    boolean canEnter(Player player, World world);
+    
+    /**
+     * Call a listener with a fresh snapshot after every dimension or world state change,
+     * on the thread that made it. Subscriptions end when their plugin is disabled.
+     */
+    DimensionSubscription subscribe(Plugin plugin, Consumer<DimensionSnapshot> listener);
+}
\ No newline at end of file
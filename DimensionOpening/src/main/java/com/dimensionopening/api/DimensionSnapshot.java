@@ -0,0 +1,64 @@
+package com.dimensionopening.api;
+
+import org.bukkit.World;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Immutable dimension and world states at one point in time
+ */
+public final class DimensionSnapshot {
+    
+    private final long version;
+    private final Map<World.Environment, Boolean> dimensions;
+    // Lower-case world name -> override
+    private final Map<String, Boolean> worldOverrides;
+    
+    public DimensionSnapshot(long version, Map<World.Environment, Boolean> dimensions, Map<String, Boolean> worldOverrides) {
+        this.version = version;
+        this.dimensions = Collections.unmodifiableMap(new EnumMap<>(dimensions));
+        Map<String, Boolean> overrides = new HashMap<>();
+        for (Map.Entry<String, Boolean> entry : worldOverrides.entrySet()) {
+            overrides.put(entry.getKey().toLowerCase(), entry.getValue());
+        }
+        this.worldOverrides = Collections.unmodifiableMap(overrides);
+    }
+    
+    /**
+     * Get a counter that differs between snapshots taken before and after any state change
+     */
+    public long getVersion() {
+        return version;
+    }
+    
+    /**
+     * Check a dimension's state. Dimensions without a state are open.
+     */
+    public boolean isDimensionOpen(World.Environment environment) {
+        return dimensions.getOrDefault(environment, true);
+    }
+    
+    /**
+     * Check a world, using its override if it has one and its dimension's state otherwise
+     */
+    public boolean isWorldOpen(World world) {
+        Boolean override = worldOverrides.get(world.getName().toLowerCase());
+        return override != null ? override : isDimensionOpen(world.getEnvironment());
+    }
+    
+    /**
+     * Get the states of the overworld, Nether and End
+     */
+    public Map<World.Environment, Boolean> getDimensionStates() {
+        return dimensions;
+    }
+    
+    /**
+     * Get the worlds with their own state, by lower-case name
+     */
+    public Map<String, Boolean> getWorldOverrides() {
+        return worldOverrides;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,14 @@
+package com.dimensionopening.api;
+
+/**
+ * Handle for a listener added with {@link DimensionOpeningAPI#subscribe}
+ */
+public interface DimensionSubscription {
+    
+    /**
+     * Stop calling the listener. Does nothing if already unsubscribed.
+     */
+    void unsubscribe();
+    
+    boolean isActive();
+}
\ No newline at end of file
@@ -0,0 +1,83 @@
+package com.dimensionopening.api.event;
+
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.bukkit.event.Cancellable;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.player.PlayerEvent;
+import org.bukkit.event.player.PlayerTeleportEvent.TeleportCause;
+
+/**
+ * Called when a player is about to be kept out of a world. Cancelling it
+ * lets the teleport or portal use go ahead, with no notice or audit entry.
+ *
+ * Only fired while something listens for it.
+ */
+public class DimensionAccessDeniedEvent extends PlayerEvent implements Cancellable {
+    
+    /**
+     * Why entry is refused
+     */
+    public enum Reason {
+        /** The dimension or world is closed */
+        CLOSED,
+        /** An access policy rule denies it although the dimension is open */
+        POLICY,
+        /** Closed, and the player is queued to be told when it opens */
+        QUEUED,
+        /** The world is over its capacity budget */
+        CAPACITY
+    }
+    
+    private static final HandlerList HANDLERS = new HandlerList();
+    
+    private final World world;
+    private final TeleportCause cause;
+    private final Reason reason;
+    private boolean cancelled;
+    
+    public DimensionAccessDeniedEvent(Player player, World world, TeleportCause cause, Reason reason) {
+        super(player);
+        this.world = world;
+        this.cause = cause;
+        this.reason = reason;
+    }
+    
+    public World getWorld() {
+        return world;
+    }
+    
+    public TeleportCause getCause() {
+        return cause;
+    }
+    
+    public Reason getReason() {
+        return reason;
+    }
+    
+    @Override
+    public boolean isCancelled() {
+        return cancelled;
+    }
+    
+    @Override
+    public void setCancelled(boolean cancelled) {
+        this.cancelled = cancelled;
+    }
+    
+    @Override
+    public HandlerList getHandlers() {
+        return HANDLERS;
+    }
+    
+    public static HandlerList getHandlerList() {
+        return HANDLERS;
+    }
+    
+    /**
+     * Check whether any plugin listens for this event, so it is only built when needed
+     */
+    public static boolean hasListeners() {
+        return HANDLERS.getRegisteredListeners().length > 0;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,77 @@
+package com.dimensionopening.api.event;
+
+import org.bukkit.World;
+import org.bukkit.event.Cancellable;
+import org.bukkit.event.Event;
+import org.bukkit.event.HandlerList;
+
+/**
+ * Called before a dimension or a single world is opened or closed, by a
+ * command, a schedule, the load governor or anything else. Cancelling it
+ * keeps the current state.
+ *
+ * Only fired while something listens for it, on the thread making the
+ * change: the main thread on Paper, the global or a player's region on Folia.
+ */
+public class DimensionStateChangeEvent extends Event implements Cancellable {
+    
+    private static final HandlerList HANDLERS = new HandlerList();
+    
+    private final World.Environment environment;
+    private final World world;
+    private final boolean open;
+    private boolean cancelled;
+    
+    public DimensionStateChangeEvent(World.Environment environment, World world, boolean open) {
+        this.environment = environment;
+        this.world = world;
+        this.open = open;
+    }
+    
+    /**
+     * Get the dimension being changed, or the dimension of the world being changed
+     */
+    public World.Environment getEnvironment() {
+        return environment;
+    }
+    
+    /**
+     * Get the single world being changed, or null if the whole dimension is
+     */
+    public World getWorld() {
+        return world;
+    }
+    
+    /**
+     * Get whether it will be open after the change
+     */
+    public boolean isOpen() {
+        return open;
+    }
+    
+    @Override
+    public boolean isCancelled() {
+        return cancelled;
+    }
+    
+    @Override
+    public void setCancelled(boolean cancelled) {
+        this.cancelled = cancelled;
+    }
+    
+    @Override
+    public HandlerList getHandlers() {
+        return HANDLERS;
+    }
+    
+    public static HandlerList getHandlerList() {
+        return HANDLERS;
+    }
+    
+    /**
+     * Check whether any plugin listens for this event, so it is only built when needed
+     */
+    public static boolean hasListeners() {
+        return HANDLERS.getRegisteredListeners().length > 0;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,93 @@
+package com.dimensionopening.audit;
+
+import org.bukkit.World;
+
+import java.util.UUID;
+
+/**
+ * One entry in the audit log. Built on the calling thread and formatted
+ * later by the {@link AuditLog} writer thread.
+ */
+public class AuditEvent {
+    
+    /**
+     * Kinds of audited actions, written as their lower-case name
+     */
+    public enum Action {
+        DIMENSION_OPEN,
+        DIMENSION_CLOSE,
+        WORLD_FOLLOW,
+        ACCESS_DENIED,
+        ACCESS_QUEUED,
+        SCHEDULE_ADD,
+        SCHEDULE_REMOVE,
+        SCHEDULE_PAUSE,
+        SCHEDULE_RESUME,
+        PASS_GRANT,
+        PASS_REVOKE,
+        PASS_EXPIRE,
+        CONFIG_RELOAD
+    }
+    
+    /**
+     * Where an action was triggered from
+     */
+    public enum Source {
+        COMMAND, GUI, SCHEDULE, LISTENER, GOVERNOR, SYNC
+    }
+    
+    private final long timeMillis;
+    private final Action action;
+    private final Source source;
+    private final String actor;
+    private final UUID actorId;
+    private final World.Environment dimension;
+    private final String detail;
+    
+    public AuditEvent(Action action, Source source, String actor, UUID actorId, World.Environment dimension, String detail) {
+        this.timeMillis = System.currentTimeMillis();
+        this.action = action;
+        this.source = source;
+        this.actor = actor;
+        this.actorId = actorId;
+        this.dimension = dimension;
+        this.detail = detail;
+    }
+    
+    public long getTimeMillis() {
+        return timeMillis;
+    }
+    
+    public Action getAction() {
+        return action;
+    }
+    
+    public Source getSource() {
+        return source;
+    }
+    
+    public String getActor() {
+        return actor;
+    }
+    
+    /**
+     * The acting player's UUID, or null for the console and schedules
+     */
+    public UUID getActorId() {
+        return actorId;
+    }
+    
+    /**
+     * The affected dimension, or null if the action is not about one
+     */
+    public World.Environment getDimension() {
+        return dimension;
+    }
+    
+    /**
+     * Free-form extra information, or null
+     */
+    public String getDetail() {
+        return detail;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,341 @@
+package com.dimensionopening.audit;
+
+import com.dimensionopening.DimensionOpeningPlugin;
+import com.dimensionopening.config.Settings;
+import com.dimensionopening.metrics.MetricsManager;
+import org.bukkit.World;
+import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Player;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Append-only audit trail of dimension changes, schedule edits and access denials.
+ *
+ * Callers on any thread hand events to a bounded queue and never wait: when
+ * the queue is full the event is dropped and counted, and the writer notes
+ * how many were lost in the log. A single background thread drains the
+ * queue in batches and writes JSON lines to {@code audit/audit.log}, which
+ * is rotated when it passes the size limit or the day changes. Rotated
+ * files are gzip-compressed.
+ */
+public class AuditLog {
+    
+    private static final int BATCH_SIZE = 256;
+    private static final DateTimeFormatter ROTATED_DATE = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+    
+    private final Logger logger;
+    private final File directory;
+    private final File currentFile;
+    private final boolean enabled;
+    private final long maxFileBytes;
+    private final boolean compress;
+    private final BlockingQueue<AuditEvent> queue;
+    private final LongAdder dropped;
+    private final ZoneId zone;
+    
+    private Thread writerThread;
+    private volatile boolean running;
+    
+    // Writer thread state
+    private Writer writer;
+    private long currentSize;
+    private LocalDate currentDay;
+    private long reportedDropped;
+    private boolean rotateFailureLogged;
+    private final StringBuilder line = new StringBuilder(256);
+    
+    public AuditLog(DimensionOpeningPlugin plugin) {
+        this.logger = plugin.getLogger();
+        this.directory = new File(plugin.getDataFolder(), "audit");
+        this.currentFile = new File(directory, "audit.log");
+        this.dropped = new LongAdder();
+        this.zone = ZoneId.systemDefault();
+        
+        Settings settings = plugin.getSettings();
+        this.enabled = settings.isAuditEnabled();
+        this.maxFileBytes = settings.getAuditMaxFileBytes();
+        this.compress = settings.isAuditCompress();
+        this.queue = new ArrayBlockingQueue<>(settings.getAuditQueueSize());
+    }
+    
+    /**
+     * Start the writer thread if auditing is enabled
+     */
+    public void start() {
+        if (!enabled || running) {
+            return;
+        }
+        if (!directory.exists()) {
+            directory.mkdirs();
+        }
+        running = true;
+        writerThread = new Thread(this::writeLoop, "DimensionOpening-Audit");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+    
+    /**
+     * Stop the writer thread after it has written everything still queued
+     */
+    public void stop() {
+        if (writerThread == null) {
+            return;
+        }
+        running = false;
+        writerThread.interrupt();
+        try {
+            writerThread.join(5000L);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        writerThread = null;
+    }
+    
+    /**
+     * Queue an event without blocking. Dropped and counted if the queue is full
+     * or the writer has stopped.
+     */
+    public void record(AuditEvent event) {
+        if (!running) {
+            if (enabled) {
+                dropped.increment();
+            }
+            return;
+        }
+        if (!queue.offer(event)) {
+            dropped.increment();
+        }
+    }
+    
+    /**
+     * Record an action taken by a player or the console
+     */
+    public void record(AuditEvent.Action action, AuditEvent.Source source, CommandSender actor, World.Environment dimension, String detail) {
+        if (!running) {
+            if (enabled) {
+                dropped.increment();
+            }
+            return;
+        }
+        UUID actorId = actor instanceof Player ? ((Player) actor).getUniqueId() : null;
+        record(new AuditEvent(action, source, actor.getName(), actorId, dimension, detail));
+    }
+    
+    /**
+     * Get the number of events dropped because the queue was full or the writer had stopped
+     */
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+    
+    public boolean isEnabled() {
+        return enabled;
+    }
+    
+    private void writeLoop() {
+        List<AuditEvent> batch = new ArrayList<>(BATCH_SIZE);
+        try {
+            openCurrentFile();
+            while (running) {
+                try {
+                    batch.add(queue.take());
+                } catch (InterruptedException e) {
+                    break;
+                }
+                queue.drainTo(batch, BATCH_SIZE - 1);
+                writeBatch(batch);
+            }
+            
+            // Write whatever was queued before the plugin stopped
+            while (queue.drainTo(batch, BATCH_SIZE) > 0) {
+                writeBatch(batch);
+            }
+        } catch (IOException e) {
+            logger.warning("Audit log writer stopped: " + e.getMessage());
+        } finally {
+            running = false;
+            // Anything queued after the last drain, or left behind by a failed write, is lost
+            dropped.add(queue.size());
+            queue.clear();
+            closeWriter();
+        }
+    }
+    
+    private void writeBatch(List<AuditEvent> batch) throws IOException {
+        for (AuditEvent event : batch) {
+            rotateIfNeeded(event.getTimeMillis());
+            formatEvent(event);
+            writeLine();
+        }
+        batch.clear();
+        
+        long totalDropped = dropped.sum();
+        if (totalDropped > reportedDropped) {
+            formatDropped(totalDropped - reportedDropped);
+            writeLine();
+            reportedDropped = totalDropped;
+        }
+        writer.flush();
+    }
+    
+    private void writeLine() throws IOException {
+        line.append('\n');
+        writer.append(line);
+        // Events are almost entirely ASCII, so the character count is a close enough size estimate
+        currentSize += line.length();
+    }
+    
+    private void formatEvent(AuditEvent event) {
+        line.setLength(0);
+        line.append("{\"time\":\"").append(Instant.ofEpochMilli(event.getTimeMillis())).append('"');
+        line.append(",\"action\":\"").append(event.getAction().name().toLowerCase()).append('"');
+        line.append(",\"source\":\"").append(event.getSource().name().toLowerCase()).append('"');
+        appendField("actor", event.getActor());
+        if (event.getActorId() != null) {
+            line.append(",\"actor_uuid\":\"").append(event.getActorId()).append('"');
+        }
+        if (event.getDimension() != null) {
+            line.append(",\"dimension\":\"").append(MetricsManager.getDimensionKey(event.getDimension())).append('"');
+        }
+        appendField("detail", event.getDetail());
+        line.append('}');
+    }
+    
+    private void formatDropped(long count) {
+        line.setLength(0);
+        line.append("{\"time\":\"").append(Instant.ofEpochMilli(System.currentTimeMillis())).append('"');
+        line.append(",\"action\":\"audit_dropped\",\"count\":").append(count).append('}');
+    }
+    
+    private void appendField(String name, String value) {
+        if (value == null) {
+            return;
+        }
+        line.append(",\"").append(name).append("\":\"");
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    line.append("\\\"");
+                    break;
+                case '\\':
+                    line.append("\\\\");
+                    break;
+                case '\n':
+                    line.append("\\n");
+                    break;
+                case '\r':
+                    line.append("\\r");
+                    break;
+                case '\t':
+                    line.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        line.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        line.append(c);
+                    }
+            }
+        }
+        line.append('"');
+    }
+    
+    private void openCurrentFile() throws IOException {
+        if (currentFile.exists() && currentFile.length() > 0) {
+            LocalDate lastWritten = Instant.ofEpochMilli(currentFile.lastModified()).atZone(zone).toLocalDate();
+            if (!lastWritten.equals(LocalDate.now(zone)) || currentFile.length() >= maxFileBytes) {
+                rotate(lastWritten);
+            }
+        }
+        currentDay = LocalDate.now(zone);
+        currentSize = currentFile.length();
+        writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(currentFile, true), StandardCharsets.UTF_8));
+    }
+    
+    private void rotateIfNeeded(long timeMillis) throws IOException {
+        LocalDate day = Instant.ofEpochMilli(timeMillis).atZone(zone).toLocalDate();
+        if (currentSize < maxFileBytes && !day.isAfter(currentDay)) {
+            return;
+        }
+        closeWriter();
+        boolean rotated = rotate(currentDay);
+        currentDay = day.isAfter(currentDay) ? day : currentDay;
+        // After a failed rotation keep appending and try again after another file's worth or the next day
+        currentSize = rotated ? 0 : Math.max(0, currentSize - maxFileBytes);
+        writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(currentFile, true), StandardCharsets.UTF_8));
+    }
+    
+    /**
+     * Move the current file aside under the given day's name and compress it
+     *
+     * @return false if the file could not be moved, in which case it stays the current file
+     */
+    private boolean rotate(LocalDate day) {
+        String baseName = "audit-" + day.format(ROTATED_DATE);
+        File rotated = new File(directory, baseName + ".log");
+        for (int index = 1; rotated.exists() || new File(directory, rotated.getName() + ".gz").exists(); index++) {
+            rotated = new File(directory, baseName + "." + index + ".log");
+        }
+        if (!currentFile.renameTo(rotated)) {
+            // Logged once, as a file that can't be moved usually stays that way
+            if (!rotateFailureLogged) {
+                logger.warning("Could not rotate " + currentFile.getName() + " to " + rotated.getName() + ", appending to it instead");
+                rotateFailureLogged = true;
+            }
+            return false;
+        }
+        rotateFailureLogged = false;
+        if (compress) {
+            compress(rotated);
+        }
+        return true;
+    }
+    
+    private void compress(File file) {
+        File compressed = new File(directory, file.getName() + ".gz");
+        try (InputStream in = new FileInputStream(file);
+             OutputStream out = new GZIPOutputStream(new FileOutputStream(compressed))) {
+            in.transferTo(out);
+        } catch (IOException e) {
+            logger.warning("Failed to compress " + file.getName() + ": " + e.getMessage());
+            compressed.delete();
+            return;
+        }
+        file.delete();
+    }
+    
+    private void closeWriter() {
+        if (writer == null) {
+            return;
+        }
+        try {
+            writer.close();
+        } catch (IOException e) {
+            logger.warning("Failed to close audit log: " + e.getMessage());
+        }
+        writer = null;
+    }
+}
\ No newline at end of file
@@ -1,16 +1,33 @@
 package com.dimensionopening.commands;
 
+import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
+import org.bukkit.OfflinePlayer;
 import org.bukkit.World;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandExecutor;
 import org.bukkit.command.CommandSender;
 import org.bukkit.entity.Player;
 import com.dimensionopening.DimensionOpeningPlugin;
+import com.dimensionopening.audit.AuditEvent;
+import com.dimensionopening.managers.CapacityTracker;
 import com.dimensionopening.managers.DimensionManager;
+import com.dimensionopening.managers.LoadGovernor;
+import com.dimensionopening.managers.PassManager;
+import com.dimensionopening.managers.Schedule;
+import com.dimensionopening.managers.ScheduleManager;
+import com.dimensionopening.managers.ScheduleTimeline;
+import com.dimensionopening.metrics.LatencyHistogram;
+import com.dimensionopening.metrics.MetricsManager;
+import com.dimensionopening.metrics.PerformanceMonitor;
+import com.dimensionopening.metrics.PlayerStat;
 import com.dimensionopening.notifications.NotificationManager;
 import com.dimensionopening.permissions.PermissionManager;
+import com.dimensionopening.sync.SyncManager;
+import java.io.File;
+import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 
 public class DimensionCommand implements CommandExecutor {
     
@@ -18,12 +35,14 @@ public class DimensionCommand implements CommandExecutor {
     private final DimensionManager dimensionManager;
     private final NotificationManager notificationManager;
     private final PermissionManager permissionManager;
+    private final StatusJson statusJson;
     
     public DimensionCommand(DimensionOpeningPlugin plugin, DimensionManager dimensionManager, NotificationManager notificationManager, PermissionManager permissionManager) {
         this.plugin = plugin;
         this.dimensionManager = dimensionManager;
         this.notificationManager = notificationManager;
         this.permissionManager = permissionManager;
+        this.statusJson = new StatusJson(plugin);
     }
     
     @Override
@@ -44,17 +63,21 @@ public class DimensionCommand implements CommandExecutor {
         }
         
         // Handle status command
-        if (args.length == 1 && args[0].equalsIgnoreCase("status")) {
+        if (args[0].equalsIgnoreCase("status")) {
             if (sender instanceof Player && !permissionManager.canUseCommand((Player) sender, "status")) {
                 sender.sendMessage(ChatColor.RED + "You don't have permission to check dimension status!");
                 return true;
             }
-            sendStatusMessage(sender);
+            if (args.length > 1 && args[1].equalsIgnoreCase("--json")) {
+                sender.sendMessage(statusJson.getStatus());
+            } else {
+                sendStatusMessage(sender);
+            }
             return true;
         }
         
         // Handle GUI command
-        if (args.length == 1 && args[0].equalsIgnoreCase("gui")) {
+        if (args[0].equalsIgnoreCase("gui")) {
             if (sender instanceof Player && !permissionManager.canUseCommand((Player) sender, "gui")) {
                 sender.sendMessage(ChatColor.RED + "You don't have permission to use the dimension GUI!");
                 return true;
@@ -63,7 +86,92 @@ public class DimensionCommand implements CommandExecutor {
                 sender.sendMessage(ChatColor.RED + "Only players can use the GUI!");
                 return true;
             }
-            plugin.getDimensionGUI().openDimensionGUI((Player) sender);
+            if (args.length > 1 && args[1].equalsIgnoreCase("worlds")) {
+                plugin.getWorldBrowser().open((Player) sender, args.length > 2 ? args[2] : null);
+            } else if (args.length > 1 && args[1].equalsIgnoreCase("stats")) {
+                plugin.getMetricsDashboard().open((Player) sender);
+            } else {
+                plugin.getDimensionGUI().openDimensionGUI((Player) sender);
+            }
+            return true;
+        }
+        
+        // Handle stats command
+        if (args[0].equalsIgnoreCase("stats")) {
+            if (sender instanceof Player && !permissionManager.canUseCommand((Player) sender, "stats")) {
+                sender.sendMessage(ChatColor.RED + "You don't have permission to view dimension statistics!");
+                return true;
+            }
+            if (args.length > 1 && args[1].equalsIgnoreCase("--json")) {
+                sender.sendMessage(statusJson.getStats());
+                return true;
+            }
+            if (args.length > 1 && args[1].equalsIgnoreCase("top")) {
+                sendTopPlayersMessage(sender);
+                return true;
+            }
+            if (args.length > 1 && args[1].equalsIgnoreCase("export")) {
+                File report = plugin.getMetricsManager().saveMetrics();
+                if (report != null) {
+                    sender.sendMessage(ChatColor.GREEN + "Metrics report written to " + report.getPath());
+                } else {
+                    sender.sendMessage(ChatColor.RED + "Failed to write the metrics report, see the console for details.");
+                }
+                return true;
+            }
+            int minutes = parseWindowMinutes(args.length > 1 ? args[1] : "1h");
+            if (minutes <= 0) {
+                sender.sendMessage(ChatColor.RED + "Usage: /dimension stats [1m|1h|24h|top|export]");
+                return true;
+            }
+            sendStatsMessage(sender, minutes, args.length > 1 ? args[1].toLowerCase() : "1h");
+            return true;
+        }
+        
+        // Handle perf command
+        if (args[0].equalsIgnoreCase("perf")) {
+            // Viewing timings is part of stats, switching them on or off is not
+            boolean changesTiming = args.length > 1 && !args[1].equalsIgnoreCase("show");
+            if (sender instanceof Player && !permissionManager.canUseCommand((Player) sender, changesTiming ? "perf" : "stats")) {
+                sender.sendMessage(ChatColor.RED + (changesTiming ? "You don't have permission to change hot-path timing!"
+                                                                  : "You don't have permission to view dimension statistics!"));
+                return true;
+            }
+            handlePerfCommand(sender, args);
+            return true;
+        }
+        
+        // Handle pass command
+        if (args[0].equalsIgnoreCase("pass")) {
+            if (sender instanceof Player && !permissionManager.canUseCommand((Player) sender, "pass")) {
+                sender.sendMessage(ChatColor.RED + "You don't have permission to manage access passes!");
+                return true;
+            }
+            handlePassCommand(sender, args);
+            return true;
+        }
+        
+        // Handle schedule command
+        if (args[0].equalsIgnoreCase("schedule")) {
+            if (sender instanceof Player && !permissionManager.canUseCommand((Player) sender, "schedule")) {
+                sender.sendMessage(ChatColor.RED + "You don't have permission to manage schedules!");
+                return true;
+            }
+            handleScheduleCommand(sender, args);
+            return true;
+        }
+        
+        // Handle reload command
+        if (args[0].equalsIgnoreCase("reload")) {
+            if (sender instanceof Player && !permissionManager.canUseCommand((Player) sender, "reload")) {
+                sender.sendMessage(ChatColor.RED + "You don't have permission to reload the configuration!");
+                return true;
+            }
+            plugin.reloadSettings();
+            plugin.getAuditLog().record(AuditEvent.Action.CONFIG_RELOAD, AuditEvent.Source.COMMAND, sender, null,
+                    permissionManager.getPolicyRuleCount() + " policy rules");
+            sender.sendMessage(ChatColor.GREEN + "Configuration reloaded. Access policy: " + ChatColor.WHITE + permissionManager.getPolicyRuleCount() + ChatColor.GREEN + " rules.");
+            sender.sendMessage(ChatColor.GRAY + "Metrics endpoint, audit log, fine-grained permissions and player tracking changes apply after a restart.");
             return true;
         }
         
@@ -114,10 +222,13 @@ public class DimensionCommand implements CommandExecutor {
             
             success = dimensionManager.openDimension(environment);
             if (success) {
+                plugin.getAuditLog().record(AuditEvent.Action.DIMENSION_OPEN, AuditEvent.Source.COMMAND, sender, environment, null);
                 sender.sendMessage(ChatColor.GREEN + displayName + " dimension has been opened!");
                 notificationManager.broadcastDimensionStateChange(environment, true);
-            } else {
+            } else if (dimensionManager.isDimensionOpen(environment)) {
                 sender.sendMessage(ChatColor.YELLOW + displayName + " dimension is already open!");
+            } else {
+                sender.sendMessage(ChatColor.RED + "Opening the " + displayName + " dimension was cancelled by another plugin.");
             }
         } else {
             if (sender instanceof Player && !permissionManager.canUseCommand((Player) sender, "close")) {
@@ -127,10 +238,13 @@ public class DimensionCommand implements CommandExecutor {
             
             success = dimensionManager.closeDimension(environment);
             if (success) {
+                plugin.getAuditLog().record(AuditEvent.Action.DIMENSION_CLOSE, AuditEvent.Source.COMMAND, sender, environment, null);
                 sender.sendMessage(ChatColor.GREEN + displayName + " dimension has been closed!");
                 notificationManager.broadcastDimensionStateChange(environment, false);
-            } else {
+            } else if (!dimensionManager.isDimensionOpen(environment)) {
                 sender.sendMessage(ChatColor.YELLOW + displayName + " dimension is already closed!");
+            } else {
+                sender.sendMessage(ChatColor.RED + "Closing the " + displayName + " dimension was cancelled by another plugin.");
             }
         }
         
@@ -139,13 +253,447 @@ public class DimensionCommand implements CommandExecutor {
     
     private void sendHelpMessage(CommandSender sender) {
         sender.sendMessage(ChatColor.GOLD + "=== DimensionOpening Commands ===");
-        sender.sendMessage(ChatColor.YELLOW + "/dimension status" + ChatColor.WHITE + " - Show dimension states");
+        sender.sendMessage(ChatColor.YELLOW + "/dimension status [--json]" + ChatColor.WHITE + " - Show dimension states");
         sender.sendMessage(ChatColor.YELLOW + "/dimension gui" + ChatColor.WHITE + " - Open dimension GUI (players only)");
+        sender.sendMessage(ChatColor.YELLOW + "/dimension gui worlds [filter]" + ChatColor.WHITE + " - Browse and toggle individual worlds");
+        sender.sendMessage(ChatColor.YELLOW + "/dimension gui stats" + ChatColor.WHITE + " - Open the live stats dashboard");
         sender.sendMessage(ChatColor.YELLOW + "/dimension open <dimension>" + ChatColor.WHITE + " - Open a dimension");
         sender.sendMessage(ChatColor.YELLOW + "/dimension close <dimension>" + ChatColor.WHITE + " - Close a dimension");
+        sender.sendMessage(ChatColor.YELLOW + "/dimension schedule <list|add|remove|pause|next>" + ChatColor.WHITE + " - Manage schedules");
+        sender.sendMessage(ChatColor.YELLOW + "/dimension pass <player> <dimension> <duration>" + ChatColor.WHITE + " - Grant a temporary access pass");
+        sender.sendMessage(ChatColor.YELLOW + "/dimension pass <list|revoke>" + ChatColor.WHITE + " - List or revoke access passes");
+        sender.sendMessage(ChatColor.YELLOW + "/dimension stats [1m|1h|24h|top|export|--json]" + ChatColor.WHITE + " - Show recent dimension activity");
+        sender.sendMessage(ChatColor.YELLOW + "/dimension perf [on|off|reset]" + ChatColor.WHITE + " - Show hot-path timings");
+        sender.sendMessage(ChatColor.YELLOW + "/dimension reload" + ChatColor.WHITE + " - Reload settings and the access policy from config.yml");
         sender.sendMessage(ChatColor.GRAY + "Dimensions: world, nether, end");
     }
     
+    private void sendStatsMessage(CommandSender sender, int minutes, String windowLabel) {
+        MetricsManager metricsManager = plugin.getMetricsManager();
+        sender.sendMessage(ChatColor.GOLD + "=== Dimension Stats (last " + windowLabel + ") ===");
+        
+        for (World.Environment environment : dimensionManager.getAllDimensionStates().keySet()) {
+            long opens = metricsManager.getWindowCount(MetricsManager.Series.OPENS, environment, minutes);
+            long closes = metricsManager.getWindowCount(MetricsManager.Series.CLOSES, environment, minutes);
+            long attempts = metricsManager.getWindowCount(MetricsManager.Series.ATTEMPTS, environment, minutes);
+            long denials = metricsManager.getWindowCount(MetricsManager.Series.DENIALS, environment, minutes);
+            long previousDenials = metricsManager.getPreviousWindowCount(MetricsManager.Series.DENIALS, environment, minutes);
+            
+            sender.sendMessage(ChatColor.YELLOW + getDimensionDisplayName(environment) + ":");
+            sender.sendMessage(ChatColor.GRAY + "  Denials: " + ChatColor.WHITE + denials +
+                             ChatColor.GRAY + " (" + String.format("%.2f", denials / (double) minutes) + "/min) " +
+                             formatTrend(denials, previousDenials));
+            sender.sendMessage(ChatColor.GRAY + "  Attempts: " + ChatColor.WHITE + attempts +
+                             ChatColor.GRAY + ", opened " + ChatColor.WHITE + opens +
+                             ChatColor.GRAY + ", closed " + ChatColor.WHITE + closes);
+        }
+    }
+    
+    private void sendTopPlayersMessage(CommandSender sender) {
+        MetricsManager metricsManager = plugin.getMetricsManager();
+        List<PlayerStat> players = metricsManager.getTopPlayers(10, true);
+        sender.sendMessage(ChatColor.GOLD + "=== Top Repeat Offenders ===");
+        if (players.isEmpty()) {
+            sender.sendMessage(ChatColor.GRAY + "No denied access attempts recorded.");
+            return;
+        }
+        
+        int rank = 1;
+        for (PlayerStat player : players) {
+            String line = ChatColor.GRAY + "" + rank++ + ". " + ChatColor.YELLOW + player.getName() +
+                         ChatColor.GRAY + " - " + ChatColor.RED + player.getDenied() + ChatColor.GRAY + " denied";
+            if (player.getError() > 0) {
+                line += ChatColor.DARK_GRAY + " (±" + player.getError() + ")";
+            }
+            sender.sendMessage(line);
+        }
+        sender.sendMessage(ChatColor.GRAY + "Tracking " + metricsManager.getTrackedPlayerCount() + " players");
+    }
+    
+    private String formatTrend(long current, long previous) {
+        if (current == previous) {
+            return ChatColor.GRAY + "= steady";
+        }
+        if (previous == 0) {
+            return ChatColor.RED + "▲ new";
+        }
+        long percent = Math.round((current - previous) * 100.0 / previous);
+        return current > previous
+                ? ChatColor.RED + "▲ +" + percent + "%"
+                : ChatColor.GREEN + "▼ " + percent + "%";
+    }
+    
+    /**
+     * Parse a stats window such as 1m, 1h or 24h into minutes
+     *
+     * @return the window in minutes, or -1 if the input is invalid
+     */
+    private int parseWindowMinutes(String input) {
+        long ticks = parseTicks(input);
+        if (ticks < 20L * 60) {
+            return -1;
+        }
+        long minutes = ticks / (20L * 60);
+        return (int) Math.min(minutes, MetricsManager.HISTORY_MINUTES / 2);
+    }
+    
+    private void handlePerfCommand(CommandSender sender, String[] args) {
+        PerformanceMonitor performanceMonitor = plugin.getPerformanceMonitor();
+        String subcommand = args.length > 1 ? args[1].toLowerCase() : "show";
+        
+        switch (subcommand) {
+            case "on":
+                performanceMonitor.setEnabled(true);
+                sender.sendMessage(ChatColor.GREEN + "Hot-path timing enabled.");
+                return;
+            case "off":
+                performanceMonitor.setEnabled(false);
+                sender.sendMessage(ChatColor.YELLOW + "Hot-path timing disabled.");
+                return;
+            case "reset":
+                performanceMonitor.reset();
+                sender.sendMessage(ChatColor.GREEN + "Hot-path timings have been reset.");
+                return;
+            case "show":
+                break;
+            default:
+                sender.sendMessage(ChatColor.RED + "Usage: /dimension perf [on|off|reset]");
+                return;
+        }
+        
+        sender.sendMessage(ChatColor.GOLD + "=== Hot-Path Timings ===");
+        if (!performanceMonitor.isEnabled()) {
+            sender.sendMessage(ChatColor.GRAY + "Timing is disabled. Use " + ChatColor.YELLOW + "/dimension perf on" +
+                             ChatColor.GRAY + " to start sampling.");
+        }
+        
+        for (PerformanceMonitor.Probe probe : PerformanceMonitor.Probe.values()) {
+            LatencyHistogram histogram = performanceMonitor.getHistogram(probe);
+            double share = performanceMonitor.getShareOfTick(probe);
+            
+            sender.sendMessage(ChatColor.YELLOW + probe.getDisplayName() + ": " + ChatColor.WHITE + histogram.getCount() +
+                             ChatColor.GRAY + " calls");
+            if (histogram.getCount() > 0) {
+                sender.sendMessage(ChatColor.GRAY + "  p50 " + ChatColor.WHITE + formatNanos(histogram.getQuantile(0.5)) +
+                                 ChatColor.GRAY + ", p99 " + ChatColor.WHITE + formatNanos(histogram.getQuantile(0.99)) +
+                                 ChatColor.GRAY + ", max " + ChatColor.WHITE + formatNanos(histogram.getMaxNanos()) +
+                                 ChatColor.GRAY + ", " + String.format("%.3f", share * 100) + "% of MSPT");
+            }
+        }
+        // Notification time is already part of the listener that dispatched it
+        sender.sendMessage(ChatColor.GRAY + "Total: " + ChatColor.WHITE + String.format("%.3f", performanceMonitor.getTotalShareOfTick() * 100) +
+                         ChatColor.GRAY + "% of the average tick (" + String.format("%.2f", Bukkit.getAverageTickTime()) + " ms)");
+    }
+    
+    private String formatNanos(long nanos) {
+        if (nanos < 1_000L) {
+            return nanos + "ns";
+        }
+        if (nanos < 1_000_000L) {
+            return String.format("%.1fµs", nanos / 1_000.0);
+        }
+        return String.format("%.2fms", nanos / 1_000_000.0);
+    }
+    
+    private void handlePassCommand(CommandSender sender, String[] args) {
+        PassManager passManager = plugin.getPassManager();
+        String subAction = args.length > 1 ? args[1].toLowerCase() : "list";
+        
+        if (subAction.equals("list")) {
+            Map<UUID, long[]> passes = passManager.getPasses();
+            sender.sendMessage(ChatColor.GOLD + "=== Access Passes ===");
+            if (passes.isEmpty()) {
+                sender.sendMessage(ChatColor.GRAY + "No access passes are active.");
+                return;
+            }
+            
+            long now = System.currentTimeMillis();
+            for (Map.Entry<UUID, long[]> entry : passes.entrySet()) {
+                String name = passManager.getHolderName(entry.getKey());
+                for (World.Environment environment : World.Environment.values()) {
+                    long expiresAt = entry.getValue()[environment.ordinal()];
+                    if (expiresAt > now) {
+                        sender.sendMessage(ChatColor.YELLOW + (name != null ? name : entry.getKey().toString()) + ChatColor.GRAY + ": " +
+                                         ChatColor.WHITE + getDimensionDisplayName(environment) +
+                                         ChatColor.GRAY + ", expires in " + ChatColor.AQUA + formatTicks((expiresAt - now) / 50));
+                    }
+                }
+            }
+            return;
+        }
+        
+        if (subAction.equals("revoke")) {
+            if (args.length < 4) {
+                sender.sendMessage(ChatColor.RED + "Usage: /dimension pass revoke <player> <dimension>");
+                return;
+            }
+            OfflinePlayer target = findPlayer(args[2]);
+            World.Environment environment = parseDimension(args[3]);
+            if (target == null || environment == null) {
+                sender.sendMessage(ChatColor.RED + (target == null ? "Unknown player '" + args[2] + "'!" : "Invalid dimension! Use: world, nether, or end"));
+                return;
+            }
+            if (passManager.revokePass(target.getUniqueId(), environment)) {
+                plugin.getAuditLog().record(AuditEvent.Action.PASS_REVOKE, AuditEvent.Source.COMMAND, sender, environment, args[2]);
+                sender.sendMessage(ChatColor.GREEN + "Revoked " + args[2] + "'s " + getDimensionDisplayName(environment) + " pass.");
+            } else {
+                sender.sendMessage(ChatColor.YELLOW + args[2] + " has no " + getDimensionDisplayName(environment) + " pass.");
+            }
+            return;
+        }
+        
+        if (args.length < 4) {
+            sender.sendMessage(ChatColor.RED + "Usage: /dimension pass <player> <dimension> <duration>");
+            return;
+        }
+        OfflinePlayer target = findPlayer(args[1]);
+        if (target == null) {
+            sender.sendMessage(ChatColor.RED + "Unknown player '" + args[1] + "'!");
+            return;
+        }
+        World.Environment environment = parseDimension(args[2]);
+        if (environment == null) {
+            sender.sendMessage(ChatColor.RED + "Invalid dimension! Use: world, nether, or end");
+            return;
+        }
+        long ticks = parseTicks(args[3]);
+        if (ticks <= 0) {
+            sender.sendMessage(ChatColor.RED + "Duration must be positive, in ticks or with s/m/h/d");
+            return;
+        }
+        
+        String name = target.getName() != null ? target.getName() : args[1];
+        passManager.grantPass(target.getUniqueId(), name, environment, ticks * 50);
+        plugin.getAuditLog().record(AuditEvent.Action.PASS_GRANT, AuditEvent.Source.COMMAND, sender, environment,
+                name + " for " + formatTicks(ticks));
+        sender.sendMessage(ChatColor.GREEN + "Granted " + name + " access to the " + getDimensionDisplayName(environment) +
+                         " for " + formatTicks(ticks) + ".");
+        
+        Player online = target.getPlayer();
+        if (online != null) {
+            online.sendMessage(ChatColor.GREEN + "You have been given access to the " + getDimensionDisplayName(environment) +
+                             " dimension for " + formatTicks(ticks) + ".");
+        }
+    }
+    
+    /**
+     * Find an online player by name, or an offline player the server has seen before
+     */
+    private OfflinePlayer findPlayer(String name) {
+        Player online = Bukkit.getPlayerExact(name);
+        return online != null ? online : Bukkit.getOfflinePlayerIfCached(name);
+    }
+    
+    private void handleScheduleCommand(CommandSender sender, String[] args) {
+        ScheduleManager scheduleManager = plugin.getScheduleManager();
+        String subAction = args.length > 1 ? args[1].toLowerCase() : "list";
+        
+        switch (subAction) {
+            case "list": {
+                List<Schedule> schedules = scheduleManager.getSchedules();
+                sender.sendMessage(ChatColor.GOLD + "=== Dimension Schedules ===");
+                if (schedules.isEmpty()) {
+                    sender.sendMessage(ChatColor.GRAY + "No schedules are loaded.");
+                    return;
+                }
+                long now = Bukkit.getCurrentTick();
+                for (Schedule schedule : schedules) {
+                    ChatColor actionColor = schedule.opens() ? ChatColor.GREEN : ChatColor.RED;
+                    String next = schedule.isPaused()
+                            ? ChatColor.GRAY + "paused"
+                            : ChatColor.GRAY + "next in " + ChatColor.AQUA + formatTicks(schedule.getNextFireTick(now) - now);
+                    sender.sendMessage(ChatColor.YELLOW + schedule.getName() + ChatColor.GRAY + ": " +
+                                     actionColor + schedule.getAction() + " " + getDimensionDisplayName(schedule.getEnvironment()) +
+                                     ChatColor.GRAY + " every " + formatTicks(schedule.getIntervalTicks()) + ", " + next);
+                }
+                return;
+            }
+            case "add": {
+                if (args.length < 6) {
+                    sender.sendMessage(ChatColor.RED + "Usage: /dimension schedule add <name> <dimension> <open|close> <delay> [interval]");
+                    return;
+                }
+                if (!ScheduleManager.isValidName(args[2])) {
+                    sender.sendMessage(ChatColor.RED + "Invalid schedule name! Use only letters, digits, '_' and '-'");
+                    return;
+                }
+                World.Environment environment = parseDimension(args[3]);
+                if (environment == null) {
+                    sender.sendMessage(ChatColor.RED + "Invalid dimension! Use 'world', 'nether', or 'end'");
+                    return;
+                }
+                String scheduleAction = args[4].toLowerCase();
+                if (!scheduleAction.equals("open") && !scheduleAction.equals("close")) {
+                    sender.sendMessage(ChatColor.RED + "Invalid action! Use 'open' or 'close'");
+                    return;
+                }
+                long delay = parseTicks(args[5]);
+                long interval = args.length > 6 ? parseTicks(args[6]) : 24000L;
+                if (delay < 0 || interval <= 0) {
+                    sender.sendMessage(ChatColor.RED + "Invalid time! Use ticks or a duration like 30s, 10m, 2h, 1d");
+                    return;
+                }
+                if (scheduleManager.addSchedule(args[2], environment, scheduleAction.equals("open"), delay, interval)) {
+                    plugin.getAuditLog().record(AuditEvent.Action.SCHEDULE_ADD, AuditEvent.Source.COMMAND, sender, environment,
+                            args[2] + ": " + scheduleAction + " after " + delay + " ticks, every " + interval + " ticks");
+                    sender.sendMessage(ChatColor.GREEN + "Schedule '" + args[2] + "' added.");
+                    warnAboutConflicts(sender, scheduleManager, args[2]);
+                } else {
+                    sender.sendMessage(ChatColor.YELLOW + "A schedule named '" + args[2] + "' already exists!");
+                }
+                return;
+            }
+            case "remove": {
+                if (args.length < 3) {
+                    sender.sendMessage(ChatColor.RED + "Usage: /dimension schedule remove <name>");
+                    return;
+                }
+                if (scheduleManager.removeSchedule(args[2])) {
+                    plugin.getAuditLog().record(AuditEvent.Action.SCHEDULE_REMOVE, AuditEvent.Source.COMMAND, sender, null, args[2]);
+                    sender.sendMessage(ChatColor.GREEN + "Schedule '" + args[2] + "' removed.");
+                } else {
+                    sender.sendMessage(ChatColor.RED + "Unknown schedule '" + args[2] + "'!");
+                }
+                return;
+            }
+            case "pause": {
+                if (args.length < 3) {
+                    sender.sendMessage(ChatColor.RED + "Usage: /dimension schedule pause <name>");
+                    return;
+                }
+                Boolean paused = scheduleManager.togglePause(args[2]);
+                if (paused == null) {
+                    sender.sendMessage(ChatColor.RED + "Unknown schedule '" + args[2] + "'!");
+                } else {
+                    plugin.getAuditLog().record(paused ? AuditEvent.Action.SCHEDULE_PAUSE : AuditEvent.Action.SCHEDULE_RESUME,
+                            AuditEvent.Source.COMMAND, sender, null, args[2]);
+                    sender.sendMessage(ChatColor.GREEN + "Schedule '" + args[2] + "' " + (paused ? "paused." : "resumed."));
+                }
+                return;
+            }
+            case "next": {
+                int count = 5;
+                if (args.length > 2) {
+                    try {
+                        count = Math.max(1, Math.min(50, Integer.parseInt(args[2])));
+                    } catch (NumberFormatException e) {
+                        sender.sendMessage(ChatColor.RED + "Usage: /dimension schedule next <n>");
+                        return;
+                    }
+                }
+                sendScheduleTimeline(sender, scheduleManager, count);
+                return;
+            }
+            default:
+                sender.sendMessage(ChatColor.RED + "Usage: /dimension schedule <list|add|remove|pause|next>");
+        }
+    }
+    
+    private void sendScheduleTimeline(CommandSender sender, ScheduleManager scheduleManager, int count) {
+        Map<World.Environment, List<ScheduleTimeline.Transition>> timeline = scheduleManager.getUpcomingTransitions(count);
+        long now = Bukkit.getCurrentTick();
+        
+        sender.sendMessage(ChatColor.GOLD + "=== Upcoming Dimension Changes ===");
+        if (timeline.isEmpty()) {
+            sender.sendMessage(ChatColor.GRAY + "No schedules are running.");
+        }
+        
+        for (Map.Entry<World.Environment, List<ScheduleTimeline.Transition>> entry : timeline.entrySet()) {
+            sender.sendMessage(ChatColor.YELLOW + getDimensionDisplayName(entry.getKey()) + ":");
+            if (entry.getValue().isEmpty()) {
+                sender.sendMessage(ChatColor.GRAY + "  No state changes ahead");
+                continue;
+            }
+            for (ScheduleTimeline.Transition transition : entry.getValue()) {
+                ChatColor color = transition.opens() ? ChatColor.GREEN : ChatColor.RED;
+                String line = ChatColor.GRAY + "  in " + ChatColor.AQUA + formatTicks(transition.getTick() - now) + " " +
+                             color + (transition.opens() ? "OPEN" : "CLOSE") +
+                             ChatColor.GRAY + " (" + transition.getScheduleName() + ")";
+                if (transition.isConflicting()) {
+                    line += ChatColor.GOLD + " [conflict]";
+                }
+                sender.sendMessage(line);
+            }
+        }
+        
+        List<ScheduleTimeline.Conflict> conflicts = scheduleManager.getConflicts();
+        for (ScheduleTimeline.Conflict conflict : conflicts) {
+            sender.sendMessage(ChatColor.GOLD + "⚠ " + conflict.getOpenSchedule().getName() + " and " +
+                             conflict.getCloseSchedule().getName() + " both fire in " +
+                             formatTicks(conflict.getFirstTick() - now));
+        }
+    }
+    
+    private void warnAboutConflicts(CommandSender sender, ScheduleManager scheduleManager, String scheduleName) {
+        long now = Bukkit.getCurrentTick();
+        for (ScheduleTimeline.Conflict conflict : scheduleManager.getConflicts()) {
+            if (conflict.getOpenSchedule().getName().equals(scheduleName) || conflict.getCloseSchedule().getName().equals(scheduleName)) {
+                sender.sendMessage(ChatColor.GOLD + "Warning: " + conflict.getOpenSchedule().getName() + " and " +
+                                 conflict.getCloseSchedule().getName() + " open and close " +
+                                 getDimensionDisplayName(conflict.getOpenSchedule().getEnvironment()) +
+                                 " on the same tick, first in " + formatTicks(conflict.getFirstTick() - now));
+            }
+        }
+    }
+    
+    private World.Environment parseDimension(String dimensionName) {
+        switch (dimensionName.toLowerCase()) {
+            case "world":
+            case "overworld":
+                return World.Environment.NORMAL;
+            case "nether":
+                return World.Environment.NETHER;
+            case "end":
+                return World.Environment.THE_END;
+            default:
+                return null;
+        }
+    }
+    
+    /**
+     * Parse a tick count or a duration such as 30s, 10m, 2h or 1d into ticks
+     *
+     * @return the number of ticks, or -1 if the input is invalid
+     */
+    private long parseTicks(String input) {
+        String value = input.toLowerCase();
+        long multiplier = 1;
+        char unit = value.isEmpty() ? ' ' : value.charAt(value.length() - 1);
+        switch (unit) {
+            case 's': multiplier = 20L; break;
+            case 'm': multiplier = 20L * 60; break;
+            case 'h': multiplier = 20L * 60 * 60; break;
+            case 'd': multiplier = 20L * 60 * 60 * 24; break;
+            default: break;
+        }
+        if (multiplier != 1) {
+            value = value.substring(0, value.length() - 1);
+        }
+        try {
+            long amount = Long.parseLong(value);
+            return amount < 0 ? -1 : amount * multiplier;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+    
+    private String formatTicks(long ticks) {
+        long seconds = Math.max(0, ticks) / 20;
+        long minutes = seconds / 60;
+        long hours = minutes / 60;
+        long days = hours / 24;
+        
+        if (days > 0) {
+            return String.format("%dd %dh %dm", days, hours % 24, minutes % 60);
+        } else if (hours > 0) {
+            return String.format("%dh %dm", hours, minutes % 60);
+        } else if (minutes > 0) {
+            return String.format("%dm %ds", minutes, seconds % 60);
+        } else {
+            return String.format("%ds", seconds);
+        }
+    }
+    
     private void sendStatusMessage(CommandSender sender) {
         sender.sendMessage(ChatColor.GOLD + "=== Dimension Status ===");
         
@@ -163,9 +711,53 @@ public class DimensionCommand implements CommandExecutor {
             sender.sendMessage(ChatColor.YELLOW + dimensionName + ": " + statusColor + statusText);
         }
         
+        LoadGovernor governor = plugin.getLoadGovernor();
+        if (plugin.getSettings().isGovernorEnabled()) {
+            List<World.Environment> shed = governor.getShedDimensions();
+            StringBuilder line = new StringBuilder(ChatColor.YELLOW + "Load governor: " + ChatColor.WHITE)
+                    .append(String.format("%.1f mspt, %.1f TPS", governor.getAverageMspt(), governor.getTps()));
+            if (!shed.isEmpty()) {
+                line.append(ChatColor.GRAY).append(", holding closed:");
+                for (World.Environment environment : shed) {
+                    line.append(' ').append(ChatColor.RED).append(getDimensionDisplayName(environment));
+                }
+            }
+            sender.sendMessage(line.toString());
+        }
+        
+        if (plugin.getSettings().isCapacityEnabled()) {
+            sendCapacityLines(sender);
+        }
+        
+        SyncManager sync = plugin.getSyncManager();
+        if (sync != null) {
+            sender.sendMessage(ChatColor.YELLOW + "Sync: " + ChatColor.WHITE + sync.getServerId() + ChatColor.GRAY + " over "
+                    + sync.getTransportDescription() + ", " + sync.getRemoteChangesApplied() + " remote changes applied");
+        }
+        
         sender.sendMessage(ChatColor.GRAY + "Use /dimension <open|close> <dimension> to change states");
     }
     
+    private void sendCapacityLines(CommandSender sender) {
+        CapacityTracker tracker = plugin.getCapacityTracker();
+        for (World world : Bukkit.getWorlds()) {
+            StringBuilder line = new StringBuilder();
+            for (CapacityTracker.Resource resource : CapacityTracker.Resource.values()) {
+                int limit = tracker.getLimit(world, resource);
+                if (limit == 0) {
+                    continue;
+                }
+                int count = tracker.getCount(world, resource);
+                line.append(line.length() == 0 ? "" : ChatColor.GRAY + ", ")
+                    .append(count > limit ? ChatColor.RED : ChatColor.WHITE)
+                    .append(count).append('/').append(limit).append(' ').append(resource.getDisplayName());
+            }
+            if (line.length() > 0) {
+                sender.sendMessage(ChatColor.YELLOW + world.getName() + ": " + line);
+            }
+        }
+    }
+    
     private String getDimensionDisplayName(World.Environment environment) {
         switch (environment) {
             case NORMAL:
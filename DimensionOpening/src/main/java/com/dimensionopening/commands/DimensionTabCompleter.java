@@ -1,47 +1,233 @@
 package com.dimensionopening.commands;
 
+import org.bukkit.Bukkit;
+import org.bukkit.World;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandSender;
 import org.bukkit.command.TabCompleter;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.event.world.WorldLoadEvent;
+import org.bukkit.event.world.WorldUnloadEvent;
+import com.dimensionopening.DimensionOpeningPlugin;
+import com.dimensionopening.managers.PassManager;
+import com.dimensionopening.managers.Schedule;
+import com.dimensionopening.managers.ScheduleManager;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.WeakHashMap;
 
-public class DimensionTabCompleter implements TabCompleter {
+/**
+ * Tab completion served from prefix indexes.
+ *
+ * Fixed word lists are indexed once. World, schedule, online player and pass
+ * holder names are indexed lazily and only rebuilt after they change, so a
+ * keystroke costs a couple of binary searches and returns a shared read-only list.
+ */
+public class DimensionTabCompleter implements TabCompleter, Listener {
     
-    private static final List<String> ACTIONS = Arrays.asList("open", "close", "status", "gui");
-    private static final List<String> DIMENSIONS = Arrays.asList("world", "overworld", "nether", "end");
+    private static final PrefixIndex ACTIONS = new PrefixIndex(Arrays.asList("open", "close", "status", "gui", "schedule", "stats", "perf", "pass", "reload"));
+    private static final PrefixIndex GUI_PAGES = new PrefixIndex(Arrays.asList("worlds", "stats"));
+    private static final PrefixIndex STATUS_OPTIONS = new PrefixIndex(Arrays.asList("--json"));
+    private static final PrefixIndex PERF_ACTIONS = new PrefixIndex(Arrays.asList("on", "off", "reset"));
+    private static final PrefixIndex STATS_WINDOWS = new PrefixIndex(Arrays.asList("1m", "1h", "24h", "top", "export", "--json"));
+    private static final PrefixIndex SCHEDULE_ACTIONS = new PrefixIndex(Arrays.asList("list", "add", "remove", "pause", "next"));
+    private static final PrefixIndex SCHEDULE_OUTCOMES = new PrefixIndex(Arrays.asList("open", "close"));
+    private static final List<String> PASS_ACTIONS = Arrays.asList("list", "revoke");
+    private static final PrefixIndex DIMENSIONS = new PrefixIndex(Arrays.asList("world", "overworld", "nether", "end"));
+    private static final PrefixIndex DURATIONS = new PrefixIndex(Arrays.asList("30s", "1m", "5m", "10m", "30m", "1h", "2h", "6h", "12h", "1d", "7d"));
+    private static final String[] DURATION_UNITS = {"s", "m", "h", "d"};
+    private static final int PERMISSION_CACHE_TICKS = 100;
+    
+    private final DimensionOpeningPlugin plugin;
+    // Sender -> (expiry tick << 1 | allowed); weak so players that leave are dropped
+    private final Map<CommandSender, Long> permissionCache;
+    
+    private PrefixIndex worldNames = PrefixIndex.EMPTY;
+    private boolean worldsChanged = true;
+    // Online players plus the pass list/revoke sub-commands
+    private PrefixIndex passTargets = PrefixIndex.EMPTY;
+    private boolean playersChanged = true;
+    private PrefixIndex scheduleNames = PrefixIndex.EMPTY;
+    private long scheduleVersion = -1;
+    private PrefixIndex passHolders = PrefixIndex.EMPTY;
+    private long passVersion = -1;
+    
+    public DimensionTabCompleter(DimensionOpeningPlugin plugin) {
+        this.plugin = plugin;
+        this.permissionCache = Collections.synchronizedMap(new WeakHashMap<>());
+    }
     
     @Override
     public List<String> onTabComplete(CommandSender sender, Command command, String alias, String[] args) {
-        List<String> completions = new ArrayList<>();
-        
         // Check if sender has permission
-        if (!sender.hasPermission("dimensionopening.admin")) {
-            return completions;
+        if (!canComplete(sender)) {
+            return Collections.emptyList();
         }
         
-        if (args.length == 1) {
-            // First argument: action (open, close, status)
-            String input = args[0].toLowerCase();
-            for (String action : ACTIONS) {
-                if (action.startsWith(input)) {
-                    completions.add(action);
+        String action = args[0].toLowerCase();
+        String input = args[args.length - 1];
+        switch (args.length) {
+            case 1:
+                return ACTIONS.complete(input);
+            case 2:
+                switch (action) {
+                    case "open":
+                    case "close":
+                        return DIMENSIONS.complete(input);
+                    case "gui":
+                        return GUI_PAGES.complete(input);
+                    case "status":
+                        return STATUS_OPTIONS.complete(input);
+                    case "stats":
+                        return STATS_WINDOWS.complete(input);
+                    case "perf":
+                        return PERF_ACTIONS.complete(input);
+                    case "schedule":
+                        return SCHEDULE_ACTIONS.complete(input);
+                    case "pass":
+                        return getPassTargets().complete(input);
+                    default:
+                        return Collections.emptyList();
                 }
-            }
-        } else if (args.length == 2) {
-            // Second argument: dimension (only for open/close, not status)
-            String action = args[0].toLowerCase();
-            if (action.equals("open") || action.equals("close")) {
-                String input = args[1].toLowerCase();
-                for (String dimension : DIMENSIONS) {
-                    if (dimension.startsWith(input)) {
-                        completions.add(dimension);
+            case 3:
+                if (action.equals("gui") && args[1].equalsIgnoreCase("worlds")) {
+                    return getWorldNames().complete(input);
+                }
+                if (action.equals("schedule") && (args[1].equalsIgnoreCase("remove") || args[1].equalsIgnoreCase("pause"))) {
+                    return getScheduleNames().complete(input);
+                }
+                if (action.equals("pass")) {
+                    if (args[1].equalsIgnoreCase("revoke")) {
+                        return getPassHolders().complete(input);
                     }
+                    return args[1].equalsIgnoreCase("list") ? Collections.emptyList() : DIMENSIONS.complete(input);
+                }
+                return Collections.emptyList();
+            case 4:
+                if (action.equals("schedule") && args[1].equalsIgnoreCase("add")) {
+                    return DIMENSIONS.complete(input);
                 }
+                if (action.equals("pass")) {
+                    return args[1].equalsIgnoreCase("revoke") ? DIMENSIONS.complete(input) : completeDuration(input);
+                }
+                return Collections.emptyList();
+            case 5:
+                return action.equals("schedule") && args[1].equalsIgnoreCase("add") ? SCHEDULE_OUTCOMES.complete(input) : Collections.emptyList();
+            case 6:
+            case 7:
+                return action.equals("schedule") && args[1].equalsIgnoreCase("add") ? completeDuration(input) : Collections.emptyList();
+            default:
+                return Collections.emptyList();
+        }
+    }
+    
+    /**
+     * Check the admin permission, caching the answer for a few seconds per sender
+     */
+    private boolean canComplete(CommandSender sender) {
+        int tick = Bukkit.getCurrentTick();
+        Long cached = permissionCache.get(sender);
+        if (cached != null && (cached >> 1) > tick) {
+            return (cached & 1L) != 0;
+        }
+        boolean allowed = sender.hasPermission("dimensionopening.admin");
+        permissionCache.put(sender, ((long) (tick + PERMISSION_CACHE_TICKS) << 1) | (allowed ? 1L : 0L));
+        return allowed;
+    }
+    
+    /**
+     * Suggest common durations, or units for a number that has been typed
+     */
+    private List<String> completeDuration(String input) {
+        List<String> matches = DURATIONS.complete(input);
+        if (!matches.isEmpty() || input.isEmpty() || !input.chars().allMatch(Character::isDigit)) {
+            return matches;
+        }
+        List<String> withUnits = new ArrayList<>(DURATION_UNITS.length);
+        for (String unit : DURATION_UNITS) {
+            withUnits.add(input + unit);
+        }
+        return withUnits;
+    }
+    
+    private PrefixIndex getWorldNames() {
+        if (worldsChanged) {
+            List<String> names = new ArrayList<>();
+            for (World world : Bukkit.getWorlds()) {
+                names.add(world.getName());
             }
+            worldNames = new PrefixIndex(names);
+            worldsChanged = false;
         }
-        
-        return completions;
+        return worldNames;
+    }
+    
+    private PrefixIndex getPassTargets() {
+        if (playersChanged) {
+            List<String> targets = new ArrayList<>(PASS_ACTIONS);
+            for (Player player : Bukkit.getOnlinePlayers()) {
+                targets.add(player.getName());
+            }
+            passTargets = new PrefixIndex(targets);
+            playersChanged = false;
+        }
+        return passTargets;
+    }
+    
+    private PrefixIndex getScheduleNames() {
+        ScheduleManager scheduleManager = plugin.getScheduleManager();
+        if (scheduleManager.getVersion() != scheduleVersion) {
+            List<String> names = new ArrayList<>();
+            for (Schedule schedule : scheduleManager.getSchedules()) {
+                names.add(schedule.getName());
+            }
+            scheduleNames = new PrefixIndex(names);
+            scheduleVersion = scheduleManager.getVersion();
+        }
+        return scheduleNames;
+    }
+    
+    private PrefixIndex getPassHolders() {
+        PassManager passManager = plugin.getPassManager();
+        if (passManager.getVersion() != passVersion) {
+            List<String> names = new ArrayList<>();
+            for (UUID holder : passManager.getPasses().keySet()) {
+                String name = passManager.getHolderName(holder);
+                if (name != null) {
+                    names.add(name);
+                }
+            }
+            passHolders = new PrefixIndex(names);
+            passVersion = passManager.getVersion();
+        }
+        return passHolders;
+    }
+    
+    @EventHandler
+    public void onWorldLoad(WorldLoadEvent event) {
+        worldsChanged = true;
+    }
+    
+    @EventHandler
+    public void onWorldUnload(WorldUnloadEvent event) {
+        worldsChanged = true;
+    }
+    
+    @EventHandler
+    public void onPlayerJoin(PlayerJoinEvent event) {
+        playersChanged = true;
+    }
+    
+    @EventHandler
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        playersChanged = true;
     }
 }
\ No newline at end of file
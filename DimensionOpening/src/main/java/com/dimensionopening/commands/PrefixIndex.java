@@ -0,0 +1,60 @@
+package com.dimensionopening.commands;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.TreeMap;
+
+/**
+ * Immutable set of completion candidates, matched case-insensitively by prefix.
+ *
+ * Candidates are kept sorted by their lower-case form, so every match for a
+ * prefix is one contiguous run found with two binary searches. Results are
+ * read-only views of that run and are shared between callers.
+ */
+final class PrefixIndex {
+    
+    static final PrefixIndex EMPTY = new PrefixIndex(Collections.emptyList());
+    
+    private final String[] keys;
+    private final List<String> values;
+    
+    PrefixIndex(Collection<String> candidates) {
+        // Lower-case key -> first candidate with that key, which also drops duplicates
+        TreeMap<String, String> sorted = new TreeMap<>();
+        for (String candidate : candidates) {
+            sorted.putIfAbsent(candidate.toLowerCase(), candidate);
+        }
+        this.keys = sorted.keySet().toArray(new String[0]);
+        this.values = Collections.unmodifiableList(Arrays.asList(sorted.values().toArray(new String[0])));
+    }
+    
+    /**
+     * Get every candidate starting with the prefix, ignoring case. The returned list must not be modified.
+     */
+    List<String> complete(String prefix) {
+        if (prefix.isEmpty()) {
+            return values;
+        }
+        String key = prefix.toLowerCase();
+        int from = lowerBound(key);
+        // Every key starting with the prefix sorts before the prefix followed by the highest char
+        int to = lowerBound(key + Character.MAX_VALUE);
+        return from == to ? Collections.emptyList() : values.subList(from, to);
+    }
+    
+    private int lowerBound(String key) {
+        int low = 0;
+        int high = keys.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (keys[mid].compareTo(key) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,273 @@
+package com.dimensionopening.commands;
+
+import org.bukkit.Bukkit;
+import org.bukkit.World;
+import com.dimensionopening.DimensionOpeningPlugin;
+import com.dimensionopening.managers.DimensionManager;
+import com.dimensionopening.managers.Schedule;
+import com.dimensionopening.managers.ScheduleManager;
+import com.dimensionopening.metrics.MetricsManager;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Single-line JSON for {@code /dimension status --json} and {@code /dimension stats --json}.
+ *
+ * Each document is built once and reused until something it shows changes.
+ * For status that is the dimension state version, the schedule and pass
+ * versions, the next schedule firing and the loaded worlds and their player
+ * counts, which are compared against the last snapshot on each request.
+ * Stats are keyed on the summed event counters and the current minute, since
+ * the rolling windows move once a minute, and on the values that change
+ * between events: uptimes, tracked players and dropped audit events.
+ *
+ * Commands run on several region threads at once on Folia, so each snapshot
+ * is an immutable object published through a volatile field; threads racing
+ * to rebuild one each get a consistent document and the last one is kept.
+ */
+final class StatusJson {
+    
+    private static final World.Environment[] DIMENSIONS = {
+        World.Environment.NORMAL, World.Environment.NETHER, World.Environment.THE_END
+    };
+    
+    /**
+     * A status document and what it was built from
+     */
+    private static final class StatusSnapshot {
+        final String json;
+        final long stateVersion;
+        final long scheduleVersion;
+        final long passVersion;
+        final long validUntilTick;
+        final World[] worlds;
+        final int[] occupancy;
+        
+        StatusSnapshot(String json, long stateVersion, long scheduleVersion, long passVersion, long validUntilTick, World[] worlds, int[] occupancy) {
+            this.json = json;
+            this.stateVersion = stateVersion;
+            this.scheduleVersion = scheduleVersion;
+            this.passVersion = passVersion;
+            this.validUntilTick = validUntilTick;
+            this.worlds = worlds;
+            this.occupancy = occupancy;
+        }
+    }
+    
+    /**
+     * A stats document and what it was built from
+     */
+    private static final class StatsSnapshot {
+        final String json;
+        final long eventCount;
+        final long minute;
+        final long stateVersion;
+        final long[] uptimeSeconds;
+        final int trackedPlayers;
+        final long auditDropped;
+        
+        StatsSnapshot(String json, long eventCount, long minute, long stateVersion, long[] uptimeSeconds, int trackedPlayers, long auditDropped) {
+            this.json = json;
+            this.eventCount = eventCount;
+            this.minute = minute;
+            this.stateVersion = stateVersion;
+            this.uptimeSeconds = uptimeSeconds;
+            this.trackedPlayers = trackedPlayers;
+            this.auditDropped = auditDropped;
+        }
+    }
+    
+    private final DimensionOpeningPlugin plugin;
+    private volatile StatusSnapshot status;
+    private volatile StatsSnapshot stats;
+    
+    StatusJson(DimensionOpeningPlugin plugin) {
+        this.plugin = plugin;
+    }
+    
+    /**
+     * Get dimension and world states, occupancy and schedules
+     */
+    String getStatus() {
+        DimensionManager dimensionManager = plugin.getDimensionManager();
+        ScheduleManager scheduleManager = plugin.getScheduleManager();
+        long tick = Bukkit.getCurrentTick();
+        // Read before building, so a change made meanwhile leaves the snapshot looking stale rather than fresh
+        long stateVersion = dimensionManager.getStateVersion();
+        long scheduleVersion = scheduleManager.getVersion();
+        long passVersion = plugin.getPassManager().getVersion();
+        
+        StatusSnapshot cached = status;
+        if (cached != null
+                && cached.stateVersion == stateVersion
+                && cached.scheduleVersion == scheduleVersion
+                && cached.passVersion == passVersion
+                && tick < cached.validUntilTick
+                && worldsUnchanged(cached)) {
+            return cached.json;
+        }
+        
+        World[] statusWorlds = Bukkit.getWorlds().toArray(new World[0]);
+        int[] statusOccupancy = new int[statusWorlds.length];
+        int[] dimensionOccupancy = new int[World.Environment.values().length];
+        for (int i = 0; i < statusWorlds.length; i++) {
+            statusOccupancy[i] = statusWorlds[i].getPlayerCount();
+            dimensionOccupancy[statusWorlds[i].getEnvironment().ordinal()] += statusOccupancy[i];
+        }
+        
+        long now = System.currentTimeMillis();
+        StringBuilder json = new StringBuilder(256 + statusWorlds.length * 64);
+        json.append("{\"plugin_version\":");
+        appendString(json, plugin.getPluginMeta().getVersion());
+        json.append(",\"state_version\":").append(stateVersion);
+        json.append(",\"as_of\":").append(now);
+        json.append(",\"tick\":").append(tick);
+        
+        json.append(",\"dimensions\":{");
+        for (int i = 0; i < DIMENSIONS.length; i++) {
+            World.Environment environment = DIMENSIONS[i];
+            if (i > 0) json.append(',');
+            json.append('"').append(MetricsManager.getDimensionKey(environment)).append("\":{");
+            json.append("\"open\":").append(dimensionManager.isDimensionOpen(environment));
+            json.append(",\"players\":").append(dimensionOccupancy[environment.ordinal()]);
+            json.append('}');
+        }
+        json.append('}');
+        
+        json.append(",\"worlds\":[");
+        for (int i = 0; i < statusWorlds.length; i++) {
+            World world = statusWorlds[i];
+            if (i > 0) json.append(',');
+            json.append("{\"name\":");
+            appendString(json, world.getName());
+            json.append(",\"dimension\":\"").append(MetricsManager.getDimensionKey(world.getEnvironment())).append('"');
+            json.append(",\"open\":").append(dimensionManager.isWorldOpen(world));
+            json.append(",\"override\":").append(dimensionManager.hasWorldOverride(world));
+            json.append(",\"players\":").append(statusOccupancy[i]);
+            json.append('}');
+        }
+        json.append(']');
+        
+        long validUntil = Long.MAX_VALUE;
+        json.append(",\"schedules\":[");
+        List<Schedule> schedules = scheduleManager.getSchedules();
+        for (int i = 0; i < schedules.size(); i++) {
+            Schedule schedule = schedules.get(i);
+            if (i > 0) json.append(',');
+            json.append("{\"name\":");
+            appendString(json, schedule.getName());
+            json.append(",\"dimension\":\"").append(MetricsManager.getDimensionKey(schedule.getEnvironment())).append('"');
+            json.append(",\"action\":\"").append(schedule.getAction()).append('"');
+            json.append(",\"paused\":").append(schedule.isPaused());
+            json.append(",\"interval_ticks\":").append(schedule.getIntervalTicks());
+            if (!schedule.isPaused()) {
+                long nextTick = schedule.getNextFireTick(tick);
+                // Wall-clock estimate assuming 20 ticks per second
+                json.append(",\"next_fire_tick\":").append(nextTick);
+                json.append(",\"next_fire_at\":").append(now + (nextTick - tick) * 50L);
+                validUntil = Math.min(validUntil, nextTick);
+            }
+            json.append('}');
+        }
+        json.append(']');
+        json.append(",\"active_passes\":").append(plugin.getPassManager().getPasses().size());
+        json.append('}');
+        
+        StatusSnapshot snapshot = new StatusSnapshot(json.toString(), stateVersion, scheduleVersion, passVersion, validUntil, statusWorlds, statusOccupancy);
+        status = snapshot;
+        return snapshot.json;
+    }
+    
+    /**
+     * Check the loaded worlds and their player counts against a status snapshot
+     */
+    private boolean worldsUnchanged(StatusSnapshot snapshot) {
+        List<World> worlds = Bukkit.getWorlds();
+        if (worlds.size() != snapshot.worlds.length) {
+            return false;
+        }
+        for (int i = 0; i < snapshot.worlds.length; i++) {
+            World world = worlds.get(i);
+            if (world != snapshot.worlds[i] || world.getPlayerCount() != snapshot.occupancy[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * Get lifetime and rolling-window metrics per dimension
+     */
+    String getStats() {
+        MetricsManager metricsManager = plugin.getMetricsManager();
+        long eventCount = 0;
+        long[] uptimeSeconds = new long[DIMENSIONS.length];
+        for (int i = 0; i < DIMENSIONS.length; i++) {
+            World.Environment environment = DIMENSIONS[i];
+            eventCount += metricsManager.getOpenCount(environment) + metricsManager.getCloseCount(environment) +
+                    metricsManager.getAttemptCount(environment) + metricsManager.getDeniedCount(environment);
+            uptimeSeconds[i] = metricsManager.getUptimeMillis(environment) / 1000L;
+        }
+        long now = System.currentTimeMillis();
+        long minute = now / 60_000L;
+        long stateVersion = plugin.getDimensionManager().getStateVersion();
+        int trackedPlayers = metricsManager.getTrackedPlayerCount();
+        long auditDropped = plugin.getAuditLog().getDroppedCount();
+        
+        StatsSnapshot cached = stats;
+        if (cached != null && cached.eventCount == eventCount && cached.minute == minute && cached.stateVersion == stateVersion
+                && Arrays.equals(cached.uptimeSeconds, uptimeSeconds) && cached.trackedPlayers == trackedPlayers
+                && cached.auditDropped == auditDropped) {
+            return cached.json;
+        }
+        
+        StringBuilder json = new StringBuilder(768);
+        json.append("{\"as_of\":").append(now);
+        json.append(",\"tracking_since\":").append(metricsManager.getTrackingSince());
+        json.append(",\"tracked_players\":").append(trackedPlayers);
+        json.append(",\"audit_dropped\":").append(auditDropped);
+        json.append(",\"dimensions\":{");
+        for (int i = 0; i < DIMENSIONS.length; i++) {
+            World.Environment environment = DIMENSIONS[i];
+            if (i > 0) json.append(',');
+            json.append('"').append(MetricsManager.getDimensionKey(environment)).append("\":{");
+            json.append("\"opens\":").append(metricsManager.getOpenCount(environment));
+            json.append(",\"closes\":").append(metricsManager.getCloseCount(environment));
+            json.append(",\"attempts\":").append(metricsManager.getAttemptCount(environment));
+            json.append(",\"denials\":").append(metricsManager.getDeniedCount(environment));
+            json.append(",\"uptime_seconds\":").append(uptimeSeconds[i]);
+            json.append(",\"denials_1m\":").append(metricsManager.getWindowCount(MetricsManager.Series.DENIALS, environment, 1));
+            json.append(",\"denials_1h\":").append(metricsManager.getWindowCount(MetricsManager.Series.DENIALS, environment, 60));
+            json.append(",\"denials_24h\":").append(metricsManager.getWindowCount(MetricsManager.Series.DENIALS, environment, 24 * 60));
+            json.append(",\"attempts_1h\":").append(metricsManager.getWindowCount(MetricsManager.Series.ATTEMPTS, environment, 60));
+            json.append('}');
+        }
+        json.append("}}");
+        
+        StatsSnapshot snapshot = new StatsSnapshot(json.toString(), eventCount, minute, stateVersion, uptimeSeconds, trackedPlayers, auditDropped);
+        stats = snapshot;
+        return snapshot.json;
+    }
+    
+    private void appendString(StringBuilder json, String value) {
+        json.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    json.append("\\\"");
+                    break;
+                case '\\':
+                    json.append("\\\\");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        json.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        json.append(c);
+                    }
+            }
+        }
+        json.append('"');
+    }
+}
\ No newline at end of file
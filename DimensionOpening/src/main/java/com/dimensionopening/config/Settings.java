@@ -0,0 +1,395 @@
+package com.dimensionopening.config;
+
+import org.bukkit.World;
+import org.bukkit.configuration.ConfigurationSection;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Logger;
+
+/**
+ * The plugin's settings from {@code config.yml}, parsed and validated once.
+ *
+ * A snapshot is built at startup and on {@code /dimension reload} and
+ * published by the plugin through a single volatile reference, so hot paths
+ * read plain final fields instead of walking the configuration tree. Out of
+ * range values are logged and replaced by their defaults. Dimension states,
+ * schedules and the access policy are not part of it: they are changed at
+ * runtime or compiled by their own managers.
+ */
+public final class Settings {
+    
+    private final boolean broadcastChanges;
+    private final boolean opsBypassRestrictions;
+    private final boolean fineGrainedPermissions;
+    private final boolean welcomeMessage;
+    private final boolean adminNotifications;
+    private final boolean bossBars;
+    private final boolean titles;
+    private final boolean sounds;
+    private final boolean metricsHttpEnabled;
+    private final String metricsHttpBind;
+    private final int metricsHttpPort;
+    private final boolean timingEnabled;
+    private final long dashboardRefreshTicks;
+    private final int maxTrackedPlayers;
+    private final boolean auditEnabled;
+    private final long auditMaxFileBytes;
+    private final boolean auditCompress;
+    private final int auditQueueSize;
+    private final boolean evacuateOnPassExpiry;
+    private final boolean governorEnabled;
+    private final List<World.Environment> governorShedOrder;
+    private final int governorWindowTicks;
+    private final double governorCloseAboveMspt;
+    private final double governorCloseBelowTps;
+    private final double governorReopenBelowMspt;
+    private final double governorReopenAboveTps;
+    private final long governorHoldMillis;
+    private final boolean capacityEnabled;
+    // Per dimension: max chunks, entities and tile entities per world, 0 for no limit
+    private final Map<World.Environment, int[]> capacityLimits;
+    private final boolean syncEnabled;
+    private final String syncServerId;
+    private final String syncTransport;
+    private final long syncBatchTicks;
+    private final String syncFileDirectory;
+    private final String syncSocketBind;
+    private final int syncSocketPort;
+    private final List<String> syncSocketPeers;
+    private final String syncPluginMessageChannel;
+    
+    private Settings(ConfigurationSection config, Logger logger) {
+        this.broadcastChanges = config.getBoolean("settings.broadcast_changes", true);
+        this.opsBypassRestrictions = config.getBoolean("settings.ops_bypass_restrictions", true);
+        this.fineGrainedPermissions = config.getBoolean("permissions.fine_grained", false);
+        
+        this.welcomeMessage = config.getBoolean("notifications.welcome_message", true);
+        this.adminNotifications = config.getBoolean("notifications.admin_notifications", true);
+        this.bossBars = config.getBoolean("notifications.boss_bars", true);
+        this.titles = config.getBoolean("notifications.titles", true);
+        this.sounds = config.getBoolean("notifications.sounds", true);
+        
+        this.metricsHttpEnabled = config.getBoolean("metrics.http.enabled", false);
+        String bind = config.getString("metrics.http.bind", "127.0.0.1");
+        if (bind == null || bind.trim().isEmpty()) {
+            logger.warning("metrics.http.bind is empty, using 127.0.0.1");
+            bind = "127.0.0.1";
+        }
+        this.metricsHttpBind = bind.trim();
+        this.metricsHttpPort = inRange(config, "metrics.http.port", 9464, 1, 65535, logger);
+        this.timingEnabled = config.getBoolean("metrics.timing.enabled", false);
+        this.dashboardRefreshTicks = atLeast(config, "metrics.dashboard.refresh_ticks", 20, 1, logger);
+        this.maxTrackedPlayers = atLeast(config, "metrics.players.max_tracked", 1000, 0, logger);
+        
+        this.auditEnabled = config.getBoolean("audit.enabled", true);
+        this.auditMaxFileBytes = atLeast(config, "audit.max_file_size_mb", 10, 1, logger) * 1024L * 1024L;
+        this.auditCompress = config.getBoolean("audit.compress", true);
+        this.auditQueueSize = atLeast(config, "audit.queue_size", 8192, 16, logger);
+        
+        this.evacuateOnPassExpiry = config.getBoolean("passes.evacuate_on_expiry", true);
+        
+        this.governorEnabled = config.getBoolean("governor.enabled", false);
+        List<World.Environment> shedOrder = new ArrayList<>();
+        List<String> shedNames = config.isSet("governor.shed_order") ? config.getStringList("governor.shed_order") : List.of("end", "nether");
+        for (String name : shedNames) {
+            World.Environment environment = parseDimension(name);
+            if (environment == null) {
+                logger.warning("Invalid dimension in governor.shed_order: " + name);
+            } else if (!shedOrder.contains(environment)) {
+                shedOrder.add(environment);
+            }
+        }
+        this.governorShedOrder = Collections.unmodifiableList(shedOrder);
+        this.governorWindowTicks = atLeast(config, "governor.window_ticks", 200, 20, logger);
+        this.governorCloseAboveMspt = config.getDouble("governor.close_above_mspt", 45.0);
+        this.governorCloseBelowTps = config.getDouble("governor.close_below_tps", 18.0);
+        double reopenBelowMspt = config.getDouble("governor.reopen_below_mspt", 35.0);
+        if (reopenBelowMspt >= governorCloseAboveMspt) {
+            logger.warning("governor.reopen_below_mspt must be below close_above_mspt, using " + governorCloseAboveMspt * 0.8);
+            reopenBelowMspt = governorCloseAboveMspt * 0.8;
+        }
+        this.governorReopenBelowMspt = reopenBelowMspt;
+        double reopenAboveTps = config.getDouble("governor.reopen_above_tps", 19.5);
+        if (reopenAboveTps <= governorCloseBelowTps) {
+            double fallback = Math.min(20.0, governorCloseBelowTps + 1.0);
+            logger.warning("governor.reopen_above_tps must be above close_below_tps, using " + fallback);
+            reopenAboveTps = fallback;
+        }
+        this.governorReopenAboveTps = reopenAboveTps;
+        this.governorHoldMillis = atLeast(config, "governor.hold_seconds", 120, 0, logger) * 1000L;
+        
+        this.capacityEnabled = config.getBoolean("capacity.enabled", false);
+        this.capacityLimits = new EnumMap<>(World.Environment.class);
+        for (String name : List.of("overworld", "nether", "end")) {
+            String path = "capacity." + name + ".";
+            capacityLimits.put(parseDimension(name), new int[] {
+                atLeast(config, path + "max_chunks", 0, 0, logger),
+                atLeast(config, path + "max_entities", 0, 0, logger),
+                atLeast(config, path + "max_tile_entities", 0, 0, logger)
+            });
+        }
+        
+        String serverId = config.getString("sync.server_id", "");
+        this.syncServerId = serverId != null ? serverId.trim() : "";
+        // A made-up id would change on every restart, so other servers couldn't tell this one's old changes from its new ones
+        boolean syncEnabled = config.getBoolean("sync.enabled", false);
+        if (syncEnabled && syncServerId.isEmpty()) {
+            logger.severe("sync.enabled is true but sync.server_id is empty; set a unique id for this server to enable sync");
+            syncEnabled = false;
+        }
+        this.syncEnabled = syncEnabled;
+        String transport = config.getString("sync.transport", "file").toLowerCase();
+        if (!SYNC_TRANSPORTS.contains(transport)) {
+            logger.warning("Unknown sync.transport " + transport + ", using file");
+            transport = "file";
+        }
+        this.syncTransport = transport;
+        this.syncBatchTicks = atLeast(config, "sync.batch_ticks", 10, 1, logger);
+        this.syncFileDirectory = config.getString("sync.file.directory", "sync");
+        this.syncSocketBind = config.getString("sync.socket.bind", "127.0.0.1");
+        this.syncSocketPort = inRange(config, "sync.socket.port", 25590, 1, 65535, logger);
+        this.syncSocketPeers = Collections.unmodifiableList(new ArrayList<>(config.getStringList("sync.socket.peers")));
+        this.syncPluginMessageChannel = config.getString("sync.plugin_message.channel", "dimensionopening:sync");
+    }
+    
+    /**
+     * Parse a configuration into settings, logging anything invalid
+     */
+    public static Settings load(ConfigurationSection config, Logger logger) {
+        return new Settings(config, logger);
+    }
+    
+    private static final List<String> SYNC_TRANSPORTS = List.of("file", "socket", "plugin_message", "loopback");
+    
+    private static World.Environment parseDimension(String name) {
+        switch (name.toLowerCase()) {
+            case "world":
+            case "overworld":
+                return World.Environment.NORMAL;
+            case "nether":
+                return World.Environment.NETHER;
+            case "end":
+                return World.Environment.THE_END;
+            default:
+                return null;
+        }
+    }
+    
+    private static int atLeast(ConfigurationSection config, String path, int defaultValue, int min, Logger logger) {
+        return inRange(config, path, defaultValue, min, Integer.MAX_VALUE, logger);
+    }
+    
+    private static int inRange(ConfigurationSection config, String path, int defaultValue, int min, int max, Logger logger) {
+        int value = config.getInt(path, defaultValue);
+        if (value < min || value > max) {
+            String range = max == Integer.MAX_VALUE ? "at least " + min : "between " + min + " and " + max;
+            logger.warning(path + " must be " + range + ", using " + defaultValue);
+            return defaultValue;
+        }
+        return value;
+    }
+    
+    /**
+     * Whether dimension state changes are broadcast to all players
+     */
+    public boolean isBroadcastChanges() {
+        return broadcastChanges;
+    }
+    
+    public boolean isOpsBypassRestrictions() {
+        return opsBypassRestrictions;
+    }
+    
+    public boolean isFineGrainedPermissions() {
+        return fineGrainedPermissions;
+    }
+    
+    public boolean isWelcomeMessage() {
+        return welcomeMessage;
+    }
+    
+    public boolean isAdminNotifications() {
+        return adminNotifications;
+    }
+    
+    public boolean isBossBars() {
+        return bossBars;
+    }
+    
+    public boolean isTitles() {
+        return titles;
+    }
+    
+    public boolean isSounds() {
+        return sounds;
+    }
+    
+    public boolean isMetricsHttpEnabled() {
+        return metricsHttpEnabled;
+    }
+    
+    public String getMetricsHttpBind() {
+        return metricsHttpBind;
+    }
+    
+    public int getMetricsHttpPort() {
+        return metricsHttpPort;
+    }
+    
+    public boolean isTimingEnabled() {
+        return timingEnabled;
+    }
+    
+    public long getDashboardRefreshTicks() {
+        return dashboardRefreshTicks;
+    }
+    
+    /**
+     * Get the number of players with individual counters, 0 for unlimited
+     */
+    public int getMaxTrackedPlayers() {
+        return maxTrackedPlayers;
+    }
+    
+    public boolean isAuditEnabled() {
+        return auditEnabled;
+    }
+    
+    public long getAuditMaxFileBytes() {
+        return auditMaxFileBytes;
+    }
+    
+    public boolean isAuditCompress() {
+        return auditCompress;
+    }
+    
+    public int getAuditQueueSize() {
+        return auditQueueSize;
+    }
+    
+    public boolean isEvacuateOnPassExpiry() {
+        return evacuateOnPassExpiry;
+    }
+    
+    public boolean isGovernorEnabled() {
+        return governorEnabled;
+    }
+    
+    /**
+     * Get the dimensions the load governor may close, first to close first
+     */
+    public List<World.Environment> getGovernorShedOrder() {
+        return governorShedOrder;
+    }
+    
+    public int getGovernorWindowTicks() {
+        return governorWindowTicks;
+    }
+    
+    public double getGovernorCloseAboveMspt() {
+        return governorCloseAboveMspt;
+    }
+    
+    public double getGovernorCloseBelowTps() {
+        return governorCloseBelowTps;
+    }
+    
+    public double getGovernorReopenBelowMspt() {
+        return governorReopenBelowMspt;
+    }
+    
+    public double getGovernorReopenAboveTps() {
+        return governorReopenAboveTps;
+    }
+    
+    /**
+     * Get the minimum time between two governor actions
+     */
+    public long getGovernorHoldMillis() {
+        return governorHoldMillis;
+    }
+    
+    public boolean isCapacityEnabled() {
+        return capacityEnabled;
+    }
+    
+    /**
+     * Get the most loaded chunks a world of this dimension may have before entry is refused, 0 for no limit
+     */
+    public int getCapacityMaxChunks(World.Environment environment) {
+        return capacityLimit(environment, 0);
+    }
+    
+    /**
+     * Get the most entities a world of this dimension may have before entry is refused, 0 for no limit
+     */
+    public int getCapacityMaxEntities(World.Environment environment) {
+        return capacityLimit(environment, 1);
+    }
+    
+    /**
+     * Get the most tile entities a world of this dimension may have before entry is refused, 0 for no limit
+     */
+    public int getCapacityMaxTileEntities(World.Environment environment) {
+        return capacityLimit(environment, 2);
+    }
+    
+    private int capacityLimit(World.Environment environment, int resource) {
+        int[] limits = capacityLimits.get(environment);
+        return limits != null ? limits[resource] : 0;
+    }
+    
+    public boolean isSyncEnabled() {
+        return syncEnabled;
+    }
+    
+    /**
+     * Get the name this server publishes its changes under, unique on the network
+     */
+    public String getSyncServerId() {
+        return syncServerId;
+    }
+    
+    /**
+     * Get the transport name: file, socket, plugin_message or loopback
+     */
+    public String getSyncTransport() {
+        return syncTransport;
+    }
+    
+    /**
+     * Get how long local changes are collected before they are sent as one delta
+     */
+    public long getSyncBatchTicks() {
+        return syncBatchTicks;
+    }
+    
+    /**
+     * Get the shared directory for the file transport, relative to the plugin folder unless absolute
+     */
+    public String getSyncFileDirectory() {
+        return syncFileDirectory;
+    }
+    
+    public String getSyncSocketBind() {
+        return syncSocketBind;
+    }
+    
+    public int getSyncSocketPort() {
+        return syncSocketPort;
+    }
+    
+    /**
+     * Get the other servers' socket addresses, as host:port
+     */
+    public List<String> getSyncSocketPeers() {
+        return syncSocketPeers;
+    }
+    
+    public String getSyncPluginMessageChannel() {
+        return syncPluginMessageChannel;
+    }
+}
\ No newline at end of file
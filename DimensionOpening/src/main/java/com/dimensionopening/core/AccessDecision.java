@@ -0,0 +1,13 @@
+package com.dimensionopening.core;
+
+/**
+ * Outcome of an access policy rule
+ */
+public enum AccessDecision {
+    /** Let the player through */
+    ALLOW,
+    /** Block the teleport */
+    DENY,
+    /** Block the teleport and tell the player when the dimension next opens */
+    QUEUE
+}
\ No newline at end of file
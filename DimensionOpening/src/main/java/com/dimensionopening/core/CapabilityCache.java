@@ -0,0 +1,137 @@
+package com.dimensionopening.core;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Permission nodes as capability bits, and each subject's bits for a while.
+ *
+ * Every node a rule mentions is assigned a bit; bit 63 is reserved for
+ * operator status. The platform adapter computes a subject's bits from its
+ * permissions and stores them here with the tick they were computed on, so
+ * rule checks become mask tests until the entry expires. A subject's nodes for
+ * individual destinations are kept in the same entry and expire with it.
+ */
+public final class CapabilityCache {
+    
+    public static final long OP_BIT = 1L << 63;
+    /**
+     * Returned by {@link #get} when nothing fresh is cached. A subject really holding
+     * every bit is simply recomputed each time.
+     */
+    public static final long UNKNOWN = -1L;
+    private static final int MAX_NODES = 63;
+    
+    /**
+     * Cached bits for one subject
+     */
+    private static final class Entry {
+        final long bits;
+        final int computedTick;
+        // Destination node bits plus one, by destination index; 0 until looked up
+        volatile byte[] destinationNodes = new byte[0];
+        
+        Entry(long bits, int computedTick) {
+            this.bits = bits;
+            this.computedTick = computedTick;
+        }
+    }
+    
+    private final List<String> nodes;
+    private final int ttlTicks;
+    private final Map<UUID, Entry> entries;
+    
+    public CapabilityCache(int ttlTicks) {
+        this.nodes = new ArrayList<>();
+        this.ttlTicks = ttlTicks;
+        this.entries = new ConcurrentHashMap<>();
+    }
+    
+    /**
+     * Get the bit for a node, assigning one if needed
+     *
+     * @return the bit, or 0 if every bit is taken
+     */
+    public long bit(String node) {
+        int index = nodes.indexOf(node);
+        if (index < 0) {
+            if (nodes.size() == MAX_NODES) {
+                return 0L;
+            }
+            nodes.add(node);
+            index = nodes.size() - 1;
+        }
+        return 1L << index;
+    }
+    
+    public int getNodeCount() {
+        return nodes.size();
+    }
+    
+    /**
+     * Get the node behind bit {@code index}
+     */
+    public String getNode(int index) {
+        return nodes.get(index);
+    }
+    
+    /**
+     * Get a subject's cached bits, or {@link #UNKNOWN} if they are missing or expired
+     */
+    public long get(UUID subject, int tick) {
+        Entry entry = getFresh(subject, tick);
+        return entry != null ? entry.bits : UNKNOWN;
+    }
+    
+    public void put(UUID subject, long bits, int tick) {
+        entries.put(subject, new Entry(bits, tick));
+    }
+    
+    /**
+     * Get a subject's cached node bits for a destination, or -1 if they are missing or expired
+     */
+    public int getDestinationNodes(UUID subject, int destination, int tick) {
+        Entry entry = getFresh(subject, tick);
+        if (entry == null) {
+            return -1;
+        }
+        byte[] nodes = entry.destinationNodes;
+        return destination < nodes.length && nodes[destination] != 0 ? nodes[destination] - 1 : -1;
+    }
+    
+    /**
+     * Cache a subject's node bits for a destination. Ignored unless the subject's
+     * capabilities are cached, since the nodes expire with them.
+     */
+    public void putDestinationNodes(UUID subject, int destination, int nodes, int tick) {
+        Entry entry = getFresh(subject, tick);
+        if (entry == null) {
+            return;
+        }
+        synchronized (entry) {
+            byte[] current = entry.destinationNodes;
+            byte[] updated = Arrays.copyOf(current, Math.max(current.length, destination + 1));
+            updated[destination] = (byte) (nodes + 1);
+            entry.destinationNodes = updated;
+        }
+    }
+    
+    private Entry getFresh(UUID subject, int tick) {
+        Entry entry = entries.get(subject);
+        if (entry != null && tick - entry.computedTick < ttlTicks && tick >= entry.computedTick) {
+            return entry;
+        }
+        return null;
+    }
+    
+    /**
+     * Forget a subject's bits, e.g. when they leave
+     */
+    public void invalidate(UUID subject) {
+        entries.remove(subject);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,115 @@
+package com.dimensionopening.core;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Access decisions from compiled rules, independent of any server platform.
+ *
+ * Rules are indexed by dimension and cause when the engine is built, so a
+ * decision only walks the rules that can apply to it. The inputs are all
+ * primitives: the subject's capability bits, the destination index (or just
+ * a dimension), the cause and, if any rule needs them, the subject's nodes
+ * for that destination. Open state is read from the shared {@link GateState}.
+ * The first matching rule decides; no match denies.
+ */
+public final class GateEngine {
+    
+    /** Destination argument for checks by dimension alone */
+    public static final int NO_DESTINATION = -1;
+    
+    private final GateState state;
+    // [dimension][cause] -> rules in evaluation order
+    private final GateRule[][][] table;
+    private final boolean[][] usesWorldNodes;
+    private final int ruleCount;
+    
+    public GateEngine(GateState state, int dimensionCount, int causeCount, List<GateRule> rules) {
+        if (dimensionCount > Long.SIZE || causeCount > Long.SIZE) {
+            throw new IllegalArgumentException("At most " + Long.SIZE + " dimensions and causes");
+        }
+        this.state = state;
+        this.ruleCount = rules.size();
+        this.table = new GateRule[dimensionCount][causeCount][];
+        this.usesWorldNodes = new boolean[dimensionCount][causeCount];
+        for (int dimension = 0; dimension < dimensionCount; dimension++) {
+            for (int cause = 0; cause < causeCount; cause++) {
+                List<GateRule> cell = new ArrayList<>();
+                for (GateRule rule : rules) {
+                    if ((rule.dimensionMask & (1L << dimension)) != 0 && (rule.causeMask & (1L << cause)) != 0) {
+                        cell.add(rule);
+                        usesWorldNodes[dimension][cause] |= rule.worldNode != 0;
+                    }
+                }
+                table[dimension][cause] = cell.toArray(new GateRule[0]);
+            }
+        }
+    }
+    
+    public GateState getState() {
+        return state;
+    }
+    
+    /**
+     * Check whether any rule for a dimension and cause needs the subject's destination nodes
+     */
+    public boolean usesWorldNodes(int dimension, int cause) {
+        return inRange(dimension, cause) && usesWorldNodes[dimension][cause];
+    }
+    
+    /**
+     * Decide entry into a registered destination
+     *
+     * @param worldNodes {@link GateRule#WORLD_NODE_ACCESS} and {@link GateRule#WORLD_NODE_BYPASS} bits the subject holds for it
+     */
+    public AccessDecision decide(long capabilities, int destination, int cause, int worldNodes) {
+        return evaluate(capabilities, state.getDimension(destination), destination, cause, worldNodes, state.isOpen(destination));
+    }
+    
+    /**
+     * Decide entry into a dimension without a particular destination
+     */
+    public AccessDecision decideDimension(long capabilities, int dimension, int cause) {
+        return evaluate(capabilities, dimension, NO_DESTINATION, cause, 0, state.isDimensionOpen(dimension));
+    }
+    
+    private AccessDecision evaluate(long capabilities, int dimension, int destination, int cause, int worldNodes, boolean open) {
+        if (!inRange(dimension, cause)) {
+            return AccessDecision.DENY;
+        }
+        int stateBit = open ? GateRule.STATE_OPEN : GateRule.STATE_CLOSED;
+        int minute = -1;
+        for (GateRule rule : table[dimension][cause]) {
+            if ((rule.stateMask & stateBit) == 0) continue;
+            if ((capabilities & rule.requiredBits) != rule.requiredBits || (capabilities & rule.forbiddenBits) != 0) continue;
+            if (rule.destinations != null && (destination < 0 || !rule.destinations.get(destination))) continue;
+            if (rule.worldNode != 0 && (destination < 0 || (worldNodes & rule.worldNode) == 0)) continue;
+            if (rule.fromMinute >= 0) {
+                if (minute < 0) {
+                    LocalTime now = LocalTime.now();
+                    minute = now.getHour() * 60 + now.getMinute();
+                }
+                if (!inWindow(minute, rule.fromMinute, rule.toMinute)) continue;
+            }
+            return rule.outcome;
+        }
+        return AccessDecision.DENY;
+    }
+    
+    private boolean inRange(int dimension, int cause) {
+        return dimension >= 0 && dimension < table.length && cause >= 0 && cause < table[dimension].length;
+    }
+    
+    private static boolean inWindow(int minute, int from, int to) {
+        // A window like 22:00-06:00 wraps past midnight
+        return from <= to ? minute >= from && minute < to : minute >= from || minute < to;
+    }
+    
+    /**
+     * Get the number of rules, including ones that apply to nothing
+     */
+    public int getRuleCount() {
+        return ruleCount;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,120 @@
+package com.dimensionopening.core;
+
+import java.util.BitSet;
+
+/**
+ * One access rule for a {@link GateEngine}. Unset conditions match everything.
+ *
+ * Dimensions and causes are small integers chosen by the platform adapter,
+ * capabilities are bits from a {@link CapabilityCache} and destinations are
+ * indexes from the engine's {@link GateState}.
+ */
+public final class GateRule {
+    
+    public static final int STATE_OPEN = 1;
+    public static final int STATE_CLOSED = 2;
+    public static final int STATE_ANY = STATE_OPEN | STATE_CLOSED;
+    
+    /** Subject holds the destination's own access node */
+    public static final int WORLD_NODE_ACCESS = 1;
+    /** Subject holds the destination's own bypass node */
+    public static final int WORLD_NODE_BYPASS = 2;
+    
+    final AccessDecision outcome;
+    long dimensionMask = -1L;
+    long causeMask = -1L;
+    long requiredBits;
+    long forbiddenBits;
+    BitSet destinations;
+    int stateMask = STATE_ANY;
+    int fromMinute = -1;
+    int toMinute = -1;
+    int worldNode;
+    
+    public GateRule(AccessDecision outcome) {
+        this.outcome = outcome;
+    }
+    
+    /**
+     * Only apply to these dimensions
+     */
+    public GateRule dimensions(int... dimensions) {
+        dimensionMask = mask(dimensions);
+        return this;
+    }
+    
+    /**
+     * Only apply to these causes
+     */
+    public GateRule causes(int... causes) {
+        causeMask = mask(causes);
+        return this;
+    }
+    
+    /**
+     * Require all of these capability bits
+     */
+    public GateRule require(long bits) {
+        requiredBits |= bits;
+        return this;
+    }
+    
+    /**
+     * Require none of these capability bits
+     */
+    public GateRule forbid(long bits) {
+        forbiddenBits |= bits;
+        return this;
+    }
+    
+    /**
+     * Only match these destinations. Checks by dimension alone, with no destination, never match.
+     */
+    public GateRule destinations(int... destinations) {
+        this.destinations = new BitSet();
+        for (int destination : destinations) {
+            this.destinations.set(destination);
+        }
+        return this;
+    }
+    
+    /**
+     * Only match while the destination is open ({@link #STATE_OPEN}) or closed ({@link #STATE_CLOSED})
+     */
+    public GateRule state(int stateMask) {
+        this.stateMask = stateMask;
+        return this;
+    }
+    
+    /**
+     * Only match between two minutes of the day. A window may wrap past midnight.
+     */
+    public GateRule window(int fromMinute, int toMinute) {
+        this.fromMinute = fromMinute;
+        this.toMinute = toMinute;
+        return this;
+    }
+    
+    /**
+     * Require the destination's own access or bypass node, see {@link #WORLD_NODE_ACCESS}
+     */
+    public GateRule worldNode(int worldNode) {
+        this.worldNode = worldNode;
+        return this;
+    }
+    
+    public AccessDecision getOutcome() {
+        return outcome;
+    }
+    
+    private static long mask(int... values) {
+        long mask = 0L;
+        for (int value : values) {
+            if (value < 0 || value >= Long.SIZE) {
+                throw new IllegalArgumentException("Index out of range: " + value);
+            }
+            mask |= 1L << value;
+        }
+        return mask;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,171 @@
+package com.dimensionopening.core;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Open and closed state of dimensions and destinations, kept in primitives.
+ *
+ * Dimensions are small integers whose closed flags share one word.
+ * Destinations (worlds) are registered by name and get a dense index into
+ * arrays holding their dimension and their override, if any. Reads never
+ * lock: every write publishes a new word or array through a volatile field.
+ * Writes are synchronized and bump a version that callers compare to tell
+ * when data derived from the state is stale.
+ */
+public final class GateState {
+    
+    /** Dimension of a destination whose world has not been seen yet */
+    public static final int NO_DIMENSION = -1;
+    
+    private static final byte FOLLOW = 0;
+    private static final byte OPEN = 1;
+    private static final byte CLOSED = 2;
+    
+    // Lower-case name -> destination index
+    private final Map<String, Integer> destinations;
+    private volatile String[] names;
+    private volatile int[] dimensions;
+    private volatile byte[] overrides;
+    // Bit per dimension, set while closed, so unknown dimensions are open
+    private volatile long closedDimensions;
+    private volatile long version;
+    
+    public GateState() {
+        this.destinations = new ConcurrentHashMap<>();
+        this.names = new String[0];
+        this.dimensions = new int[0];
+        this.overrides = new byte[0];
+    }
+    
+    /**
+     * Get the index of a destination by name, ignoring case, registering it if needed
+     */
+    public int destination(String name) {
+        Integer index = destinations.get(name);
+        return index != null ? index : register(name, NO_DIMENSION);
+    }
+    
+    /**
+     * Register a destination, or record the dimension of one that was registered by name only
+     *
+     * @return the destination's index
+     */
+    public synchronized int register(String name, int dimension) {
+        String key = name.toLowerCase();
+        Integer existing = destinations.get(key);
+        if (existing != null) {
+            if (dimension != NO_DIMENSION && dimensions[existing] != dimension) {
+                int[] updated = dimensions.clone();
+                updated[existing] = dimension;
+                dimensions = updated;
+            }
+            destinations.putIfAbsent(name, existing);
+            return existing;
+        }
+        
+        int index = names.length;
+        String[] grownNames = Arrays.copyOf(names, index + 1);
+        grownNames[index] = key;
+        int[] grownDimensions = Arrays.copyOf(dimensions, index + 1);
+        grownDimensions[index] = dimension;
+        // Arrays are published before the index so readers never see an index past their end
+        overrides = Arrays.copyOf(overrides, index + 1);
+        dimensions = grownDimensions;
+        names = grownNames;
+        destinations.put(key, index);
+        destinations.putIfAbsent(name, index);
+        return index;
+    }
+    
+    public int getDestinationCount() {
+        return names.length;
+    }
+    
+    /**
+     * Get a destination's lower-case name
+     */
+    public String getName(int destination) {
+        return names[destination];
+    }
+    
+    /**
+     * Get a destination's dimension, or {@link #NO_DIMENSION} if not known yet
+     */
+    public int getDimension(int destination) {
+        return dimensions[destination];
+    }
+    
+    public boolean isDimensionOpen(int dimension) {
+        return dimension < 0 || dimension >= Long.SIZE || (closedDimensions & (1L << dimension)) == 0;
+    }
+    
+    /**
+     * @return false if the dimension was already in that state
+     */
+    public synchronized boolean setDimensionOpen(int dimension, boolean open) {
+        if (dimension < 0 || dimension >= Long.SIZE) {
+            throw new IllegalArgumentException("Dimension out of range: " + dimension);
+        }
+        long bit = 1L << dimension;
+        long closed = open ? closedDimensions & ~bit : closedDimensions | bit;
+        if (closed == closedDimensions) {
+            return false;
+        }
+        closedDimensions = closed;
+        version++;
+        return true;
+    }
+    
+    /**
+     * Check a destination, using its override if it has one and its dimension's state otherwise
+     */
+    public boolean isOpen(int destination) {
+        byte override = overrides[destination];
+        if (override != FOLLOW) {
+            return override == OPEN;
+        }
+        return isDimensionOpen(dimensions[destination]);
+    }
+    
+    public boolean hasOverride(int destination) {
+        return overrides[destination] != FOLLOW;
+    }
+    
+    /**
+     * Give a destination its own state, independent of its dimension
+     *
+     * @return false if it already had that override
+     */
+    public synchronized boolean setOverride(int destination, boolean open) {
+        return writeOverride(destination, open ? OPEN : CLOSED);
+    }
+    
+    /**
+     * Make a destination follow its dimension's state again
+     *
+     * @return false if it had no override
+     */
+    public synchronized boolean clearOverride(int destination) {
+        return writeOverride(destination, FOLLOW);
+    }
+    
+    private boolean writeOverride(int destination, byte override) {
+        if (overrides[destination] == override) {
+            return false;
+        }
+        byte[] updated = overrides.clone();
+        updated[destination] = override;
+        overrides = updated;
+        version++;
+        return true;
+    }
+    
+    /**
+     * Get a counter that changes whenever any dimension or destination state changes
+     */
+    public long getVersion() {
+        return version;
+    }
+}
\ No newline at end of file
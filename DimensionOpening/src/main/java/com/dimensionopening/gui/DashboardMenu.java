@@ -0,0 +1,32 @@
+package com.dimensionopening.gui;
+
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.InventoryHolder;
+
+/**
+ * Holder of an open metrics dashboard inventory
+ */
+class DashboardMenu implements InventoryHolder {
+    
+    private final Player viewer;
+    private final Inventory inventory;
+    
+    DashboardMenu(Player viewer, int size, String title) {
+        this.viewer = viewer;
+        this.inventory = Bukkit.createInventory(this, size, title);
+    }
+    
+    /**
+     * The player the menu was opened for. Redraws run on this player's thread.
+     */
+    Player getViewer() {
+        return viewer;
+    }
+    
+    @Override
+    public Inventory getInventory() {
+        return inventory;
+    }
+}
\ No newline at end of file
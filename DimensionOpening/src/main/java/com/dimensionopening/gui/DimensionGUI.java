@@ -1,38 +1,62 @@
 package com.dimensionopening.gui;
 
-import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
 import org.bukkit.Material;
 import org.bukkit.World;
+import org.bukkit.entity.HumanEntity;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.Listener;
 import org.bukkit.event.inventory.InventoryClickEvent;
+import org.bukkit.event.inventory.InventoryCloseEvent;
+import org.bukkit.event.inventory.InventoryDragEvent;
 import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.InventoryHolder;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.inventory.meta.ItemMeta;
 import com.dimensionopening.DimensionOpeningPlugin;
+import com.dimensionopening.audit.AuditEvent;
 import com.dimensionopening.managers.DimensionManager;
+import com.dimensionopening.managers.DimensionStateListener;
 import com.dimensionopening.notifications.NotificationManager;
 import com.dimensionopening.permissions.PermissionManager;
+import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
-public class DimensionGUI implements Listener {
+public class DimensionGUI implements Listener, DimensionStateListener {
+    
+    private static final int SIZE = 27;
+    private static final int INFO_SLOT = 22;
+    private static final int STATS_SLOT = 18;
+    private static final int BROWSE_SLOT = 26;
     
     private final DimensionOpeningPlugin plugin;
     private final DimensionManager dimensionManager;
     private final NotificationManager notificationManager;
     private final PermissionManager permissionManager;
-    private final Map<Player, Inventory> openGUIs;
+    private final Set<DimensionMenu> openMenus;
+    // Built once per environment ordinal and state (0 = closed, 1 = open); inventories copy items on set
+    private final ItemStack[][] dimensionItems;
+    private final ItemStack infoItem;
+    private final ItemStack browseItem;
+    private final ItemStack statsItem;
+    private final ItemStack fillerItem;
     
     public DimensionGUI(DimensionOpeningPlugin plugin, DimensionManager dimensionManager, NotificationManager notificationManager, PermissionManager permissionManager) {
         this.plugin = plugin;
         this.dimensionManager = dimensionManager;
         this.notificationManager = notificationManager;
         this.permissionManager = permissionManager;
-        this.openGUIs = new HashMap<>();
+        this.openMenus = ConcurrentHashMap.newKeySet();
+        this.dimensionItems = new ItemStack[World.Environment.values().length][2];
+        this.infoItem = createInfoItem();
+        this.browseItem = createBrowseItem();
+        this.statsItem = createStatsItem();
+        this.fillerItem = createFillerItem();
+        
+        dimensionManager.addStateListener(this);
     }
     
     public void openDimensionGUI(Player player) {
@@ -42,64 +66,58 @@ public class DimensionGUI implements Listener {
             return;
         }
         
-        Inventory gui = Bukkit.createInventory(null, 27, ChatColor.DARK_PURPLE + "Dimension Control");
-        
-        // Overworld (slot 10)
-        ItemStack overworldItem = createDimensionItem(
-            World.Environment.NORMAL,
-            Material.GRASS_BLOCK,
-            "Overworld",
-            dimensionManager.isDimensionOpen(World.Environment.NORMAL)
-        );
-        gui.setItem(10, overworldItem);
-        
-        // Nether (slot 13)
-        ItemStack netherItem = createDimensionItem(
-            World.Environment.NETHER,
-            Material.NETHERRACK,
-            "Nether",
-            dimensionManager.isDimensionOpen(World.Environment.NETHER)
-        );
-        gui.setItem(13, netherItem);
-        
-        // End (slot 16)
-        ItemStack endItem = createDimensionItem(
-            World.Environment.THE_END,
-            Material.END_STONE,
-            "End",
-            dimensionManager.isDimensionOpen(World.Environment.THE_END)
-        );
-        gui.setItem(16, endItem);
-        
-        // Info item (slot 22)
-        ItemStack infoItem = new ItemStack(Material.BOOK);
-        ItemMeta infoMeta = infoItem.getItemMeta();
-        infoMeta.setDisplayName(ChatColor.YELLOW + "Information");
-        infoMeta.setLore(Arrays.asList(
-            ChatColor.GRAY + "Click on dimensions to toggle them",
-            ChatColor.GRAY + "Green = Open, Red = Closed",
-            ChatColor.GRAY + "Only operators can access closed dimensions"
-        ));
-        infoItem.setItemMeta(infoMeta);
-        gui.setItem(22, infoItem);
+        DimensionMenu menu = new DimensionMenu(player, SIZE, ChatColor.DARK_PURPLE + "Dimension Control");
+        Inventory gui = menu.getInventory();
         
-        // Fill empty slots with glass panes
-        ItemStack filler = new ItemStack(Material.GRAY_STAINED_GLASS_PANE);
-        ItemMeta fillerMeta = filler.getItemMeta();
-        fillerMeta.setDisplayName(" ");
-        filler.setItemMeta(fillerMeta);
+        for (World.Environment environment : dimensionManager.getAllDimensionStates().keySet()) {
+            int slot = getSlot(environment);
+            if (slot >= 0) {
+                gui.setItem(slot, getDimensionItem(environment, dimensionManager.isDimensionOpen(environment)));
+            }
+        }
+        gui.setItem(INFO_SLOT, infoItem);
+        gui.setItem(BROWSE_SLOT, browseItem);
+        if (permissionManager.canUseCommand(player, "stats")) {
+            gui.setItem(STATS_SLOT, statsItem);
+        }
         
+        // Fill empty slots with glass panes
         for (int i = 0; i < gui.getSize(); i++) {
             if (gui.getItem(i) == null) {
-                gui.setItem(i, filler);
+                gui.setItem(i, fillerItem);
             }
         }
         
-        openGUIs.put(player, gui);
+        openMenus.add(menu);
         player.openInventory(gui);
     }
     
-    private ItemStack createDimensionItem(World.Environment environment, Material material, String name, boolean isOpen) {
+    /**
+     * Update the changed dimension's slot in every open menu, each on its viewer's thread
+     */
+    @Override
+    public void onDimensionStateChange(World.Environment environment, boolean open) {
+        int slot = getSlot(environment);
+        if (slot < 0 || openMenus.isEmpty()) {
+            return;
+        }
+        for (DimensionMenu menu : openMenus) {
+            // Read the state when the task runs, in case it changed again on the way
+            plugin.getTaskScheduler().runForEntity(menu.getViewer(), () ->
+                    menu.getInventory().setItem(slot, getDimensionItem(environment, dimensionManager.isDimensionOpen(environment))));
+        }
+    }
+    
+    private ItemStack getDimensionItem(World.Environment environment, boolean isOpen) {
+        ItemStack[] items = dimensionItems[environment.ordinal()];
+        int state = isOpen ? 1 : 0;
+        if (items[state] == null) {
+            items[state] = createDimensionItem(getMaterial(environment), getDimensionDisplayName(environment), isOpen);
+        }
+        return items[state];
+    }
+    
+    private ItemStack createDimensionItem(Material material, String name, boolean isOpen) {
         ItemStack item = new ItemStack(material);
         ItemMeta meta = item.getItemMeta();
         
@@ -118,44 +136,78 @@ public class DimensionGUI implements Listener {
         return item;
     }
     
+    private ItemStack createInfoItem() {
+        ItemStack item = new ItemStack(Material.BOOK);
+        ItemMeta meta = item.getItemMeta();
+        meta.setDisplayName(ChatColor.YELLOW + "Information");
+        meta.setLore(Arrays.asList(
+            ChatColor.GRAY + "Click on dimensions to toggle them",
+            ChatColor.GRAY + "Green = Open, Red = Closed",
+            ChatColor.GRAY + "Only operators can access closed dimensions"
+        ));
+        item.setItemMeta(meta);
+        return item;
+    }
+    
+    private ItemStack createBrowseItem() {
+        ItemStack item = new ItemStack(Material.COMPASS);
+        ItemMeta meta = item.getItemMeta();
+        meta.setDisplayName(ChatColor.YELLOW + "Browse Worlds");
+        meta.setLore(Arrays.asList(
+            ChatColor.GRAY + "Open or close individual worlds"
+        ));
+        item.setItemMeta(meta);
+        return item;
+    }
+    
+    private ItemStack createStatsItem() {
+        ItemStack item = new ItemStack(Material.CLOCK);
+        ItemMeta meta = item.getItemMeta();
+        meta.setDisplayName(ChatColor.YELLOW + "Live Stats");
+        meta.setLore(Arrays.asList(
+            ChatColor.GRAY + "Occupancy, activity and tick cost per dimension"
+        ));
+        item.setItemMeta(meta);
+        return item;
+    }
+    
+    private ItemStack createFillerItem() {
+        ItemStack item = new ItemStack(Material.GRAY_STAINED_GLASS_PANE);
+        ItemMeta meta = item.getItemMeta();
+        meta.setDisplayName(" ");
+        item.setItemMeta(meta);
+        return item;
+    }
+    
     @EventHandler
     public void onInventoryClick(InventoryClickEvent event) {
-        if (!(event.getWhoClicked() instanceof Player)) return;
-        
-        Player player = (Player) event.getWhoClicked();
-        Inventory clickedInventory = event.getClickedInventory();
-        
         // Check if this is our GUI
-        if (!openGUIs.containsKey(player) || !openGUIs.get(player).equals(clickedInventory)) {
+        Inventory gui = event.getInventory();
+        if (!(gui.getHolder() instanceof DimensionMenu)) {
             return;
         }
         
-        event.setCancelled(true); // Prevent item pickup
+        event.setCancelled(true); // Prevent item pickup, including shift-clicks from the player's inventory
+        
+        if (!(event.getWhoClicked() instanceof Player) || event.getClickedInventory() != gui) return;
         
-        ItemStack clickedItem = event.getCurrentItem();
-        if (clickedItem == null || clickedItem.getType() == Material.AIR) return;
+        Player player = (Player) event.getWhoClicked();
         
-        int slot = event.getSlot();
-        World.Environment environment = null;
-        String dimensionName = null;
+        if (event.getSlot() == BROWSE_SLOT) {
+            plugin.getWorldBrowser().open(player, null);
+            return;
+        }
+        if (event.getSlot() == STATS_SLOT && event.getCurrentItem() != null && event.getCurrentItem().getType() == Material.CLOCK) {
+            plugin.getMetricsDashboard().open(player);
+            return;
+        }
         
         // Determine which dimension was clicked
-        switch (slot) {
-            case 10: // Overworld
-                environment = World.Environment.NORMAL;
-                dimensionName = "Overworld";
-                break;
-            case 13: // Nether
-                environment = World.Environment.NETHER;
-                dimensionName = "Nether";
-                break;
-            case 16: // End
-                environment = World.Environment.THE_END;
-                dimensionName = "End";
-                break;
-            default:
-                return; // Not a dimension slot
+        World.Environment environment = getDimensionAt(event.getSlot());
+        if (environment == null) {
+            return; // Not a dimension slot
         }
+        String dimensionName = getDimensionDisplayName(environment);
         
         // Check if player has admin permission
         if (!permissionManager.hasAdminPermission(player)) {
@@ -170,51 +222,107 @@ public class DimensionGUI implements Listener {
         if (currentState) {
             success = dimensionManager.closeDimension(environment);
             if (success) {
+                plugin.getAuditLog().record(AuditEvent.Action.DIMENSION_CLOSE, AuditEvent.Source.GUI, player, environment, null);
                 player.sendMessage(ChatColor.RED + dimensionName + " dimension has been closed!");
                 notificationManager.broadcastDimensionStateChange(environment, false);
+            } else if (dimensionManager.isDimensionOpen(environment)) {
+                player.sendMessage(ChatColor.RED + "Closing the " + dimensionName + " dimension was cancelled by another plugin.");
             }
         } else {
             success = dimensionManager.openDimension(environment);
             if (success) {
+                plugin.getAuditLog().record(AuditEvent.Action.DIMENSION_OPEN, AuditEvent.Source.GUI, player, environment, null);
                 player.sendMessage(ChatColor.GREEN + dimensionName + " dimension has been opened!");
                 notificationManager.broadcastDimensionStateChange(environment, true);
+            } else if (!dimensionManager.isDimensionOpen(environment)) {
+                player.sendMessage(ChatColor.RED + "Opening the " + dimensionName + " dimension was cancelled by another plugin.");
             }
         }
-        
-        // Refresh the GUI
-        if (success) {
-            refreshGUI(player);
+    }
+    
+    @EventHandler
+    public void onInventoryDrag(InventoryDragEvent event) {
+        if (event.getInventory().getHolder() instanceof DimensionMenu) {
+            event.setCancelled(true);
         }
     }
     
-    private void refreshGUI(Player player) {
-        Inventory gui = openGUIs.get(player);
-        if (gui == null) return;
-        
-        // Update dimension items
-        gui.setItem(10, createDimensionItem(
-            World.Environment.NORMAL,
-            Material.GRASS_BLOCK,
-            "Overworld",
-            dimensionManager.isDimensionOpen(World.Environment.NORMAL)
-        ));
-        
-        gui.setItem(13, createDimensionItem(
-            World.Environment.NETHER,
-            Material.NETHERRACK,
-            "Nether",
-            dimensionManager.isDimensionOpen(World.Environment.NETHER)
-        ));
-        
-        gui.setItem(16, createDimensionItem(
-            World.Environment.THE_END,
-            Material.END_STONE,
-            "End",
-            dimensionManager.isDimensionOpen(World.Environment.THE_END)
-        ));
+    @EventHandler
+    public void onInventoryClose(InventoryCloseEvent event) {
+        InventoryHolder holder = event.getInventory().getHolder();
+        if (holder instanceof DimensionMenu) {
+            openMenus.remove(holder);
+        }
     }
     
+    /**
+     * Close the dimension menu if the player has it open
+     */
     public void closeGUI(Player player) {
-        openGUIs.remove(player);
+        if (player.getOpenInventory().getTopInventory().getHolder() instanceof DimensionMenu) {
+            player.closeInventory();
+        }
+    }
+    
+    /**
+     * Close every open dimension menu, e.g. when the plugin is disabled
+     */
+    public void closeAll() {
+        for (DimensionMenu menu : new ArrayList<>(openMenus)) {
+            for (HumanEntity viewer : new ArrayList<>(menu.getInventory().getViewers())) {
+                viewer.closeInventory();
+            }
+        }
+        openMenus.clear();
+    }
+    
+    private int getSlot(World.Environment environment) {
+        switch (environment) {
+            case NORMAL:
+                return 10;
+            case NETHER:
+                return 13;
+            case THE_END:
+                return 16;
+            default:
+                return -1;
+        }
+    }
+    
+    private World.Environment getDimensionAt(int slot) {
+        switch (slot) {
+            case 10:
+                return World.Environment.NORMAL;
+            case 13:
+                return World.Environment.NETHER;
+            case 16:
+                return World.Environment.THE_END;
+            default:
+                return null;
+        }
+    }
+    
+    private Material getMaterial(World.Environment environment) {
+        switch (environment) {
+            case NETHER:
+                return Material.NETHERRACK;
+            case THE_END:
+                return Material.END_STONE;
+            default:
+                return Material.GRASS_BLOCK;
+        }
+    }
+    
+    private String getDimensionDisplayName(World.Environment environment) {
+        switch (environment) {
+            case NORMAL:
+                return "Overworld";
+            case NETHER:
+                return "Nether";
+            case THE_END:
+                return "End";
+            default:
+                return "Unknown";
+        }
     }
 }
\ No newline at end of file
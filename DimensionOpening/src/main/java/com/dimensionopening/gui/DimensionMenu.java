@@ -0,0 +1,33 @@
+package com.dimensionopening.gui;
+
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.InventoryHolder;
+
+/**
+ * Holder of an open dimension control inventory. Click and close events are
+ * matched by checking the holder's type, so no per-player lookup is needed.
+ */
+class DimensionMenu implements InventoryHolder {
+    
+    private final Player viewer;
+    private final Inventory inventory;
+    
+    DimensionMenu(Player viewer, int size, String title) {
+        this.viewer = viewer;
+        this.inventory = Bukkit.createInventory(this, size, title);
+    }
+    
+    /**
+     * The player the menu was opened for. Redraws run on this player's thread.
+     */
+    Player getViewer() {
+        return viewer;
+    }
+    
+    @Override
+    public Inventory getInventory() {
+        return inventory;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,253 @@
+package com.dimensionopening.gui;
+
+import org.bukkit.Bukkit;
+import org.bukkit.ChatColor;
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.entity.HumanEntity;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.Listener;
+import org.bukkit.event.inventory.InventoryClickEvent;
+import org.bukkit.event.inventory.InventoryCloseEvent;
+import org.bukkit.event.inventory.InventoryDragEvent;
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.InventoryHolder;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.ItemMeta;
+import com.dimensionopening.DimensionOpeningPlugin;
+import com.dimensionopening.managers.DimensionManager;
+import com.dimensionopening.metrics.MetricsManager;
+import com.dimensionopening.metrics.PerformanceMonitor;
+import com.dimensionopening.permissions.PermissionManager;
+import com.dimensionopening.scheduler.TaskHandle;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Live per-dimension statistics inside the GUI.
+ *
+ * A single refresh task runs only while at least one dashboard is open and
+ * is cancelled when the last one closes. Every open dashboard shows the same
+ * data, so each slot's text is computed once per refresh and its item is
+ * rebuilt and written to the open inventories only when the text changed.
+ */
+public class MetricsDashboard implements Listener {
+    
+    private static final int SIZE = 27;
+    private static final World.Environment[] DIMENSIONS = {
+        World.Environment.NORMAL, World.Environment.NETHER, World.Environment.THE_END
+    };
+    private static final int[] DIMENSION_SLOTS = {10, 13, 16};
+    private static final int BACK_SLOT = 18;
+    private static final int TICK_COST_SLOT = 22;
+    // Rate window for the denials per minute figure
+    private static final int RATE_MINUTES = 5;
+    
+    private final DimensionOpeningPlugin plugin;
+    private final DimensionManager dimensionManager;
+    private final PermissionManager permissionManager;
+    private final Set<DashboardMenu> openMenus;
+    // Last displayed lines and item per inventory slot
+    private final List<String>[] shownLines;
+    private final ItemStack[] shownItems;
+    private final ItemStack fillerItem;
+    private final ItemStack backItem;
+    private TaskHandle refreshTask;
+    
+    @SuppressWarnings("unchecked")
+    public MetricsDashboard(DimensionOpeningPlugin plugin, DimensionManager dimensionManager, PermissionManager permissionManager) {
+        this.plugin = plugin;
+        this.dimensionManager = dimensionManager;
+        this.permissionManager = permissionManager;
+        this.openMenus = ConcurrentHashMap.newKeySet();
+        this.shownLines = new List[SIZE];
+        this.shownItems = new ItemStack[SIZE];
+        this.fillerItem = createItem(Material.GRAY_STAINED_GLASS_PANE, " ", null);
+        this.backItem = createItem(Material.ARROW, ChatColor.YELLOW + "Back", null);
+    }
+    
+    public void open(Player player) {
+        if (!permissionManager.canUseCommand(player, "stats")) {
+            player.sendMessage(ChatColor.RED + "You don't have permission to view dimension statistics!");
+            return;
+        }
+        
+        DashboardMenu menu = new DashboardMenu(player, SIZE, ChatColor.DARK_PURPLE + "Dimension Stats");
+        Inventory inventory = menu.getInventory();
+        // Players on different Folia regions can open dashboards while the global region refreshes them
+        synchronized (this) {
+            if (openMenus.isEmpty()) {
+                refresh();
+            }
+            
+            for (int slot = 0; slot < SIZE; slot++) {
+                inventory.setItem(slot, shownItems[slot] != null ? shownItems[slot] : fillerItem);
+            }
+            inventory.setItem(BACK_SLOT, backItem);
+            
+            openMenus.add(menu);
+            startRefreshing();
+        }
+        player.openInventory(inventory);
+    }
+    
+    private void startRefreshing() {
+        if (refreshTask != null) {
+            return;
+        }
+        long refreshTicks = plugin.getSettings().getDashboardRefreshTicks();
+        refreshTask = plugin.getTaskScheduler().runGlobalTimer(this::refresh, refreshTicks, refreshTicks);
+    }
+    
+    private synchronized void stopRefreshing() {
+        if (refreshTask != null) {
+            refreshTask.cancel();
+            refreshTask = null;
+        }
+    }
+    
+    /**
+     * Recompute every slot and write the ones whose text changed
+     */
+    private synchronized void refresh() {
+        int[] occupancy = new int[World.Environment.values().length];
+        for (World world : Bukkit.getWorlds()) {
+            occupancy[world.getEnvironment().ordinal()] += world.getPlayerCount();
+        }
+        
+        MetricsManager metricsManager = plugin.getMetricsManager();
+        for (int i = 0; i < DIMENSIONS.length; i++) {
+            World.Environment environment = DIMENSIONS[i];
+            boolean isOpen = dimensionManager.isDimensionOpen(environment);
+            ChatColor statusColor = isOpen ? ChatColor.GREEN : ChatColor.RED;
+            double denialRate = metricsManager.getWindowCount(MetricsManager.Series.DENIALS, environment, RATE_MINUTES) / (double) RATE_MINUTES;
+            
+            List<String> lines = Arrays.asList(
+                ChatColor.GRAY + "Status: " + statusColor + (isOpen ? "OPEN" : "CLOSED"),
+                ChatColor.GRAY + "Players: " + ChatColor.WHITE + occupancy[environment.ordinal()],
+                ChatColor.GRAY + "Opened: " + ChatColor.WHITE + metricsManager.getOpenCount(environment) +
+                    ChatColor.GRAY + ", closed: " + ChatColor.WHITE + metricsManager.getCloseCount(environment),
+                ChatColor.GRAY + "Denials: " + ChatColor.WHITE + String.format("%.1f", denialRate) + "/min" +
+                    ChatColor.DARK_GRAY + " (last " + RATE_MINUTES + "m)",
+                ChatColor.GRAY + "Uptime: " + ChatColor.WHITE + metricsManager.getFormattedUptime(environment)
+            );
+            update(DIMENSION_SLOTS[i], getMaterial(environment), statusColor + getDimensionDisplayName(environment), lines);
+        }
+        
+        update(TICK_COST_SLOT, Material.CLOCK, ChatColor.YELLOW + "Plugin Tick Cost", getTickCostLines());
+    }
+    
+    private List<String> getTickCostLines() {
+        PerformanceMonitor performanceMonitor = plugin.getPerformanceMonitor();
+        if (!performanceMonitor.isEnabled()) {
+            return Arrays.asList(
+                ChatColor.GRAY + "Timing is disabled",
+                ChatColor.GRAY + "Use " + ChatColor.YELLOW + "/dimension perf on" + ChatColor.GRAY + " to start sampling"
+            );
+        }
+        
+        return Arrays.asList(
+            ChatColor.GRAY + "Per tick: " + ChatColor.WHITE + String.format("%.1fµs", performanceMonitor.getTotalNanosPerTick() / 1_000.0),
+            ChatColor.GRAY + "Share of MSPT: " + ChatColor.WHITE + String.format("%.3f%%", performanceMonitor.getTotalShareOfTick() * 100)
+        );
+    }
+    
+    private void update(int slot, Material material, String name, List<String> lines) {
+        if (lines.equals(shownLines[slot])) {
+            return;
+        }
+        shownLines[slot] = lines;
+        ItemStack item = createItem(material, name, lines);
+        shownItems[slot] = item;
+        // Refreshes run on the global region; each inventory belongs to its viewer's region
+        for (DashboardMenu menu : openMenus) {
+            plugin.getTaskScheduler().runForEntity(menu.getViewer(), () -> menu.getInventory().setItem(slot, item));
+        }
+    }
+    
+    @EventHandler
+    public void onInventoryClick(InventoryClickEvent event) {
+        Inventory inventory = event.getInventory();
+        if (!(inventory.getHolder() instanceof DashboardMenu)) {
+            return;
+        }
+        
+        event.setCancelled(true);
+        
+        if (event.getWhoClicked() instanceof Player && event.getClickedInventory() == inventory && event.getSlot() == BACK_SLOT) {
+            plugin.getDimensionGUI().openDimensionGUI((Player) event.getWhoClicked());
+        }
+    }
+    
+    @EventHandler
+    public void onInventoryDrag(InventoryDragEvent event) {
+        if (event.getInventory().getHolder() instanceof DashboardMenu) {
+            event.setCancelled(true);
+        }
+    }
+    
+    @EventHandler
+    public void onInventoryClose(InventoryCloseEvent event) {
+        InventoryHolder holder = event.getInventory().getHolder();
+        if (!(holder instanceof DashboardMenu)) {
+            return;
+        }
+        synchronized (this) {
+            if (openMenus.remove(holder) && openMenus.isEmpty()) {
+                stopRefreshing();
+            }
+        }
+    }
+    
+    /**
+     * Close every open dashboard and stop refreshing, e.g. when the plugin is disabled
+     */
+    public void closeAll() {
+        for (DashboardMenu menu : new ArrayList<>(openMenus)) {
+            for (HumanEntity viewer : new ArrayList<>(menu.getInventory().getViewers())) {
+                viewer.closeInventory();
+            }
+        }
+        openMenus.clear();
+        stopRefreshing();
+    }
+    
+    private ItemStack createItem(Material material, String name, List<String> lore) {
+        ItemStack item = new ItemStack(material);
+        ItemMeta meta = item.getItemMeta();
+        meta.setDisplayName(name);
+        if (lore != null) {
+            meta.setLore(lore);
+        }
+        item.setItemMeta(meta);
+        return item;
+    }
+    
+    private Material getMaterial(World.Environment environment) {
+        switch (environment) {
+            case NETHER:
+                return Material.NETHERRACK;
+            case THE_END:
+                return Material.END_STONE;
+            default:
+                return Material.GRASS_BLOCK;
+        }
+    }
+    
+    private String getDimensionDisplayName(World.Environment environment) {
+        switch (environment) {
+            case NORMAL:
+                return "Overworld";
+            case NETHER:
+                return "Nether";
+            case THE_END:
+                return "End";
+            default:
+                return "Unknown";
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,408 @@
+package com.dimensionopening.gui;
+
+import org.bukkit.Bukkit;
+import org.bukkit.ChatColor;
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.entity.HumanEntity;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.Listener;
+import org.bukkit.event.inventory.InventoryClickEvent;
+import org.bukkit.event.inventory.InventoryCloseEvent;
+import org.bukkit.event.inventory.InventoryDragEvent;
+import org.bukkit.event.world.WorldLoadEvent;
+import org.bukkit.event.world.WorldUnloadEvent;
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.InventoryHolder;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.ItemMeta;
+import com.dimensionopening.DimensionOpeningPlugin;
+import com.dimensionopening.audit.AuditEvent;
+import com.dimensionopening.managers.DimensionManager;
+import com.dimensionopening.managers.DimensionStateListener;
+import com.dimensionopening.permissions.PermissionManager;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Paginated browser for opening and closing individual worlds.
+ *
+ * Only the visible page is rendered. The filtered, sorted world list is
+ * cached per (filter, sort, name query) and thrown away when the dimension
+ * manager's state version changes or a world loads or unloads; occupancy
+ * ordering is also refreshed every few seconds since player counts change
+ * without a state change. Each menu keeps its inventory for its whole life
+ * and redraws it in place on page flips.
+ */
+public class WorldBrowser implements Listener, DimensionStateListener {
+    
+    /**
+     * Which worlds to list, cycled by the filter button
+     */
+    enum Filter {
+        ALL, OPEN, CLOSED
+    }
+    
+    /**
+     * World ordering, cycled by the sort button
+     */
+    enum Sort {
+        NAME, STATE, OCCUPANCY
+    }
+    
+    private static final int SIZE = 54;
+    private static final int PAGE_SIZE = 45;
+    private static final int PREVIOUS_SLOT = 45;
+    private static final int FILTER_SLOT = 47;
+    private static final int PAGE_SLOT = 49;
+    private static final int SORT_SLOT = 51;
+    private static final int NEXT_SLOT = 53;
+    private static final int OCCUPANCY_REFRESH_TICKS = 100;
+    private static final int MAX_CACHED_VIEWS = 64;
+    
+    private final DimensionOpeningPlugin plugin;
+    private final DimensionManager dimensionManager;
+    private final PermissionManager permissionManager;
+    private final Set<WorldBrowserMenu> openMenus;
+    private final Map<String, CachedView> views;
+    // Browsers are redrawn on their viewers' threads
+    private volatile long viewsVersion;
+    private final ItemStack fillerItem;
+    private final ItemStack previousItem;
+    private final ItemStack nextItem;
+    private final ItemStack[] filterItems;
+    private final ItemStack[] sortItems;
+    
+    private static final class CachedView {
+        final List<World> worlds;
+        final int builtTick;
+        
+        CachedView(List<World> worlds, int builtTick) {
+            this.worlds = worlds;
+            this.builtTick = builtTick;
+        }
+    }
+    
+    public WorldBrowser(DimensionOpeningPlugin plugin, DimensionManager dimensionManager, PermissionManager permissionManager) {
+        this.plugin = plugin;
+        this.dimensionManager = dimensionManager;
+        this.permissionManager = permissionManager;
+        this.openMenus = ConcurrentHashMap.newKeySet();
+        this.views = new ConcurrentHashMap<>();
+        this.viewsVersion = dimensionManager.getStateVersion();
+        
+        this.fillerItem = createItem(Material.GRAY_STAINED_GLASS_PANE, " ");
+        this.previousItem = createItem(Material.ARROW, ChatColor.YELLOW + "Previous Page");
+        this.nextItem = createItem(Material.ARROW, ChatColor.YELLOW + "Next Page");
+        this.filterItems = new ItemStack[Filter.values().length];
+        for (Filter filter : Filter.values()) {
+            filterItems[filter.ordinal()] = createItem(Material.HOPPER, ChatColor.YELLOW + "Showing: " + ChatColor.WHITE + formatOption(filter.name()),
+                    ChatColor.GRAY + "Click to cycle all, open and closed worlds");
+        }
+        this.sortItems = new ItemStack[Sort.values().length];
+        for (Sort sort : Sort.values()) {
+            sortItems[sort.ordinal()] = createItem(Material.COMPARATOR, ChatColor.YELLOW + "Sorted by: " + ChatColor.WHITE + formatOption(sort.name()),
+                    ChatColor.GRAY + "Click to sort by name, state or players");
+        }
+        
+        dimensionManager.addStateListener(this);
+    }
+    
+    /**
+     * Open the browser, optionally listing only worlds whose name contains the query
+     */
+    public void open(Player player, String query) {
+        if (!permissionManager.canUseCommand(player, "gui")) {
+            player.sendMessage(ChatColor.RED + "You don't have permission to use this!");
+            return;
+        }
+        
+        String normalized = query != null ? query.toLowerCase() : "";
+        String title = ChatColor.DARK_PURPLE + "Worlds" + (normalized.isEmpty() ? "" : ChatColor.GRAY + " \"" + query + "\"");
+        WorldBrowserMenu menu = new WorldBrowserMenu(player, SIZE, title, normalized);
+        render(menu);
+        openMenus.add(menu);
+        player.openInventory(menu.getInventory());
+    }
+    
+    private void render(WorldBrowserMenu menu) {
+        List<World> worlds = getView(menu);
+        int pages = Math.max(1, (worlds.size() + PAGE_SIZE - 1) / PAGE_SIZE);
+        menu.page = Math.min(menu.page, pages - 1);
+        menu.shown = worlds;
+        
+        Inventory inventory = menu.getInventory();
+        int first = menu.page * PAGE_SIZE;
+        for (int slot = 0; slot < PAGE_SIZE; slot++) {
+            int index = first + slot;
+            inventory.setItem(slot, index < worlds.size() ? createWorldItem(worlds.get(index)) : null);
+        }
+        
+        for (int slot = PAGE_SIZE; slot < SIZE; slot++) {
+            inventory.setItem(slot, fillerItem);
+        }
+        if (menu.page > 0) {
+            inventory.setItem(PREVIOUS_SLOT, previousItem);
+        }
+        if (menu.page < pages - 1) {
+            inventory.setItem(NEXT_SLOT, nextItem);
+        }
+        inventory.setItem(FILTER_SLOT, filterItems[menu.filter.ordinal()]);
+        inventory.setItem(SORT_SLOT, sortItems[menu.sort.ordinal()]);
+        inventory.setItem(PAGE_SLOT, createItem(Material.PAPER, ChatColor.YELLOW + "Page " + (menu.page + 1) + " of " + pages,
+                ChatColor.GRAY + "" + worlds.size() + " worlds"));
+    }
+    
+    /**
+     * Get the filtered and sorted worlds for a menu, from the cache when it is still current
+     */
+    private List<World> getView(WorldBrowserMenu menu) {
+        long version = dimensionManager.getStateVersion();
+        if (version != viewsVersion || views.size() >= MAX_CACHED_VIEWS) {
+            views.clear();
+            viewsVersion = version;
+        }
+        
+        String key = menu.filter + ":" + menu.sort + ":" + menu.getQuery();
+        int tick = Bukkit.getCurrentTick();
+        CachedView view = views.get(key);
+        if (view == null || (menu.sort == Sort.OCCUPANCY && tick - view.builtTick >= OCCUPANCY_REFRESH_TICKS)) {
+            view = new CachedView(buildView(menu.filter, menu.sort, menu.getQuery()), tick);
+            views.put(key, view);
+        }
+        return view.worlds;
+    }
+    
+    private List<World> buildView(Filter filter, Sort sort, String query) {
+        List<World> worlds = new ArrayList<>();
+        for (World world : Bukkit.getWorlds()) {
+            if (!query.isEmpty() && !world.getName().toLowerCase().contains(query)) {
+                continue;
+            }
+            if (filter != Filter.ALL && dimensionManager.isWorldOpen(world) != (filter == Filter.OPEN)) {
+                continue;
+            }
+            worlds.add(world);
+        }
+        
+        Comparator<World> byName = Comparator.comparing(World::getName, String.CASE_INSENSITIVE_ORDER);
+        switch (sort) {
+            case STATE:
+                worlds.sort(Comparator.comparing((World world) -> !dimensionManager.isWorldOpen(world)).thenComparing(byName));
+                break;
+            case OCCUPANCY:
+                worlds.sort(Comparator.comparingInt(World::getPlayerCount).reversed().thenComparing(byName));
+                break;
+            default:
+                worlds.sort(byName);
+                break;
+        }
+        return worlds;
+    }
+    
+    private ItemStack createWorldItem(World world) {
+        boolean isOpen = dimensionManager.isWorldOpen(world);
+        boolean override = dimensionManager.hasWorldOverride(world);
+        ChatColor statusColor = isOpen ? ChatColor.GREEN : ChatColor.RED;
+        
+        List<String> lore = new ArrayList<>(6);
+        lore.add(ChatColor.GRAY + "Dimension: " + ChatColor.WHITE + getDimensionDisplayName(world.getEnvironment()));
+        lore.add(ChatColor.GRAY + "Status: " + statusColor + (isOpen ? "OPEN" : "CLOSED") +
+                ChatColor.DARK_GRAY + (override ? " (world setting)" : " (follows dimension)"));
+        lore.add(ChatColor.GRAY + "Players: " + ChatColor.WHITE + world.getPlayerCount());
+        lore.add("");
+        lore.add(ChatColor.YELLOW + "Click to " + (isOpen ? "close" : "open"));
+        if (override) {
+            lore.add(ChatColor.YELLOW + "Shift-click to follow the dimension again");
+        }
+        
+        ItemStack item = new ItemStack(getMaterial(world.getEnvironment()));
+        ItemMeta meta = item.getItemMeta();
+        meta.setDisplayName(statusColor + world.getName());
+        meta.setLore(lore);
+        item.setItemMeta(meta);
+        return item;
+    }
+    
+    @EventHandler
+    public void onInventoryClick(InventoryClickEvent event) {
+        Inventory inventory = event.getInventory();
+        if (!(inventory.getHolder() instanceof WorldBrowserMenu)) {
+            return;
+        }
+        
+        event.setCancelled(true);
+        
+        if (!(event.getWhoClicked() instanceof Player) || event.getClickedInventory() != inventory) return;
+        
+        Player player = (Player) event.getWhoClicked();
+        WorldBrowserMenu menu = (WorldBrowserMenu) inventory.getHolder();
+        int slot = event.getSlot();
+        
+        switch (slot) {
+            case PREVIOUS_SLOT:
+                if (menu.page > 0) {
+                    menu.page--;
+                    render(menu);
+                }
+                return;
+            case NEXT_SLOT:
+                menu.page++;
+                render(menu);
+                return;
+            case FILTER_SLOT:
+                menu.filter = Filter.values()[(menu.filter.ordinal() + 1) % Filter.values().length];
+                menu.page = 0;
+                render(menu);
+                return;
+            case SORT_SLOT:
+                menu.sort = Sort.values()[(menu.sort.ordinal() + 1) % Sort.values().length];
+                menu.page = 0;
+                render(menu);
+                return;
+            default:
+                break;
+        }
+        
+        List<World> worlds = menu.shown;
+        int index = menu.page * PAGE_SIZE + slot;
+        if (slot >= PAGE_SIZE || index >= worlds.size()) {
+            return;
+        }
+        
+        if (!permissionManager.hasAdminPermission(player)) {
+            player.sendMessage(ChatColor.RED + "You don't have permission to modify worlds!");
+            return;
+        }
+        
+        World world = worlds.get(index);
+        if (event.isShiftClick()) {
+            boolean wasOpen = dimensionManager.isWorldOpen(world);
+            if (dimensionManager.clearWorldOverride(world)) {
+                boolean isOpen = dimensionManager.isWorldOpen(world);
+                // Only an actual open or close is audited as one
+                AuditEvent.Action action = isOpen == wasOpen ? AuditEvent.Action.WORLD_FOLLOW
+                        : isOpen ? AuditEvent.Action.DIMENSION_OPEN : AuditEvent.Action.DIMENSION_CLOSE;
+                plugin.getAuditLog().record(action, AuditEvent.Source.GUI, player, world.getEnvironment(), "world " + world.getName() + " follows dimension");
+                player.sendMessage(ChatColor.YELLOW + world.getName() + " now follows the " + getDimensionDisplayName(world.getEnvironment()) + " dimension.");
+            } else if (dimensionManager.hasWorldOverride(world)) {
+                player.sendMessage(ChatColor.RED + "Resetting " + world.getName() + " was cancelled by another plugin.");
+            } else {
+                player.sendMessage(ChatColor.YELLOW + world.getName() + " already follows the " + getDimensionDisplayName(world.getEnvironment()) + " dimension.");
+            }
+            return;
+        }
+        
+        boolean open = !dimensionManager.isWorldOpen(world);
+        if (dimensionManager.setWorldOpen(world, open)) {
+            plugin.getAuditLog().record(open ? AuditEvent.Action.DIMENSION_OPEN : AuditEvent.Action.DIMENSION_CLOSE,
+                    AuditEvent.Source.GUI, player, world.getEnvironment(), "world " + world.getName());
+            player.sendMessage((open ? ChatColor.GREEN : ChatColor.RED) + world.getName() + " has been " + (open ? "opened!" : "closed!"));
+        } else if (dimensionManager.isWorldOpen(world) != open) {
+            player.sendMessage(ChatColor.RED + (open ? "Opening " : "Closing ") + world.getName() + " was cancelled by another plugin.");
+        }
+    }
+    
+    @EventHandler
+    public void onInventoryDrag(InventoryDragEvent event) {
+        if (event.getInventory().getHolder() instanceof WorldBrowserMenu) {
+            event.setCancelled(true);
+        }
+    }
+    
+    @EventHandler
+    public void onInventoryClose(InventoryCloseEvent event) {
+        InventoryHolder holder = event.getInventory().getHolder();
+        if (holder instanceof WorldBrowserMenu) {
+            openMenus.remove(holder);
+        }
+    }
+    
+    @EventHandler
+    public void onWorldLoad(WorldLoadEvent event) {
+        refreshAll();
+    }
+    
+    @EventHandler
+    public void onWorldUnload(WorldUnloadEvent event) {
+        // The world is still listed until the unload finishes
+        plugin.getTaskScheduler().runGlobal(this::refreshAll);
+    }
+    
+    @Override
+    public void onDimensionStateChange(World.Environment environment, boolean open) {
+        refreshAll();
+    }
+    
+    @Override
+    public void onWorldStateChange(World world, boolean open) {
+        refreshAll();
+    }
+    
+    /**
+     * Drop cached views and redraw the visible page of every open browser on its viewer's thread
+     */
+    private void refreshAll() {
+        views.clear();
+        for (WorldBrowserMenu menu : openMenus) {
+            plugin.getTaskScheduler().runForEntity(menu.getViewer(), () -> render(menu));
+        }
+    }
+    
+    /**
+     * Close every open browser, e.g. when the plugin is disabled
+     */
+    public void closeAll() {
+        for (WorldBrowserMenu menu : new ArrayList<>(openMenus)) {
+            for (HumanEntity viewer : new ArrayList<>(menu.getInventory().getViewers())) {
+                viewer.closeInventory();
+            }
+        }
+        openMenus.clear();
+    }
+    
+    private ItemStack createItem(Material material, String name, String... lore) {
+        ItemStack item = new ItemStack(material);
+        ItemMeta meta = item.getItemMeta();
+        meta.setDisplayName(name);
+        if (lore.length > 0) {
+            meta.setLore(Arrays.asList(lore));
+        }
+        item.setItemMeta(meta);
+        return item;
+    }
+    
+    private String formatOption(String name) {
+        return name.charAt(0) + name.substring(1).toLowerCase();
+    }
+    
+    private Material getMaterial(World.Environment environment) {
+        switch (environment) {
+            case NETHER:
+                return Material.NETHERRACK;
+            case THE_END:
+                return Material.END_STONE;
+            default:
+                return Material.GRASS_BLOCK;
+        }
+    }
+    
+    private String getDimensionDisplayName(World.Environment environment) {
+        switch (environment) {
+            case NORMAL:
+                return "Overworld";
+            case NETHER:
+                return "Nether";
+            case THE_END:
+                return "End";
+            default:
+                return "Unknown";
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,50 @@
+package com.dimensionopening.gui;
+
+import org.bukkit.Bukkit;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.InventoryHolder;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * One player's world browser. The inventory is created once and redrawn in
+ * place when the page, filter or sort order changes.
+ */
+class WorldBrowserMenu implements InventoryHolder {
+    
+    private final Player viewer;
+    private final Inventory inventory;
+    private final String query;
+    WorldBrowser.Filter filter = WorldBrowser.Filter.ALL;
+    WorldBrowser.Sort sort = WorldBrowser.Sort.NAME;
+    int page;
+    // Worlds in the order they were drawn, so clicks match what the player sees
+    List<World> shown = Collections.emptyList();
+    
+    WorldBrowserMenu(Player viewer, int size, String title, String query) {
+        this.viewer = viewer;
+        this.inventory = Bukkit.createInventory(this, size, title);
+        this.query = query;
+    }
+    
+    /**
+     * Lower-case name filter, or an empty string to show every world
+     */
+    String getQuery() {
+        return query;
+    }
+    
+    /**
+     * The player the menu was opened for. Redraws run on this player's thread.
+     */
+    Player getViewer() {
+        return viewer;
+    }
+    
+    @Override
+    public Inventory getInventory() {
+        return inventory;
+    }
+}
\ No newline at end of file
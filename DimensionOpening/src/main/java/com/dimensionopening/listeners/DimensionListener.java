@@ -9,9 +9,17 @@ import org.bukkit.event.Listener;
 import org.bukkit.event.player.PlayerTeleportEvent;
 import org.bukkit.event.player.PlayerPortalEvent;
 import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.event.world.WorldLoadEvent;
+import org.bukkit.event.world.WorldUnloadEvent;
 import com.dimensionopening.DimensionOpeningPlugin;
+import com.dimensionopening.api.event.DimensionAccessDeniedEvent;
+import com.dimensionopening.audit.AuditEvent;
+import com.dimensionopening.managers.CapacityTracker;
 import com.dimensionopening.managers.DimensionManager;
+import com.dimensionopening.metrics.PerformanceMonitor;
 import com.dimensionopening.notifications.NotificationManager;
+import com.dimensionopening.core.AccessDecision;
 import com.dimensionopening.permissions.PermissionManager;
 
 public class DimensionListener implements Listener {
@@ -20,16 +28,40 @@ public class DimensionListener implements Listener {
     private final DimensionManager dimensionManager;
     private final NotificationManager notificationManager;
     private final PermissionManager permissionManager;
+    private final PerformanceMonitor performanceMonitor;
     
     public DimensionListener(DimensionOpeningPlugin plugin, DimensionManager dimensionManager, NotificationManager notificationManager, PermissionManager permissionManager) {
         this.plugin = plugin;
         this.dimensionManager = dimensionManager;
         this.notificationManager = notificationManager;
         this.permissionManager = permissionManager;
+        this.performanceMonitor = plugin.getPerformanceMonitor();
     }
     
     @EventHandler(priority = EventPriority.HIGH)
     public void onPlayerTeleport(PlayerTeleportEvent event) {
+        long start = performanceMonitor.start();
+        try {
+            checkDestination(event);
+        } finally {
+            performanceMonitor.record(PerformanceMonitor.Probe.TELEPORT, start);
+        }
+    }
+    
+    @EventHandler(priority = EventPriority.HIGH)
+    public void onPlayerPortal(PlayerPortalEvent event) {
+        long start = performanceMonitor.start();
+        try {
+            checkDestination(event);
+        } finally {
+            performanceMonitor.record(PerformanceMonitor.Probe.PORTAL, start);
+        }
+    }
+    
+    /**
+     * Cancel a teleport or portal use into a closed dimension
+     */
+    private void checkDestination(PlayerTeleportEvent event) {
         Player player = event.getPlayer();
         
         // Check if destination world exists and get its environment
@@ -40,70 +72,84 @@ public class DimensionListener implements Listener {
         World destinationWorld = event.getTo().getWorld();
         World.Environment destinationEnvironment = destinationWorld.getEnvironment();
         
-        // Check if player has bypass permission or dimension-specific access
-        if (permissionManager.canBypassRestrictions(player) || 
-            permissionManager.canAccessDimension(player, destinationEnvironment)) {
+        // Bypass nodes, operators, access nodes and open dimensions are all rules in the access policy
+        AccessDecision decision = permissionManager.getAccessDecision(player, destinationWorld, event.getCause());
+        if (decision == AccessDecision.ALLOW) {
+            checkCapacity(event, destinationWorld);
             return;
         }
         
-        // Check if destination dimension is closed
-        if (!dimensionManager.isDimensionOpen(destinationEnvironment)) {
-            // Allow operators to bypass
-            if (player.isOp()) {
-                player.sendMessage(ChatColor.YELLOW + "You bypassed the closed " + 
-                                 getDimensionDisplayName(destinationEnvironment) + " dimension as an operator.");
-                return;
-            }
-            
-            // Cancel teleportation for non-operators
-            event.setCancelled(true);
-            
-            // Record metrics
-            plugin.getMetricsManager().recordPlayerAccessAttempt(player, destinationEnvironment.name().toLowerCase());
-            plugin.getMetricsManager().recordPlayerAccessDenied(player, destinationEnvironment.name().toLowerCase());
-            
-            notificationManager.notifyDimensionClosed(player, destinationEnvironment);
-            notificationManager.notifyAdminsAccessAttempt(player, destinationEnvironment);
+        DimensionAccessDeniedEvent.Reason reason = decision == AccessDecision.QUEUE ? DimensionAccessDeniedEvent.Reason.QUEUED
+                : dimensionManager.isWorldOpen(destinationWorld) ? DimensionAccessDeniedEvent.Reason.POLICY : DimensionAccessDeniedEvent.Reason.CLOSED;
+        if (isDenialOverridden(event, destinationWorld, reason)) {
+            return;
         }
-    }
-    
-    @EventHandler(priority = EventPriority.HIGH)
-    public void onPlayerPortal(PlayerPortalEvent event) {
-        Player player = event.getPlayer();
         
-        // Check if destination world exists and get its environment
-        if (event.getTo() == null || event.getTo().getWorld() == null) {
+        // Cancel teleportation or portal usage
+        event.setCancelled(true);
+        plugin.getMetricsManager().recordPlayerAccessAttempt(player, destinationEnvironment);
+        
+        if (decision == AccessDecision.QUEUE) {
+            plugin.getAuditLog().record(AuditEvent.Action.ACCESS_QUEUED, AuditEvent.Source.LISTENER, player, destinationEnvironment,
+                    event.getCause().name().toLowerCase());
+            if (dimensionManager.queueForOpening(player, destinationWorld)) {
+                player.sendMessage(ChatColor.YELLOW + "You will be notified when " + (dimensionManager.hasWorldOverride(destinationWorld)
+                        ? destinationWorld.getName() : "the " + getDimensionDisplayName(destinationEnvironment) + " dimension") + " opens.");
+            }
             return;
         }
         
-        World destinationWorld = event.getTo().getWorld();
-        World.Environment destinationEnvironment = destinationWorld.getEnvironment();
+        // Record metrics
+        plugin.getMetricsManager().recordPlayerAccessDenied(player, destinationEnvironment);
+        plugin.getAuditLog().record(AuditEvent.Action.ACCESS_DENIED, AuditEvent.Source.LISTENER, player, destinationEnvironment,
+                event.getCause().name().toLowerCase());
         
-        // Check if player has bypass permission or dimension-specific access
-        if (permissionManager.canBypassRestrictions(player) || 
-            permissionManager.canAccessDimension(player, destinationEnvironment)) {
+        if (dimensionManager.isDimensionOpen(destinationEnvironment)) {
+            // Denied by a policy rule, or only this world is closed
+            player.sendMessage(ChatColor.RED + "You can't enter " + (dimensionManager.isWorldOpen(destinationWorld)
+                    ? "the " + getDimensionDisplayName(destinationEnvironment) + " dimension" : destinationWorld.getName()) + " right now.");
+            return;
+        }
+        notificationManager.notifyDimensionClosed(player, destinationEnvironment);
+        notificationManager.notifyAdminsAccessAttempt(player, destinationEnvironment);
+    }
+    
+    /**
+     * Cancel an entry into another world while it is over its capacity budget
+     */
+    private void checkCapacity(PlayerTeleportEvent event, World destinationWorld) {
+        if (event.getFrom().getWorld() == destinationWorld) {
+            return;
+        }
+        CapacityTracker.Resource resource = plugin.getCapacityTracker().getExceededResource(destinationWorld);
+        if (resource == null) {
+            return;
+        }
+        Player player = event.getPlayer();
+        if (permissionManager.canBypassRestrictions(player)
+                || isDenialOverridden(event, destinationWorld, DimensionAccessDeniedEvent.Reason.CAPACITY)) {
             return;
         }
         
-        // Check if destination dimension is closed
-        if (!dimensionManager.isDimensionOpen(destinationEnvironment)) {
-            // Allow operators to bypass
-            if (player.isOp()) {
-                player.sendMessage(ChatColor.YELLOW + "You bypassed the closed " + 
-                                 getDimensionDisplayName(destinationEnvironment) + " dimension as an operator.");
-                return;
-            }
-            
-            // Cancel portal usage for non-operators
-            event.setCancelled(true);
-            
-            // Record metrics
-            plugin.getMetricsManager().recordPlayerAccessAttempt(player, destinationEnvironment.name().toLowerCase());
-            plugin.getMetricsManager().recordPlayerAccessDenied(player, destinationEnvironment.name().toLowerCase());
-            
-            notificationManager.notifyDimensionClosed(player, destinationEnvironment);
-            notificationManager.notifyAdminsAccessAttempt(player, destinationEnvironment);
+        event.setCancelled(true);
+        World.Environment destinationEnvironment = destinationWorld.getEnvironment();
+        plugin.getMetricsManager().recordPlayerAccessAttempt(player, destinationEnvironment);
+        plugin.getMetricsManager().recordPlayerAccessDenied(player, destinationEnvironment);
+        plugin.getAuditLog().record(AuditEvent.Action.ACCESS_DENIED, AuditEvent.Source.LISTENER, player, destinationEnvironment,
+                event.getCause().name().toLowerCase() + " capacity=" + resource.name().toLowerCase());
+        notificationManager.notifyDimensionAtCapacity(player, destinationEnvironment, resource);
+    }
+    
+    /**
+     * Let other plugins wave a denied player through, if any are listening
+     */
+    private boolean isDenialOverridden(PlayerTeleportEvent event, World destinationWorld, DimensionAccessDeniedEvent.Reason reason) {
+        if (!DimensionAccessDeniedEvent.hasListeners()) {
+            return false;
         }
+        DimensionAccessDeniedEvent denied = new DimensionAccessDeniedEvent(event.getPlayer(), destinationWorld, event.getCause(), reason);
+        plugin.getServer().getPluginManager().callEvent(denied);
+        return denied.isCancelled();
     }
     
     @EventHandler
@@ -112,6 +158,21 @@ public class DimensionListener implements Listener {
         notificationManager.sendWelcomeMessage(player);
     }
     
+    @EventHandler
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        permissionManager.invalidatePlayer(event.getPlayer());
+    }
+    
+    @EventHandler
+    public void onWorldLoad(WorldLoadEvent event) {
+        permissionManager.registerWorld(event.getWorld());
+    }
+    
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onWorldUnload(WorldUnloadEvent event) {
+        permissionManager.unregisterWorld(event.getWorld());
+    }
+    
     private String getDimensionDisplayName(World.Environment environment) {
         switch (environment) {
             case NORMAL:
@@ -0,0 +1,336 @@
+package com.dimensionopening.managers;
+
+import com.destroystokyo.paper.event.entity.EntityAddToWorldEvent;
+import com.destroystokyo.paper.event.entity.EntityRemoveFromWorldEvent;
+import org.bukkit.Bukkit;
+import org.bukkit.Chunk;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.block.BlockBreakEvent;
+import org.bukkit.event.block.BlockBurnEvent;
+import org.bukkit.event.block.BlockExplodeEvent;
+import org.bukkit.event.block.BlockFromToEvent;
+import org.bukkit.event.block.BlockPistonExtendEvent;
+import org.bukkit.event.block.BlockPistonRetractEvent;
+import org.bukkit.event.block.BlockPlaceEvent;
+import org.bukkit.event.entity.EntityChangeBlockEvent;
+import org.bukkit.event.entity.EntityExplodeEvent;
+import org.bukkit.event.world.ChunkLoadEvent;
+import org.bukkit.event.world.ChunkUnloadEvent;
+import org.bukkit.event.world.WorldLoadEvent;
+import org.bukkit.event.world.WorldUnloadEvent;
+import com.dimensionopening.DimensionOpeningPlugin;
+import com.dimensionopening.config.Settings;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Keeps per-world counts of loaded chunks, entities and tile entities so
+ * entry can be refused while a world is over its {@code capacity} budget.
+ *
+ * Each world is counted once when it is seen and then kept up to date from
+ * chunk and entity load and unload events, so a teleport check only reads
+ * three counters. Tile entities are counted per chunk when it loads, and
+ * an unloading chunk takes away exactly what was recorded for it. Blocks
+ * placed, broken, blown up, burnt, pushed or washed away mark their chunk,
+ * which is recounted on its own thread a tick later, once the change has
+ * happened. Plugins that set blocks without an event are only caught when
+ * the chunk reloads or on {@link #resync()}.
+ *
+ * On Folia a world's loaded chunks and entities can't be read from one
+ * thread, so worlds start from zero and count what loads after that.
+ * Nothing is counted while capacity limits are off; {@link #resync()}
+ * recounts everything when they are turned on.
+ */
+public class CapacityTracker implements Listener {
+    
+    /**
+     * A budgeted resource, for messages and audit details
+     */
+    public enum Resource {
+        CHUNKS("loaded chunks"),
+        ENTITIES("entities"),
+        TILE_ENTITIES("tile entities");
+        
+        private final String displayName;
+        
+        Resource(String displayName) {
+            this.displayName = displayName;
+        }
+        
+        public String getDisplayName() {
+            return displayName;
+        }
+    }
+    
+    /**
+     * Counters for one world
+     */
+    private static final class Counts {
+        final AtomicInteger chunks = new AtomicInteger();
+        final AtomicInteger entities = new AtomicInteger();
+        final AtomicInteger tileEntities = new AtomicInteger();
+        // Chunk key -> tile entities counted for that chunk
+        final Map<Long, Integer> chunkTiles = new ConcurrentHashMap<>();
+        // Chunks waiting to be recounted after a block change
+        final Set<Long> dirtyChunks = ConcurrentHashMap.newKeySet();
+    }
+    
+    private final DimensionOpeningPlugin plugin;
+    private final Map<UUID, Counts> worlds;
+    
+    public CapacityTracker(DimensionOpeningPlugin plugin) {
+        this.plugin = plugin;
+        this.worlds = new ConcurrentHashMap<>();
+        resync();
+    }
+    
+    /**
+     * Recount every loaded world from scratch, or stop counting if capacity limits are off
+     */
+    public void resync() {
+        worlds.clear();
+        if (!plugin.getSettings().isCapacityEnabled()) {
+            return;
+        }
+        for (World world : Bukkit.getWorlds()) {
+            seed(world);
+        }
+    }
+    
+    private void seed(World world) {
+        Counts counts = new Counts();
+        if (!plugin.getTaskScheduler().isRegionThreaded()) {
+            counts.chunks.set(world.getChunkCount());
+            counts.entities.set(world.getEntityCount());
+            for (Chunk chunk : world.getLoadedChunks()) {
+                countTiles(counts, chunk);
+            }
+        }
+        worlds.put(world.getUID(), counts);
+    }
+    
+    private static void countTiles(Counts counts, Chunk chunk) {
+        // Without snapshots the array holds live tile entities, nothing is copied
+        int tiles = chunk.getTileEntities(false).length;
+        Integer previous = counts.chunkTiles.put(chunkKey(chunk), tiles);
+        counts.tileEntities.addAndGet(previous != null ? tiles - previous : tiles);
+    }
+    
+    private static long chunkKey(Chunk chunk) {
+        return chunkKey(chunk.getX(), chunk.getZ());
+    }
+    
+    private static long chunkKey(int chunkX, int chunkZ) {
+        return ((long) chunkX << 32) | (chunkZ & 0xFFFFFFFFL);
+    }
+    
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onWorldLoad(WorldLoadEvent event) {
+        if (plugin.getSettings().isCapacityEnabled()) {
+            seed(event.getWorld());
+        }
+    }
+    
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onWorldUnload(WorldUnloadEvent event) {
+        worlds.remove(event.getWorld().getUID());
+    }
+    
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onChunkLoad(ChunkLoadEvent event) {
+        Counts counts = worlds.get(event.getWorld().getUID());
+        if (counts != null) {
+            counts.chunks.incrementAndGet();
+            countTiles(counts, event.getChunk());
+        }
+    }
+    
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onChunkUnload(ChunkUnloadEvent event) {
+        Counts counts = worlds.get(event.getWorld().getUID());
+        if (counts != null) {
+            decrement(counts.chunks, 1);
+            Integer tiles = counts.chunkTiles.remove(chunkKey(event.getChunk()));
+            if (tiles != null) {
+                counts.tileEntities.addAndGet(-tiles);
+            }
+        }
+    }
+    
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockPlace(BlockPlaceEvent event) {
+        markChanged(event.getBlockPlaced());
+    }
+    
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockBreak(BlockBreakEvent event) {
+        markChanged(event.getBlock());
+    }
+    
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockExplode(BlockExplodeEvent event) {
+        markChanged(event.blockList());
+    }
+    
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onEntityExplode(EntityExplodeEvent event) {
+        markChanged(event.blockList());
+    }
+    
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockBurn(BlockBurnEvent event) {
+        markChanged(event.getBlock());
+    }
+    
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onEntityChangeBlock(EntityChangeBlockEvent event) {
+        markChanged(event.getBlock());
+    }
+    
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onPistonExtend(BlockPistonExtendEvent event) {
+        markChanged(event.getBlocks());
+    }
+    
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onPistonRetract(BlockPistonRetractEvent event) {
+        markChanged(event.getBlocks());
+    }
+    
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onFluidFlow(BlockFromToEvent event) {
+        // Flowing into air or more fluid, by far the common case, can't remove anything
+        Block to = event.getToBlock();
+        if (!to.isEmpty() && !to.isLiquid()) {
+            markChanged(to);
+        }
+    }
+    
+    private void markChanged(List<Block> blocks) {
+        for (Block block : blocks) {
+            markChanged(block);
+        }
+    }
+    
+    /**
+     * Queue a recount of a block's chunk for the next tick, once the change has happened
+     */
+    private void markChanged(Block block) {
+        World world = block.getWorld();
+        Counts counts = worlds.get(world.getUID());
+        if (counts == null) {
+            return;
+        }
+        int chunkX = block.getX() >> 4;
+        int chunkZ = block.getZ() >> 4;
+        long key = chunkKey(chunkX, chunkZ);
+        // Only chunks with a record; the others are counted in full when they load
+        if (counts.chunkTiles.containsKey(key) && counts.dirtyChunks.add(key)) {
+            plugin.getTaskScheduler().runForChunk(world, chunkX, chunkZ, () -> recount(world, counts, chunkX, chunkZ));
+        }
+    }
+    
+    private void recount(World world, Counts counts, int chunkX, int chunkZ) {
+        long key = chunkKey(chunkX, chunkZ);
+        counts.dirtyChunks.remove(key);
+        // Skip chunks that unloaded, and worlds recounted from scratch, since the change was seen
+        if (worlds.get(world.getUID()) == counts && counts.chunkTiles.containsKey(key) && world.isChunkLoaded(chunkX, chunkZ)) {
+            countTiles(counts, world.getChunkAt(chunkX, chunkZ));
+        }
+    }
+    
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onEntityAdd(EntityAddToWorldEvent event) {
+        Counts counts = worlds.get(event.getWorld().getUID());
+        if (counts != null) {
+            counts.entities.incrementAndGet();
+        }
+    }
+    
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onEntityRemove(EntityRemoveFromWorldEvent event) {
+        Counts counts = worlds.get(event.getWorld().getUID());
+        if (counts != null) {
+            decrement(counts.entities, 1);
+        }
+    }
+    
+    private static void decrement(AtomicInteger counter, int amount) {
+        // A world seeded halfway through a chunk's unload must not go negative
+        counter.updateAndGet(value -> Math.max(0, value - amount));
+    }
+    
+    /**
+     * Get the first resource a world is over its budget for
+     *
+     * @return the resource, or null if the world is within budget or capacity limits are off
+     */
+    public Resource getExceededResource(World world) {
+        Settings settings = plugin.getSettings();
+        if (!settings.isCapacityEnabled()) {
+            return null;
+        }
+        Counts counts = worlds.get(world.getUID());
+        if (counts == null) {
+            return null;
+        }
+        
+        World.Environment environment = world.getEnvironment();
+        if (over(counts.chunks, settings.getCapacityMaxChunks(environment))) {
+            return Resource.CHUNKS;
+        }
+        if (over(counts.entities, settings.getCapacityMaxEntities(environment))) {
+            return Resource.ENTITIES;
+        }
+        if (over(counts.tileEntities, settings.getCapacityMaxTileEntities(environment))) {
+            return Resource.TILE_ENTITIES;
+        }
+        return null;
+    }
+    
+    private static boolean over(AtomicInteger counter, int limit) {
+        return limit > 0 && counter.get() > limit;
+    }
+    
+    /**
+     * Get a world's budget for a resource, 0 for no limit
+     */
+    public int getLimit(World world, Resource resource) {
+        Settings settings = plugin.getSettings();
+        World.Environment environment = world.getEnvironment();
+        switch (resource) {
+            case CHUNKS:
+                return settings.getCapacityMaxChunks(environment);
+            case ENTITIES:
+                return settings.getCapacityMaxEntities(environment);
+            default:
+                return settings.getCapacityMaxTileEntities(environment);
+        }
+    }
+    
+    /**
+     * Get a world's current count of a resource, 0 if it isn't tracked
+     */
+    public int getCount(World world, Resource resource) {
+        Counts counts = worlds.get(world.getUID());
+        if (counts == null) {
+            return 0;
+        }
+        switch (resource) {
+            case CHUNKS:
+                return counts.chunks.get();
+            case ENTITIES:
+                return counts.entities.get();
+            default:
+                return counts.tileEntities.get();
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,143 @@
+package com.dimensionopening.managers;
+
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerTeleportEvent.TeleportCause;
+import org.bukkit.event.server.PluginDisableEvent;
+import org.bukkit.plugin.Plugin;
+import com.dimensionopening.DimensionOpeningPlugin;
+import com.dimensionopening.api.DimensionOpeningAPI;
+import com.dimensionopening.api.DimensionSnapshot;
+import com.dimensionopening.api.DimensionSubscription;
+import com.dimensionopening.core.AccessDecision;
+import com.dimensionopening.permissions.PermissionManager;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+
+/**
+ * The {@link DimensionOpeningAPI} registered with Bukkit's services manager.
+ *
+ * Snapshots are rebuilt lazily: one is kept with the state version it was
+ * taken at and reused until the version moves, so repeated reads between
+ * changes are a volatile load and a comparison.
+ */
+public class DimensionApiService implements DimensionOpeningAPI, DimensionStateListener, Listener {
+    
+    /**
+     * A listener added by another plugin
+     */
+    private final class Subscription implements DimensionSubscription {
+        final Plugin owner;
+        final Consumer<DimensionSnapshot> listener;
+        volatile boolean active = true;
+        
+        Subscription(Plugin owner, Consumer<DimensionSnapshot> listener) {
+            this.owner = owner;
+            this.listener = listener;
+        }
+        
+        @Override
+        public void unsubscribe() {
+            active = false;
+            subscriptions.remove(this);
+        }
+        
+        @Override
+        public boolean isActive() {
+            return active;
+        }
+    }
+    
+    private final DimensionOpeningPlugin plugin;
+    private final DimensionManager dimensionManager;
+    private final List<Subscription> subscriptions;
+    private volatile DimensionSnapshot snapshot;
+    
+    public DimensionApiService(DimensionOpeningPlugin plugin, DimensionManager dimensionManager) {
+        this.plugin = plugin;
+        this.dimensionManager = dimensionManager;
+        this.subscriptions = new CopyOnWriteArrayList<>();
+        this.snapshot = capture();
+        dimensionManager.addStateListener(this);
+    }
+    
+    private DimensionSnapshot capture() {
+        // Version first: a change made while copying leaves the snapshot looking stale, never fresh
+        long version = dimensionManager.getStateVersion();
+        return new DimensionSnapshot(version, dimensionManager.getAllDimensionStates(), dimensionManager.getWorldOverrides());
+    }
+    
+    @Override
+    public DimensionSnapshot getSnapshot() {
+        DimensionSnapshot current = snapshot;
+        if (current.getVersion() != dimensionManager.getStateVersion()) {
+            current = capture();
+            snapshot = current;
+        }
+        return current;
+    }
+    
+    @Override
+    public boolean isDimensionOpen(World.Environment environment) {
+        return dimensionManager.isDimensionOpen(environment);
+    }
+    
+    @Override
+    public boolean isWorldOpen(World world) {
+        return dimensionManager.isWorldOpen(world);
+    }
+    
+    @Override
+    public boolean canEnter(Player player, World world) {
+        PermissionManager permissionManager = plugin.getPermissionManager();
+        if (permissionManager.getAccessDecision(player, world, TeleportCause.PLUGIN) != AccessDecision.ALLOW) {
+            return false;
+        }
+        return plugin.getCapacityTracker().getExceededResource(world) == null || permissionManager.canBypassRestrictions(player);
+    }
+    
+    @Override
+    public DimensionSubscription subscribe(Plugin owner, Consumer<DimensionSnapshot> listener) {
+        Subscription subscription = new Subscription(owner, listener);
+        subscriptions.add(subscription);
+        return subscription;
+    }
+    
+    @Override
+    public void onDimensionStateChange(World.Environment environment, boolean open) {
+        publish();
+    }
+    
+    @Override
+    public void onWorldStateChange(World world, boolean open) {
+        publish();
+    }
+    
+    private void publish() {
+        if (subscriptions.isEmpty()) {
+            return;
+        }
+        DimensionSnapshot current = getSnapshot();
+        for (Subscription subscription : subscriptions) {
+            try {
+                subscription.listener.accept(current);
+            } catch (RuntimeException e) {
+                plugin.getLogger().log(Level.WARNING, "Dimension state listener from " + subscription.owner.getName() + " failed", e);
+            }
+        }
+    }
+    
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPluginDisable(PluginDisableEvent event) {
+        for (Subscription subscription : subscriptions) {
+            if (subscription.owner == event.getPlugin()) {
+                subscription.unsubscribe();
+            }
+        }
+    }
+}
\ No newline at end of file
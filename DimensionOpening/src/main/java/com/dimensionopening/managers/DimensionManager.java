@@ -1,20 +1,42 @@
 package com.dimensionopening.managers;
 
+import org.bukkit.Bukkit;
+import org.bukkit.ChatColor;
 import org.bukkit.World;
+import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.entity.Player;
 import com.dimensionopening.DimensionOpeningPlugin;
+import com.dimensionopening.api.event.DimensionStateChangeEvent;
+import com.dimensionopening.core.GateState;
 import com.dimensionopening.metrics.MetricsManager;
+import com.dimensionopening.metrics.PerformanceMonitor;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 public class DimensionManager {
     
     private final DimensionOpeningPlugin plugin;
-    private final Map<World.Environment, Boolean> dimensionStates;
+    // Dimension and world states, shared with the access policy's gate engine
+    private final GateState gateState;
+    // World UID -> destination index in the gate state
+    private final Map<UUID, Integer> destinations;
+    // Destination index -> players to notify when that world opens, from policy rules with the queue outcome
+    private final Map<Integer, Set<UUID>> waitingPlayers;
+    private final List<DimensionStateListener> stateListeners;
     
     public DimensionManager(DimensionOpeningPlugin plugin) {
         this.plugin = plugin;
-        this.dimensionStates = new HashMap<>();
+        this.gateState = new GateState();
+        this.destinations = new ConcurrentHashMap<>();
+        this.waitingPlayers = new ConcurrentHashMap<>();
+        this.stateListeners = new CopyOnWriteArrayList<>();
         
         // Initialize default states (all dimensions open by default)
         loadDimensionStates();
@@ -24,64 +46,291 @@ public class DimensionManager {
         FileConfiguration config = plugin.getConfig();
         
         // Load states from config, default to true (open) if not set
-        dimensionStates.put(World.Environment.NORMAL, config.getBoolean("dimensions.overworld.open", true));
-        dimensionStates.put(World.Environment.NETHER, config.getBoolean("dimensions.nether.open", true));
-        dimensionStates.put(World.Environment.THE_END, config.getBoolean("dimensions.end.open", true));
+        gateState.setDimensionOpen(World.Environment.NORMAL.ordinal(), config.getBoolean("dimensions.overworld.open", true));
+        gateState.setDimensionOpen(World.Environment.NETHER.ordinal(), config.getBoolean("dimensions.nether.open", true));
+        gateState.setDimensionOpen(World.Environment.THE_END.ordinal(), config.getBoolean("dimensions.end.open", true));
+        
+        ConfigurationSection worlds = config.getConfigurationSection("worlds");
+        if (worlds != null) {
+            for (String key : worlds.getKeys(false)) {
+                if (worlds.isSet(key + ".open")) {
+                    // Worlds whose names can't be keys keep their real name alongside
+                    String worldName = worlds.getString(key + ".name", key);
+                    gateState.setOverride(gateState.destination(worldName), worlds.getBoolean(key + ".open"));
+                }
+            }
+        }
     }
     
     private void saveDimensionStates() {
-        FileConfiguration config = plugin.getConfig();
-        
-        config.set("dimensions.overworld.open", dimensionStates.get(World.Environment.NORMAL));
-        config.set("dimensions.nether.open", dimensionStates.get(World.Environment.NETHER));
-        config.set("dimensions.end.open", dimensionStates.get(World.Environment.THE_END));
-        
-        plugin.saveConfig();
+        PerformanceMonitor performanceMonitor = plugin.getPerformanceMonitor();
+        long start = performanceMonitor.start();
+        plugin.editConfig(config -> {
+            config.set("dimensions.overworld.open", isDimensionOpen(World.Environment.NORMAL));
+            config.set("dimensions.nether.open", isDimensionOpen(World.Environment.NETHER));
+            config.set("dimensions.end.open", isDimensionOpen(World.Environment.THE_END));
+            config.set("worlds", null);
+            Set<String> keys = new HashSet<>();
+            for (int destination = 0; destination < gateState.getDestinationCount(); destination++) {
+                if (gateState.hasOverride(destination)) {
+                    String name = gateState.getName(destination);
+                    String key = worldKey(name, keys);
+                    if (!key.equals(name)) {
+                        config.set("worlds." + key + ".name", name);
+                    }
+                    config.set("worlds." + key + ".open", gateState.isOpen(destination));
+                }
+            }
+        });
+        performanceMonitor.record(PerformanceMonitor.Probe.PERSISTENCE, start);
+    }
+    
+    /**
+     * Get a config key for a world name, replacing the path separator and keeping keys unique
+     */
+    private static String worldKey(String name, Set<String> taken) {
+        String base = name.isEmpty() ? "_" : name.replace('.', '_');
+        String key = base;
+        for (int suffix = 2; !taken.add(key); suffix++) {
+            key = base + "_" + suffix;
+        }
+        return key;
+    }
+    
+    public GateState getGateState() {
+        return gateState;
+    }
+    
+    /**
+     * Get a world's destination index in the gate state, registering it on first use
+     */
+    public int getDestination(World world) {
+        Integer destination = destinations.get(world.getUID());
+        if (destination == null) {
+            destination = gateState.register(world.getName(), world.getEnvironment().ordinal());
+            destinations.put(world.getUID(), destination);
+        }
+        return destination;
     }
     
     public boolean isDimensionOpen(World.Environment environment) {
-        return dimensionStates.getOrDefault(environment, true);
+        return gateState.isDimensionOpen(environment.ordinal());
+    }
+    
+    /**
+     * Check if a world is open, using its own override if it has one and its dimension's state otherwise
+     */
+    public boolean isWorldOpen(World world) {
+        return gateState.isOpen(getDestination(world));
+    }
+    
+    /**
+     * Check if a world has its own state rather than following its dimension
+     */
+    public boolean hasWorldOverride(World world) {
+        return gateState.hasOverride(getDestination(world));
+    }
+    
+    /**
+     * Open or close a single world, independently of its dimension
+     *
+     * @return false if the world was already in that state or another plugin cancelled the change
+     */
+    public boolean setWorldOpen(World world, boolean open) {
+        int destination = getDestination(world);
+        if (gateState.hasOverride(destination) && gateState.isOpen(destination) == open) {
+            return false;
+        }
+        boolean wasOpen = gateState.isOpen(destination);
+        if (!allowChange(world.getEnvironment(), world, open) || !gateState.setOverride(destination, open)) {
+            return false;
+        }
+        saveDimensionStates();
+        if (open && !wasOpen) {
+            notifyWaitingPlayers(destination, worldOpenMessage(world));
+        }
+        notifyWorldStateListeners(world);
+        return true;
+    }
+    
+    /**
+     * Make a world follow its dimension's state again
+     *
+     * @return false if the world had no override or another plugin cancelled the change
+     */
+    public boolean clearWorldOverride(World world) {
+        int destination = getDestination(world);
+        if (!gateState.hasOverride(destination)) {
+            return false;
+        }
+        boolean wasOpen = gateState.isOpen(destination);
+        if (!allowChange(world.getEnvironment(), world, isDimensionOpen(world.getEnvironment())) || !gateState.clearOverride(destination)) {
+            return false;
+        }
+        saveDimensionStates();
+        if (!wasOpen && gateState.isOpen(destination)) {
+            notifyWaitingPlayers(destination, worldOpenMessage(world));
+        }
+        notifyWorldStateListeners(world);
+        return true;
     }
     
+    /**
+     * Get a counter that changes whenever any dimension or world state changes
+     */
+    public long getStateVersion() {
+        return gateState.getVersion();
+    }
+    
+    /**
+     * @return false if the dimension was already open or another plugin cancelled the change
+     */
     public boolean openDimension(World.Environment environment) {
         if (isDimensionOpen(environment)) {
             return false; // Already open
         }
+        if (!allowChange(environment, null, true) || !gateState.setDimensionOpen(environment.ordinal(), true)) {
+            return false;
+        }
         
-        dimensionStates.put(environment, true);
         saveDimensionStates();
         
         // Record metrics
         MetricsManager metricsManager = plugin.getMetricsManager();
         if (metricsManager != null) {
-            metricsManager.recordDimensionOpen(environment.name().toLowerCase());
+            metricsManager.recordDimensionOpen(environment);
         }
         
+        // Worlds of the dimension that stay closed by their own override keep their waiters
+        String message = ChatColor.GREEN + "The " + getDimensionDisplayName(environment) + " dimension is now open!";
+        for (Integer destination : waitingPlayers.keySet()) {
+            if (gateState.getDimension(destination) == environment.ordinal() && gateState.isOpen(destination)) {
+                notifyWaitingPlayers(destination, message);
+            }
+        }
+        notifyStateListeners(environment, true);
         return true;
     }
     
+    /**
+     * @return false if the dimension was already closed or another plugin cancelled the change
+     */
     public boolean closeDimension(World.Environment environment) {
         if (!isDimensionOpen(environment)) {
             return false; // Already closed
         }
+        if (!allowChange(environment, null, false) || !gateState.setDimensionOpen(environment.ordinal(), false)) {
+            return false;
+        }
         
-        dimensionStates.put(environment, false);
         saveDimensionStates();
         
         // Record metrics
         MetricsManager metricsManager = plugin.getMetricsManager();
         if (metricsManager != null) {
-            metricsManager.recordDimensionClose(environment.name().toLowerCase());
+            metricsManager.recordDimensionClose(environment);
         }
         
+        notifyStateListeners(environment, false);
         return true;
     }
     
+    /**
+     * Let other plugins veto a state change, if any are listening
+     */
+    private boolean allowChange(World.Environment environment, World world, boolean open) {
+        if (!DimensionStateChangeEvent.hasListeners()) {
+            return true;
+        }
+        DimensionStateChangeEvent event = new DimensionStateChangeEvent(environment, world, open);
+        Bukkit.getPluginManager().callEvent(event);
+        return !event.isCancelled();
+    }
+    
+    /**
+     * Remember a player to notify the next time a world opens, either by itself or with its dimension
+     *
+     * @return false if the player was already waiting
+     */
+    public boolean queueForOpening(Player player, World world) {
+        return waitingPlayers.computeIfAbsent(getDestination(world), destination -> ConcurrentHashMap.newKeySet()).add(player.getUniqueId());
+    }
+    
+    private String worldOpenMessage(World world) {
+        return ChatColor.GREEN + world.getName() + " in the " + getDimensionDisplayName(world.getEnvironment()) + " is now open!";
+    }
+    
+    /**
+     * Tell the players waiting on a world that it has opened
+     */
+    private void notifyWaitingPlayers(int destination, String message) {
+        Set<UUID> waiting = waitingPlayers.remove(destination);
+        if (waiting == null) {
+            return;
+        }
+        for (UUID uuid : waiting) {
+            Player player = Bukkit.getPlayer(uuid);
+            if (player != null) {
+                plugin.getTaskScheduler().runForEntity(player, () -> player.sendMessage(message));
+            }
+        }
+    }
+    
+    /**
+     * Register a listener for dimension state changes
+     */
+    public void addStateListener(DimensionStateListener listener) {
+        stateListeners.add(listener);
+    }
+    
+    private void notifyStateListeners(World.Environment environment, boolean open) {
+        for (DimensionStateListener listener : stateListeners) {
+            listener.onDimensionStateChange(environment, open);
+        }
+    }
+    
+    private void notifyWorldStateListeners(World world) {
+        boolean open = isWorldOpen(world);
+        for (DimensionStateListener listener : stateListeners) {
+            listener.onWorldStateChange(world, open);
+        }
+    }
+    
     public String getDimensionStatus(World.Environment environment) {
         return isDimensionOpen(environment) ? "Open" : "Closed";
     }
     
+    /**
+     * Get the worlds with their own state, by lower-case name
+     */
+    public Map<String, Boolean> getWorldOverrides() {
+        Map<String, Boolean> overrides = new HashMap<>();
+        for (int destination = 0; destination < gateState.getDestinationCount(); destination++) {
+            if (gateState.hasOverride(destination)) {
+                overrides.put(gateState.getName(destination), gateState.isOpen(destination));
+            }
+        }
+        return overrides;
+    }
+    
     public Map<World.Environment, Boolean> getAllDimensionStates() {
-        return new HashMap<>(dimensionStates);
+        Map<World.Environment, Boolean> states = new HashMap<>();
+        states.put(World.Environment.NORMAL, isDimensionOpen(World.Environment.NORMAL));
+        states.put(World.Environment.NETHER, isDimensionOpen(World.Environment.NETHER));
+        states.put(World.Environment.THE_END, isDimensionOpen(World.Environment.THE_END));
+        return states;
+    }
+    
+    private String getDimensionDisplayName(World.Environment environment) {
+        switch (environment) {
+            case NORMAL:
+                return "Overworld";
+            case NETHER:
+                return "Nether";
+            case THE_END:
+                return "End";
+            default:
+                return "Unknown";
+        }
     }
 }
\ No newline at end of file
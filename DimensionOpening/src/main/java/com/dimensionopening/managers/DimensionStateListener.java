@@ -0,0 +1,18 @@
+package com.dimensionopening.managers;
+
+import org.bukkit.World;
+
+/**
+ * Notified after a dimension or world is opened or closed, whatever triggered the change, on the thread that
+ * made it: the main thread on Paper, the global region or a player's region on Folia
+ */
+public interface DimensionStateListener {
+    
+    void onDimensionStateChange(World.Environment environment, boolean open);
+    
+    /**
+     * Called when a single world's override is set or cleared
+     */
+    default void onWorldStateChange(World world, boolean open) {
+    }
+}
\ No newline at end of file
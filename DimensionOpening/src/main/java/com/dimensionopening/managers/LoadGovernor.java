@@ -0,0 +1,275 @@
+package com.dimensionopening.managers;
+
+import com.destroystokyo.paper.event.server.ServerTickEndEvent;
+import org.bukkit.World;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import com.dimensionopening.DimensionOpeningPlugin;
+import com.dimensionopening.audit.AuditEvent;
+import com.dimensionopening.config.Settings;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Closes dimensions automatically while the server is overloaded.
+ *
+ * Every tick's duration goes into a ring buffer covering the last
+ * {@code governor.window_ticks} ticks. Once a second the window's average
+ * MSPT and its tick rate are compared against the thresholds: above the
+ * close threshold the next open dimension in {@code governor.shed_order} is
+ * closed, below the (lower) reopen threshold the last one it closed is opened
+ * again. The gap between the two thresholds and a minimum hold time between
+ * actions keep it from flapping. Dimensions closed by hand are never touched,
+ * and a shed dimension that an admin reopens is forgotten.
+ *
+ * The shed dimensions are saved to {@code governor.yml}, so after a restart
+ * the governor still reopens them once the load is back down. They are
+ * reopened right away when the governor is switched off or can't run.
+ */
+public class LoadGovernor implements Listener, DimensionStateListener {
+    
+    private static final int EVALUATE_EVERY_TICKS = 20;
+    
+    private final DimensionOpeningPlugin plugin;
+    private final DimensionManager dimensionManager;
+    private final File stateFile;
+    // Dimensions closed by the governor, most recent last
+    private final Deque<World.Environment> shed;
+    private double[] durations;
+    private long[] endNanos;
+    private int next;
+    private int count;
+    private int sinceEvaluation;
+    private long lastActionMillis;
+    // Set while the governor opens or closes a dimension, so listeners can tell its changes apart
+    private volatile Thread actingOn;
+    private volatile double averageMspt;
+    private volatile double tps = 20.0;
+    
+    public LoadGovernor(DimensionOpeningPlugin plugin, DimensionManager dimensionManager) {
+        this.plugin = plugin;
+        this.dimensionManager = dimensionManager;
+        this.stateFile = new File(plugin.getDataFolder(), "governor.yml");
+        this.shed = new ArrayDeque<>();
+        resize(plugin.getSettings().getGovernorWindowTicks());
+        loadShed();
+        dimensionManager.addStateListener(this);
+        
+        if (plugin.getSettings().isGovernorEnabled() && plugin.getTaskScheduler().isRegionThreaded()) {
+            plugin.getLogger().warning("The load governor needs ServerTickEndEvent, which Folia does not fire; it will stay idle");
+        }
+        // Nothing would ever reopen them
+        if (!plugin.getSettings().isGovernorEnabled() || plugin.getTaskScheduler().isRegionThreaded()) {
+            releaseShed();
+        }
+    }
+    
+    private void loadShed() {
+        if (!stateFile.exists()) {
+            return;
+        }
+        for (String name : YamlConfiguration.loadConfiguration(stateFile).getStringList("shed")) {
+            World.Environment environment;
+            try {
+                environment = World.Environment.valueOf(name);
+            } catch (IllegalArgumentException e) {
+                plugin.getLogger().warning("Invalid dimension in governor.yml: " + name);
+                continue;
+            }
+            // Skip dimensions that were reopened by editing the config while the server was down
+            if (!shed.contains(environment) && !dimensionManager.isDimensionOpen(environment)) {
+                shed.addLast(environment);
+            }
+        }
+    }
+    
+    private void saveShed() {
+        List<String> names = new ArrayList<>();
+        for (World.Environment environment : shed) {
+            names.add(environment.name());
+        }
+        YamlConfiguration config = new YamlConfiguration();
+        config.set("shed", names);
+        try {
+            config.save(stateFile);
+        } catch (IOException e) {
+            plugin.getLogger().warning("Failed to save the load governor state: " + e.getMessage());
+        }
+    }
+    
+    private void resize(int windowTicks) {
+        durations = new double[windowTicks];
+        endNanos = new long[windowTicks];
+        next = 0;
+        count = 0;
+        sinceEvaluation = 0;
+    }
+    
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onTickEnd(ServerTickEndEvent event) {
+        Settings settings = plugin.getSettings();
+        if (!settings.isGovernorEnabled()) {
+            count = 0;
+            return;
+        }
+        if (durations.length != settings.getGovernorWindowTicks()) {
+            resize(settings.getGovernorWindowTicks());
+        }
+        
+        durations[next] = event.getTickDuration();
+        endNanos[next] = System.nanoTime();
+        next = (next + 1) % durations.length;
+        if (count < durations.length) {
+            count++;
+        }
+        
+        // Wait for a full window so a single slow tick after startup can't trigger anything
+        if (++sinceEvaluation < EVALUATE_EVERY_TICKS || count < durations.length) {
+            return;
+        }
+        sinceEvaluation = 0;
+        evaluate(settings, System.currentTimeMillis());
+    }
+    
+    private void evaluate(Settings settings, long now) {
+        double total = 0;
+        for (double duration : durations) {
+            total += duration;
+        }
+        averageMspt = total / durations.length;
+        // next is the oldest sample once the window is full
+        long elapsedNanos = endNanos[(next + durations.length - 1) % durations.length] - endNanos[next];
+        tps = elapsedNanos > 0 ? Math.min(20.0, (durations.length - 1) * 1_000_000_000.0 / elapsedNanos) : 20.0;
+        
+        if (now - lastActionMillis < settings.getGovernorHoldMillis()) {
+            return;
+        }
+        
+        if (averageMspt > settings.getGovernorCloseAboveMspt() || tps < settings.getGovernorCloseBelowTps()) {
+            shedNext(settings.getGovernorShedOrder(), now);
+        } else if (!shed.isEmpty() && averageMspt < settings.getGovernorReopenBelowMspt() && tps > settings.getGovernorReopenAboveTps()) {
+            restoreLast(now);
+        }
+    }
+    
+    private void shedNext(List<World.Environment> shedOrder, long now) {
+        for (World.Environment environment : shedOrder) {
+            if (!dimensionManager.isDimensionOpen(environment)) {
+                continue;
+            }
+            
+            actingOn = Thread.currentThread();
+            try {
+                if (!dimensionManager.closeDimension(environment)) {
+                    continue;
+                }
+            } finally {
+                actingOn = null;
+            }
+            shed.addLast(environment);
+            saveShed();
+            lastActionMillis = now;
+            onAction(environment, true);
+            return;
+        }
+    }
+    
+    private void restoreLast(long now) {
+        World.Environment environment = shed.removeLast();
+        saveShed();
+        actingOn = Thread.currentThread();
+        try {
+            if (!dimensionManager.openDimension(environment)) {
+                return;
+            }
+        } finally {
+            actingOn = null;
+        }
+        lastActionMillis = now;
+        onAction(environment, false);
+    }
+    
+    private void onAction(World.Environment environment, boolean closed) {
+        String detail = String.format("mspt=%.1f tps=%.1f", averageMspt, tps);
+        plugin.getLogger().info("Load governor " + (closed ? "closed" : "reopened") + " the " + getDimensionDisplayName(environment)
+                + " dimension (" + detail + ")");
+        plugin.getMetricsManager().recordGovernorAction(environment, closed);
+        plugin.getAuditLog().record(new AuditEvent(closed ? AuditEvent.Action.DIMENSION_CLOSE : AuditEvent.Action.DIMENSION_OPEN,
+                AuditEvent.Source.GOVERNOR, "governor", null, environment, detail));
+        plugin.getNotificationManager().broadcastDimensionStateChange(environment, !closed);
+    }
+    
+    @Override
+    public void onDimensionStateChange(World.Environment environment, boolean open) {
+        // An admin reopened a shed dimension, it's theirs again
+        if (!isActing() && open && shed.remove(environment)) {
+            saveShed();
+        }
+    }
+    
+    /**
+     * Reopen every dimension the governor closed, most recent first
+     */
+    public void releaseShed() {
+        long now = System.currentTimeMillis();
+        while (!shed.isEmpty()) {
+            restoreLast(now);
+        }
+    }
+    
+    /**
+     * Called after the settings are reloaded; switching the governor off hands back what it closed
+     */
+    public void onSettingsReloaded() {
+        if (!plugin.getSettings().isGovernorEnabled()) {
+            releaseShed();
+        }
+    }
+    
+    /**
+     * Whether the current thread is in the middle of one of the governor's own opens or closes
+     */
+    public boolean isActing() {
+        return Thread.currentThread() == actingOn;
+    }
+    
+    /**
+     * Get the dimensions currently closed by the governor, in the order they were closed
+     */
+    public List<World.Environment> getShedDimensions() {
+        return List.copyOf(shed);
+    }
+    
+    /**
+     * Get the average tick duration over the last full window, in milliseconds
+     */
+    public double getAverageMspt() {
+        return averageMspt;
+    }
+    
+    /**
+     * Get the tick rate over the last full window
+     */
+    public double getTps() {
+        return tps;
+    }
+    
+    private String getDimensionDisplayName(World.Environment environment) {
+        switch (environment) {
+            case NORMAL:
+                return "Overworld";
+            case NETHER:
+                return "Nether";
+            case THE_END:
+                return "End";
+            default:
+                return "Unknown";
+        }
+    }
+}
\ No newline at end of file
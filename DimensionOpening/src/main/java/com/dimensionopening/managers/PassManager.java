@@ -0,0 +1,424 @@
+package com.dimensionopening.managers;
+
+import org.bukkit.Bukkit;
+import org.bukkit.ChatColor;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerTeleportEvent.TeleportCause;
+import com.dimensionopening.DimensionOpeningPlugin;
+import com.dimensionopening.audit.AuditEvent;
+import com.dimensionopening.core.AccessDecision;
+import com.dimensionopening.scheduler.TaskHandle;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Temporary per-player access to a dimension.
+ *
+ * Each pass holder has one expiry time per dimension, stored in a
+ * {@code long[]} indexed by environment ordinal. Expiry is driven by a single
+ * sweep task that only looks at the head of a queue ordered by expiry time,
+ * so the cost of a sweep does not depend on how many passes exist. Passes use
+ * wall-clock time and are saved to {@code passes.yml}, so they survive restarts.
+ *
+ * Changes are synchronized and replace a holder's array rather than writing
+ * into it, so {@link #hasPass} can be called from any region thread on Folia
+ * without locking.
+ *
+ * A pass that expires or is revoked while its holder is offline is remembered
+ * (also in {@code passes.yml}) and enforced when they next join.
+ */
+public class PassManager implements Listener {
+    
+    private static final World.Environment[] DIMENSIONS = World.Environment.values();
+    
+    private final DimensionOpeningPlugin plugin;
+    private final File passesFile;
+    // Player UUID -> expiry time in millis per environment ordinal, 0 for no pass
+    private final Map<UUID, long[]> passes;
+    private final Map<UUID, String> holderNames;
+    // Offline players whose passes ended, with the dimensions to check when they join
+    private final Map<UUID, Set<World.Environment>> endedWhileOffline;
+    private final PriorityQueue<Expiry> expiries;
+    // Bumped whenever a pass is granted or removed
+    private volatile long version;
+    private TaskHandle sweepTask;
+    
+    /**
+     * A pending expiry. Stale entries (pass revoked or extended) are skipped when they come up.
+     */
+    private static final class Expiry implements Comparable<Expiry> {
+        final long expiresAt;
+        final UUID holder;
+        final World.Environment environment;
+        
+        Expiry(long expiresAt, UUID holder, World.Environment environment) {
+            this.expiresAt = expiresAt;
+            this.holder = holder;
+            this.environment = environment;
+        }
+        
+        @Override
+        public int compareTo(Expiry other) {
+            return Long.compare(expiresAt, other.expiresAt);
+        }
+    }
+    
+    public PassManager(DimensionOpeningPlugin plugin) {
+        this.plugin = plugin;
+        this.passesFile = new File(plugin.getDataFolder(), "passes.yml");
+        this.passes = new ConcurrentHashMap<>();
+        this.holderNames = new ConcurrentHashMap<>();
+        this.endedWhileOffline = new HashMap<>();
+        this.expiries = new PriorityQueue<>();
+        
+        loadPasses();
+        
+        // One task for all passes
+        sweepTask = plugin.getTaskScheduler().runGlobalTimer(() -> expirePasses(System.currentTimeMillis()), 20L, 20L);
+    }
+    
+    private void loadPasses() {
+        if (!passesFile.exists()) {
+            return;
+        }
+        
+        YamlConfiguration config = YamlConfiguration.loadConfiguration(passesFile);
+        ConfigurationSection section = config.getConfigurationSection("passes");
+        if (section == null) {
+            return;
+        }
+        
+        long now = System.currentTimeMillis();
+        for (String key : section.getKeys(false)) {
+            UUID holder;
+            try {
+                holder = UUID.fromString(key);
+            } catch (IllegalArgumentException e) {
+                plugin.getLogger().warning("Invalid player UUID in passes.yml: " + key);
+                continue;
+            }
+            ConfigurationSection entry = section.getConfigurationSection(key);
+            if (entry == null) continue;
+            
+            String name = entry.getString("name");
+            for (World.Environment environment : DIMENSIONS) {
+                long expiresAt = entry.getLong(getDimensionConfigName(environment), 0L);
+                if (expiresAt > now) {
+                    setExpiry(holder, environment, expiresAt);
+                    if (name != null) {
+                        holderNames.put(holder, name);
+                    }
+                } else if (expiresAt != 0L) {
+                    // Ran out while the server was down
+                    endedWhileOffline.computeIfAbsent(holder, id -> EnumSet.noneOf(World.Environment.class)).add(environment);
+                }
+            }
+        }
+        
+        ConfigurationSection ended = config.getConfigurationSection("ended");
+        if (ended != null) {
+            for (String key : ended.getKeys(false)) {
+                try {
+                    UUID holder = UUID.fromString(key);
+                    for (String dimension : ended.getStringList(key)) {
+                        World.Environment environment = parseDimensionConfigName(dimension);
+                        if (environment != null) {
+                            endedWhileOffline.computeIfAbsent(holder, id -> EnumSet.noneOf(World.Environment.class)).add(environment);
+                        }
+                    }
+                } catch (IllegalArgumentException e) {
+                    plugin.getLogger().warning("Invalid player UUID in passes.yml: " + key);
+                }
+            }
+        }
+    }
+    
+    private void savePasses() {
+        YamlConfiguration config = new YamlConfiguration();
+        for (Map.Entry<UUID, long[]> entry : passes.entrySet()) {
+            String path = "passes." + entry.getKey();
+            String name = holderNames.get(entry.getKey());
+            if (name != null) {
+                config.set(path + ".name", name);
+            }
+            long[] expiry = entry.getValue();
+            for (World.Environment environment : DIMENSIONS) {
+                if (expiry[environment.ordinal()] != 0L) {
+                    config.set(path + "." + getDimensionConfigName(environment), expiry[environment.ordinal()]);
+                }
+            }
+        }
+        for (Map.Entry<UUID, Set<World.Environment>> entry : endedWhileOffline.entrySet()) {
+            List<String> dimensions = new ArrayList<>();
+            for (World.Environment environment : entry.getValue()) {
+                dimensions.add(getDimensionConfigName(environment));
+            }
+            config.set("ended." + entry.getKey(), dimensions);
+        }
+        
+        try {
+            config.save(passesFile);
+        } catch (IOException e) {
+            plugin.getLogger().warning("Failed to save passes: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Grant a pass, replacing any existing pass for the same dimension
+     */
+    public synchronized void grantPass(UUID holder, String holderName, World.Environment environment, long durationMillis) {
+        setExpiry(holder, environment, System.currentTimeMillis() + durationMillis);
+        if (holderName != null) {
+            holderNames.put(holder, holderName);
+        }
+        // An offline holder given a new pass has nothing to be told about the old one
+        Set<World.Environment> ended = endedWhileOffline.get(holder);
+        if (ended != null && ended.remove(environment) && ended.isEmpty()) {
+            endedWhileOffline.remove(holder);
+        }
+        savePasses();
+    }
+    
+    /**
+     * Remove a pass, moving the holder out of the dimension if they can no longer be there
+     *
+     * @return false if the player had no pass for the dimension
+     */
+    public synchronized boolean revokePass(UUID holder, World.Environment environment) {
+        if (getExpiry(holder, environment) == 0L) {
+            return false;
+        }
+        clearExpiry(holder, environment);
+        onPassEnded(holder, environment, "revoked");
+        savePasses();
+        return true;
+    }
+    
+    /**
+     * Check if a player currently holds a pass for a dimension
+     */
+    public boolean hasPass(UUID holder, World.Environment environment) {
+        long[] expiry = passes.get(holder);
+        return expiry != null && expiry[environment.ordinal()] > System.currentTimeMillis();
+    }
+    
+    /**
+     * Get when a player's pass for a dimension expires, or 0 if there is none
+     */
+    public long getExpiry(UUID holder, World.Environment environment) {
+        long[] expiry = passes.get(holder);
+        return expiry != null ? expiry[environment.ordinal()] : 0L;
+    }
+    
+    /**
+     * Get all pass holders with their expiry times per environment ordinal
+     */
+    public Map<UUID, long[]> getPasses() {
+        Map<UUID, long[]> copy = new HashMap<>();
+        for (Map.Entry<UUID, long[]> entry : passes.entrySet()) {
+            copy.put(entry.getKey(), entry.getValue().clone());
+        }
+        return copy;
+    }
+    
+    /**
+     * Get a counter that changes whenever a pass is granted or removed
+     */
+    public long getVersion() {
+        return version;
+    }
+    
+    /**
+     * Get the last known name of a pass holder, or null
+     */
+    public String getHolderName(UUID holder) {
+        return holderNames.get(holder);
+    }
+    
+    private void setExpiry(UUID holder, World.Environment environment, long expiresAt) {
+        long[] expiry = passes.get(holder);
+        long[] updated = expiry != null ? expiry.clone() : new long[DIMENSIONS.length];
+        updated[environment.ordinal()] = expiresAt;
+        passes.put(holder, updated);
+        version++;
+        expiries.add(new Expiry(expiresAt, holder, environment));
+    }
+    
+    private void clearExpiry(UUID holder, World.Environment environment) {
+        long[] expiry = passes.get(holder);
+        if (expiry == null) {
+            return;
+        }
+        long[] updated = expiry.clone();
+        updated[environment.ordinal()] = 0L;
+        version++;
+        for (long value : updated) {
+            if (value != 0L) {
+                passes.put(holder, updated);
+                return;
+            }
+        }
+        passes.remove(holder);
+        holderNames.remove(holder);
+    }
+    
+    /**
+     * Drop every pass that has expired by {@code now}
+     */
+    private synchronized void expirePasses(long now) {
+        boolean changed = false;
+        while (!expiries.isEmpty() && expiries.peek().expiresAt <= now) {
+            Expiry due = expiries.poll();
+            if (getExpiry(due.holder, due.environment) != due.expiresAt) {
+                continue; // Revoked or replaced since this entry was queued
+            }
+            
+            clearExpiry(due.holder, due.environment);
+            changed = true;
+            plugin.getAuditLog().record(new AuditEvent(AuditEvent.Action.PASS_EXPIRE, AuditEvent.Source.SCHEDULE,
+                    getHolderNameOrId(due.holder), due.holder, due.environment, null));
+            onPassEnded(due.holder, due.environment, "expired");
+        }
+        if (changed) {
+            savePasses();
+        }
+    }
+    
+    /**
+     * Enforce a pass that just ended now if its holder is online, otherwise when they next join
+     */
+    private void onPassEnded(UUID holder, World.Environment environment, String reason) {
+        Player player = Bukkit.getPlayer(holder);
+        if (player != null) {
+            plugin.getTaskScheduler().runForEntity(player, () -> enforcePassEnded(player, environment, reason));
+        } else {
+            endedWhileOffline.computeIfAbsent(holder, id -> EnumSet.noneOf(World.Environment.class)).add(environment);
+        }
+    }
+    
+    @EventHandler
+    public void onPlayerJoin(PlayerJoinEvent event) {
+        Player player = event.getPlayer();
+        Set<World.Environment> ended;
+        synchronized (this) {
+            ended = endedWhileOffline.remove(player.getUniqueId());
+            if (ended == null) {
+                return;
+            }
+            savePasses();
+        }
+        // Moving a player during the join event is unreliable, so wait a tick for them to be in the world
+        for (World.Environment environment : ended) {
+            plugin.getTaskScheduler().runForEntityLater(player, () -> enforcePassEnded(player, environment, "expired"), 1L);
+        }
+    }
+    
+    private void enforcePassEnded(Player player, World.Environment environment, String reason) {
+        // A pass granted again since this one ended still applies
+        if (!player.isOnline() || hasPass(player.getUniqueId(), environment)) {
+            return;
+        }
+        player.sendMessage(ChatColor.YELLOW + "Your pass for the " + getDimensionDisplayName(environment) + " dimension has " + reason + ".");
+        
+        World world = player.getWorld();
+        if (world.getEnvironment() != environment || !plugin.getSettings().isEvacuateOnPassExpiry()) {
+            return;
+        }
+        if (plugin.getPermissionManager().getAccessDecision(player, world, TeleportCause.PLUGIN) == AccessDecision.ALLOW) {
+            return; // Still allowed in without the pass
+        }
+        
+        Location destination = findEvacuationDestination(player, environment);
+        if (destination == null) {
+            player.sendMessage(ChatColor.RED + "There is no open dimension to move you to.");
+            return;
+        }
+        if (plugin.getTaskScheduler().isRegionThreaded()) {
+            // Folia only allows teleports across regions asynchronously
+            player.teleportAsync(destination);
+        } else {
+            player.teleport(destination);
+        }
+        player.sendMessage(ChatColor.YELLOW + "You have been moved out of the closed " + getDimensionDisplayName(environment) + " dimension.");
+    }
+    
+    /**
+     * Find the spawn of the first world, main world first, that is outside the dimension and lets the player in
+     */
+    private Location findEvacuationDestination(Player player, World.Environment environment) {
+        for (World world : Bukkit.getWorlds()) {
+            if (world.getEnvironment() != environment
+                    && plugin.getPermissionManager().getAccessDecision(player, world, TeleportCause.PLUGIN) == AccessDecision.ALLOW) {
+                return world.getSpawnLocation();
+            }
+        }
+        return null;
+    }
+    
+    private String getHolderNameOrId(UUID holder) {
+        String name = holderNames.get(holder);
+        return name != null ? name : holder.toString();
+    }
+    
+    /**
+     * Stop the expiry sweep and save passes
+     */
+    public synchronized void cancel() {
+        if (sweepTask != null) {
+            sweepTask.cancel();
+            sweepTask = null;
+        }
+        savePasses();
+    }
+    
+    private String getDimensionConfigName(World.Environment environment) {
+        switch (environment) {
+            case NORMAL:
+                return "overworld";
+            case NETHER:
+                return "nether";
+            case THE_END:
+                return "end";
+            default:
+                return environment.name().toLowerCase();
+        }
+    }
+    
+    private World.Environment parseDimensionConfigName(String name) {
+        for (World.Environment environment : DIMENSIONS) {
+            if (getDimensionConfigName(environment).equalsIgnoreCase(name)) {
+                return environment;
+            }
+        }
+        return null;
+    }
+    
+    private String getDimensionDisplayName(World.Environment environment) {
+        switch (environment) {
+            case NORMAL:
+                return "Overworld";
+            case NETHER:
+                return "Nether";
+            case THE_END:
+                return "End";
+            default:
+                return "Unknown";
+        }
+    }
+}
\ No newline at end of file
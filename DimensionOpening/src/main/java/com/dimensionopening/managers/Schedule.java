@@ -0,0 +1,97 @@
+package com.dimensionopening.managers;
+
+import org.bukkit.World;
+import com.dimensionopening.scheduler.TaskHandle;
+
+/**
+ * A repeating open/close action for one dimension.
+ *
+ * Fire times form an arithmetic progression: the first run happens at
+ * {@code anchorTick + delayTicks} and every {@code intervalTicks} after that,
+ * so the next run can be computed directly instead of being simulated.
+ */
+public class Schedule {
+    
+    private final String name;
+    private final World.Environment environment;
+    private final boolean opens;
+    private final long delayTicks;
+    private final long intervalTicks;
+    private long anchorTick;
+    private boolean paused;
+    private TaskHandle task;
+    
+    public Schedule(String name, World.Environment environment, boolean opens, long delayTicks, long intervalTicks) {
+        this.name = name;
+        this.environment = environment;
+        this.opens = opens;
+        this.delayTicks = Math.max(0, delayTicks);
+        this.intervalTicks = Math.max(1, intervalTicks);
+    }
+    
+    public String getName() {
+        return name;
+    }
+    
+    public World.Environment getEnvironment() {
+        return environment;
+    }
+    
+    /**
+     * Whether this schedule opens (true) or closes (false) its dimension
+     */
+    public boolean opens() {
+        return opens;
+    }
+    
+    public String getAction() {
+        return opens ? "open" : "close";
+    }
+    
+    public long getDelayTicks() {
+        return delayTicks;
+    }
+    
+    public long getIntervalTicks() {
+        return intervalTicks;
+    }
+    
+    /**
+     * Server tick of the first run
+     */
+    public long getFirstFireTick() {
+        return anchorTick + delayTicks;
+    }
+    
+    /**
+     * First tick strictly after {@code currentTick} on which this schedule runs
+     */
+    public long getNextFireTick(long currentTick) {
+        long first = getFirstFireTick();
+        if (currentTick < first) {
+            return first;
+        }
+        long elapsedPeriods = (currentTick - first) / intervalTicks + 1;
+        return first + elapsedPeriods * intervalTicks;
+    }
+    
+    public boolean isPaused() {
+        return paused;
+    }
+    
+    void setPaused(boolean paused) {
+        this.paused = paused;
+    }
+    
+    void setAnchorTick(long anchorTick) {
+        this.anchorTick = anchorTick;
+    }
+    
+    TaskHandle getTask() {
+        return task;
+    }
+    
+    void setTask(TaskHandle task) {
+        this.task = task;
+    }
+}
\ No newline at end of file
@@ -4,22 +4,32 @@ import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
 import org.bukkit.World;
 import org.bukkit.configuration.ConfigurationSection;
-import org.bukkit.scheduler.BukkitRunnable;
-import org.bukkit.scheduler.BukkitTask;
 import com.dimensionopening.DimensionOpeningPlugin;
+import com.dimensionopening.audit.AuditEvent;
+import com.dimensionopening.scheduler.TaskHandle;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.regex.Pattern;
 
 public class ScheduleManager {
     
+    // Names become config keys, where a '.' would start a nested section
+    private static final Pattern NAME_PATTERN = Pattern.compile("[A-Za-z0-9_-]+");
+    
     private final DimensionOpeningPlugin plugin;
     private final DimensionManager dimensionManager;
-    private final Map<String, BukkitTask> scheduledTasks;
+    // Guarded by this: commands can change schedules from any region thread on Folia
+    private final Map<String, Schedule> schedules;
+    // Bumped whenever schedules are added, removed, paused or resumed
+    private volatile long version;
     
     public ScheduleManager(DimensionOpeningPlugin plugin, DimensionManager dimensionManager) {
         this.plugin = plugin;
         this.dimensionManager = dimensionManager;
-        this.scheduledTasks = new HashMap<>();
+        this.schedules = new LinkedHashMap<>();
         
         loadSchedules();
     }
@@ -48,58 +58,204 @@ public class ScheduleManager {
                 continue;
             }
             
-            if (!action.equals("open") && !action.equals("close")) {
+            if (!"open".equals(action) && !"close".equals(action)) {
                 plugin.getLogger().warning("Invalid action in schedule: " + action);
                 continue;
             }
             
-            scheduleTask(scheduleName, environment, action, delayTicks, intervalTicks);
+            Schedule entry = new Schedule(scheduleName, environment, action.equals("open"), delayTicks, intervalTicks);
+            entry.setPaused(schedule.getBoolean("paused", false));
+            entry.setAnchorTick(Bukkit.getCurrentTick());
+            schedules.put(scheduleName, entry);
+            
+            if (!entry.isPaused()) {
+                scheduleTask(entry, entry.getDelayTicks());
+            }
         }
     }
     
-    private void scheduleTask(String name, World.Environment environment, String action, long delay, long interval) {
-        BukkitTask task = new BukkitRunnable() {
-            @Override
-            public void run() {
-                boolean success;
-                String dimensionName = getDimensionDisplayName(environment);
-                
-                if (action.equals("open")) {
-                    success = dimensionManager.openDimension(environment);
-                    if (success) {
+    private void scheduleTask(Schedule schedule, long delay) {
+        World.Environment environment = schedule.getEnvironment();
+        String action = schedule.getAction();
+        
+        TaskHandle task = plugin.getTaskScheduler().runGlobalTimer(() -> {
+            boolean success;
+            String dimensionName = getDimensionDisplayName(environment);
+            
+            if (schedule.opens()) {
+                success = dimensionManager.openDimension(environment);
+                if (success) {
+                    plugin.getAuditLog().record(new AuditEvent(AuditEvent.Action.DIMENSION_OPEN, AuditEvent.Source.SCHEDULE,
+                            schedule.getName(), null, environment, null));
+                    if (plugin.getSettings().isBroadcastChanges()) {
                         Bukkit.broadcastMessage(ChatColor.GREEN + "[Scheduled] " + dimensionName + " dimension has been opened!");
                     }
-                } else {
-                    success = dimensionManager.closeDimension(environment);
-                    if (success) {
+                }
+            } else {
+                success = dimensionManager.closeDimension(environment);
+                if (success) {
+                    plugin.getAuditLog().record(new AuditEvent(AuditEvent.Action.DIMENSION_CLOSE, AuditEvent.Source.SCHEDULE,
+                            schedule.getName(), null, environment, null));
+                    if (plugin.getSettings().isBroadcastChanges()) {
                         Bukkit.broadcastMessage(ChatColor.RED + "[Scheduled] " + dimensionName + " dimension has been closed!");
                     }
                 }
-                
-                plugin.getLogger().info("Scheduled " + action + " for " + dimensionName + " executed: " + success);
             }
-        }.runTaskTimer(plugin, delay, interval);
+            
+            plugin.getLogger().info("Scheduled " + action + " for " + dimensionName + " executed: " + success);
+        }, delay, schedule.getIntervalTicks());
+        
+        schedule.setTask(task);
+        plugin.getLogger().info("Scheduled task '" + schedule.getName() + "' registered: " + action + " " + getDimensionDisplayName(environment) + " every " + schedule.getIntervalTicks() + " ticks");
+    }
+    
+    /**
+     * Check whether a name can be used for a schedule: letters, digits, '_' and '-'
+     */
+    public static boolean isValidName(String name) {
+        return name != null && NAME_PATTERN.matcher(name).matches();
+    }
+    
+    /**
+     * Create a new schedule, start it and persist it to the config.
+     *
+     * @return false if a schedule with this name already exists
+     * @throws IllegalArgumentException if the name is not {@link #isValidName valid}
+     */
+    public synchronized boolean addSchedule(String name, World.Environment environment, boolean opens, long delayTicks, long intervalTicks) {
+        if (!isValidName(name)) {
+            throw new IllegalArgumentException("Invalid schedule name: " + name);
+        }
+        if (schedules.containsKey(name)) {
+            return false;
+        }
+        
+        Schedule schedule = new Schedule(name, environment, opens, delayTicks, intervalTicks);
+        schedule.setAnchorTick(Bukkit.getCurrentTick());
+        schedules.put(name, schedule);
+        version++;
+        scheduleTask(schedule, schedule.getDelayTicks());
+        
+        plugin.editConfig(config -> {
+            ConfigurationSection section = config.createSection("schedules." + name);
+            section.set("enabled", true);
+            section.set("dimension", getDimensionConfigName(environment));
+            section.set("action", schedule.getAction());
+            section.set("delay_ticks", schedule.getDelayTicks());
+            section.set("interval_ticks", schedule.getIntervalTicks());
+        });
+        return true;
+    }
+    
+    /**
+     * Stop a schedule and remove it from the config.
+     *
+     * @return false if no such schedule exists
+     */
+    public synchronized boolean removeSchedule(String name) {
+        Schedule schedule = schedules.remove(name);
+        if (schedule == null) {
+            return false;
+        }
+        
+        version++;
+        cancelTask(schedule);
+        plugin.editConfig(config -> config.set("schedules." + name, null));
+        return true;
+    }
+    
+    /**
+     * Pause a running schedule or resume a paused one. A resumed schedule keeps
+     * its original phase, so it fires on the same ticks it would have without the pause.
+     *
+     * @return the new paused state, or null if no such schedule exists
+     */
+    public synchronized Boolean togglePause(String name) {
+        Schedule schedule = schedules.get(name);
+        if (schedule == null) {
+            return null;
+        }
+        
+        if (schedule.isPaused()) {
+            schedule.setPaused(false);
+            long now = Bukkit.getCurrentTick();
+            scheduleTask(schedule, schedule.getNextFireTick(now - 1) - now);
+        } else {
+            schedule.setPaused(true);
+            cancelTask(schedule);
+        }
         
-        scheduledTasks.put(name, task);
-        plugin.getLogger().info("Scheduled task '" + name + "' registered: " + action + " " + getDimensionDisplayName(environment) + " every " + interval + " ticks");
+        version++;
+        boolean paused = schedule.isPaused();
+        plugin.editConfig(config -> config.set("schedules." + name + ".paused", paused));
+        return schedule.isPaused();
+    }
+    
+    public synchronized void cancelSchedule(String name) {
+        Schedule schedule = schedules.remove(name);
+        if (schedule != null) {
+            version++;
+            cancelTask(schedule);
+        }
+    }
+    
+    public synchronized void cancelAllSchedules() {
+        for (Schedule schedule : schedules.values()) {
+            cancelTask(schedule);
+        }
+        schedules.clear();
+        version++;
     }
     
-    public void cancelSchedule(String name) {
-        BukkitTask task = scheduledTasks.remove(name);
+    private void cancelTask(Schedule schedule) {
+        TaskHandle task = schedule.getTask();
         if (task != null) {
             task.cancel();
+            schedule.setTask(null);
         }
     }
     
-    public void cancelAllSchedules() {
-        for (BukkitTask task : scheduledTasks.values()) {
-            task.cancel();
+    public synchronized Map<String, TaskHandle> getActiveSchedules() {
+        Map<String, TaskHandle> active = new HashMap<>();
+        for (Schedule schedule : schedules.values()) {
+            if (schedule.getTask() != null) {
+                active.put(schedule.getName(), schedule.getTask());
+            }
         }
-        scheduledTasks.clear();
+        return active;
+    }
+    
+    /**
+     * Get all loaded schedules, including paused ones, in registration order
+     */
+    public synchronized List<Schedule> getSchedules() {
+        return new ArrayList<>(schedules.values());
+    }
+    
+    /**
+     * Get a counter that changes whenever a schedule is added, removed, paused or resumed
+     */
+    public long getVersion() {
+        return version;
+    }
+    
+    public synchronized Schedule getSchedule(String name) {
+        return schedules.get(name);
     }
     
-    public Map<String, BukkitTask> getActiveSchedules() {
-        return new HashMap<>(scheduledTasks);
+    /**
+     * Get the next {@code count} state transitions per dimension caused by the running schedules
+     */
+    public Map<World.Environment, List<ScheduleTimeline.Transition>> getUpcomingTransitions(int count) {
+        return ScheduleTimeline.upcomingTransitions(getSchedules(), dimensionManager.getAllDimensionStates(),
+                Bukkit.getCurrentTick(), count);
+    }
+    
+    /**
+     * Get open/close schedule pairs for the same dimension that will fire on the same tick
+     */
+    public List<ScheduleTimeline.Conflict> getConflicts() {
+        return ScheduleTimeline.findConflicts(getSchedules(), Bukkit.getCurrentTick());
     }
     
     private World.Environment parseDimension(String dimensionName) {
@@ -118,6 +274,17 @@ public class ScheduleManager {
         }
     }
     
+    private String getDimensionConfigName(World.Environment environment) {
+        switch (environment) {
+            case NETHER:
+                return "nether";
+            case THE_END:
+                return "end";
+            default:
+                return "overworld";
+        }
+    }
+    
     private String getDimensionDisplayName(World.Environment environment) {
         switch (environment) {
             case NORMAL:
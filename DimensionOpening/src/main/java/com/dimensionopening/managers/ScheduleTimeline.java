@@ -0,0 +1,271 @@
+package com.dimensionopening.managers;
+
+import org.bukkit.World;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Computes upcoming dimension state changes from a set of schedules.
+ *
+ * Every schedule is an arithmetic progression of fire ticks, so the timeline is
+ * a k-way merge of those progressions: only ticks on which something actually
+ * fires are visited, never the ticks in between.
+ */
+public final class ScheduleTimeline {
+    
+    // Upper bound on merged fire events, guards against schedules that never change state
+    private static final int MAX_EVENTS = 10_000;
+    
+    private ScheduleTimeline() {
+    }
+    
+    /**
+     * A state change that will happen on a given tick
+     */
+    public static final class Transition {
+        private final long tick;
+        private final World.Environment environment;
+        private final boolean opens;
+        private final String scheduleName;
+        private final boolean conflicting;
+        
+        Transition(long tick, World.Environment environment, boolean opens, String scheduleName, boolean conflicting) {
+            this.tick = tick;
+            this.environment = environment;
+            this.opens = opens;
+            this.scheduleName = scheduleName;
+            this.conflicting = conflicting;
+        }
+        
+        public long getTick() {
+            return tick;
+        }
+        
+        public World.Environment getEnvironment() {
+            return environment;
+        }
+        
+        public boolean opens() {
+            return opens;
+        }
+        
+        public String getScheduleName() {
+            return scheduleName;
+        }
+        
+        /**
+         * True if an open and a close for this dimension fire on the same tick
+         */
+        public boolean isConflicting() {
+            return conflicting;
+        }
+    }
+    
+    /**
+     * An open schedule and a close schedule for the same dimension that fire on the same tick
+     */
+    public static final class Conflict {
+        private final Schedule openSchedule;
+        private final Schedule closeSchedule;
+        private final long firstTick;
+        
+        Conflict(Schedule openSchedule, Schedule closeSchedule, long firstTick) {
+            this.openSchedule = openSchedule;
+            this.closeSchedule = closeSchedule;
+            this.firstTick = firstTick;
+        }
+        
+        public Schedule getOpenSchedule() {
+            return openSchedule;
+        }
+        
+        public Schedule getCloseSchedule() {
+            return closeSchedule;
+        }
+        
+        public long getFirstTick() {
+            return firstTick;
+        }
+    }
+    
+    private static final class Cursor implements Comparable<Cursor> {
+        final Schedule schedule;
+        final int order;
+        long tick;
+        
+        Cursor(Schedule schedule, int order, long tick) {
+            this.schedule = schedule;
+            this.order = order;
+            this.tick = tick;
+        }
+        
+        @Override
+        public int compareTo(Cursor other) {
+            int byTick = Long.compare(tick, other.tick);
+            return byTick != 0 ? byTick : Integer.compare(order, other.order);
+        }
+    }
+    
+    /**
+     * Get the next {@code limit} state transitions for each dimension.
+     *
+     * Runs that would not change the state (opening an already open dimension)
+     * are skipped. When an open and a close land on the same tick, the schedule
+     * registered last wins, matching the order the scheduler runs them in, and
+     * the transition is flagged as conflicting.
+     */
+    public static Map<World.Environment, List<Transition>> upcomingTransitions(Collection<Schedule> schedules,
+                                                                              Map<World.Environment, Boolean> currentStates,
+                                                                              long currentTick, int limit) {
+        Map<World.Environment, List<Transition>> result = new EnumMap<>(World.Environment.class);
+        Map<World.Environment, Boolean> states = new EnumMap<>(World.Environment.class);
+        PriorityQueue<Cursor> queue = new PriorityQueue<>();
+        
+        int order = 0;
+        for (Schedule schedule : schedules) {
+            order++;
+            if (schedule.isPaused()) continue;
+            World.Environment environment = schedule.getEnvironment();
+            result.computeIfAbsent(environment, e -> new ArrayList<>());
+            states.putIfAbsent(environment, currentStates.getOrDefault(environment, true));
+            queue.add(new Cursor(schedule, order, schedule.getNextFireTick(currentTick)));
+        }
+        
+        int events = 0;
+        List<Cursor> due = new ArrayList<>();
+        while (!queue.isEmpty() && events < MAX_EVENTS && !allFull(result, limit)) {
+            long tick = queue.peek().tick;
+            due.clear();
+            while (!queue.isEmpty() && queue.peek().tick == tick) {
+                due.add(queue.poll());
+            }
+            events += due.size();
+            
+            for (World.Environment environment : result.keySet()) {
+                applyTick(environment, tick, due, states, result.get(environment), limit);
+            }
+            
+            for (Cursor cursor : due) {
+                cursor.tick += cursor.schedule.getIntervalTicks();
+                if (result.get(cursor.schedule.getEnvironment()).size() < limit
+                        && canStillTransition(cursor.schedule.getEnvironment(), schedules, states)) {
+                    queue.add(cursor);
+                }
+            }
+        }
+        
+        return result;
+    }
+    
+    private static void applyTick(World.Environment environment, long tick, List<Cursor> due,
+                                  Map<World.Environment, Boolean> states, List<Transition> transitions, int limit) {
+        Cursor winner = null;
+        boolean sawOpen = false;
+        boolean sawClose = false;
+        for (Cursor cursor : due) {
+            if (cursor.schedule.getEnvironment() != environment) continue;
+            if (cursor.schedule.opens()) {
+                sawOpen = true;
+            } else {
+                sawClose = true;
+            }
+            winner = cursor; // due is ordered by registration, last one applied wins
+        }
+        if (winner == null || transitions.size() >= limit) {
+            return;
+        }
+        
+        boolean conflicting = sawOpen && sawClose;
+        boolean newState = winner.schedule.opens();
+        if (newState != states.get(environment) || conflicting) {
+            states.put(environment, newState);
+            transitions.add(new Transition(tick, environment, newState, winner.schedule.getName(), conflicting));
+        }
+    }
+    
+    /**
+     * A dimension whose remaining schedules all perform the action matching
+     * its current state can never change again, so there is no point merging further.
+     */
+    private static boolean canStillTransition(World.Environment environment, Collection<Schedule> schedules,
+                                              Map<World.Environment, Boolean> states) {
+        boolean state = states.get(environment);
+        for (Schedule schedule : schedules) {
+            if (!schedule.isPaused() && schedule.getEnvironment() == environment && schedule.opens() != state) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    private static boolean allFull(Map<World.Environment, List<Transition>> result, int limit) {
+        for (List<Transition> transitions : result.values()) {
+            if (transitions.size() < limit) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * Find every open/close pair for the same dimension that will ever fire on
+     * the same tick, together with the first such tick after {@code currentTick}.
+     */
+    public static List<Conflict> findConflicts(Collection<Schedule> schedules, long currentTick) {
+        List<Conflict> conflicts = new ArrayList<>();
+        for (Schedule open : schedules) {
+            if (open.isPaused() || !open.opens()) continue;
+            for (Schedule close : schedules) {
+                if (close.isPaused() || close.opens() || close.getEnvironment() != open.getEnvironment()) continue;
+                long tick = firstCommonTick(open, close, currentTick);
+                if (tick >= 0) {
+                    conflicts.add(new Conflict(open, close, tick));
+                }
+            }
+        }
+        conflicts.sort((a, b) -> Long.compare(a.getFirstTick(), b.getFirstTick()));
+        return Collections.unmodifiableList(conflicts);
+    }
+    
+    /**
+     * Solve {@code t = firstA (mod intervalA)}, {@code t = firstB (mod intervalB)} for the
+     * smallest t after {@code currentTick} that both schedules have reached.
+     *
+     * @return the tick, or -1 if the two progressions never meet
+     */
+    static long firstCommonTick(Schedule a, Schedule b, long currentTick) {
+        BigInteger firstA = BigInteger.valueOf(a.getFirstFireTick());
+        BigInteger firstB = BigInteger.valueOf(b.getFirstFireTick());
+        BigInteger intervalA = BigInteger.valueOf(a.getIntervalTicks());
+        BigInteger intervalB = BigInteger.valueOf(b.getIntervalTicks());
+        
+        BigInteger gcd = intervalA.gcd(intervalB);
+        BigInteger diff = firstB.subtract(firstA);
+        if (diff.mod(gcd).signum() != 0) {
+            return -1;
+        }
+        
+        // intervalA * k = diff (mod intervalB)  =>  k = (diff / g) * inverse(intervalA / g) (mod intervalB / g)
+        BigInteger reducedModulus = intervalB.divide(gcd);
+        BigInteger k = BigInteger.ZERO;
+        if (!reducedModulus.equals(BigInteger.ONE)) {
+            BigInteger inverse = intervalA.divide(gcd).modInverse(reducedModulus);
+            k = diff.divide(gcd).multiply(inverse).mod(reducedModulus);
+        }
+        BigInteger candidate = firstA.add(intervalA.multiply(k));
+        BigInteger period = intervalA.divide(gcd).multiply(intervalB);
+        
+        BigInteger lowerBound = firstA.max(firstB).max(BigInteger.valueOf(currentTick + 1));
+        if (candidate.compareTo(lowerBound) < 0) {
+            BigInteger steps = lowerBound.subtract(candidate).add(period).subtract(BigInteger.ONE).divide(period);
+            candidate = candidate.add(steps.multiply(period));
+        }
+        return candidate.bitLength() < 63 ? candidate.longValue() : -1;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,327 @@
+package com.dimensionopening.metrics;
+
+import com.dimensionopening.DimensionOpeningPlugin;
+import com.dimensionopening.audit.AuditLog;
+import com.dimensionopening.config.Settings;
+import com.dimensionopening.managers.DimensionManager;
+import com.dimensionopening.scheduler.TaskHandle;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.bukkit.Bukkit;
+import org.bukkit.World;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Serves {@link MetricsManager} data in the OpenMetrics / Prometheus text format
+ * from an embedded JDK {@link HttpServer}.
+ *
+ * World state is only readable on the main thread, so a task copies dimension
+ * states and occupancy into an immutable snapshot once a second and publishes it
+ * through a volatile field. Counters are LongAdders and are read directly. A
+ * scrape therefore never waits for or runs anything on the main thread, and the
+ * response is encoded into a byte buffer that is reused between scrapes.
+ */
+public class MetricsExporter {
+    
+    private static final String OPENMETRICS_CONTENT_TYPE = "application/openmetrics-text; version=1.0.0; charset=utf-8";
+    private static final String TEXT_CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+    
+    private final DimensionOpeningPlugin plugin;
+    private final MetricsManager metricsManager;
+    private final DimensionManager dimensionManager;
+    private final PerformanceMonitor performanceMonitor;
+    private final AuditLog auditLog;
+    private final World.Environment[] dimensions;
+    private final String[] dimensionLabels;
+    
+    private volatile Snapshot snapshot;
+    private HttpServer server;
+    private ExecutorService executor;
+    private TaskHandle snapshotTask;
+    
+    // Response buffer, only touched by the single HTTP worker thread
+    private byte[] buffer = new byte[8192];
+    private int length;
+    private final byte[] digits = new byte[20];
+    private boolean openMetrics;
+    
+    /**
+     * Main-thread state copied for the scrape thread
+     */
+    private static final class Snapshot {
+        final boolean[] open;
+        final int[] players;
+        
+        Snapshot(boolean[] open, int[] players) {
+            this.open = open;
+            this.players = players;
+        }
+    }
+    
+    public MetricsExporter(DimensionOpeningPlugin plugin, MetricsManager metricsManager, DimensionManager dimensionManager) {
+        this.plugin = plugin;
+        this.metricsManager = metricsManager;
+        this.dimensionManager = dimensionManager;
+        this.performanceMonitor = plugin.getPerformanceMonitor();
+        this.auditLog = plugin.getAuditLog();
+        this.dimensions = dimensionManager.getAllDimensionStates().keySet().toArray(new World.Environment[0]);
+        Arrays.sort(this.dimensions);
+        this.dimensionLabels = new String[dimensions.length];
+        for (int i = 0; i < dimensions.length; i++) {
+            dimensionLabels[i] = "{dimension=\"" + MetricsManager.getDimensionKey(dimensions[i]) + "\"} ";
+        }
+        this.snapshot = new Snapshot(new boolean[dimensions.length], new int[dimensions.length]);
+    }
+    
+    /**
+     * Start the HTTP endpoint if it is enabled in the config
+     */
+    public void start() {
+        Settings settings = plugin.getSettings();
+        if (!settings.isMetricsHttpEnabled()) {
+            return;
+        }
+        
+        String bindAddress = settings.getMetricsHttpBind();
+        int port = settings.getMetricsHttpPort();
+        
+        captureSnapshot();
+        snapshotTask = plugin.getTaskScheduler().runGlobalTimer(this::captureSnapshot, 20L, 20L);
+        
+        try {
+            server = HttpServer.create(new InetSocketAddress(bindAddress, port), 0);
+        } catch (IOException e) {
+            plugin.getLogger().warning("Failed to start metrics endpoint on " + bindAddress + ":" + port + ": " + e.getMessage());
+            stop();
+            return;
+        }
+        
+        executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "DimensionOpening-Metrics");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.createContext("/metrics", this::handle);
+        server.setExecutor(executor);
+        server.start();
+        plugin.getLogger().info("Serving metrics on http://" + bindAddress + ":" + port + "/metrics");
+    }
+    
+    public void stop() {
+        if (snapshotTask != null) {
+            snapshotTask.cancel();
+            snapshotTask = null;
+        }
+        if (server != null) {
+            server.stop(0);
+            server = null;
+        }
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+    
+    /**
+     * Copy main-thread-only state. Must be called on the main thread.
+     */
+    public void captureSnapshot() {
+        boolean[] open = new boolean[dimensions.length];
+        int[] players = new int[dimensions.length];
+        Map<World.Environment, Boolean> states = dimensionManager.getAllDimensionStates();
+        for (int i = 0; i < dimensions.length; i++) {
+            open[i] = states.getOrDefault(dimensions[i], true);
+        }
+        for (World world : Bukkit.getWorlds()) {
+            int index = Arrays.binarySearch(dimensions, world.getEnvironment());
+            if (index >= 0) {
+                players[index] += world.getPlayerCount();
+            }
+        }
+        snapshot = new Snapshot(open, players);
+    }
+    
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            String method = exchange.getRequestMethod();
+            if (!method.equals("GET") && !method.equals("HEAD")) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            
+            String accept = exchange.getRequestHeaders().getFirst("Accept");
+            openMetrics = accept != null && accept.contains("application/openmetrics-text");
+            render();
+            
+            exchange.getResponseHeaders().set("Content-Type", openMetrics ? OPENMETRICS_CONTENT_TYPE : TEXT_CONTENT_TYPE);
+            if (method.equals("HEAD")) {
+                exchange.sendResponseHeaders(200, -1);
+                return;
+            }
+            exchange.sendResponseHeaders(200, length);
+            try (OutputStream body = exchange.getResponseBody()) {
+                body.write(buffer, 0, length);
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+    
+    /**
+     * Render the exposition into {@link #buffer}
+     */
+    private void render() {
+        Snapshot current = snapshot;
+        length = 0;
+        
+        family("dimensionopening_dimension_open", "gauge", "Whether the dimension is open (1) or closed (0).");
+        for (int i = 0; i < dimensions.length; i++) {
+            sample("dimensionopening_dimension_open", i, current.open[i] ? 1 : 0);
+        }
+        
+        family("dimensionopening_dimension_players", "gauge", "Players currently in worlds of this dimension.");
+        for (int i = 0; i < dimensions.length; i++) {
+            sample("dimensionopening_dimension_players", i, current.players[i]);
+        }
+        
+        counterFamily("dimensionopening_dimension_opens", "Times the dimension has been opened.");
+        for (int i = 0; i < dimensions.length; i++) {
+            sample("dimensionopening_dimension_opens_total", i, metricsManager.getOpenCount(dimensions[i]));
+        }
+        
+        counterFamily("dimensionopening_dimension_closes", "Times the dimension has been closed.");
+        for (int i = 0; i < dimensions.length; i++) {
+            sample("dimensionopening_dimension_closes_total", i, metricsManager.getCloseCount(dimensions[i]));
+        }
+        
+        counterFamily("dimensionopening_dimension_uptime_seconds", "Total time the dimension has been open.");
+        for (int i = 0; i < dimensions.length; i++) {
+            sample("dimensionopening_dimension_uptime_seconds_total", i, metricsManager.getUptimeMillis(dimensions[i]) / 1000);
+        }
+        
+        counterFamily("dimensionopening_governor_closes", "Times the load governor closed the dimension since startup.");
+        for (int i = 0; i < dimensions.length; i++) {
+            sample("dimensionopening_governor_closes_total", i, metricsManager.getGovernorCloseCount(dimensions[i]));
+        }
+        
+        counterFamily("dimensionopening_governor_reopens", "Times the load governor reopened the dimension since startup.");
+        for (int i = 0; i < dimensions.length; i++) {
+            sample("dimensionopening_governor_reopens_total", i, metricsManager.getGovernorReopenCount(dimensions[i]));
+        }
+        
+        counterFamily("dimensionopening_access_attempts", "Attempts to enter the dimension while it was closed.");
+        for (int i = 0; i < dimensions.length; i++) {
+            sample("dimensionopening_access_attempts_total", i, metricsManager.getAttemptCount(dimensions[i]));
+        }
+        
+        counterFamily("dimensionopening_access_denials", "Entries into the dimension that were denied.");
+        for (int i = 0; i < dimensions.length; i++) {
+            sample("dimensionopening_access_denials_total", i, metricsManager.getDeniedCount(dimensions[i]));
+        }
+        
+        counterFamily("dimensionopening_audit_dropped", "Audit events dropped because the writer queue was full or the writer had stopped.");
+        append("dimensionopening_audit_dropped_total ").appendLong(auditLog.getDroppedCount()).append("\n");
+        
+        family("dimensionopening_hot_path_latency_seconds", "summary", "Time spent in instrumented plugin code paths.");
+        for (PerformanceMonitor.Probe probe : PerformanceMonitor.Probe.values()) {
+            LatencyHistogram histogram = performanceMonitor.getHistogram(probe);
+            String labels = "{probe=\"" + probe.getKey() + "\"";
+            append("dimensionopening_hot_path_latency_seconds").append(labels).append(",quantile=\"0.5\"} ")
+                    .appendSeconds(histogram.getQuantile(0.5)).append("\n");
+            append("dimensionopening_hot_path_latency_seconds").append(labels).append(",quantile=\"0.99\"} ")
+                    .appendSeconds(histogram.getQuantile(0.99)).append("\n");
+            append("dimensionopening_hot_path_latency_seconds_sum").append(labels).append("} ")
+                    .appendSeconds(histogram.getTotalNanos()).append("\n");
+            append("dimensionopening_hot_path_latency_seconds_count").append(labels).append("} ")
+                    .appendLong(histogram.getCount()).append("\n");
+        }
+        
+        if (openMetrics) {
+            append("# EOF\n");
+        }
+    }
+    
+    private void family(String name, String type, String help) {
+        append("# TYPE ").append(name).append(" ").append(type).append("\n");
+        append("# HELP ").append(name).append(" ").append(help).append("\n");
+    }
+    
+    /**
+     * OpenMetrics names the counter family without the _total suffix, the 0.0.4 text format with it
+     */
+    private void counterFamily(String name, String help) {
+        family(openMetrics ? name : name + "_total", "counter", help);
+    }
+    
+    private void sample(String name, int dimension, long value) {
+        append(name).append(dimensionLabels[dimension]).appendLong(value).append("\n");
+    }
+    
+    private MetricsExporter append(String text) {
+        int size = text.length();
+        ensureCapacity(size);
+        for (int i = 0; i < size; i++) {
+            buffer[length++] = (byte) text.charAt(i);
+        }
+        return this;
+    }
+    
+    private MetricsExporter appendLong(long value) {
+        if (value == 0) {
+            ensureCapacity(1);
+            buffer[length++] = '0';
+            return this;
+        }
+        ensureCapacity(20);
+        if (value < 0) {
+            buffer[length++] = '-';
+            value = -value;
+        }
+        int count = 0;
+        while (value > 0) {
+            digits[count++] = (byte) ('0' + (value % 10));
+            value /= 10;
+        }
+        while (count > 0) {
+            buffer[length++] = digits[--count];
+        }
+        return this;
+    }
+    
+    /**
+     * Append a nanosecond duration as seconds with nanosecond precision
+     */
+    private MetricsExporter appendSeconds(long nanos) {
+        appendLong(nanos / 1_000_000_000L);
+        long fraction = nanos % 1_000_000_000L;
+        if (fraction == 0) {
+            return this;
+        }
+        ensureCapacity(10);
+        buffer[length++] = '.';
+        int width = 9;
+        while (fraction % 10 == 0) {
+            fraction /= 10;
+            width--;
+        }
+        for (int i = width - 1; i >= 0; i--) {
+            buffer[length + i] = (byte) ('0' + (fraction % 10));
+            fraction /= 10;
+        }
+        length += width;
+        return this;
+    }
+    
+    private void ensureCapacity(int extra) {
+        if (length + extra > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, length + extra));
+        }
+    }
+}
\ No newline at end of file
@@ -1,127 +1,499 @@
 package com.dimensionopening.metrics;
 
 import com.dimensionopening.DimensionOpeningPlugin;
+import org.bukkit.World;
 import org.bukkit.entity.Player;
-import org.bukkit.scheduler.BukkitRunnable;
 
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
 
 public class MetricsManager {
+    private static final World.Environment[] DIMENSIONS = World.Environment.values();
+    static final int DIMENSION_COUNT = DIMENSIONS.length;
+    private static final String[] DIMENSION_KEYS = new String[DIMENSIONS.length];
+    
+    static {
+        for (World.Environment environment : DIMENSIONS) {
+            DIMENSION_KEYS[environment.ordinal()] = environment.name().toLowerCase();
+        }
+    }
+    
     private final DimensionOpeningPlugin plugin;
-    private final Map<String, Integer> dimensionOpenCount;
-    private final Map<String, Integer> dimensionCloseCount;
-    private final Map<String, Integer> playerAccessAttempts;
-    private final Map<String, Integer> playerAccessDenied;
-    private final Map<String, Long> dimensionUptime;
-    private final Map<String, Long> dimensionLastOpened;
+    // All per-dimension arrays are indexed by World.Environment ordinal.
+    // Lifetime counters are package-private so MetricsStore can persist them.
+    final LongAdder[] dimensionOpenCount;
+    final LongAdder[] dimensionCloseCount;
+    final LongAdder[] dimensionUptime;
+    // Totals across all players, kept separately so evicting a player doesn't lower them
+    final LongAdder[] dimensionAttemptCount;
+    final LongAdder[] dimensionDeniedCount;
+    private final AtomicLongArray dimensionLastOpened;
+    // Automatic closes and reopens by the load governor since startup
+    private final LongAdder[] governorCloseCount;
+    private final LongAdder[] governorReopenCount;
+    final Map<UUID, PlayerCounters> playerCounters;
+    // Maximum number of players with their own counters, 0 for no limit
+    private final int maxTrackedPlayers;
+    // Tracked players ranked by denied weight when tracking is bounded, also guards evictions
+    private final StreamSummary<UUID> deniedRanking;
+    // Per-minute history, [series ordinal][dimension ordinal]
+    private final RollingCounter[][] timeSeries;
     private final File metricsFile;
+    private final MetricsStore store;
+    
+    /**
+     * Event types kept as per-minute history for rolling window queries
+     */
+    public enum Series {
+        OPENS, CLOSES, ATTEMPTS, DENIALS
+    }
+    
+    // Two days, so a 24h window can be compared against the 24h before it
+    public static final int HISTORY_MINUTES = 2 * 24 * 60;
+    
+    private static final int REPORT_TOP_PLAYERS = 20;
+    
+    /**
+     * Access counters for one player, keyed by UUID so renames don't split the history
+     */
+    static final class PlayerCounters {
+        final LongAdder[] attempts = newCounters();
+        final LongAdder[] denied = newCounters();
+        // Denials inherited from the player this one replaced when tracking is bounded
+        volatile long error;
+        // Values last written by MetricsStore, and whether anything changed since
+        final long[] persistedAttempts = new long[DIMENSION_COUNT];
+        final long[] persistedDenied = new long[DIMENSION_COUNT];
+        volatile boolean dirty;
+        volatile String lastKnownName;
+    }
     
     public MetricsManager(DimensionOpeningPlugin plugin) {
+        this(plugin, new File(plugin.getDataFolder(), "metrics"), plugin.getLogger(), plugin.getSettings().getMaxTrackedPlayers());
+        
+        // Dimensions that are already open accumulate uptime from now on
+        long now = System.currentTimeMillis();
+        for (Map.Entry<World.Environment, Boolean> entry : plugin.getDimensionManager().getAllDimensionStates().entrySet()) {
+            if (entry.getValue()) {
+                dimensionLastOpened.set(entry.getKey().ordinal(), now);
+            }
+        }
+        
+        // Start periodic metrics saving
+        startMetricsSaving();
+    }
+    
+    /**
+     * Restore counters from a metrics directory without starting anything, so the
+     * store can also be loaded and flushed on its own. The plugin may be null then.
+     */
+    MetricsManager(DimensionOpeningPlugin plugin, File metricsDir, Logger logger, int maxTrackedPlayers) {
         this.plugin = plugin;
-        this.dimensionOpenCount = new ConcurrentHashMap<>();
-        this.dimensionCloseCount = new ConcurrentHashMap<>();
-        this.playerAccessAttempts = new ConcurrentHashMap<>();
-        this.playerAccessDenied = new ConcurrentHashMap<>();
-        this.dimensionUptime = new ConcurrentHashMap<>();
-        this.dimensionLastOpened = new ConcurrentHashMap<>();
+        this.dimensionOpenCount = newCounters();
+        this.dimensionCloseCount = newCounters();
+        this.dimensionUptime = newCounters();
+        this.dimensionAttemptCount = newCounters();
+        this.dimensionDeniedCount = newCounters();
+        this.dimensionLastOpened = new AtomicLongArray(DIMENSIONS.length);
+        this.governorCloseCount = newCounters();
+        this.governorReopenCount = newCounters();
+        this.playerCounters = new ConcurrentHashMap<>();
+        this.maxTrackedPlayers = maxTrackedPlayers;
+        this.deniedRanking = maxTrackedPlayers > 0 ? new StreamSummary<>() : null;
+        this.timeSeries = new RollingCounter[Series.values().length][DIMENSIONS.length];
+        for (RollingCounter[] series : timeSeries) {
+            for (int i = 0; i < series.length; i++) {
+                series[i] = new RollingCounter(HISTORY_MINUTES);
+            }
+        }
         
         // Create metrics directory and file
-        File metricsDir = new File(plugin.getDataFolder(), "metrics");
         if (!metricsDir.exists()) {
             metricsDir.mkdirs();
         }
         this.metricsFile = new File(metricsDir, "statistics.txt");
         
-        // Start periodic metrics saving
-        startMetricsSaving();
+        // Restore lifetime totals from the previous run
+        this.store = new MetricsStore(metricsDir, logger);
+        store.load(this);
+    }
+    
+    private static LongAdder[] newCounters() {
+        LongAdder[] counters = new LongAdder[DIMENSIONS.length];
+        for (int i = 0; i < counters.length; i++) {
+            counters[i] = new LongAdder();
+        }
+        return counters;
     }
     
     /**
      * Record when a dimension is opened
      */
-    public void recordDimensionOpen(String dimension) {
-        dimensionOpenCount.merge(dimension, 1, Integer::sum);
-        dimensionLastOpened.put(dimension, System.currentTimeMillis());
+    public void recordDimensionOpen(World.Environment dimension) {
+        long now = System.currentTimeMillis();
+        dimensionOpenCount[dimension.ordinal()].increment();
+        dimensionLastOpened.set(dimension.ordinal(), now);
+        timeSeries[Series.OPENS.ordinal()][dimension.ordinal()].record(now);
     }
     
     /**
      * Record when a dimension is closed
      */
-    public void recordDimensionClose(String dimension) {
-        dimensionCloseCount.merge(dimension, 1, Integer::sum);
+    public void recordDimensionClose(World.Environment dimension) {
+        long now = System.currentTimeMillis();
+        int index = dimension.ordinal();
+        dimensionCloseCount[index].increment();
+        timeSeries[Series.CLOSES.ordinal()][index].record(now);
         
         // Calculate uptime if dimension was previously opened
-        Long openTime = dimensionLastOpened.get(dimension);
-        if (openTime != null) {
-            long uptime = System.currentTimeMillis() - openTime;
-            dimensionUptime.merge(dimension, uptime, Long::sum);
+        long openTime = dimensionLastOpened.getAndSet(index, 0L);
+        if (openTime != 0L) {
+            dimensionUptime[index].add(now - openTime);
         }
     }
     
     /**
      * Record when a player attempts to access a dimension
      */
-    public void recordPlayerAccessAttempt(Player player, String dimension) {
-        String key = player.getName() + ":" + dimension;
-        playerAccessAttempts.merge(key, 1, Integer::sum);
+    public void recordPlayerAccessAttempt(Player player, World.Environment dimension) {
+        PlayerCounters counters = getPlayerCounters(player);
+        counters.attempts[dimension.ordinal()].increment();
+        dimensionAttemptCount[dimension.ordinal()].increment();
+        markDirty(counters);
+        timeSeries[Series.ATTEMPTS.ordinal()][dimension.ordinal()].record(System.currentTimeMillis());
     }
     
     /**
      * Record when a player is denied access to a dimension
      */
-    public void recordPlayerAccessDenied(Player player, String dimension) {
-        String key = player.getName() + ":" + dimension;
-        playerAccessDenied.merge(key, 1, Integer::sum);
+    public void recordPlayerAccessDenied(Player player, World.Environment dimension) {
+        PlayerCounters counters = getPlayerCounters(player);
+        counters.denied[dimension.ordinal()].increment();
+        dimensionDeniedCount[dimension.ordinal()].increment();
+        if (deniedRanking != null) {
+            deniedRanking.increment(player.getUniqueId());
+        }
+        markDirty(counters);
+        timeSeries[Series.DENIALS.ordinal()][dimension.ordinal()].record(System.currentTimeMillis());
+    }
+    
+    /**
+     * Look up the counters for a player. Only a player's first recorded event allocates.
+     */
+    private PlayerCounters getPlayerCounters(Player player) {
+        UUID uuid = player.getUniqueId();
+        PlayerCounters counters = playerCounters.get(uuid);
+        if (counters == null) {
+            counters = trackPlayer(uuid);
+        }
+        String name = player.getName();
+        // Reference check on purpose: the server hands out the same String until the name changes
+        if (counters.lastKnownName != name) {
+            counters.lastKnownName = name;
+        }
+        return counters;
+    }
+    
+    private static void markDirty(PlayerCounters counters) {
+        if (!counters.dirty) {
+            counters.dirty = true;
+        }
+    }
+    
+    /**
+     * Start tracking a player. With bounded tracking and no free slot, the player
+     * with the fewest denials is evicted and the newcomer inherits that count as
+     * its error (the Space-Saving algorithm), so players who keep getting denied
+     * stay in the table and their counts never underestimate. The lightest
+     * player comes from {@link StreamSummary}, so eviction doesn't scan the table.
+     */
+    private PlayerCounters trackPlayer(UUID uuid) {
+        if (deniedRanking == null) {
+            return playerCounters.computeIfAbsent(uuid, id -> new PlayerCounters());
+        }
+        
+        synchronized (deniedRanking) {
+            PlayerCounters existing = playerCounters.get(uuid);
+            if (existing != null) {
+                return existing;
+            }
+            PlayerCounters counters = new PlayerCounters();
+            if (playerCounters.size() >= maxTrackedPlayers) {
+                UUID evictedUuid = deniedRanking.getLightest();
+                if (evictedUuid != null) {
+                    counters.error = deniedRanking.getLightestWeight();
+                    deniedRanking.remove(evictedUuid);
+                    playerCounters.remove(evictedUuid);
+                }
+            }
+            playerCounters.put(uuid, counters);
+            deniedRanking.set(uuid, counters.error);
+            return counters;
+        }
+    }
+    
+    /**
+     * Denials used to rank a player, including any count inherited on eviction
+     */
+    private static long getDeniedWeight(PlayerCounters counters) {
+        return sum(counters.denied) + counters.error;
+    }
+    
+    /**
+     * Add counters loaded from disk for a player
+     *
+     * @param addToTotals whether the dimension totals should be derived from these counts,
+     *                    true for older files that did not store the totals separately
+     */
+    void restorePlayer(UUID uuid, String name, long[] attempts, long[] denied, long error, boolean addToTotals) {
+        PlayerCounters counters = playerCounters.get(uuid);
+        if (counters == null) {
+            counters = trackPlayer(uuid);
+        }
+        if (!name.isEmpty()) {
+            counters.lastKnownName = name;
+        }
+        if (error > counters.error) {
+            counters.error = error;
+        }
+        for (int i = 0; i < DIMENSION_COUNT; i++) {
+            counters.attempts[i].add(attempts[i]);
+            counters.denied[i].add(denied[i]);
+            if (addToTotals) {
+                dimensionAttemptCount[i].add(attempts[i]);
+                dimensionDeniedCount[i].add(denied[i]);
+            }
+        }
+        if (deniedRanking != null) {
+            deniedRanking.set(uuid, getDeniedWeight(counters));
+        }
+    }
+    
+    /**
+     * Add the time open dimensions have been open since the last call to their uptime,
+     * so the stored totals stay current while a dimension remains open
+     */
+    private void foldOpenUptime(long now) {
+        for (int i = 0; i < DIMENSION_COUNT; i++) {
+            long openTime = dimensionLastOpened.get(i);
+            if (openTime != 0L && now > openTime && dimensionLastOpened.compareAndSet(i, openTime, now)) {
+                dimensionUptime[i].add(now - openTime);
+            }
+        }
     }
     
     /**
      * Get dimension open statistics
      */
-    public Map<String, Integer> getDimensionOpenStats() {
-        return new HashMap<>(dimensionOpenCount);
+    public Map<String, Long> getDimensionOpenStats() {
+        return toDimensionMap(dimensionOpenCount);
     }
     
     /**
      * Get dimension close statistics
      */
-    public Map<String, Integer> getDimensionCloseStats() {
-        return new HashMap<>(dimensionCloseCount);
+    public Map<String, Long> getDimensionCloseStats() {
+        return toDimensionMap(dimensionCloseCount);
     }
     
     /**
-     * Get player access attempt statistics
+     * Get player access attempt statistics, totalled across dimensions
      */
-    public Map<String, Integer> getPlayerAccessStats() {
-        return new HashMap<>(playerAccessAttempts);
+    public Map<String, Long> getPlayerAccessStats() {
+        return toPlayerTotals(false);
     }
     
     /**
-     * Get player access denied statistics
+     * Get player access denied statistics, totalled across dimensions
      */
-    public Map<String, Integer> getPlayerDeniedStats() {
-        return new HashMap<>(playerAccessDenied);
+    public Map<String, Long> getPlayerDeniedStats() {
+        return toPlayerTotals(true);
     }
     
     /**
      * Get dimension uptime statistics (in milliseconds)
      */
     public Map<String, Long> getDimensionUptimeStats() {
-        return new HashMap<>(dimensionUptime);
+        return toDimensionMap(dimensionUptime);
+    }
+    
+    /**
+     * Get the number of times a dimension has been opened
+     */
+    public long getOpenCount(World.Environment dimension) {
+        return dimensionOpenCount[dimension.ordinal()].sum();
+    }
+    
+    /**
+     * Record that the load governor closed (or reopened) a dimension, on top of the regular open/close counts
+     */
+    public void recordGovernorAction(World.Environment dimension, boolean closed) {
+        (closed ? governorCloseCount : governorReopenCount)[dimension.ordinal()].increment();
+    }
+    
+    /**
+     * Get the number of times the load governor has closed a dimension since startup
+     */
+    public long getGovernorCloseCount(World.Environment dimension) {
+        return governorCloseCount[dimension.ordinal()].sum();
+    }
+    
+    /**
+     * Get the number of times the load governor has reopened a dimension since startup
+     */
+    public long getGovernorReopenCount(World.Environment dimension) {
+        return governorReopenCount[dimension.ordinal()].sum();
+    }
+    
+    /**
+     * Get the number of times a dimension has been closed
+     */
+    public long getCloseCount(World.Environment dimension) {
+        return dimensionCloseCount[dimension.ordinal()].sum();
+    }
+    
+    /**
+     * Get the number of events in the last {@code minutes} minutes for a dimension
+     */
+    public long getWindowCount(Series series, World.Environment dimension, int minutes) {
+        return timeSeries[series.ordinal()][dimension.ordinal()].sum(System.currentTimeMillis(), minutes);
+    }
+    
+    /**
+     * Get the number of events in the window just before the last {@code minutes} minutes,
+     * used to show whether a rate is rising or falling
+     */
+    public long getPreviousWindowCount(Series series, World.Environment dimension, int minutes) {
+        return timeSeries[series.ordinal()][dimension.ordinal()].previousSum(System.currentTimeMillis(), minutes);
+    }
+    
+    /**
+     * Get the number of access attempts to a dimension across all players
+     */
+    public long getAttemptCount(World.Environment dimension) {
+        return dimensionAttemptCount[dimension.ordinal()].sum();
+    }
+    
+    /**
+     * Get the number of denied accesses to a dimension across all players
+     */
+    public long getDeniedCount(World.Environment dimension) {
+        return dimensionDeniedCount[dimension.ordinal()].sum();
+    }
+    
+    /**
+     * Get the lower-case key used for a dimension in reports and exported metrics
+     */
+    public static String getDimensionKey(World.Environment dimension) {
+        return DIMENSION_KEYS[dimension.ordinal()];
+    }
+    
+    private Map<String, Long> toDimensionMap(LongAdder[] counters) {
+        Map<String, Long> result = new HashMap<>();
+        for (int i = 0; i < counters.length; i++) {
+            long value = counters[i].sum();
+            if (value > 0) {
+                result.put(DIMENSION_KEYS[i], value);
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * Get the tracked players with the most denials (or attempts), highest first.
+     * Cost depends on the tracking limit, not on how many players have ever joined.
+     */
+    public List<PlayerStat> getTopPlayers(int limit, boolean byDenials) {
+        Comparator<PlayerStat> order = Comparator.comparingLong(byDenials ? PlayerStat::getDenied : PlayerStat::getAttempts);
+        PriorityQueue<PlayerStat> top = new PriorityQueue<>(order);
+        for (Map.Entry<UUID, PlayerCounters> entry : playerCounters.entrySet()) {
+            PlayerCounters counters = entry.getValue();
+            long error = counters.error;
+            long denied = sum(counters.denied) + error;
+            long attempts = sum(counters.attempts);
+            if ((byDenials ? denied : attempts) == 0) continue;
+            
+            String name = counters.lastKnownName != null ? counters.lastKnownName : entry.getKey().toString();
+            top.add(new PlayerStat(entry.getKey(), name, attempts, denied, error));
+            if (top.size() > limit) {
+                top.poll();
+            }
+        }
+        
+        List<PlayerStat> result = new ArrayList<>(top);
+        result.sort(order.reversed());
+        return result;
+    }
+    
+    /**
+     * Get the number of players that currently have their own counters
+     */
+    public int getTrackedPlayerCount() {
+        return playerCounters.size();
+    }
+    
+    private Map<String, Long> toPlayerTotals(boolean deniedOnly) {
+        Map<String, Long> totals = new HashMap<>();
+        for (Map.Entry<UUID, PlayerCounters> entry : playerCounters.entrySet()) {
+            PlayerCounters counters = entry.getValue();
+            long total = deniedOnly ? getDeniedWeight(counters) : sum(counters.attempts);
+            if (total > 0) {
+                String name = counters.lastKnownName != null ? counters.lastKnownName : entry.getKey().toString();
+                totals.merge(name, total, Long::sum);
+            }
+        }
+        return totals;
+    }
+    
+    private static long sum(LongAdder[] counters) {
+        long total = 0;
+        for (LongAdder counter : counters) {
+            total += counter.sum();
+        }
+        return total;
+    }
+    
+    /**
+     * Get the total time a dimension has been open, including its current open period
+     */
+    public long getUptimeMillis(World.Environment dimension) {
+        long uptime = dimensionUptime[dimension.ordinal()].sum();
+        long openTime = dimensionLastOpened.get(dimension.ordinal());
+        if (openTime != 0L) {
+            uptime += Math.max(0L, System.currentTimeMillis() - openTime);
+        }
+        return uptime;
+    }
+    
+    /**
+     * Get the wall-clock time since which metrics have been collected
+     */
+    public long getTrackingSince() {
+        return store.getTrackingSince();
     }
     
     /**
      * Get formatted uptime for a dimension
      */
-    public String getFormattedUptime(String dimension) {
-        Long uptime = dimensionUptime.get(dimension);
-        if (uptime == null) {
+    public String getFormattedUptime(World.Environment dimension) {
+        long uptime = getUptimeMillis(dimension);
+        if (uptime == 0) {
             return "No data";
         }
         
@@ -147,58 +519,82 @@ public class MetricsManager {
     public String generateReport() {
         StringBuilder report = new StringBuilder();
         report.append("=== Dimension Opening Plugin Metrics ===\n");
-        report.append("Generated: ").append(LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"))).append("\n\n");
+        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+        report.append("Generated: ").append(LocalDateTime.now().format(formatter)).append("\n");
+        report.append("Tracking since: ").append(LocalDateTime.ofInstant(Instant.ofEpochMilli(getTrackingSince()), ZoneId.systemDefault()).format(formatter)).append("\n\n");
         
         // Dimension open/close statistics
         report.append("Dimension Open Count:\n");
-        for (Map.Entry<String, Integer> entry : dimensionOpenCount.entrySet()) {
-            report.append("  ").append(entry.getKey()).append(": ").append(entry.getValue()).append("\n");
-        }
+        appendDimensionCounts(report, dimensionOpenCount);
         
         report.append("\nDimension Close Count:\n");
-        for (Map.Entry<String, Integer> entry : dimensionCloseCount.entrySet()) {
-            report.append("  ").append(entry.getKey()).append(": ").append(entry.getValue()).append("\n");
-        }
+        appendDimensionCounts(report, dimensionCloseCount);
         
         // Dimension uptime
         report.append("\nDimension Uptime:\n");
-        for (Map.Entry<String, Long> entry : dimensionUptime.entrySet()) {
-            report.append("  ").append(entry.getKey()).append(": ").append(getFormattedUptime(entry.getKey())).append("\n");
+        for (World.Environment dimension : DIMENSIONS) {
+            if (getUptimeMillis(dimension) > 0) {
+                report.append("  ").append(DIMENSION_KEYS[dimension.ordinal()]).append(": ").append(getFormattedUptime(dimension)).append("\n");
+            }
         }
         
         // Player access statistics
-        report.append("\nPlayer Access Attempts:\n");
-        Map<String, Integer> playerTotals = new HashMap<>();
-        for (Map.Entry<String, Integer> entry : playerAccessAttempts.entrySet()) {
-            String player = entry.getKey().split(":")[0];
-            playerTotals.merge(player, entry.getValue(), Integer::sum);
-        }
-        for (Map.Entry<String, Integer> entry : playerTotals.entrySet()) {
-            report.append("  ").append(entry.getKey()).append(": ").append(entry.getValue()).append("\n");
-        }
+        report.append("\nTop Player Access Attempts:\n");
+        appendPlayerTotals(report, getTopPlayers(REPORT_TOP_PLAYERS, false), false);
         
         // Access denied statistics
-        report.append("\nPlayer Access Denied:\n");
-        Map<String, Integer> deniedTotals = new HashMap<>();
-        for (Map.Entry<String, Integer> entry : playerAccessDenied.entrySet()) {
-            String player = entry.getKey().split(":")[0];
-            deniedTotals.merge(player, entry.getValue(), Integer::sum);
-        }
-        for (Map.Entry<String, Integer> entry : deniedTotals.entrySet()) {
-            report.append("  ").append(entry.getKey()).append(": ").append(entry.getValue()).append("\n");
+        report.append("\nTop Player Access Denied:\n");
+        appendPlayerTotals(report, getTopPlayers(REPORT_TOP_PLAYERS, true), true);
+        
+        if (maxTrackedPlayers > 0) {
+            report.append("\nTracking ").append(playerCounters.size()).append(" of at most ")
+                    .append(maxTrackedPlayers).append(" players\n");
         }
         
         return report.toString();
     }
     
+    private void appendDimensionCounts(StringBuilder report, LongAdder[] counters) {
+        for (int i = 0; i < counters.length; i++) {
+            long value = counters[i].sum();
+            if (value > 0) {
+                report.append("  ").append(DIMENSION_KEYS[i]).append(": ").append(value).append("\n");
+            }
+        }
+    }
+    
+    private void appendPlayerTotals(StringBuilder report, List<PlayerStat> players, boolean denials) {
+        for (PlayerStat player : players) {
+            report.append("  ").append(player.getName()).append(": ").append(denials ? player.getDenied() : player.getAttempts());
+            if (denials && player.getError() > 0) {
+                report.append(" (at most ").append(player.getError()).append(" inherited)");
+            }
+            report.append("\n");
+        }
+    }
+    
     /**
-     * Save metrics to file
+     * Write a human-readable report to statistics.txt
+     *
+     * @return the file written, or null if writing failed
      */
-    public void saveMetrics() {
+    public File saveMetrics() {
         try (FileWriter writer = new FileWriter(metricsFile)) {
             writer.write(generateReport());
+            return metricsFile;
         } catch (IOException e) {
             plugin.getLogger().warning("Failed to save metrics: " + e.getMessage());
+            return null;
+        }
+    }
+    
+    /**
+     * Append changed counters to the binary store, checkpointing when the journal gets large
+     */
+    public void flush() {
+        foldOpenUptime(System.currentTimeMillis());
+        if (store.appendDelta(this)) {
+            store.checkpoint(this);
         }
     }
     
@@ -206,30 +602,45 @@ public class MetricsManager {
      * Start periodic metrics saving
      */
     private void startMetricsSaving() {
-        new BukkitRunnable() {
-            @Override
-            public void run() {
-                saveMetrics();
-            }
-        }.runTaskTimerAsynchronously(plugin, 6000L, 6000L); // Save every 5 minutes
+        plugin.getTaskScheduler().runAsyncTimer(this::flush, 6000L, 6000L); // Save every 5 minutes
     }
     
     /**
      * Reset all metrics
      */
     public void resetMetrics() {
-        dimensionOpenCount.clear();
-        dimensionCloseCount.clear();
-        playerAccessAttempts.clear();
-        playerAccessDenied.clear();
-        dimensionUptime.clear();
-        dimensionLastOpened.clear();
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < DIMENSIONS.length; i++) {
+            dimensionOpenCount[i].reset();
+            dimensionCloseCount[i].reset();
+            dimensionUptime[i].reset();
+            dimensionAttemptCount[i].reset();
+            dimensionDeniedCount[i].reset();
+            if (dimensionLastOpened.get(i) != 0L) {
+                dimensionLastOpened.set(i, now);
+            }
+        }
+        if (deniedRanking != null) {
+            synchronized (deniedRanking) {
+                playerCounters.clear();
+                deniedRanking.clear();
+            }
+        } else {
+            playerCounters.clear();
+        }
+        for (RollingCounter[] series : timeSeries) {
+            for (RollingCounter counter : series) {
+                counter.reset();
+            }
+        }
+        store.reset(this);
     }
     
     /**
      * Cleanup resources
      */
     public void cleanup() {
-        saveMetrics();
+        foldOpenUptime(System.currentTimeMillis());
+        store.checkpoint(this);
     }
 }
\ No newline at end of file
@@ -0,0 +1,428 @@
+package com.dimensionopening.metrics;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.UUID;
+import java.util.logging.Logger;
+import java.util.zip.CRC32;
+
+/**
+ * Durable binary storage for {@link MetricsManager} counters.
+ *
+ * State lives in two files: {@code metrics.dat}, a full checkpoint, and
+ * {@code metrics.journal}, a log of CRC-protected delta batches appended
+ * since that checkpoint. Both carry a generation number; a journal is only
+ * replayed on top of the checkpoint of the same generation, so a crash
+ * between writing a checkpoint and truncating the journal never applies
+ * the same deltas twice. A torn batch at the end of the journal is ignored,
+ * and the journal is rewritten from a fresh checkpoint before anything else
+ * is appended to it, so later batches never land behind the damaged one.
+ *
+ * Counts are written as variable-length integers, so an idle dimension or a
+ * player with a single denial costs a few bytes. Version 1 files did not store
+ * per-dimension access totals; they are derived from the player records when
+ * such a file is loaded.
+ */
+class MetricsStore {
+    
+    private static final int CHECKPOINT_MAGIC = 0x444F4D43; // "DOMC"
+    private static final int JOURNAL_MAGIC = 0x444F4D4A;    // "DOMJ"
+    private static final byte FORMAT_VERSION = 2;
+    private static final byte FORMAT_VERSION_NO_ACCESS_TOTALS = 1;
+    
+    private static final byte RECORD_END = 0;
+    private static final byte RECORD_DIMENSION = 1;
+    private static final byte RECORD_PLAYER = 2;
+    private static final byte RECORD_DIMENSION_ACCESS = 3;
+    
+    // Fold the journal into a new checkpoint once it grows past this size
+    private static final long JOURNAL_CHECKPOINT_BYTES = 256 * 1024;
+    
+    private final File checkpointFile;
+    private final File journalFile;
+    private final Logger logger;
+    private final ByteArrayOutputStream batchBuffer;
+    private final CRC32 crc;
+    
+    // Dimension totals as last written to disk: [open, close, uptime, attempts, denied][dimension ordinal]
+    private final long[][] persistedDimensionTotals;
+    private long generation;
+    private long trackingSince;
+    // Set after a failed write, the next flush then writes a full checkpoint instead
+    private boolean checkpointDue;
+    // Set while loading when a file in an older format was read
+    private boolean upgradeDue;
+    
+    MetricsStore(File directory, Logger logger) {
+        this.checkpointFile = new File(directory, "metrics.dat");
+        this.journalFile = new File(directory, "metrics.journal");
+        this.logger = logger;
+        this.batchBuffer = new ByteArrayOutputStream(4096);
+        this.crc = new CRC32();
+        this.persistedDimensionTotals = new long[5][MetricsManager.DIMENSION_COUNT];
+        this.trackingSince = System.currentTimeMillis();
+    }
+    
+    /**
+     * Wall-clock time at which metrics were first recorded, carried over between restarts
+     */
+    long getTrackingSince() {
+        return trackingSince;
+    }
+    
+    /**
+     * Restore counters from the checkpoint and replay the journal on top of it
+     */
+    synchronized void load(MetricsManager metrics) {
+        if (checkpointFile.exists()) {
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(checkpointFile)))) {
+                int version = in.readInt() == CHECKPOINT_MAGIC ? in.readByte() : -1;
+                if (!isSupportedVersion(version)) {
+                    logger.warning("Ignoring unrecognised metrics checkpoint " + checkpointFile.getName());
+                } else {
+                    generation = in.readLong();
+                    trackingSince = in.readLong();
+                    readRecords(in, metrics, version);
+                }
+            } catch (IOException e) {
+                logger.warning("Failed to load metrics checkpoint: " + e.getMessage());
+            }
+        }
+        
+        if (journalFile.exists()) {
+            int batches = replayJournal(metrics);
+            if (batches > 0) {
+                logger.info("Replayed " + batches + " metrics journal batches");
+            }
+        }
+        
+        // Everything loaded is already on disk, so only later changes count as deltas
+        markLoaded(metrics);
+        
+        // Rewrite older or damaged files right away so new deltas never land in a journal that can't be replayed
+        if (upgradeDue || checkpointDue) {
+            checkpoint(metrics);
+            upgradeDue = false;
+        }
+    }
+    
+    private int replayJournal(MetricsManager metrics) {
+        int batches = 0;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(journalFile)))) {
+            int version = in.readInt() == JOURNAL_MAGIC ? in.readByte() : -1;
+            if (!isSupportedVersion(version) || in.readLong() != generation) {
+                checkpointDue = true;
+                return 0; // Belongs to an older checkpoint that already contains its deltas
+            }
+            while (true) {
+                int length;
+                try {
+                    length = in.readInt();
+                } catch (EOFException e) {
+                    break;
+                }
+                if (length < 0 || length > JOURNAL_CHECKPOINT_BYTES * 4) {
+                    logger.warning("Metrics journal has a corrupt batch, ignoring the rest of it");
+                    checkpointDue = true;
+                    break;
+                }
+                int checksum = in.readInt();
+                byte[] payload = new byte[length];
+                in.readFully(payload);
+                crc.reset();
+                crc.update(payload, 0, length);
+                if ((int) crc.getValue() != checksum) {
+                    logger.warning("Metrics journal has a corrupt batch, ignoring the rest of it");
+                    checkpointDue = true;
+                    break;
+                }
+                readRecords(new DataInputStream(new ByteArrayInputStream(payload)), metrics, version);
+                batches++;
+            }
+        } catch (EOFException e) {
+            logger.warning("Metrics journal ends with a partial batch, ignoring it");
+            checkpointDue = true;
+        } catch (IOException e) {
+            logger.warning("Failed to replay metrics journal: " + e.getMessage());
+            checkpointDue = true;
+        }
+        return batches;
+    }
+    
+    private static boolean isSupportedVersion(int version) {
+        return version == FORMAT_VERSION || version == FORMAT_VERSION_NO_ACCESS_TOTALS;
+    }
+    
+    private void readRecords(DataInput in, MetricsManager metrics, int version) throws IOException {
+        boolean derivesAccessTotals = version == FORMAT_VERSION_NO_ACCESS_TOTALS;
+        if (derivesAccessTotals) {
+            upgradeDue = true;
+        }
+        long[] attempts = new long[MetricsManager.DIMENSION_COUNT];
+        long[] denied = new long[MetricsManager.DIMENSION_COUNT];
+        while (true) {
+            byte type = in.readByte();
+            if (type == RECORD_END) {
+                return;
+            } else if (type == RECORD_DIMENSION) {
+                int index = in.readUnsignedByte();
+                long opens = readVarLong(in);
+                long closes = readVarLong(in);
+                long uptime = readVarLong(in);
+                if (index < MetricsManager.DIMENSION_COUNT) {
+                    metrics.dimensionOpenCount[index].add(opens);
+                    metrics.dimensionCloseCount[index].add(closes);
+                    metrics.dimensionUptime[index].add(uptime);
+                }
+            } else if (type == RECORD_DIMENSION_ACCESS) {
+                int index = in.readUnsignedByte();
+                long attemptCount = readVarLong(in);
+                long deniedCount = readVarLong(in);
+                if (index < MetricsManager.DIMENSION_COUNT) {
+                    metrics.dimensionAttemptCount[index].add(attemptCount);
+                    metrics.dimensionDeniedCount[index].add(deniedCount);
+                }
+            } else if (type == RECORD_PLAYER) {
+                UUID uuid = new UUID(in.readLong(), in.readLong());
+                String name = in.readUTF();
+                int count = in.readUnsignedByte();
+                Arrays.fill(attempts, 0L);
+                Arrays.fill(denied, 0L);
+                for (int i = 0; i < count; i++) {
+                    long attempt = readVarLong(in);
+                    long deny = readVarLong(in);
+                    if (i < MetricsManager.DIMENSION_COUNT) {
+                        attempts[i] = attempt;
+                        denied[i] = deny;
+                    }
+                }
+                long error = derivesAccessTotals ? 0L : readVarLong(in);
+                metrics.restorePlayer(uuid, name, attempts, denied, error, derivesAccessTotals);
+            } else {
+                throw new IOException("Unknown metrics record type " + type);
+            }
+        }
+    }
+    
+    /**
+     * Append everything that changed since the last write as one journal batch.
+     *
+     * @return true if the journal has grown enough that a checkpoint is due
+     */
+    synchronized boolean appendDelta(MetricsManager metrics) {
+        batchBuffer.reset();
+        DataOutputStream out = new DataOutputStream(batchBuffer);
+        boolean changed;
+        try {
+            changed = writeRecords(out, metrics, true);
+            out.writeByte(RECORD_END);
+        } catch (IOException e) {
+            // Never thrown by an in-memory stream
+            checkpointDue = true;
+            return true;
+        }
+        if (!changed) {
+            return checkpointDue;
+        }
+        
+        try {
+            if (!journalFile.exists() || journalFile.length() == 0) {
+                writeJournalHeader();
+            }
+            crc.reset();
+            crc.update(batchBuffer.toByteArray(), 0, batchBuffer.size());
+            try (DataOutputStream journal = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(journalFile, true)))) {
+                journal.writeInt(batchBuffer.size());
+                journal.writeInt((int) crc.getValue());
+                batchBuffer.writeTo(journal);
+            }
+        } catch (IOException e) {
+            logger.warning("Failed to append metrics journal: " + e.getMessage());
+            checkpointDue = true;
+        }
+        return checkpointDue || journalFile.length() >= JOURNAL_CHECKPOINT_BYTES;
+    }
+    
+    /**
+     * Write a full checkpoint under a new generation and start an empty journal
+     */
+    synchronized void checkpoint(MetricsManager metrics) {
+        File temp = new File(checkpointFile.getParentFile(), checkpointFile.getName() + ".tmp");
+        long nextGeneration = generation + 1;
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)))) {
+            out.writeInt(CHECKPOINT_MAGIC);
+            out.writeByte(FORMAT_VERSION);
+            out.writeLong(nextGeneration);
+            out.writeLong(trackingSince);
+            writeRecords(out, metrics, false);
+            out.writeByte(RECORD_END);
+        } catch (IOException e) {
+            logger.warning("Failed to write metrics checkpoint: " + e.getMessage());
+            checkpointDue = true;
+            return;
+        }
+        
+        try {
+            Files.move(temp.toPath(), checkpointFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            generation = nextGeneration;
+            writeJournalHeader();
+            checkpointDue = false;
+        } catch (IOException e) {
+            logger.warning("Failed to replace metrics checkpoint: " + e.getMessage());
+            checkpointDue = true;
+        }
+    }
+    
+    /**
+     * Drop all stored metrics, used when the counters are reset
+     */
+    synchronized void reset(MetricsManager metrics) {
+        trackingSince = System.currentTimeMillis();
+        checkpoint(metrics);
+    }
+    
+    private void writeJournalHeader() throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new FileOutputStream(journalFile, false))) {
+            out.writeInt(JOURNAL_MAGIC);
+            out.writeByte(FORMAT_VERSION);
+            out.writeLong(generation);
+        }
+    }
+    
+    /**
+     * Encode dimension and player records, either as deltas against what is on
+     * disk or as absolute values. Each value read becomes the new baseline, so
+     * an increment landing mid-write is picked up by the next delta.
+     *
+     * @return true if at least one record was written
+     */
+    private boolean writeRecords(DataOutput out, MetricsManager metrics, boolean delta) throws IOException {
+        boolean written = false;
+        
+        for (int i = 0; i < MetricsManager.DIMENSION_COUNT; i++) {
+            long totalOpens = metrics.dimensionOpenCount[i].sum();
+            long totalCloses = metrics.dimensionCloseCount[i].sum();
+            long totalUptime = metrics.dimensionUptime[i].sum();
+            long opens = delta ? totalOpens - persistedDimensionTotals[0][i] : totalOpens;
+            long closes = delta ? totalCloses - persistedDimensionTotals[1][i] : totalCloses;
+            long uptime = delta ? totalUptime - persistedDimensionTotals[2][i] : totalUptime;
+            persistedDimensionTotals[0][i] = totalOpens;
+            persistedDimensionTotals[1][i] = totalCloses;
+            persistedDimensionTotals[2][i] = totalUptime;
+            if (opens == 0 && closes == 0 && uptime == 0) continue;
+            
+            out.writeByte(RECORD_DIMENSION);
+            out.writeByte(i);
+            writeVarLong(out, opens);
+            writeVarLong(out, closes);
+            writeVarLong(out, uptime);
+            written = true;
+        }
+        
+        for (int i = 0; i < MetricsManager.DIMENSION_COUNT; i++) {
+            long totalAttempts = metrics.dimensionAttemptCount[i].sum();
+            long totalDenied = metrics.dimensionDeniedCount[i].sum();
+            long attempts = delta ? totalAttempts - persistedDimensionTotals[3][i] : totalAttempts;
+            long denied = delta ? totalDenied - persistedDimensionTotals[4][i] : totalDenied;
+            persistedDimensionTotals[3][i] = totalAttempts;
+            persistedDimensionTotals[4][i] = totalDenied;
+            if (attempts == 0 && denied == 0) continue;
+            
+            out.writeByte(RECORD_DIMENSION_ACCESS);
+            out.writeByte(i);
+            writeVarLong(out, attempts);
+            writeVarLong(out, denied);
+            written = true;
+        }
+        
+        for (Map.Entry<UUID, MetricsManager.PlayerCounters> entry : metrics.playerCounters.entrySet()) {
+            MetricsManager.PlayerCounters counters = entry.getValue();
+            if (delta && !counters.dirty) continue;
+            // Clear before reading: an increment racing with this write flags the player again
+            counters.dirty = false;
+            
+            out.writeByte(RECORD_PLAYER);
+            out.writeLong(entry.getKey().getMostSignificantBits());
+            out.writeLong(entry.getKey().getLeastSignificantBits());
+            out.writeUTF(counters.lastKnownName != null ? counters.lastKnownName : "");
+            out.writeByte(MetricsManager.DIMENSION_COUNT);
+            for (int i = 0; i < MetricsManager.DIMENSION_COUNT; i++) {
+                long attempts = counters.attempts[i].sum();
+                long denied = counters.denied[i].sum();
+                writeVarLong(out, delta ? attempts - counters.persistedAttempts[i] : attempts);
+                writeVarLong(out, delta ? denied - counters.persistedDenied[i] : denied);
+                counters.persistedAttempts[i] = attempts;
+                counters.persistedDenied[i] = denied;
+            }
+            // Inherited count is fixed when the player starts being tracked, so it is written as is
+            writeVarLong(out, counters.error);
+            written = true;
+        }
+        
+        return written;
+    }
+    
+    /**
+     * Use the freshly loaded counter values as the baseline for the first delta
+     */
+    private void markLoaded(MetricsManager metrics) {
+        for (int i = 0; i < MetricsManager.DIMENSION_COUNT; i++) {
+            persistedDimensionTotals[0][i] = metrics.dimensionOpenCount[i].sum();
+            persistedDimensionTotals[1][i] = metrics.dimensionCloseCount[i].sum();
+            persistedDimensionTotals[2][i] = metrics.dimensionUptime[i].sum();
+            persistedDimensionTotals[3][i] = metrics.dimensionAttemptCount[i].sum();
+            persistedDimensionTotals[4][i] = metrics.dimensionDeniedCount[i].sum();
+        }
+        for (MetricsManager.PlayerCounters counters : metrics.playerCounters.values()) {
+            counters.dirty = false;
+            for (int i = 0; i < MetricsManager.DIMENSION_COUNT; i++) {
+                counters.persistedAttempts[i] = counters.attempts[i].sum();
+                counters.persistedDenied[i] = counters.denied[i].sum();
+            }
+        }
+    }
+    
+    /**
+     * Zig-zag encoded LEB128, so small deltas of either sign take one or two bytes
+     */
+    private static void writeVarLong(DataOutput out, long value) throws IOException {
+        long encoded = (value << 1) ^ (value >> 63);
+        while ((encoded & ~0x7FL) != 0) {
+            out.writeByte((int) ((encoded & 0x7F) | 0x80));
+            encoded >>>= 7;
+        }
+        out.writeByte((int) encoded);
+    }
+    
+    private static long readVarLong(DataInput in) throws IOException {
+        long encoded = 0;
+        int shift = 0;
+        while (true) {
+            int b = in.readUnsignedByte();
+            encoded |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                break;
+            }
+            shift += 7;
+            if (shift > 63) {
+                throw new IOException("Malformed variable-length integer");
+            }
+        }
+        return (encoded >>> 1) ^ -(encoded & 1);
+    }
+}
\ No newline at end of file
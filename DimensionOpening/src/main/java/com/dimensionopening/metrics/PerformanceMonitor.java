@@ -0,0 +1,145 @@
+package com.dimensionopening.metrics;
+
+import com.dimensionopening.DimensionOpeningPlugin;
+import org.bukkit.Bukkit;
+
+/**
+ * Opt-in timing of the plugin's hot paths.
+ *
+ * Callers bracket a section with {@link #start()} and {@link #record(Probe, long)}.
+ * While timing is disabled {@code start()} returns 0 without reading the clock and
+ * {@code record} returns immediately, so the instrumentation costs one volatile
+ * read per call site.
+ */
+public class PerformanceMonitor {
+    
+    /**
+     * Instrumented code paths
+     */
+    public enum Probe {
+        TELEPORT("Teleport listener", "teleport", false),
+        PORTAL("Portal listener", "portal", false),
+        NOTIFICATION("Notification dispatch", "notification", true),
+        PERSISTENCE("State persistence", "persistence", false);
+        
+        private final String displayName;
+        private final String key;
+        private final boolean nested;
+        
+        Probe(String displayName, String key, boolean nested) {
+            this.displayName = displayName;
+            this.key = key;
+            this.nested = nested;
+        }
+        
+        public String getDisplayName() {
+            return displayName;
+        }
+        
+        public String getKey() {
+            return key;
+        }
+        
+        /**
+         * Whether this probe runs inside another probe's section, so its time is already counted there
+         */
+        public boolean isNested() {
+            return nested;
+        }
+    }
+    
+    private final LatencyHistogram[] histograms;
+    private volatile boolean enabled;
+    private volatile int resetTick;
+    
+    public PerformanceMonitor(DimensionOpeningPlugin plugin) {
+        this.histograms = new LatencyHistogram[Probe.values().length];
+        for (int i = 0; i < histograms.length; i++) {
+            histograms[i] = new LatencyHistogram();
+        }
+        setEnabled(plugin.getSettings().isTimingEnabled());
+    }
+    
+    public boolean isEnabled() {
+        return enabled;
+    }
+    
+    public void setEnabled(boolean enabled) {
+        if (enabled && !this.enabled) {
+            reset();
+        }
+        this.enabled = enabled;
+    }
+    
+    /**
+     * Begin timing a section
+     *
+     * @return a start timestamp to pass to {@link #record}, or 0 if timing is disabled
+     */
+    public long start() {
+        return enabled ? System.nanoTime() : 0L;
+    }
+    
+    /**
+     * Finish timing a section started with {@link #start()}
+     */
+    public void record(Probe probe, long start) {
+        if (start != 0L) {
+            histograms[probe.ordinal()].record(System.nanoTime() - start);
+        }
+    }
+    
+    public LatencyHistogram getHistogram(Probe probe) {
+        return histograms[probe.ordinal()];
+    }
+    
+    /**
+     * Average time per server tick spent in a probe since timing was reset, in nanoseconds
+     */
+    public double getNanosPerTick(Probe probe) {
+        int ticks = Math.max(1, Bukkit.getCurrentTick() - resetTick);
+        return histograms[probe.ordinal()].getTotalNanos() / (double) ticks;
+    }
+    
+    /**
+     * Fraction of the average tick duration spent in a probe, e.g. 0.001 for 0.1%
+     */
+    public double getShareOfTick(Probe probe) {
+        double averageTickMillis = Bukkit.getAverageTickTime();
+        if (averageTickMillis <= 0) {
+            return 0;
+        }
+        return getNanosPerTick(probe) / (averageTickMillis * 1_000_000.0);
+    }
+    
+    /**
+     * Average time per server tick spent in all instrumented paths, counting nested probes once
+     */
+    public double getTotalNanosPerTick() {
+        double total = 0;
+        for (Probe probe : Probe.values()) {
+            if (!probe.isNested()) {
+                total += getNanosPerTick(probe);
+            }
+        }
+        return total;
+    }
+    
+    /**
+     * Fraction of the average tick duration spent in all instrumented paths
+     */
+    public double getTotalShareOfTick() {
+        double averageTickMillis = Bukkit.getAverageTickTime();
+        if (averageTickMillis <= 0) {
+            return 0;
+        }
+        return getTotalNanosPerTick() / (averageTickMillis * 1_000_000.0);
+    }
+    
+    public void reset() {
+        for (LatencyHistogram histogram : histograms) {
+            histogram.reset();
+        }
+        resetTick = Bukkit.getCurrentTick();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,51 @@
+package com.dimensionopening.metrics;
+
+import java.util.UUID;
+
+/**
+ * Access totals for one tracked player, as returned by {@link MetricsManager#getTopPlayers}.
+ *
+ * When player tracking is bounded a newly tracked player takes over the
+ * denial count of the player it evicted, so {@link #getDenied()} may
+ * overestimate by at most {@link #getError()}. Attempts are only those
+ * recorded since the player was last tracked.
+ */
+public class PlayerStat {
+    
+    private final UUID uuid;
+    private final String name;
+    private final long attempts;
+    private final long denied;
+    private final long error;
+    
+    PlayerStat(UUID uuid, String name, long attempts, long denied, long error) {
+        this.uuid = uuid;
+        this.name = name;
+        this.attempts = attempts;
+        this.denied = denied;
+        this.error = error;
+    }
+    
+    public UUID getUuid() {
+        return uuid;
+    }
+    
+    public String getName() {
+        return name;
+    }
+    
+    public long getAttempts() {
+        return attempts;
+    }
+    
+    public long getDenied() {
+        return denied;
+    }
+    
+    /**
+     * Upper bound on how much of the denial count was inherited from evicted players
+     */
+    public long getError() {
+        return error;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,86 @@
+package com.dimensionopening.metrics;
+
+import java.util.Arrays;
+
+/**
+ * Fixed-size ring buffer of per-minute event counts.
+ *
+ * Each bucket remembers which minute it belongs to, so stale buckets are
+ * recycled lazily on the next write instead of by a background sweep.
+ * Recording is O(1) and a window query is O(window), independent of how
+ * long the server has been running. Windows only cover completed minutes, so
+ * a rate over them is not diluted by the minute still being counted.
+ */
+public class RollingCounter {
+    
+    public static final long MINUTE_MILLIS = 60_000L;
+    
+    private final long[] counts;
+    private final long[] bucketMinutes;
+    
+    public RollingCounter(int capacityMinutes) {
+        this.counts = new long[capacityMinutes];
+        this.bucketMinutes = new long[capacityMinutes];
+        Arrays.fill(bucketMinutes, -1L);
+    }
+    
+    /**
+     * Number of minutes of history this counter keeps
+     */
+    public int getCapacityMinutes() {
+        return counts.length;
+    }
+    
+    /**
+     * Count one event at the given wall-clock time
+     */
+    public void record(long nowMillis) {
+        add(nowMillis, 1L);
+    }
+    
+    /**
+     * Count several events at the given wall-clock time
+     */
+    public synchronized void add(long nowMillis, long amount) {
+        long minute = nowMillis / MINUTE_MILLIS;
+        int index = (int) (minute % counts.length);
+        if (bucketMinutes[index] != minute) {
+            bucketMinutes[index] = minute;
+            counts[index] = 0L;
+        }
+        counts[index] += amount;
+    }
+    
+    /**
+     * Sum of events in the last {@code minutes} completed minutes
+     */
+    public long sum(long nowMillis, int minutes) {
+        return sumEndingAt(nowMillis / MINUTE_MILLIS - 1, minutes);
+    }
+    
+    /**
+     * Sum of events in the {@code minutes} minutes before the current window,
+     * for comparing the current rate against the one just before it
+     */
+    public long previousSum(long nowMillis, int minutes) {
+        return sumEndingAt(nowMillis / MINUTE_MILLIS - 1 - minutes, minutes);
+    }
+    
+    private synchronized long sumEndingAt(long lastMinute, int minutes) {
+        int span = Math.min(minutes, counts.length);
+        long total = 0L;
+        for (long minute = lastMinute - span + 1; minute <= lastMinute; minute++) {
+            if (minute < 0) continue;
+            int index = (int) (minute % counts.length);
+            if (bucketMinutes[index] == minute) {
+                total += counts[index];
+            }
+        }
+        return total;
+    }
+    
+    public synchronized void reset() {
+        Arrays.fill(counts, 0L);
+        Arrays.fill(bucketMinutes, -1L);
+    }
+}
\ No newline at end of file
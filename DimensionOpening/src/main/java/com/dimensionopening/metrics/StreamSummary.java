@@ -0,0 +1,180 @@
+package com.dimensionopening.metrics;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Keys ranked by weight in the Space-Saving "stream summary" layout.
+ *
+ * Keys with the same weight share a bucket, and buckets form a list sorted
+ * by weight, so adding one to a key's weight moves it to the neighbouring
+ * bucket and the lightest key is always at the head of the first bucket.
+ * Incrementing and finding the key to evict are both O(1); setting an
+ * arbitrary weight walks the buckets and is meant for loading.
+ */
+final class StreamSummary<K> {
+    
+    private static final class Bucket<K> {
+        final long weight;
+        Bucket<K> previous;
+        Bucket<K> next;
+        Node<K> head;
+        
+        Bucket(long weight) {
+            this.weight = weight;
+        }
+    }
+    
+    private static final class Node<K> {
+        final K key;
+        Bucket<K> bucket;
+        Node<K> previous;
+        Node<K> next;
+        
+        Node(K key) {
+            this.key = key;
+        }
+    }
+    
+    private final Map<K, Node<K>> nodes = new HashMap<>();
+    private Bucket<K> lightest;
+    
+    synchronized int size() {
+        return nodes.size();
+    }
+    
+    synchronized boolean contains(K key) {
+        return nodes.containsKey(key);
+    }
+    
+    /**
+     * Get the key with the lowest weight, or null if there are none
+     */
+    synchronized K getLightest() {
+        return lightest != null ? lightest.head.key : null;
+    }
+    
+    /**
+     * Get the lowest weight, or 0 if there are no keys
+     */
+    synchronized long getLightestWeight() {
+        return lightest != null ? lightest.weight : 0L;
+    }
+    
+    synchronized long getWeight(K key) {
+        Node<K> node = nodes.get(key);
+        return node != null ? node.bucket.weight : 0L;
+    }
+    
+    /**
+     * Add one to a key's weight. Unknown keys are ignored.
+     */
+    synchronized void increment(K key) {
+        Node<K> node = nodes.get(key);
+        if (node == null) {
+            return;
+        }
+        Bucket<K> from = node.bucket;
+        long weight = from.weight + 1;
+        Bucket<K> to = from.next;
+        if (to == null || to.weight != weight) {
+            to = new Bucket<>(weight);
+            linkAfter(from, to);
+        }
+        detach(node);
+        attach(node, to);
+    }
+    
+    /**
+     * Give a key a weight, adding it if it is new
+     */
+    synchronized void set(K key, long weight) {
+        Node<K> node = nodes.get(key);
+        if (node == null) {
+            node = new Node<>(key);
+            nodes.put(key, node);
+        } else {
+            if (node.bucket.weight == weight) {
+                return;
+            }
+            detach(node);
+        }
+        
+        Bucket<K> before = null;
+        Bucket<K> bucket = lightest;
+        while (bucket != null && bucket.weight < weight) {
+            before = bucket;
+            bucket = bucket.next;
+        }
+        if (bucket == null || bucket.weight != weight) {
+            bucket = new Bucket<>(weight);
+            linkAfter(before, bucket);
+        }
+        attach(node, bucket);
+    }
+    
+    synchronized void remove(K key) {
+        Node<K> node = nodes.remove(key);
+        if (node != null) {
+            detach(node);
+        }
+    }
+    
+    synchronized void clear() {
+        nodes.clear();
+        lightest = null;
+    }
+    
+    private void linkAfter(Bucket<K> before, Bucket<K> bucket) {
+        Bucket<K> after = before != null ? before.next : lightest;
+        bucket.previous = before;
+        bucket.next = after;
+        if (after != null) {
+            after.previous = bucket;
+        }
+        if (before != null) {
+            before.next = bucket;
+        } else {
+            lightest = bucket;
+        }
+    }
+    
+    private void attach(Node<K> node, Bucket<K> bucket) {
+        node.bucket = bucket;
+        node.previous = null;
+        node.next = bucket.head;
+        if (bucket.head != null) {
+            bucket.head.previous = node;
+        }
+        bucket.head = node;
+    }
+    
+    /**
+     * Take a node out of its bucket, dropping the bucket if that leaves it empty
+     */
+    private void detach(Node<K> node) {
+        Bucket<K> bucket = node.bucket;
+        if (node.previous != null) {
+            node.previous.next = node.next;
+        } else {
+            bucket.head = node.next;
+        }
+        if (node.next != null) {
+            node.next.previous = node.previous;
+        }
+        node.previous = null;
+        node.next = null;
+        node.bucket = null;
+        
+        if (bucket.head == null) {
+            if (bucket.previous != null) {
+                bucket.previous.next = bucket.next;
+            } else {
+                lightest = bucket.next;
+            }
+            if (bucket.next != null) {
+                bucket.next.previous = bucket.previous;
+            }
+        }
+    }
+}
\ No newline at end of file
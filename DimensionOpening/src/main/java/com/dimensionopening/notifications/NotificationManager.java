@@ -9,24 +9,62 @@ import org.bukkit.boss.BarColor;
 import org.bukkit.boss.BarStyle;
 import org.bukkit.boss.BossBar;
 import com.dimensionopening.DimensionOpeningPlugin;
-import java.util.HashMap;
+import com.dimensionopening.config.Settings;
+import com.dimensionopening.managers.CapacityTracker;
+import com.dimensionopening.metrics.PerformanceMonitor;
+import com.dimensionopening.scheduler.TaskScheduler;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class NotificationManager {
     
     private final DimensionOpeningPlugin plugin;
     private final Map<UUID, BossBar> activeBossBars;
+    private final PerformanceMonitor performanceMonitor;
+    private final TaskScheduler scheduler;
     
     public NotificationManager(DimensionOpeningPlugin plugin) {
         this.plugin = plugin;
-        this.activeBossBars = new HashMap<>();
+        this.activeBossBars = new ConcurrentHashMap<>();
+        this.performanceMonitor = plugin.getPerformanceMonitor();
+        this.scheduler = plugin.getTaskScheduler();
+    }
+    
+    /**
+     * Send notification when a player tries to enter a world that is over its capacity budget
+     */
+    public void notifyDimensionAtCapacity(Player player, World.Environment dimension, CapacityTracker.Resource resource) {
+        long start = performanceMonitor.start();
+        Settings settings = plugin.getSettings();
+        String dimensionName = getDimensionDisplayName(dimension);
+        
+        player.sendMessage(ChatColor.RED + "✗ Dimension at capacity!");
+        player.sendMessage(ChatColor.GRAY + "The " + ChatColor.YELLOW + dimensionName +
+                          ChatColor.GRAY + " dimension has too many " + resource.getDisplayName() + " right now.");
+        player.sendMessage(ChatColor.GRAY + "Try again in a little while.");
+        
+        if (settings.isSounds()) {
+            player.playSound(player.getLocation(), Sound.BLOCK_NOTE_BLOCK_BASS, 1.0f, 0.5f);
+        }
+        
+        if (settings.isTitles()) {
+            player.sendTitle(
+                ChatColor.GOLD + "Dimension Full",
+                ChatColor.GRAY + dimensionName + " dimension is at capacity",
+                10, 40, 10
+            );
+        }
+        
+        performanceMonitor.record(PerformanceMonitor.Probe.NOTIFICATION, start);
     }
     
     /**
      * Send notification when a player tries to access a closed dimension
      */
     public void notifyDimensionClosed(Player player, World.Environment dimension) {
+        long start = performanceMonitor.start();
+        Settings settings = plugin.getSettings();
         String dimensionName = getDimensionDisplayName(dimension);
         
         // Chat message
@@ -37,26 +75,39 @@ public class NotificationManager {
         player.sendMessage(ChatColor.GRAY + "Contact an administrator for access.");
         
         // Sound effect
-        player.playSound(player.getLocation(), Sound.BLOCK_NOTE_BLOCK_BASS, 1.0f, 0.5f);
+        if (settings.isSounds()) {
+            player.playSound(player.getLocation(), Sound.BLOCK_NOTE_BLOCK_BASS, 1.0f, 0.5f);
+        }
         
         // Boss bar notification
-        showBossBarNotification(player, 
-            ChatColor.RED + "Dimension Closed: " + dimensionName, 
-            BarColor.RED, 
-            3); // 3 seconds
+        if (settings.isBossBars()) {
+            showBossBarNotification(player, 
+                ChatColor.RED + "Dimension Closed: " + dimensionName, 
+                BarColor.RED, 
+                3); // 3 seconds
+        }
         
         // Title/Subtitle
-        player.sendTitle(
-            ChatColor.RED + "Access Denied",
-            ChatColor.GRAY + dimensionName + " dimension is closed",
-            10, 40, 10
-        );
+        if (settings.isTitles()) {
+            player.sendTitle(
+                ChatColor.RED + "Access Denied",
+                ChatColor.GRAY + dimensionName + " dimension is closed",
+                10, 40, 10
+            );
+        }
+        
+        performanceMonitor.record(PerformanceMonitor.Probe.NOTIFICATION, start);
     }
     
     /**
      * Notify all players when a dimension state changes
      */
     public void broadcastDimensionStateChange(World.Environment dimension, boolean isOpen) {
+        Settings settings = plugin.getSettings();
+        if (!settings.isBroadcastChanges()) {
+            return;
+        }
+        long start = performanceMonitor.start();
         String dimensionName = getDimensionDisplayName(dimension);
         String status = isOpen ? "opened" : "closed";
         ChatColor statusColor = isOpen ? ChatColor.GREEN : ChatColor.RED;
@@ -73,18 +124,31 @@ public class NotificationManager {
         Sound sound = isOpen ? Sound.BLOCK_NOTE_BLOCK_CHIME : Sound.BLOCK_NOTE_BLOCK_BASS;
         float pitch = isOpen ? 1.5f : 0.5f;
         
+        String actionBar = statusColor + symbol + " " + dimensionName + " " + status;
+        boolean playSound = settings.isSounds();
         for (Player player : Bukkit.getOnlinePlayers()) {
-            player.playSound(player.getLocation(), sound, 0.5f, pitch);
-            
-            // Show action bar message
-            player.sendActionBar(statusColor + symbol + " " + dimensionName + " " + status);
+            // On Folia each player is handled by the region that owns them
+            scheduler.runForEntity(player, () -> {
+                if (playSound) {
+                    player.playSound(player.getLocation(), sound, 0.5f, pitch);
+                }
+                
+                // Show action bar message
+                player.sendActionBar(actionBar);
+            });
         }
+        
+        performanceMonitor.record(PerformanceMonitor.Probe.NOTIFICATION, start);
     }
     
     /**
      * Notify administrators about dimension access attempts
      */
     public void notifyAdminsAccessAttempt(Player player, World.Environment dimension) {
+        if (!plugin.getSettings().isAdminNotifications()) {
+            return;
+        }
+        long start = performanceMonitor.start();
         String dimensionName = getDimensionDisplayName(dimension);
         String message = ChatColor.GRAY + "[Admin] " + ChatColor.YELLOW + player.getName() + 
                         ChatColor.GRAY + " tried to access the closed " + 
@@ -95,6 +159,8 @@ public class NotificationManager {
                 admin.sendMessage(message);
             }
         }
+        
+        performanceMonitor.record(PerformanceMonitor.Probe.NOTIFICATION, start);
     }
     
     /**
@@ -110,9 +176,11 @@ public class NotificationManager {
         
         activeBossBars.put(player.getUniqueId(), bossBar);
         
-        // Schedule removal
-        Bukkit.getScheduler().runTaskLater(plugin, () -> {
-            removeBossBar(player);
+        // Schedule removal, unless it was replaced in the meantime
+        scheduler.runForEntityLater(player, () -> {
+            if (activeBossBars.remove(player.getUniqueId(), bossBar)) {
+                bossBar.removeAll();
+            }
         }, durationSeconds * 20L); // Convert seconds to ticks
     }
     
@@ -130,11 +198,11 @@ public class NotificationManager {
      * Send welcome message to players when they join
      */
     public void sendWelcomeMessage(Player player) {
-        if (!plugin.getConfig().getBoolean("notifications.welcome_message", true)) {
+        if (!plugin.getSettings().isWelcomeMessage()) {
             return;
         }
         
-        Bukkit.getScheduler().runTaskLater(plugin, () -> {
+        scheduler.runForEntityLater(player, () -> {
             player.sendMessage("");
             player.sendMessage(ChatColor.GOLD + "=== Dimension Status ===");
             
@@ -172,8 +240,11 @@ public class NotificationManager {
         Bukkit.broadcastMessage(message);
         
         // Play notification sound
+        if (!plugin.getSettings().isSounds()) {
+            return;
+        }
         for (Player player : Bukkit.getOnlinePlayers()) {
-            player.playSound(player.getLocation(), Sound.BLOCK_NOTE_BLOCK_PLING, 0.7f, 1.2f);
+            scheduler.runForEntity(player, () -> player.playSound(player.getLocation(), Sound.BLOCK_NOTE_BLOCK_PLING, 0.7f, 1.2f));
         }
     }
     
@@ -0,0 +1,311 @@
+package com.dimensionopening.permissions;
+
+import org.bukkit.Bukkit;
+import org.bukkit.World;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.entity.Player;
+import org.bukkit.event.player.PlayerTeleportEvent.TeleportCause;
+import com.dimensionopening.core.AccessDecision;
+import com.dimensionopening.core.CapabilityCache;
+import com.dimensionopening.core.GateEngine;
+import com.dimensionopening.core.GateRule;
+import com.dimensionopening.managers.DimensionManager;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+/**
+ * Access rules from the {@code policy} config section, compiled for a
+ * {@link GateEngine}.
+ *
+ * This is the Bukkit side of the engine. Config sections become
+ * {@link GateRule}s, dimensions and teleport causes become their ordinals,
+ * worlds become destination indexes from the {@link DimensionManager}, and a
+ * player's permissions become capability bits that are cached for a few
+ * seconds, so checking a rule's permission is a mask test.
+ *
+ * In fine-grained mode the defaults also check the per-world nodes from a
+ * {@link WorldPermissionIndex}, cached per world alongside the capability bits.
+ */
+public class AccessPolicy {
+    
+    private static final World.Environment[] DIMENSIONS = World.Environment.values();
+    private static final TeleportCause[] CAUSES = TeleportCause.values();
+    // Permission changes are picked up within this many ticks
+    private static final int CAPABILITY_TTL_TICKS = 100;
+    
+    private final Logger logger;
+    private final WorldPermissionIndex worldIndex;
+    private final DimensionManager dimensionManager;
+    private final CapabilityCache capabilities;
+    private final GateEngine engine;
+    
+    /**
+     * @param opsBypass whether the defaults let operators in
+     * @param worldIndex per-world nodes for fine-grained mode, or null
+     */
+    public AccessPolicy(FileConfiguration config, boolean opsBypass, Logger logger, WorldPermissionIndex worldIndex, DimensionManager dimensionManager) {
+        this.logger = logger;
+        this.worldIndex = worldIndex;
+        this.dimensionManager = dimensionManager;
+        this.capabilities = new CapabilityCache(CAPABILITY_TTL_TICKS);
+        
+        List<GateRule> rules = new ArrayList<>();
+        ConfigurationSection ruleSection = config.getConfigurationSection("policy.rules");
+        if (ruleSection != null) {
+            for (String ruleName : ruleSection.getKeys(false)) {
+                ConfigurationSection section = ruleSection.getConfigurationSection(ruleName);
+                if (section == null) continue;
+                
+                GateRule rule = compileRule(ruleName, section);
+                if (rule != null) {
+                    rules.add(rule);
+                }
+            }
+        }
+        
+        if (config.getBoolean("policy.include_defaults", true)) {
+            addDefaultRules(rules, opsBypass);
+        }
+        
+        this.engine = new GateEngine(dimensionManager.getGateState(), DIMENSIONS.length, CAUSES.length, rules);
+    }
+    
+    /**
+     * The built-in rules: bypass and admin nodes, operators (if enabled),
+     * the per-dimension (and in fine-grained mode per-world) access nodes,
+     * and finally any open dimension.
+     *
+     * Operators hold the bypass and admin nodes by default, so when they may
+     * not bypass those two rules skip them.
+     */
+    private void addDefaultRules(List<GateRule> rules, boolean opsBypass) {
+        long notOp = opsBypass ? 0L : CapabilityCache.OP_BIT;
+        rules.add(new GateRule(AccessDecision.ALLOW).require(nodeBit(PermissionManager.BYPASS_PERMISSION)).forbid(notOp));
+        if (worldIndex != null) {
+            rules.add(new GateRule(AccessDecision.ALLOW).worldNode(GateRule.WORLD_NODE_BYPASS));
+        }
+        rules.add(new GateRule(AccessDecision.ALLOW).require(nodeBit(PermissionManager.ADMIN_PERMISSION)).forbid(notOp));
+        if (opsBypass) {
+            rules.add(new GateRule(AccessDecision.ALLOW).require(CapabilityCache.OP_BIT));
+        }
+        
+        for (World.Environment environment : DIMENSIONS) {
+            String permission = PermissionManager.getDimensionAccessPermission(environment);
+            if (permission == null) continue;
+            
+            rules.add(new GateRule(AccessDecision.ALLOW).dimensions(environment.ordinal()).require(nodeBit(permission)));
+        }
+        
+        if (worldIndex != null) {
+            rules.add(new GateRule(AccessDecision.ALLOW).worldNode(GateRule.WORLD_NODE_ACCESS));
+        }
+        rules.add(new GateRule(AccessDecision.ALLOW).state(GateRule.STATE_OPEN));
+    }
+    
+    private GateRule compileRule(String name, ConfigurationSection section) {
+        AccessDecision outcome;
+        try {
+            outcome = AccessDecision.valueOf(section.getString("outcome", "deny").toUpperCase());
+        } catch (IllegalArgumentException e) {
+            logger.warning("Invalid outcome in policy rule '" + name + "': " + section.getString("outcome"));
+            return null;
+        }
+        GateRule rule = new GateRule(outcome);
+        
+        if (section.isSet("dimensions")) {
+            List<String> dimensionNames = section.getStringList("dimensions");
+            int[] dimensions = new int[dimensionNames.size()];
+            for (int i = 0; i < dimensions.length; i++) {
+                World.Environment environment = parseDimension(dimensionNames.get(i));
+                if (environment == null) {
+                    logger.warning("Invalid dimension in policy rule '" + name + "': " + dimensionNames.get(i));
+                    return null;
+                }
+                dimensions[i] = environment.ordinal();
+            }
+            rule.dimensions(dimensions);
+        }
+        
+        if (section.isSet("causes")) {
+            List<String> causeNames = section.getStringList("causes");
+            int[] causes = new int[causeNames.size()];
+            for (int i = 0; i < causes.length; i++) {
+                try {
+                    causes[i] = TeleportCause.valueOf(causeNames.get(i).toUpperCase()).ordinal();
+                } catch (IllegalArgumentException e) {
+                    logger.warning("Invalid teleport cause in policy rule '" + name + "': " + causeNames.get(i));
+                    return null;
+                }
+            }
+            rule.causes(causes);
+        }
+        
+        if (section.isSet("worlds")) {
+            // Worlds that are not loaded yet get their destination index now and keep it
+            List<String> worldNames = section.getStringList("worlds");
+            int[] destinations = new int[worldNames.size()];
+            for (int i = 0; i < destinations.length; i++) {
+                destinations[i] = dimensionManager.getGateState().destination(worldNames.get(i));
+            }
+            rule.destinations(destinations);
+        }
+        
+        String permission = section.getString("permission");
+        if (permission != null && !permission.isEmpty()) {
+            boolean negated = permission.startsWith("!");
+            long bit = nodeBit(negated ? permission.substring(1) : permission);
+            if (bit == 0) {
+                return null;
+            }
+            if (negated) {
+                rule.forbid(bit);
+            } else {
+                rule.require(bit);
+            }
+        }
+        if (section.isSet("op")) {
+            if (section.getBoolean("op")) {
+                rule.require(CapabilityCache.OP_BIT);
+            } else {
+                rule.forbid(CapabilityCache.OP_BIT);
+            }
+        }
+        
+        String state = section.getString("state", "any").toLowerCase();
+        if (state.equals("open")) {
+            rule.state(GateRule.STATE_OPEN);
+        } else if (state.equals("closed")) {
+            rule.state(GateRule.STATE_CLOSED);
+        } else if (!state.equals("any")) {
+            logger.warning("Invalid state in policy rule '" + name + "': " + state);
+            return null;
+        }
+        
+        String time = section.getString("time");
+        if (time != null && !parseTimeWindow(rule, time)) {
+            logger.warning("Invalid time window in policy rule '" + name + "': " + time + " (use HH:mm-HH:mm)");
+            return null;
+        }
+        
+        return rule;
+    }
+    
+    /**
+     * Get the capability bit for a permission node, assigning one if needed
+     *
+     * @return the bit, or 0 if there are too many distinct nodes
+     */
+    private long nodeBit(String node) {
+        long bit = capabilities.bit(node);
+        if (bit == 0) {
+            logger.warning("Access policy uses more than " + capabilities.getNodeCount() + " permission nodes, ignoring rules with '" + node + "'");
+        }
+        return bit;
+    }
+    
+    private static boolean parseTimeWindow(GateRule rule, String window) {
+        String[] parts = window.split("-");
+        if (parts.length != 2) {
+            return false;
+        }
+        try {
+            LocalTime from = LocalTime.parse(parts[0].trim());
+            LocalTime to = LocalTime.parse(parts[1].trim());
+            rule.window(from.getHour() * 60 + from.getMinute(), to.getHour() * 60 + to.getMinute());
+            return true;
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+    
+    /**
+     * Decide whether a player may enter a world
+     */
+    public AccessDecision decide(Player player, World world, TeleportCause cause) {
+        int causeIndex = (cause != null ? cause : TeleportCause.UNKNOWN).ordinal();
+        int destination = dimensionManager.getDestination(world);
+        // Capabilities first, so the world nodes have a cache entry to go in
+        long bits = getCapabilities(player);
+        int worldNodes = engine.usesWorldNodes(world.getEnvironment().ordinal(), causeIndex) ? getWorldNodes(player, world, destination) : 0;
+        return engine.decide(bits, destination, causeIndex, worldNodes);
+    }
+    
+    /**
+     * Decide whether a player may enter a dimension, without a particular world
+     */
+    public AccessDecision decide(Player player, World.Environment environment, TeleportCause cause) {
+        return engine.decideDimension(getCapabilities(player), environment.ordinal(), (cause != null ? cause : TeleportCause.UNKNOWN).ordinal());
+    }
+    
+    private int getWorldNodes(Player player, World world, int destination) {
+        int tick = Bukkit.getCurrentTick();
+        int cached = capabilities.getDestinationNodes(player.getUniqueId(), destination, tick);
+        if (cached >= 0) {
+            return cached;
+        }
+        
+        String bypassNode = worldIndex.getBypassNode(world);
+        String accessNode = worldIndex.getAccessNode(world);
+        int worldNodes = 0;
+        if (bypassNode != null && player.hasPermission(bypassNode)) {
+            worldNodes |= GateRule.WORLD_NODE_BYPASS;
+        }
+        if (accessNode != null && player.hasPermission(accessNode)) {
+            worldNodes |= GateRule.WORLD_NODE_ACCESS;
+        }
+        capabilities.putDestinationNodes(player.getUniqueId(), destination, worldNodes, tick);
+        return worldNodes;
+    }
+    
+    private long getCapabilities(Player player) {
+        int tick = Bukkit.getCurrentTick();
+        long bits = capabilities.get(player.getUniqueId(), tick);
+        if (bits != CapabilityCache.UNKNOWN) {
+            return bits;
+        }
+        
+        bits = player.isOp() ? CapabilityCache.OP_BIT : 0L;
+        for (int i = 0; i < capabilities.getNodeCount(); i++) {
+            if (player.hasPermission(capabilities.getNode(i))) {
+                bits |= 1L << i;
+            }
+        }
+        capabilities.put(player.getUniqueId(), bits, tick);
+        return bits;
+    }
+    
+    /**
+     * Forget a player's cached permissions, e.g. when they leave
+     */
+    public void invalidate(UUID playerId) {
+        capabilities.invalidate(playerId);
+    }
+    
+    /**
+     * Get the number of compiled rules, including the defaults
+     */
+    public int getRuleCount() {
+        return engine.getRuleCount();
+    }
+    
+    private static World.Environment parseDimension(String dimensionName) {
+        if (dimensionName == null) return null;
+        
+        switch (dimensionName.toLowerCase()) {
+            case "world":
+            case "overworld":
+                return World.Environment.NORMAL;
+            case "nether":
+                return World.Environment.NETHER;
+            case "end":
+                return World.Environment.THE_END;
+            default:
+                return null;
+        }
+    }
+}
\ No newline at end of file
@@ -2,11 +2,15 @@ package com.dimensionopening.permissions;
 
 import org.bukkit.World;
 import org.bukkit.entity.Player;
+import org.bukkit.event.player.PlayerTeleportEvent.TeleportCause;
 import com.dimensionopening.DimensionOpeningPlugin;
+import com.dimensionopening.core.AccessDecision;
 
 public class PermissionManager {
     
     private final DimensionOpeningPlugin plugin;
+    private final WorldPermissionIndex worldPermissionIndex;
+    private volatile AccessPolicy accessPolicy;
     
     // Permission nodes
     public static final String ADMIN_PERMISSION = "dimensionopening.admin";
@@ -23,9 +27,70 @@ public class PermissionManager {
     public static final String COMMAND_STATUS = "dimensionopening.command.status";
     public static final String COMMAND_GUI = "dimensionopening.command.gui";
     public static final String COMMAND_SCHEDULE = "dimensionopening.command.schedule";
+    public static final String COMMAND_STATS = "dimensionopening.command.stats";
+    public static final String COMMAND_PASS = "dimensionopening.command.pass";
+    public static final String COMMAND_PERF = "dimensionopening.command.perf";
+    public static final String COMMAND_RELOAD = "dimensionopening.command.reload";
     
     public PermissionManager(DimensionOpeningPlugin plugin) {
         this.plugin = plugin;
+        this.worldPermissionIndex = plugin.getSettings().isFineGrainedPermissions() ? new WorldPermissionIndex() : null;
+        this.accessPolicy = compilePolicy();
+    }
+    
+    private AccessPolicy compilePolicy() {
+        return new AccessPolicy(plugin.getConfig(), plugin.getSettings().isOpsBypassRestrictions(), plugin.getLogger(),
+                worldPermissionIndex, plugin.getDimensionManager());
+    }
+    
+    /**
+     * Recompile the access policy from the current config, e.g. after a reload
+     */
+    public void reloadPolicy() {
+        accessPolicy = compilePolicy();
+    }
+    
+    /**
+     * Get the number of rules in the compiled access policy, including the defaults
+     */
+    public int getPolicyRuleCount() {
+        return accessPolicy.getRuleCount();
+    }
+    
+    /**
+     * Decide whether a player may enter a world. A valid access pass always allows entry,
+     * otherwise the compiled access policy decides.
+     */
+    public AccessDecision getAccessDecision(Player player, World world, TeleportCause cause) {
+        if (plugin.getPassManager().hasPass(player.getUniqueId(), world.getEnvironment())) {
+            return AccessDecision.ALLOW;
+        }
+        return accessPolicy.decide(player, world, cause);
+    }
+    
+    /**
+     * Register per-world nodes for a newly loaded world in fine-grained mode
+     */
+    public void registerWorld(World world) {
+        if (worldPermissionIndex != null) {
+            worldPermissionIndex.registerWorld(world);
+        }
+    }
+    
+    /**
+     * Remove the per-world nodes of a world that unloaded
+     */
+    public void unregisterWorld(World world) {
+        if (worldPermissionIndex != null) {
+            worldPermissionIndex.unregisterWorld(world);
+        }
+    }
+    
+    /**
+     * Forget cached permission data for a player that left
+     */
+    public void invalidatePlayer(Player player) {
+        accessPolicy.invalidate(player.getUniqueId());
     }
     
     /**
@@ -36,31 +101,24 @@ public class PermissionManager {
     }
     
     /**
-     * Check if a player can bypass dimension restrictions
+     * Check if a player can bypass dimension restrictions. Operators hold the bypass
+     * and admin nodes by default, so for them only settings.ops_bypass_restrictions counts.
      */
     public boolean canBypassRestrictions(Player player) {
-        return player.hasPermission(BYPASS_PERMISSION) || 
-               hasAdminPermission(player) || 
-               (plugin.getConfig().getBoolean("settings.ops_bypass_restrictions", true) && player.isOp());
+        if (player.isOp()) {
+            return plugin.getSettings().isOpsBypassRestrictions();
+        }
+        return player.hasPermission(BYPASS_PERMISSION) || player.hasPermission(ADMIN_PERMISSION);
     }
     
     /**
      * Check if a player can access a specific dimension
      */
     public boolean canAccessDimension(Player player, World.Environment environment) {
-        // Bypass check first
-        if (canBypassRestrictions(player)) {
+        if (plugin.getPassManager().hasPass(player.getUniqueId(), environment)) {
             return true;
         }
-        
-        // Check dimension-specific permission
-        String permission = getDimensionAccessPermission(environment);
-        if (permission != null && player.hasPermission(permission)) {
-            return true;
-        }
-        
-        // Check if dimension is open (default behavior)
-        return plugin.getDimensionManager().isDimensionOpen(environment);
+        return accessPolicy.decide(player, environment, TeleportCause.UNKNOWN) == AccessDecision.ALLOW;
     }
     
     /**
@@ -80,7 +138,7 @@ public class PermissionManager {
     /**
      * Get the permission node for accessing a specific dimension
      */
-    public String getDimensionAccessPermission(World.Environment environment) {
+    public static String getDimensionAccessPermission(World.Environment environment) {
         switch (environment) {
             case NORMAL:
                 return ACCESS_OVERWORLD;
@@ -108,6 +166,14 @@ public class PermissionManager {
                 return COMMAND_GUI;
             case "schedule":
                 return COMMAND_SCHEDULE;
+            case "stats":
+                return COMMAND_STATS;
+            case "pass":
+                return COMMAND_PASS;
+            case "perf":
+                return COMMAND_PERF;
+            case "reload":
+                return COMMAND_RELOAD;
             default:
                 return null;
         }
@@ -130,10 +196,10 @@ public class PermissionManager {
     }
     
     /**
-     * Check if fine-grained permissions are enabled
+     * Check if fine-grained permissions are enabled. Changing the setting takes a restart.
      */
     public boolean isFineGrainedPermissionsEnabled() {
-        return plugin.getConfig().getBoolean("permissions.fine_grained", false);
+        return worldPermissionIndex != null;
     }
     
     /**
@@ -0,0 +1,130 @@
+package com.dimensionopening.permissions;
+
+import org.bukkit.Bukkit;
+import org.bukkit.World;
+import org.bukkit.permissions.Permission;
+import org.bukkit.permissions.PermissionDefault;
+import org.bukkit.plugin.PluginManager;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-world permission nodes for fine-grained mode.
+ *
+ * Each world gets {@code dimensionopening.world.access.<world>} and
+ * {@code dimensionopening.world.bypass.<world>}, in a namespace of their own
+ * so a world named like a dimension can't share its nodes. They are
+ * registered with the server when the world loads and removed again when it
+ * unloads, unless someone else registered them first. The node strings are
+ * built once and kept in an array indexed by world, so access checks look
+ * them up instead of concatenating.
+ */
+public class WorldPermissionIndex {
+    
+    private static final String ACCESS_PREFIX = "dimensionopening.world.access.";
+    private static final String BYPASS_PREFIX = "dimensionopening.world.bypass.";
+    
+    private final List<String> accessNodes;
+    private final List<String> bypassNodes;
+    // Lower-case world name -> index into the node lists, kept so a world that loads again reuses its index
+    private final Map<String, Integer> nameIndexes;
+    // World UID -> index into the node lists, for loaded worlds only
+    private final Map<UUID, Integer> worldIndexes;
+    // Nodes this index added to the server, the only ones it may remove
+    private final Set<String> addedNodes;
+    private volatile String[] accessByIndex;
+    private volatile String[] bypassByIndex;
+    
+    public WorldPermissionIndex() {
+        this.accessNodes = new ArrayList<>();
+        this.bypassNodes = new ArrayList<>();
+        this.nameIndexes = new ConcurrentHashMap<>();
+        this.worldIndexes = new ConcurrentHashMap<>();
+        this.addedNodes = new HashSet<>();
+        this.accessByIndex = new String[0];
+        this.bypassByIndex = new String[0];
+        for (World world : Bukkit.getWorlds()) {
+            registerWorld(world);
+        }
+    }
+    
+    /**
+     * Create and register the nodes for a world. Safe to call again for the same world.
+     */
+    public synchronized void registerWorld(World world) {
+        if (worldIndexes.containsKey(world.getUID())) {
+            return;
+        }
+        
+        String worldName = world.getName().toLowerCase();
+        Integer index = nameIndexes.get(worldName);
+        String accessNode = index != null ? accessNodes.get(index) : (ACCESS_PREFIX + worldName).intern();
+        String bypassNode = index != null ? bypassNodes.get(index) : (BYPASS_PREFIX + worldName).intern();
+        
+        PluginManager pluginManager = Bukkit.getPluginManager();
+        if (pluginManager.getPermission(accessNode) == null) {
+            pluginManager.addPermission(new Permission(accessNode, "Allows entering " + world.getName() + " while its dimension is closed", PermissionDefault.FALSE));
+            addedNodes.add(accessNode);
+        }
+        if (pluginManager.getPermission(bypassNode) == null) {
+            pluginManager.addPermission(new Permission(bypassNode, "Bypasses all access rules for " + world.getName(), PermissionDefault.FALSE));
+            addedNodes.add(bypassNode);
+        }
+        
+        if (index == null) {
+            accessNodes.add(accessNode);
+            bypassNodes.add(bypassNode);
+            accessByIndex = accessNodes.toArray(new String[0]);
+            bypassByIndex = bypassNodes.toArray(new String[0]);
+            index = accessNodes.size() - 1;
+            nameIndexes.put(worldName, index);
+        }
+        worldIndexes.put(world.getUID(), index);
+    }
+    
+    /**
+     * Remove the nodes of a world that unloaded
+     */
+    public synchronized void unregisterWorld(World world) {
+        Integer index = worldIndexes.remove(world.getUID());
+        if (index == null) {
+            return;
+        }
+        PluginManager pluginManager = Bukkit.getPluginManager();
+        if (addedNodes.remove(accessByIndex[index])) {
+            pluginManager.removePermission(accessByIndex[index]);
+        }
+        if (addedNodes.remove(bypassByIndex[index])) {
+            pluginManager.removePermission(bypassByIndex[index]);
+        }
+    }
+    
+    /**
+     * Get the access node for a world, or null if the world has not been registered
+     */
+    public String getAccessNode(World world) {
+        Integer index = worldIndexes.get(world.getUID());
+        return index != null ? accessByIndex[index] : null;
+    }
+    
+    /**
+     * Get the bypass node for a world, or null if the world has not been registered
+     */
+    public String getBypassNode(World world) {
+        Integer index = worldIndexes.get(world.getUID());
+        return index != null ? bypassByIndex[index] : null;
+    }
+    
+    /**
+     * Get the number of loaded worlds with registered nodes
+     */
+    public int size() {
+        return worldIndexes.size();
+    }
+}
\ No newline at end of file
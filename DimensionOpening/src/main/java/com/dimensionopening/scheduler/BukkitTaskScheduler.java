@@ -0,0 +1,82 @@
+package com.dimensionopening.scheduler;
+
+import org.bukkit.Bukkit;
+import org.bukkit.World;
+import org.bukkit.entity.Entity;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
+
+/**
+ * Runs everything through the Bukkit scheduler on the main thread
+ */
+public class BukkitTaskScheduler implements TaskScheduler {
+    
+    private final Plugin plugin;
+    
+    public BukkitTaskScheduler(Plugin plugin) {
+        this.plugin = plugin;
+    }
+    
+    @Override
+    public TaskHandle runGlobal(Runnable task) {
+        return wrap(Bukkit.getScheduler().runTask(plugin, task));
+    }
+    
+    @Override
+    public TaskHandle runGlobalLater(Runnable task, long delayTicks) {
+        return wrap(Bukkit.getScheduler().runTaskLater(plugin, task, delayTicks));
+    }
+    
+    @Override
+    public TaskHandle runGlobalTimer(Runnable task, long delayTicks, long periodTicks) {
+        return wrap(Bukkit.getScheduler().runTaskTimer(plugin, task, delayTicks, periodTicks));
+    }
+    
+    @Override
+    public TaskHandle runAsyncTimer(Runnable task, long delayTicks, long periodTicks) {
+        return wrap(Bukkit.getScheduler().runTaskTimerAsynchronously(plugin, task, delayTicks, periodTicks));
+    }
+    
+    @Override
+    public void runForEntity(Entity entity, Runnable task) {
+        if (Bukkit.isPrimaryThread()) {
+            task.run();
+        } else {
+            Bukkit.getScheduler().runTask(plugin, task);
+        }
+    }
+    
+    @Override
+    public TaskHandle runForEntityLater(Entity entity, Runnable task, long delayTicks) {
+        return wrap(Bukkit.getScheduler().runTaskLater(plugin, task, delayTicks));
+    }
+    
+    @Override
+    public TaskHandle runForChunk(World world, int chunkX, int chunkZ, Runnable task) {
+        return wrap(Bukkit.getScheduler().runTask(plugin, task));
+    }
+    
+    @Override
+    public boolean isRegionThreaded() {
+        return false;
+    }
+    
+    @Override
+    public void cancelAll() {
+        Bukkit.getScheduler().cancelTasks(plugin);
+    }
+    
+    private static TaskHandle wrap(BukkitTask task) {
+        return new TaskHandle() {
+            @Override
+            public void cancel() {
+                task.cancel();
+            }
+            
+            @Override
+            public boolean isCancelled() {
+                return task.isCancelled();
+            }
+        };
+    }
+}
\ No newline at end of file
@@ -0,0 +1,92 @@
+package com.dimensionopening.scheduler;
+
+import io.papermc.paper.threadedregions.scheduler.ScheduledTask;
+import org.bukkit.Bukkit;
+import org.bukkit.World;
+import org.bukkit.entity.Entity;
+import org.bukkit.plugin.Plugin;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs tasks on Folia's global region, region, entity and async schedulers.
+ *
+ * Folia rejects the Bukkit scheduler outright, and its schedulers take at
+ * least one tick of delay where Bukkit accepts zero.
+ */
+public class FoliaTaskScheduler implements TaskScheduler {
+    
+    private static final long MILLIS_PER_TICK = 50L;
+    
+    private final Plugin plugin;
+    
+    public FoliaTaskScheduler(Plugin plugin) {
+        this.plugin = plugin;
+    }
+    
+    @Override
+    public TaskHandle runGlobal(Runnable task) {
+        return wrap(Bukkit.getGlobalRegionScheduler().run(plugin, scheduled -> task.run()));
+    }
+    
+    @Override
+    public TaskHandle runGlobalLater(Runnable task, long delayTicks) {
+        return wrap(Bukkit.getGlobalRegionScheduler().runDelayed(plugin, scheduled -> task.run(), Math.max(1L, delayTicks)));
+    }
+    
+    @Override
+    public TaskHandle runGlobalTimer(Runnable task, long delayTicks, long periodTicks) {
+        return wrap(Bukkit.getGlobalRegionScheduler().runAtFixedRate(plugin, scheduled -> task.run(),
+                Math.max(1L, delayTicks), Math.max(1L, periodTicks)));
+    }
+    
+    @Override
+    public TaskHandle runAsyncTimer(Runnable task, long delayTicks, long periodTicks) {
+        return wrap(Bukkit.getAsyncScheduler().runAtFixedRate(plugin, scheduled -> task.run(),
+                delayTicks * MILLIS_PER_TICK, Math.max(1L, periodTicks) * MILLIS_PER_TICK, TimeUnit.MILLISECONDS));
+    }
+    
+    @Override
+    public void runForEntity(Entity entity, Runnable task) {
+        if (Bukkit.isOwnedByCurrentRegion(entity)) {
+            task.run();
+        } else {
+            entity.getScheduler().run(plugin, scheduled -> task.run(), null);
+        }
+    }
+    
+    @Override
+    public TaskHandle runForEntityLater(Entity entity, Runnable task, long delayTicks) {
+        ScheduledTask scheduled = entity.getScheduler().runDelayed(plugin, ignored -> task.run(), null, Math.max(1L, delayTicks));
+        return scheduled != null ? wrap(scheduled) : null;
+    }
+    
+    @Override
+    public TaskHandle runForChunk(World world, int chunkX, int chunkZ, Runnable task) {
+        return wrap(Bukkit.getRegionScheduler().run(plugin, world, chunkX, chunkZ, scheduled -> task.run()));
+    }
+    
+    @Override
+    public boolean isRegionThreaded() {
+        return true;
+    }
+    
+    @Override
+    public void cancelAll() {
+        Bukkit.getGlobalRegionScheduler().cancelTasks(plugin);
+        Bukkit.getAsyncScheduler().cancelTasks(plugin);
+    }
+    
+    private static TaskHandle wrap(ScheduledTask task) {
+        return new TaskHandle() {
+            @Override
+            public void cancel() {
+                task.cancel();
+            }
+            
+            @Override
+            public boolean isCancelled() {
+                return task.isCancelled();
+            }
+        };
+    }
+}
\ No newline at end of file
@@ -0,0 +1,11 @@
+package com.dimensionopening.scheduler;
+
+/**
+ * A scheduled task that can be cancelled, whichever scheduler ran it
+ */
+public interface TaskHandle {
+    
+    void cancel();
+    
+    boolean isCancelled();
+}
\ No newline at end of file
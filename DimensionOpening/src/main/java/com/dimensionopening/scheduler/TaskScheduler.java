@@ -0,0 +1,71 @@
+package com.dimensionopening.scheduler;
+
+import org.bukkit.World;
+import org.bukkit.entity.Entity;
+import org.bukkit.plugin.Plugin;
+
+/**
+ * Where the plugin's tasks run.
+ *
+ * On Paper everything runs on the main thread. On Folia there is no main
+ * thread: global tasks (schedules, sweeps, snapshots) run on the global
+ * region, and anything that touches a player runs on the region that owns
+ * that player, so the plugin scales with the server's region threads.
+ */
+public interface TaskScheduler {
+    
+    /**
+     * Pick the scheduler for the running server. The Folia scheduler is only loaded on Folia,
+     * since it refers to classes Spigot does not have.
+     */
+    static TaskScheduler create(Plugin plugin) {
+        try {
+            Class.forName("io.papermc.paper.threadedregions.RegionizedServer");
+        } catch (ClassNotFoundException e) {
+            return new BukkitTaskScheduler(plugin);
+        }
+        return new FoliaTaskScheduler(plugin);
+    }
+    
+    /**
+     * Run a task on the next tick of the global region
+     */
+    TaskHandle runGlobal(Runnable task);
+    
+    TaskHandle runGlobalLater(Runnable task, long delayTicks);
+    
+    TaskHandle runGlobalTimer(Runnable task, long delayTicks, long periodTicks);
+    
+    /**
+     * Run a repeating task off the server threads, e.g. for file I/O
+     */
+    TaskHandle runAsyncTimer(Runnable task, long delayTicks, long periodTicks);
+    
+    /**
+     * Run a task on the thread that owns an entity, right away if that is the current thread.
+     * The task is dropped if the entity is removed first.
+     */
+    void runForEntity(Entity entity, Runnable task);
+    
+    /**
+     * Run a task on the thread that owns an entity after a delay, or not at all if the entity is removed first
+     *
+     * @return the task, or null if the entity is already removed
+     */
+    TaskHandle runForEntityLater(Entity entity, Runnable task, long delayTicks);
+    
+    /**
+     * Run a task on the next tick of the thread that owns a chunk
+     */
+    TaskHandle runForChunk(World world, int chunkX, int chunkZ, Runnable task);
+    
+    /**
+     * Whether tasks run on Folia's region threads rather than a single main thread
+     */
+    boolean isRegionThreaded();
+    
+    /**
+     * Cancel every task this plugin scheduled
+     */
+    void cancelAll();
+}
\ No newline at end of file
@@ -0,0 +1,193 @@
+package com.dimensionopening.sync;
+
+import com.dimensionopening.DimensionOpeningPlugin;
+import com.dimensionopening.scheduler.TaskHandle;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+
+/**
+ * Exchanges deltas through a directory every server can reach, such as a
+ * shared volume, or a local folder when testing on one machine.
+ *
+ * Each server appends length-prefixed payloads to its own
+ * {@code <server id>.sync} file and polls the others' files for bytes past
+ * what it has read. A file starts with a random session number, rewritten
+ * when its server restarts and truncates it, so readers know to start over.
+ * History from before this server started is skipped. Once a file has grown
+ * past {@value #MAX_FILE_BYTES} bytes it is truncated the same way, but only
+ * after nothing has been written to it for {@value #COMPACT_IDLE_MILLIS} ms,
+ * by which time every running reader has long caught up with it.
+ */
+public class FileTransport implements SyncTransport {
+    
+    private static final String SUFFIX = ".sync";
+    private static final long POLL_TICKS = 10L;
+    private static final int HEADER_BYTES = Long.BYTES;
+    private static final int MAX_PAYLOAD = 1 << 20;
+    private static final long MAX_FILE_BYTES = 1 << 20;
+    private static final long COMPACT_IDLE_MILLIS = 30_000L;
+    
+    /**
+     * How far another server's file has been read
+     */
+    private static final class Cursor {
+        long session;
+        long offset;
+    }
+    
+    private final DimensionOpeningPlugin plugin;
+    private final File directory;
+    private final File ownFile;
+    private final Map<String, Cursor> cursors;
+    private Consumer<byte[]> receiver;
+    private TaskHandle pollTask;
+    // Guarded by this, with the own file's contents
+    private long lastWriteMillis;
+    
+    public FileTransport(DimensionOpeningPlugin plugin, File directory, String serverId) {
+        this.plugin = plugin;
+        this.directory = directory;
+        this.ownFile = new File(directory, serverId + SUFFIX);
+        this.cursors = new HashMap<>();
+    }
+    
+    @Override
+    public void start(Consumer<byte[]> receiver) throws IOException {
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Could not create " + directory);
+        }
+        startSession();
+        this.receiver = receiver;
+        
+        // Only what other servers write from now on is new to us
+        synchronized (cursors) {
+            File[] files = directory.listFiles((dir, name) -> name.endsWith(SUFFIX));
+            if (files != null) {
+                for (File file : files) {
+                    if (!file.equals(ownFile)) {
+                        Cursor cursor = new Cursor();
+                        cursor.session = readSession(file);
+                        cursor.offset = file.length();
+                        cursors.put(file.getName(), cursor);
+                    }
+                }
+            }
+        }
+        pollTask = plugin.getTaskScheduler().runAsyncTimer(this::poll, POLL_TICKS, POLL_TICKS);
+    }
+    
+    /**
+     * Truncate the own file to a fresh session header
+     */
+    private synchronized void startSession() throws IOException {
+        try (FileOutputStream out = new FileOutputStream(ownFile, false)) {
+            out.write(ByteBuffer.allocate(HEADER_BYTES).putLong(ThreadLocalRandom.current().nextLong()).array());
+        }
+    }
+    
+    @Override
+    public synchronized void publish(byte[] payload) throws IOException {
+        ByteBuffer record = ByteBuffer.allocate(Integer.BYTES + payload.length).putInt(payload.length).put(payload);
+        // One write per record, so readers see either nothing or a growing prefix of it
+        try (FileOutputStream out = new FileOutputStream(ownFile, true)) {
+            out.write(record.array());
+        }
+        lastWriteMillis = System.currentTimeMillis();
+    }
+    
+    /**
+     * Start the own file over once it is large and has been quiet long enough for every reader to have read it
+     */
+    private synchronized void compactIfIdle() {
+        if (ownFile.length() <= MAX_FILE_BYTES || System.currentTimeMillis() - lastWriteMillis < COMPACT_IDLE_MILLIS) {
+            return;
+        }
+        try {
+            startSession();
+        } catch (IOException e) {
+            plugin.getLogger().log(Level.WARNING, "Failed to compact sync file " + ownFile.getName(), e);
+            lastWriteMillis = System.currentTimeMillis(); // Try again after another quiet spell, not on every poll
+        }
+    }
+    
+    private void poll() {
+        compactIfIdle();
+        File[] files = directory.listFiles((dir, name) -> name.endsWith(SUFFIX));
+        if (files == null) {
+            return;
+        }
+        synchronized (cursors) {
+            for (File file : files) {
+                if (file.equals(ownFile)) {
+                    continue;
+                }
+                try {
+                    read(file, cursors.computeIfAbsent(file.getName(), name -> new Cursor()));
+                } catch (IOException e) {
+                    plugin.getLogger().log(Level.WARNING, "Failed to read sync file " + file.getName(), e);
+                }
+            }
+        }
+    }
+    
+    private void read(File file, Cursor cursor) throws IOException {
+        try (RandomAccessFile in = new RandomAccessFile(file, "r")) {
+            long length = in.length();
+            if (length < HEADER_BYTES) {
+                return;
+            }
+            long session = in.readLong();
+            if (session != cursor.session || length < cursor.offset) {
+                // New file, or its server restarted
+                cursor.session = session;
+                cursor.offset = HEADER_BYTES;
+            }
+            
+            while (length - cursor.offset >= Integer.BYTES) {
+                in.seek(cursor.offset);
+                int size = in.readInt();
+                if (size < 0 || size > MAX_PAYLOAD) {
+                    plugin.getLogger().warning("Corrupt sync file " + file.getName() + ", skipping to its end");
+                    cursor.offset = length;
+                    return;
+                }
+                if (length - cursor.offset - Integer.BYTES < size) {
+                    return; // Still being written
+                }
+                byte[] payload = new byte[size];
+                in.readFully(payload);
+                cursor.offset += Integer.BYTES + size;
+                receiver.accept(payload);
+            }
+        }
+    }
+    
+    private static long readSession(File file) {
+        try (RandomAccessFile in = new RandomAccessFile(file, "r")) {
+            return in.length() >= HEADER_BYTES ? in.readLong() : 0L;
+        } catch (IOException e) {
+            return 0L;
+        }
+    }
+    
+    @Override
+    public void stop() {
+        if (pollTask != null) {
+            pollTask.cancel();
+            pollTask = null;
+        }
+    }
+    
+    @Override
+    public String describe() {
+        return "file (" + ownFile.getPath() + ")";
+    }
+}
\ No newline at end of file
@@ -0,0 +1,49 @@
+package com.dimensionopening.sync;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Connects every loopback transport in the same JVM, for running several
+ * plugin instances side by side in tests and the headless simulator.
+ * Payloads are delivered on the publishing thread.
+ */
+public class LoopbackTransport implements SyncTransport {
+    
+    private static final List<LoopbackTransport> STARTED = new CopyOnWriteArrayList<>();
+    
+    private final String serverId;
+    private volatile Consumer<byte[]> receiver;
+    
+    public LoopbackTransport(String serverId) {
+        this.serverId = serverId;
+    }
+    
+    @Override
+    public void start(Consumer<byte[]> receiver) {
+        this.receiver = receiver;
+        STARTED.add(this);
+    }
+    
+    @Override
+    public void publish(byte[] payload) {
+        for (LoopbackTransport peer : STARTED) {
+            Consumer<byte[]> peerReceiver = peer.receiver;
+            if (peer != this && peerReceiver != null) {
+                peerReceiver.accept(payload.clone());
+            }
+        }
+    }
+    
+    @Override
+    public void stop() {
+        STARTED.remove(this);
+        receiver = null;
+    }
+    
+    @Override
+    public String describe() {
+        return "loopback (" + serverId + ", " + STARTED.size() + " in this JVM)";
+    }
+}
\ No newline at end of file
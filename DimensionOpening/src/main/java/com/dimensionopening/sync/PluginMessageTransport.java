@@ -0,0 +1,134 @@
+package com.dimensionopening.sync;
+
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.messaging.PluginMessageListener;
+import com.dimensionopening.DimensionOpeningPlugin;
+import com.dimensionopening.scheduler.TaskHandle;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Consumer;
+
+/**
+ * Exchanges deltas through the proxy with the {@code BungeeCord} plugin
+ * channel's Forward message, which BungeeCord and Velocity both support.
+ *
+ * Plugin messages travel over a player's connection, so a server can only
+ * send while someone is online; deltas wait (up to a limit) until then.
+ * The proxy only delivers to servers with players on them, which have the
+ * most reason to care.
+ */
+public class PluginMessageTransport implements SyncTransport, PluginMessageListener {
+    
+    private static final String PROXY_CHANNEL = "BungeeCord";
+    private static final int MAX_PENDING = 64;
+    private static final int MAX_PAYLOAD = Short.MAX_VALUE;
+    private static final long RETRY_TICKS = 20L;
+    
+    private final DimensionOpeningPlugin plugin;
+    private final String channel;
+    private final Queue<byte[]> pending;
+    private volatile Consumer<byte[]> receiver;
+    private TaskHandle retryTask;
+    
+    public PluginMessageTransport(DimensionOpeningPlugin plugin, String channel) {
+        this.plugin = plugin;
+        this.channel = channel;
+        this.pending = new ConcurrentLinkedQueue<>();
+    }
+    
+    @Override
+    public void start(Consumer<byte[]> receiver) {
+        this.receiver = receiver;
+        plugin.getServer().getMessenger().registerOutgoingPluginChannel(plugin, PROXY_CHANNEL);
+        plugin.getServer().getMessenger().registerIncomingPluginChannel(plugin, PROXY_CHANNEL, this);
+        retryTask = plugin.getTaskScheduler().runGlobalTimer(this::flush, RETRY_TICKS, RETRY_TICKS);
+    }
+    
+    @Override
+    public void publish(byte[] payload) throws IOException {
+        if (payload.length > MAX_PAYLOAD) {
+            throw new IOException("Delta of " + payload.length + " bytes is too large for a plugin message");
+        }
+        pending.add(payload);
+        while (pending.size() > MAX_PENDING) {
+            pending.poll();
+        }
+        // Nothing can be scheduled while the plugin is disabling
+        if (plugin.isEnabled()) {
+            plugin.getTaskScheduler().runGlobal(this::flush);
+        }
+    }
+    
+    private void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        Iterator<? extends Player> players = Bukkit.getOnlinePlayers().iterator();
+        if (!players.hasNext()) {
+            return;
+        }
+        Player carrier = players.next();
+        plugin.getTaskScheduler().runForEntity(carrier, () -> {
+            byte[] payload;
+            while ((payload = pending.poll()) != null) {
+                carrier.sendPluginMessage(plugin, PROXY_CHANNEL, forward(payload));
+            }
+        });
+    }
+    
+    private byte[] forward(byte[] payload) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(payload.length + channel.length() + 16);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeUTF("Forward");
+            out.writeUTF("ALL");
+            out.writeUTF(channel);
+            out.writeShort(payload.length);
+            out.write(payload);
+        } catch (IOException e) {
+            throw new IllegalStateException(e); // Not thrown by in-memory streams
+        }
+        return bytes.toByteArray();
+    }
+    
+    @Override
+    public void onPluginMessageReceived(String incomingChannel, Player player, byte[] message) {
+        Consumer<byte[]> current = receiver;
+        if (!PROXY_CHANNEL.equals(incomingChannel) || current == null) {
+            return;
+        }
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(message))) {
+            if (!channel.equals(in.readUTF())) {
+                return;
+            }
+            byte[] payload = new byte[in.readUnsignedShort()];
+            in.readFully(payload);
+            current.accept(payload);
+        } catch (IOException e) {
+            plugin.getLogger().warning("Ignoring malformed sync plugin message: " + e.getMessage());
+        }
+    }
+    
+    @Override
+    public void stop() {
+        receiver = null;
+        if (retryTask != null) {
+            retryTask.cancel();
+            retryTask = null;
+        }
+        plugin.getServer().getMessenger().unregisterIncomingPluginChannel(plugin);
+        plugin.getServer().getMessenger().unregisterOutgoingPluginChannel(plugin);
+        pending.clear();
+    }
+    
+    @Override
+    public String describe() {
+        return "plugin messages (" + channel + ", " + pending.size() + " waiting for a player)";
+    }
+}
\ No newline at end of file
@@ -0,0 +1,230 @@
+package com.dimensionopening.sync;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.logging.Logger;
+
+/**
+ * Exchanges deltas over plain TCP between servers that can reach each other.
+ *
+ * Every server listens on its own port and keeps one outgoing connection to
+ * each configured peer. Payloads a peer hasn't taken wait in its own queue,
+ * up to a limit, and are sent in order once it can be reached again, which
+ * is tried with each batch. Payloads are length-prefixed. There is no
+ * authentication, so bind to a private address.
+ */
+public class SocketTransport implements SyncTransport {
+    
+    private static final int CONNECT_TIMEOUT_MILLIS = 2000;
+    private static final int MAX_PAYLOAD = 1 << 20;
+    private static final int MAX_PENDING = 256;
+    
+    /**
+     * An outgoing connection to one peer
+     */
+    private static final class Peer {
+        final String address;
+        final String host;
+        final int port;
+        // Payloads not yet written to the peer, oldest first
+        final Deque<byte[]> pending = new ArrayDeque<>();
+        Socket socket;
+        DataOutputStream out;
+        boolean warned;
+        int dropped;
+        
+        Peer(String address, String host, int port) {
+            this.address = address;
+            this.host = host;
+            this.port = port;
+        }
+        
+        void close() {
+            if (socket != null) {
+                try {
+                    socket.close();
+                } catch (IOException ignored) {
+                    // Already broken
+                }
+            }
+            socket = null;
+            out = null;
+        }
+    }
+    
+    private final Logger logger;
+    private final String bind;
+    private final int port;
+    private final List<Peer> peers;
+    private final Set<Socket> incoming;
+    private volatile ServerSocket serverSocket;
+    
+    public SocketTransport(Logger logger, String bind, int port, List<String> peerAddresses) {
+        this.logger = logger;
+        this.bind = bind;
+        this.port = port;
+        this.peers = new ArrayList<>();
+        this.incoming = ConcurrentHashMap.newKeySet();
+        for (String address : peerAddresses) {
+            int colon = address.lastIndexOf(':');
+            try {
+                peers.add(new Peer(address, address.substring(0, colon), Integer.parseInt(address.substring(colon + 1))));
+            } catch (IndexOutOfBoundsException | NumberFormatException e) {
+                logger.warning("Invalid sync peer " + address + ", expected host:port");
+            }
+        }
+    }
+    
+    @Override
+    public void start(Consumer<byte[]> receiver) throws IOException {
+        ServerSocket server = new ServerSocket(port, 16, InetAddress.getByName(bind));
+        serverSocket = server;
+        Thread acceptor = new Thread(() -> accept(server, receiver), "DimensionOpening-SyncAccept");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+    
+    private void accept(ServerSocket server, Consumer<byte[]> receiver) {
+        while (!server.isClosed()) {
+            try {
+                Socket socket = server.accept();
+                incoming.add(socket);
+                Thread reader = new Thread(() -> read(socket, receiver), "DimensionOpening-SyncRead");
+                reader.setDaemon(true);
+                reader.start();
+            } catch (IOException e) {
+                if (!server.isClosed()) {
+                    logger.warning("Sync socket failed to accept a connection: " + e.getMessage());
+                }
+            }
+        }
+    }
+    
+    private void read(Socket socket, Consumer<byte[]> receiver) {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()))) {
+            while (true) {
+                int size = in.readInt();
+                if (size < 0 || size > MAX_PAYLOAD) {
+                    logger.warning("Dropping sync connection from " + socket.getRemoteSocketAddress() + ": bad frame size " + size);
+                    return;
+                }
+                byte[] payload = new byte[size];
+                in.readFully(payload);
+                receiver.accept(payload);
+            }
+        } catch (EOFException | SocketException e) {
+            // Peer went away or we are stopping
+        } catch (IOException e) {
+            logger.warning("Sync connection from " + socket.getRemoteSocketAddress() + " failed: " + e.getMessage());
+        } finally {
+            incoming.remove(socket);
+            try {
+                socket.close();
+            } catch (IOException ignored) {
+                // Nothing left to do
+            }
+        }
+    }
+    
+    @Override
+    public synchronized void publish(byte[] payload) {
+        for (Peer peer : peers) {
+            peer.pending.add(payload);
+            if (peer.pending.size() > MAX_PENDING) {
+                peer.pending.poll();
+                peer.dropped++;
+            }
+            send(peer);
+        }
+    }
+    
+    @Override
+    public synchronized void retryPending() {
+        for (Peer peer : peers) {
+            if (!peer.pending.isEmpty()) {
+                send(peer);
+            }
+        }
+    }
+    
+    /**
+     * Write a peer's queued payloads in order, keeping any it doesn't take for the next try
+     */
+    private void send(Peer peer) {
+        try {
+            if (peer.socket == null) {
+                Socket socket = new Socket();
+                socket.connect(new InetSocketAddress(peer.host, peer.port), CONNECT_TIMEOUT_MILLIS);
+                socket.setTcpNoDelay(true);
+                peer.socket = socket;
+                peer.out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            }
+            byte[] payload;
+            while ((payload = peer.pending.peek()) != null) {
+                peer.out.writeInt(payload.length);
+                peer.out.write(payload);
+                peer.out.flush();
+                peer.pending.poll();
+            }
+            if (peer.warned) {
+                logger.info("Sync connection to " + peer.address + " restored" + (peer.dropped > 0
+                        ? ", " + peer.dropped + " deltas were dropped meanwhile and arrive when it next restarts" : ""));
+            }
+            peer.warned = false;
+            peer.dropped = 0;
+        } catch (IOException e) {
+            // Warn once per outage rather than on every batch
+            if (!peer.warned) {
+                logger.warning("Could not send sync delta to " + peer.address + ", keeping it for later: " + e.getMessage());
+                peer.warned = true;
+            }
+            // A payload cut off mid-write is sent again whole; applying a delta twice changes nothing
+            peer.close();
+        }
+    }
+    
+    @Override
+    public synchronized void stop() {
+        ServerSocket server = serverSocket;
+        if (server != null) {
+            try {
+                server.close();
+            } catch (IOException ignored) {
+                // Closing anyway
+            }
+            serverSocket = null;
+        }
+        for (Socket socket : incoming) {
+            try {
+                socket.close();
+            } catch (IOException ignored) {
+                // Closing anyway
+            }
+        }
+        for (Peer peer : peers) {
+            peer.close();
+            peer.pending.clear();
+        }
+    }
+    
+    @Override
+    public String describe() {
+        return "socket (" + bind + ":" + port + ", " + peers.size() + " peers)";
+    }
+}
\ No newline at end of file
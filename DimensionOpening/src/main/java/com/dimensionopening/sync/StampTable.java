@@ -0,0 +1,165 @@
+package com.dimensionopening.sync;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * The last-writer-wins bookkeeping behind {@link SyncManager}, kept apart
+ * from the server so it can be exercised on its own.
+ *
+ * Each key's stamp is the version, origin and state of the last change made
+ * here or applied from another server. Local changes are stamped from a
+ * clock that never runs behind wall time or any version seen, and wait in a
+ * pending batch until {@link #drain()}. A remote change's stamp is only kept
+ * once the server has taken it, so a change another plugin vetoes is not
+ * mistaken for the key's state. Thread-safe.
+ */
+final class StampTable {
+    
+    private static final class Stamp {
+        final long version;
+        final String origin;
+        final byte state;
+        
+        Stamp(long version, String origin, byte state) {
+            this.version = version;
+            this.origin = origin;
+            this.state = state;
+        }
+    }
+    
+    private final String serverId;
+    private final Map<String, Stamp> stamps;
+    private final Map<String, StateDelta.Change> pending;
+    private boolean requestFullState;
+    private long clock;
+    // Bumped whenever a stamp is stored, so the owner can tell when to save
+    private long changeCount;
+    
+    StampTable(String serverId) {
+        this.serverId = serverId;
+        this.stamps = new HashMap<>();
+        this.pending = new LinkedHashMap<>();
+    }
+    
+    /**
+     * Stamp a change made on this server and queue it for the next batch
+     */
+    synchronized void record(String key, byte state, long nowMillis) {
+        long version = Math.max(clock + 1, nowMillis);
+        clock = version;
+        stamps.put(key, new Stamp(version, serverId, state));
+        pending.put(key, new StateDelta.Change(key, state, version, serverId));
+        changeCount++;
+    }
+    
+    /**
+     * Put back stamps saved by an earlier run, so the clock resumes past them
+     * and older changes still lose to them after a restart
+     */
+    synchronized void restore(List<StateDelta.Change> saved) {
+        for (StateDelta.Change change : saved) {
+            Stamp stamp = stamps.get(change.key);
+            if (stamp == null || change.isNewerThan(stamp.version, stamp.origin)) {
+                stamps.put(change.key, new Stamp(change.version, change.origin, change.state));
+                clock = Math.max(clock, change.version);
+            }
+        }
+    }
+    
+    /**
+     * Get every key's stamp, for saving
+     */
+    synchronized List<StateDelta.Change> getStamps() {
+        List<StateDelta.Change> saved = new ArrayList<>(stamps.size());
+        for (Map.Entry<String, Stamp> entry : stamps.entrySet()) {
+            Stamp stamp = entry.getValue();
+            saved.add(new StateDelta.Change(entry.getKey(), stamp.state, stamp.version, stamp.origin));
+        }
+        return saved;
+    }
+    
+    /**
+     * Get a counter that changes whenever a stamp is stored
+     */
+    synchronized long getChangeCount() {
+        return changeCount;
+    }
+    
+    /**
+     * Ask the other servers for every key they know with the next batch
+     */
+    synchronized void requestFullState() {
+        requestFullState = true;
+    }
+    
+    /**
+     * Take everything queued as one delta
+     *
+     * @return the delta, or null if there is nothing to send
+     */
+    synchronized StateDelta drain() {
+        if (pending.isEmpty() && !requestFullState) {
+            return null;
+        }
+        StateDelta delta = new StateDelta(serverId, requestFullState, new ArrayList<>(pending.values()));
+        pending.clear();
+        requestFullState = false;
+        return delta;
+    }
+    
+    /**
+     * Handle a delta from another server. A full state request queues every
+     * stamped key; each change newer than its key's stamp is passed to the
+     * server, which returns true once the key has the change's state, either
+     * because it applied it or because the key already had it.
+     * The server is called without holding the table's lock.
+     *
+     * @return the number of changes whose stamps were kept
+     */
+    int receive(StateDelta delta, Predicate<StateDelta.Change> server) {
+        if (delta.isFullStateRequest()) {
+            queueKnownState();
+        }
+        int accepted = 0;
+        for (StateDelta.Change change : delta.getChanges()) {
+            if (isNewer(change) && server.test(change) && accept(change)) {
+                accepted++;
+            }
+        }
+        return accepted;
+    }
+    
+    private synchronized boolean isNewer(StateDelta.Change change) {
+        Stamp stamp = stamps.get(change.key);
+        return stamp == null || change.isNewerThan(stamp.version, stamp.origin);
+    }
+    
+    /**
+     * Keep a remote change's stamp, unless a newer change to the key was stamped while it was applied
+     */
+    private synchronized boolean accept(StateDelta.Change change) {
+        if (!isNewer(change)) {
+            return false;
+        }
+        stamps.put(change.key, new Stamp(change.version, change.origin, change.state));
+        clock = Math.max(clock, change.version);
+        changeCount++;
+        return true;
+    }
+    
+    /**
+     * Queue every stamped key in the state it was stamped with, so a server
+     * that just started catches up on the network's last word for each
+     */
+    private synchronized void queueKnownState() {
+        for (Map.Entry<String, Stamp> entry : stamps.entrySet()) {
+            Stamp stamp = entry.getValue();
+            pending.put(entry.getKey(), new StateDelta.Change(entry.getKey(), stamp.state, stamp.version, stamp.origin));
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,124 @@
+package com.dimensionopening.sync;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A batch of state changes sent from one server to the others.
+ *
+ * Each change names a key ({@code dimension:NETHER} or {@code world:<name>}),
+ * the state it was set to and the version and server it was stamped with
+ * when it was made, so a delta can carry changes relayed from other servers.
+ * A delta may also ask the other servers to send everything they know.
+ */
+public final class StateDelta {
+    
+    private static final byte FORMAT = 1;
+    private static final int MAX_CHANGES = 4096;
+    
+    public static final byte FOLLOW = 0;
+    public static final byte OPEN = 1;
+    public static final byte CLOSED = 2;
+    
+    /**
+     * One key's new state
+     */
+    public static final class Change {
+        final String key;
+        final byte state;
+        final long version;
+        final String origin;
+        
+        public Change(String key, byte state, long version, String origin) {
+            this.key = key;
+            this.state = state;
+            this.version = version;
+            this.origin = origin;
+        }
+        
+        /**
+         * Check whether this change wins over one stamped with another version and server.
+         * Versions are compared first, server ids break ties so every server picks the same winner.
+         */
+        boolean isNewerThan(long otherVersion, String otherOrigin) {
+            return version != otherVersion ? version > otherVersion : otherOrigin == null || origin.compareTo(otherOrigin) > 0;
+        }
+    }
+    
+    private final String sender;
+    private final boolean fullStateRequest;
+    private final List<Change> changes;
+    
+    public StateDelta(String sender, boolean fullStateRequest, List<Change> changes) {
+        this.sender = sender;
+        this.fullStateRequest = fullStateRequest;
+        this.changes = Collections.unmodifiableList(new ArrayList<>(changes));
+    }
+    
+    public String getSender() {
+        return sender;
+    }
+    
+    /**
+     * Whether the sender just started and wants every stamped key
+     */
+    public boolean isFullStateRequest() {
+        return fullStateRequest;
+    }
+    
+    public List<Change> getChanges() {
+        return changes;
+    }
+    
+    public byte[] encode() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 + changes.size() * 48);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeByte(FORMAT);
+        out.writeUTF(sender);
+        out.writeBoolean(fullStateRequest);
+        out.writeShort(changes.size());
+        for (Change change : changes) {
+            out.writeUTF(change.key);
+            out.writeByte(change.state);
+            out.writeLong(change.version);
+            out.writeUTF(change.origin);
+        }
+        out.flush();
+        return bytes.toByteArray();
+    }
+    
+    /**
+     * Read a delta written by {@link #encode()}
+     *
+     * @throws IOException if the payload is truncated or from an unknown format
+     */
+    public static StateDelta decode(byte[] payload) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+        byte format = in.readByte();
+        if (format != FORMAT) {
+            throw new IOException("Unknown sync format " + format);
+        }
+        String sender = in.readUTF();
+        boolean fullStateRequest = in.readBoolean();
+        int count = in.readUnsignedShort();
+        if (count > MAX_CHANGES) {
+            throw new IOException("Too many changes in one delta: " + count);
+        }
+        List<Change> changes = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String key = in.readUTF();
+            byte state = in.readByte();
+            if (state != FOLLOW && state != OPEN && state != CLOSED) {
+                throw new IOException("Invalid state " + state + " for " + key);
+            }
+            changes.add(new Change(key, state, in.readLong(), in.readUTF()));
+        }
+        return new StateDelta(sender, fullStateRequest, changes);
+    }
+}
\ No newline at end of file
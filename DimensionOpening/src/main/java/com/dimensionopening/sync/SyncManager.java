@@ -0,0 +1,298 @@
+package com.dimensionopening.sync;
+
+import org.bukkit.Bukkit;
+import org.bukkit.World;
+import org.bukkit.configuration.file.YamlConfiguration;
+import com.dimensionopening.DimensionOpeningPlugin;
+import com.dimensionopening.audit.AuditEvent;
+import com.dimensionopening.managers.DimensionManager;
+import com.dimensionopening.managers.DimensionStateListener;
+import com.dimensionopening.managers.LoadGovernor;
+import com.dimensionopening.scheduler.TaskHandle;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps dimension and world states in step across the servers behind a proxy.
+ *
+ * Every local change is stamped with a version from a clock that never runs
+ * behind wall time or any version seen from another server, so versions keep
+ * increasing across restarts. Changes are collected for
+ * {@code sync.batch_ticks}, with only the latest state per key kept, and sent
+ * as one {@link StateDelta}. A remote change is applied when its version is
+ * newer than the key's last known one (last writer wins, server ids break
+ * ties), through the same {@link DimensionManager} calls a command would
+ * make; the bookkeeping lives in {@link StampTable}. Stamps are saved to
+ * {@code sync-stamps.yml} with each batch that changed them, so after a
+ * restart local changes are still stamped past everything seen before. On
+ * startup a server asks the others for every key they have stamped, so it
+ * catches up on changes made while it was down.
+ *
+ * Opens and closes made by the {@link LoadGovernor} are left out: each
+ * server sheds dimensions for its own load, not the network's.
+ */
+public class SyncManager implements DimensionStateListener {
+    
+    private static final String DIMENSION_PREFIX = "dimension:";
+    private static final String WORLD_PREFIX = "world:";
+    
+    private final DimensionOpeningPlugin plugin;
+    private final DimensionManager dimensionManager;
+    private final String serverId;
+    private final long batchTicks;
+    private final SyncTransport transport;
+    private final StampTable stamps;
+    private final File stampFile;
+    // Guarded by stampFile
+    private long savedChangeCount;
+    // Set while a remote change is applied, so it isn't sent back out
+    private volatile Thread applyingOn;
+    private volatile long remoteChangesApplied;
+    private TaskHandle flushTask;
+    
+    public SyncManager(DimensionOpeningPlugin plugin, DimensionManager dimensionManager) {
+        this.plugin = plugin;
+        this.dimensionManager = dimensionManager;
+        this.serverId = plugin.getSettings().getSyncServerId();
+        this.batchTicks = plugin.getSettings().getSyncBatchTicks();
+        this.transport = SyncTransport.create(plugin, plugin.getSettings());
+        this.stamps = new StampTable(serverId);
+        this.stampFile = new File(plugin.getDataFolder(), "sync-stamps.yml");
+        loadStamps();
+    }
+    
+    private void loadStamps() {
+        if (!stampFile.exists()) {
+            return;
+        }
+        List<StateDelta.Change> saved = new ArrayList<>();
+        for (Map<?, ?> entry : YamlConfiguration.loadConfiguration(stampFile).getMapList("stamps")) {
+            Object key = entry.get("key");
+            Object state = entry.get("state");
+            Object version = entry.get("version");
+            Object origin = entry.get("origin");
+            if (!(key instanceof String) || !(state instanceof Number) || !(version instanceof Number) || !(origin instanceof String)
+                    || !isValidState(((Number) state).intValue())) {
+                plugin.getLogger().warning("Ignoring invalid stamp in sync-stamps.yml: " + entry);
+                continue;
+            }
+            saved.add(new StateDelta.Change((String) key, ((Number) state).byteValue(), ((Number) version).longValue(), (String) origin));
+        }
+        stamps.restore(saved);
+        savedChangeCount = stamps.getChangeCount();
+    }
+    
+    private static boolean isValidState(int state) {
+        return state == StateDelta.FOLLOW || state == StateDelta.OPEN || state == StateDelta.CLOSED;
+    }
+    
+    /**
+     * Save the stamps if any were stored since the last save
+     */
+    private void saveStamps() {
+        synchronized (stampFile) {
+            long changeCount = stamps.getChangeCount();
+            if (changeCount == savedChangeCount) {
+                return;
+            }
+            List<Map<String, Object>> entries = new ArrayList<>();
+            for (StateDelta.Change change : stamps.getStamps()) {
+                Map<String, Object> entry = new HashMap<>();
+                entry.put("key", change.key);
+                entry.put("state", (int) change.state);
+                entry.put("version", change.version);
+                entry.put("origin", change.origin);
+                entries.add(entry);
+            }
+            YamlConfiguration config = new YamlConfiguration();
+            config.set("stamps", entries);
+            try {
+                config.save(stampFile);
+                savedChangeCount = changeCount;
+            } catch (IOException e) {
+                plugin.getLogger().warning("Failed to save sync stamps: " + e.getMessage());
+            }
+        }
+    }
+    
+    /**
+     * Connect the transport and start sending batches
+     *
+     * @return false if the transport could not start
+     */
+    public boolean start() {
+        try {
+            transport.start(this::receive);
+        } catch (IOException e) {
+            plugin.getLogger().severe("Failed to start dimension sync over " + transport.describe() + ": " + e.getMessage());
+            return false;
+        }
+        stamps.requestFullState();
+        dimensionManager.addStateListener(this);
+        flushTask = plugin.getTaskScheduler().runAsyncTimer(() -> flush(true), batchTicks, batchTicks);
+        plugin.getLogger().info("Syncing dimension states over " + transport.describe() + " as " + serverId);
+        return true;
+    }
+    
+    /**
+     * Send anything still pending and disconnect
+     */
+    public void stop() {
+        if (flushTask != null) {
+            flushTask.cancel();
+            flushTask = null;
+        }
+        // Retries could wait on unreachable peers while the server shuts down
+        flush(false);
+        transport.stop();
+    }
+    
+    @Override
+    public void onDimensionStateChange(World.Environment environment, boolean open) {
+        if (Thread.currentThread() != applyingOn && !isGovernorChange()) {
+            record(DIMENSION_PREFIX + environment.name(), open ? StateDelta.OPEN : StateDelta.CLOSED);
+        }
+    }
+    
+    @Override
+    public void onWorldStateChange(World world, boolean open) {
+        if (Thread.currentThread() != applyingOn) {
+            record(WORLD_PREFIX + world.getName().toLowerCase(), worldState(world));
+        }
+    }
+    
+    private boolean isGovernorChange() {
+        LoadGovernor loadGovernor = plugin.getLoadGovernor();
+        return loadGovernor != null && loadGovernor.isActing();
+    }
+    
+    private void record(String key, byte state) {
+        stamps.record(key, state, System.currentTimeMillis());
+    }
+    
+    private void flush(boolean retry) {
+        saveStamps();
+        StateDelta delta = stamps.drain();
+        if (delta == null) {
+            if (retry) {
+                transport.retryPending();
+            }
+            return;
+        }
+        try {
+            transport.publish(delta.encode());
+        } catch (IOException e) {
+            plugin.getLogger().warning("Failed to send dimension sync delta: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Called by the transport, on its own thread
+     */
+    private void receive(byte[] payload) {
+        StateDelta delta;
+        try {
+            delta = StateDelta.decode(payload);
+        } catch (IOException e) {
+            plugin.getLogger().warning("Ignoring malformed dimension sync delta: " + e.getMessage());
+            return;
+        }
+        if (delta.getSender().equals(serverId)) {
+            plugin.getLogger().warning("Received a sync delta sent as this server's own id " + serverId + "; sync.server_id must be unique");
+            return;
+        }
+        plugin.getTaskScheduler().runGlobal(() -> stamps.receive(delta, this::apply));
+    }
+    
+    private boolean apply(StateDelta.Change change) {
+        applyingOn = Thread.currentThread();
+        try {
+            return applyChange(change);
+        } finally {
+            applyingOn = null;
+        }
+    }
+    
+    private byte worldState(World world) {
+        if (!dimensionManager.hasWorldOverride(world)) {
+            return StateDelta.FOLLOW;
+        }
+        return dimensionManager.isWorldOpen(world) ? StateDelta.OPEN : StateDelta.CLOSED;
+    }
+    
+    /**
+     * Apply a remote change through the dimension manager
+     *
+     * @return true if the key now has the change's state, false if another plugin cancelled it
+     */
+    private boolean applyChange(StateDelta.Change change) {
+        boolean open = change.state == StateDelta.OPEN;
+        if (change.key.startsWith(DIMENSION_PREFIX)) {
+            World.Environment environment = parseEnvironment(change.key.substring(DIMENSION_PREFIX.length()));
+            if (environment == null) {
+                return true; // Nothing here to diverge from; the stamp is still relayed to late joiners
+            }
+            if (open ? dimensionManager.openDimension(environment) : dimensionManager.closeDimension(environment)) {
+                onRemoteChange(change, open ? AuditEvent.Action.DIMENSION_OPEN : AuditEvent.Action.DIMENSION_CLOSE, environment, null);
+                plugin.getNotificationManager().broadcastDimensionStateChange(environment, open);
+                return true;
+            }
+            return dimensionManager.isDimensionOpen(environment) == open;
+        }
+        
+        // Worlds this server doesn't have are skipped; their stamp still stops older changes later
+        World world = Bukkit.getWorld(change.key.substring(WORLD_PREFIX.length()));
+        if (world == null) {
+            return true;
+        }
+        if (change.state == StateDelta.FOLLOW) {
+            boolean wasOpen = dimensionManager.isWorldOpen(world);
+            if (dimensionManager.clearWorldOverride(world)) {
+                boolean isOpen = dimensionManager.isWorldOpen(world);
+                // Only an actual open or close is audited as one
+                AuditEvent.Action action = isOpen == wasOpen ? AuditEvent.Action.WORLD_FOLLOW
+                        : isOpen ? AuditEvent.Action.DIMENSION_OPEN : AuditEvent.Action.DIMENSION_CLOSE;
+                onRemoteChange(change, action, world.getEnvironment(), "world " + world.getName() + " follows dimension");
+                return true;
+            }
+            return !dimensionManager.hasWorldOverride(world);
+        }
+        if (dimensionManager.setWorldOpen(world, open)) {
+            onRemoteChange(change, open ? AuditEvent.Action.DIMENSION_OPEN : AuditEvent.Action.DIMENSION_CLOSE, world.getEnvironment(), "world " + world.getName());
+            return true;
+        }
+        return dimensionManager.hasWorldOverride(world) && dimensionManager.isWorldOpen(world) == open;
+    }
+    
+    private void onRemoteChange(StateDelta.Change change, AuditEvent.Action action, World.Environment environment, String detail) {
+        remoteChangesApplied++;
+        plugin.getAuditLog().record(new AuditEvent(action, AuditEvent.Source.SYNC, change.origin, null, environment, detail));
+    }
+    
+    private static World.Environment parseEnvironment(String name) {
+        try {
+            return World.Environment.valueOf(name);
+        } catch (IllegalArgumentException e) {
+            return null; // From a newer version with dimensions this one doesn't know
+        }
+    }
+    
+    public String getServerId() {
+        return serverId;
+    }
+    
+    public String getTransportDescription() {
+        return transport.describe();
+    }
+    
+    /**
+     * Get the number of changes from other servers applied since startup
+     */
+    public long getRemoteChangesApplied() {
+        return remoteChangesApplied;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,62 @@
+package com.dimensionopening.sync;
+
+import com.dimensionopening.DimensionOpeningPlugin;
+import com.dimensionopening.config.Settings;
+import java.io.File;
+import java.io.IOException;
+import java.util.function.Consumer;
+
+/**
+ * Carries encoded {@link StateDelta}s between the servers of a network.
+ *
+ * A transport only moves bytes: it delivers every payload published by
+ * another server to the receiver, on whatever thread it reads them, and
+ * never hands a server its own payloads back.
+ */
+public interface SyncTransport {
+    
+    /**
+     * Build the transport named in the settings
+     */
+    static SyncTransport create(DimensionOpeningPlugin plugin, Settings settings) {
+        switch (settings.getSyncTransport()) {
+            case "socket":
+                return new SocketTransport(plugin.getLogger(), settings.getSyncSocketBind(), settings.getSyncSocketPort(),
+                        settings.getSyncSocketPeers());
+            case "plugin_message":
+                return new PluginMessageTransport(plugin, settings.getSyncPluginMessageChannel());
+            case "loopback":
+                return new LoopbackTransport(settings.getSyncServerId());
+            default:
+                File directory = new File(settings.getSyncFileDirectory());
+                if (!directory.isAbsolute()) {
+                    directory = new File(plugin.getDataFolder(), settings.getSyncFileDirectory());
+                }
+                return new FileTransport(plugin, directory, settings.getSyncServerId());
+        }
+    }
+    
+    /**
+     * Start delivering other servers' payloads to the receiver
+     */
+    void start(Consumer<byte[]> receiver) throws IOException;
+    
+    /**
+     * Send a payload to every other server. Called off the server threads, one call at a time.
+     */
+    void publish(byte[] payload) throws IOException;
+    
+    /**
+     * Try again to deliver payloads that could not be sent yet. Called off the
+     * server threads with each batch that has nothing new to send.
+     */
+    default void retryPending() {
+    }
+    
+    void stop();
+    
+    /**
+     * Get a short description for status output, e.g. the transport and its address
+     */
+    String describe();
+}
\ No newline at end of file
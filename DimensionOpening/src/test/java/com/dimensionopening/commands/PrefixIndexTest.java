@@ -0,0 +1,41 @@
+package com.dimensionopening.commands;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PrefixIndexTest {
+    
+    private final PrefixIndex index = new PrefixIndex(Arrays.asList("world_the_end", "World", "world_nether", "lobby", "WORLD"));
+    
+    @Test
+    void matchesPrefixIgnoringCaseInSortedOrder() {
+        assertEquals(Arrays.asList("World", "world_nether", "world_the_end"), index.complete("WoR"));
+        assertEquals(Arrays.asList("world_nether", "world_the_end"), index.complete("world_"));
+        assertEquals(Collections.singletonList("lobby"), index.complete("L"));
+    }
+    
+    @Test
+    void emptyPrefixReturnsEveryCandidateOnce() {
+        // "WORLD" duplicates "World" ignoring case, so only the first is kept
+        assertEquals(Arrays.asList("lobby", "World", "world_nether", "world_the_end"), index.complete(""));
+    }
+    
+    @Test
+    void noMatchReturnsAnEmptyList() {
+        assertTrue(index.complete("nether").isEmpty());
+        assertTrue(index.complete("world_the_end_").isEmpty());
+        assertTrue(PrefixIndex.EMPTY.complete("").isEmpty());
+        assertTrue(PrefixIndex.EMPTY.complete("w").isEmpty());
+    }
+    
+    @Test
+    void resultsAreReadOnly() {
+        assertThrows(UnsupportedOperationException.class, () -> index.complete("w").add("other"));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,110 @@
+package com.dimensionopening.config;
+
+import org.bukkit.World;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SettingsTest {
+    
+    private final List<LogRecord> logged = new ArrayList<>();
+    private final Logger logger = Logger.getAnonymousLogger();
+    private YamlConfiguration config;
+    
+    @BeforeEach
+    void setUp() {
+        logger.setUseParentHandlers(false);
+        logger.addHandler(new Handler() {
+            @Override
+            public void publish(LogRecord record) {
+                logged.add(record);
+            }
+            
+            @Override
+            public void flush() {
+            }
+            
+            @Override
+            public void close() {
+            }
+        });
+        config = new YamlConfiguration();
+    }
+    
+    @Test
+    void emptyConfigurationUsesDefaultsQuietly() {
+        Settings settings = Settings.load(config, logger);
+        
+        assertEquals(9464, settings.getMetricsHttpPort());
+        assertEquals("127.0.0.1", settings.getMetricsHttpBind());
+        assertEquals(Arrays.asList(World.Environment.THE_END, World.Environment.NETHER), settings.getGovernorShedOrder());
+        assertEquals("file", settings.getSyncTransport());
+        assertFalse(settings.isSyncEnabled());
+        assertTrue(logged.isEmpty());
+    }
+    
+    @Test
+    void outOfRangeNumbersFallBackToDefaults() {
+        config.set("metrics.http.port", 70000);
+        config.set("sync.batch_ticks", 0);
+        config.set("audit.queue_size", 4);
+        Settings settings = Settings.load(config, logger);
+        
+        assertEquals(9464, settings.getMetricsHttpPort());
+        assertEquals(10, settings.getSyncBatchTicks());
+        assertEquals(8192, settings.getAuditQueueSize());
+        assertEquals(3, logged.size());
+    }
+    
+    @Test
+    void reopenThresholdsMustLeaveAGap() {
+        config.set("governor.close_above_mspt", 50.0);
+        config.set("governor.reopen_below_mspt", 60.0);
+        config.set("governor.close_below_tps", 18.0);
+        config.set("governor.reopen_above_tps", 17.0);
+        Settings settings = Settings.load(config, logger);
+        
+        assertEquals(40.0, settings.getGovernorReopenBelowMspt(), 1e-9);
+        assertEquals(19.0, settings.getGovernorReopenAboveTps(), 1e-9);
+        assertEquals(2, logged.size());
+    }
+    
+    @Test
+    void invalidAndRepeatedShedOrderEntriesAreDropped() {
+        config.set("governor.shed_order", Arrays.asList("nether", "moon", "NETHER", "end"));
+        Settings settings = Settings.load(config, logger);
+        
+        assertEquals(Arrays.asList(World.Environment.NETHER, World.Environment.THE_END), settings.getGovernorShedOrder());
+        assertEquals(1, logged.size());
+    }
+    
+    @Test
+    void syncNeedsAServerId() {
+        config.set("sync.enabled", true);
+        config.set("sync.server_id", "  ");
+        Settings settings = Settings.load(config, logger);
+        
+        assertFalse(settings.isSyncEnabled());
+        assertEquals(Level.SEVERE, logged.get(0).getLevel());
+        
+        config.set("sync.server_id", " lobby-1 ");
+        config.set("sync.transport", "Carrier_Pigeon");
+        settings = Settings.load(config, logger);
+        
+        assertTrue(settings.isSyncEnabled());
+        assertEquals("lobby-1", settings.getSyncServerId());
+        assertEquals("file", settings.getSyncTransport());
+    }
+}
\ No newline at end of file
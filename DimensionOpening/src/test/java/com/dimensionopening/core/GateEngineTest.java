@@ -0,0 +1,97 @@
+package com.dimensionopening.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GateEngineTest {
+    
+    private static final int OVERWORLD = 0;
+    private static final int NETHER = 1;
+    private static final int PORTAL = 0;
+    private static final int COMMAND = 1;
+    private static final long VIP = 1L;
+    private static final long BANNED = 1L << 1;
+    
+    @Test
+    void firstMatchingRuleDecidesAndNoMatchDenies() {
+        GateEngine engine = new GateEngine(new GateState(), 2, 2, Arrays.asList(
+                new GateRule(AccessDecision.DENY).forbid(VIP).state(GateRule.STATE_CLOSED),
+                new GateRule(AccessDecision.ALLOW).dimensions(NETHER).forbid(BANNED)));
+        engine.getState().setDimensionOpen(NETHER, false);
+        
+        assertEquals(AccessDecision.DENY, engine.decideDimension(0L, NETHER, PORTAL));
+        assertEquals(AccessDecision.ALLOW, engine.decideDimension(VIP, NETHER, PORTAL));
+        assertEquals(AccessDecision.DENY, engine.decideDimension(VIP | BANNED, NETHER, PORTAL));
+        // The overworld is open, so the closed rule is skipped, and the allow rule is for the nether
+        assertEquals(AccessDecision.DENY, engine.decideDimension(VIP, OVERWORLD, PORTAL));
+    }
+    
+    @Test
+    void rulesOnlyApplyToTheirCauses() {
+        GateEngine engine = new GateEngine(new GateState(), 2, 2, Collections.singletonList(
+                new GateRule(AccessDecision.QUEUE).causes(PORTAL)));
+        
+        assertEquals(AccessDecision.QUEUE, engine.decideDimension(0L, NETHER, PORTAL));
+        assertEquals(AccessDecision.DENY, engine.decideDimension(0L, NETHER, COMMAND));
+    }
+    
+    @Test
+    void destinationRulesNeverMatchChecksByDimension() {
+        GateState state = new GateState();
+        int hub = state.register("Hub_Nether", NETHER);
+        int other = state.register("other_nether", NETHER);
+        GateEngine engine = new GateEngine(state, 2, 2, Collections.singletonList(
+                new GateRule(AccessDecision.ALLOW).destinations(hub)));
+        
+        assertEquals(AccessDecision.ALLOW, engine.decide(0L, hub, PORTAL, 0));
+        assertEquals(AccessDecision.DENY, engine.decide(0L, other, PORTAL, 0));
+        assertEquals(AccessDecision.DENY, engine.decideDimension(0L, NETHER, PORTAL));
+    }
+    
+    @Test
+    void worldNodeRulesNeedTheSubjectsNodes() {
+        GateState state = new GateState();
+        int world = state.register("arena", OVERWORLD);
+        GateEngine engine = new GateEngine(state, 2, 2, Collections.singletonList(
+                new GateRule(AccessDecision.ALLOW).dimensions(OVERWORLD).worldNode(GateRule.WORLD_NODE_BYPASS)));
+        
+        assertTrue(engine.usesWorldNodes(OVERWORLD, PORTAL));
+        assertFalse(engine.usesWorldNodes(NETHER, PORTAL));
+        assertEquals(AccessDecision.DENY, engine.decide(0L, world, PORTAL, GateRule.WORLD_NODE_ACCESS));
+        assertEquals(AccessDecision.ALLOW, engine.decide(0L, world, PORTAL, GateRule.WORLD_NODE_BYPASS));
+    }
+    
+    @Test
+    void destinationOverrideWinsOverItsDimension() {
+        GateState state = new GateState();
+        int world = state.register("spawn_nether", NETHER);
+        GateEngine engine = new GateEngine(state, 2, 2, Collections.singletonList(
+                new GateRule(AccessDecision.ALLOW).state(GateRule.STATE_OPEN)));
+        state.setDimensionOpen(NETHER, false);
+        
+        assertEquals(AccessDecision.DENY, engine.decide(0L, world, PORTAL, 0));
+        assertTrue(state.setOverride(world, true));
+        assertEquals(AccessDecision.ALLOW, engine.decide(0L, world, PORTAL, 0));
+        assertTrue(state.clearOverride(world));
+        assertFalse(state.hasOverride(world));
+        assertEquals(AccessDecision.DENY, engine.decide(0L, world, PORTAL, 0));
+    }
+    
+    @Test
+    void outOfRangeInputsDeny() {
+        GateEngine engine = new GateEngine(new GateState(), 2, 2, Collections.singletonList(new GateRule(AccessDecision.ALLOW)));
+        
+        assertEquals(AccessDecision.ALLOW, engine.decideDimension(0L, NETHER, COMMAND));
+        assertEquals(AccessDecision.DENY, engine.decideDimension(0L, 2, PORTAL));
+        assertEquals(AccessDecision.DENY, engine.decideDimension(0L, NETHER, 5));
+        assertEquals(AccessDecision.DENY, engine.decideDimension(0L, GateState.NO_DIMENSION, PORTAL));
+        assertThrows(IllegalArgumentException.class, () -> new GateRule(AccessDecision.ALLOW).dimensions(64));
+    }
+}
\ No newline at end of file
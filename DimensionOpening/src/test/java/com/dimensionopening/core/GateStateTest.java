@@ -0,0 +1,49 @@
+package com.dimensionopening.core;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GateStateTest {
+    
+    @Test
+    void destinationsAreRegisteredOnceIgnoringCase() {
+        GateState state = new GateState();
+        int byName = state.destination("World_Nether");
+        
+        assertEquals(GateState.NO_DIMENSION, state.getDimension(byName));
+        assertEquals(byName, state.register("world_nether", 1));
+        assertEquals(byName, state.destination("WORLD_NETHER"));
+        assertEquals(1, state.getDimension(byName));
+        assertEquals("world_nether", state.getName(byName));
+        assertEquals(1, state.getDestinationCount());
+    }
+    
+    @Test
+    void writesBumpTheVersionOnlyWhenStateChanges() {
+        GateState state = new GateState();
+        int world = state.register("end", 2);
+        long version = state.getVersion();
+        
+        assertFalse(state.setDimensionOpen(2, true));
+        assertFalse(state.clearOverride(world));
+        assertEquals(version, state.getVersion());
+        
+        assertTrue(state.setDimensionOpen(2, false));
+        assertFalse(state.isOpen(world));
+        assertTrue(state.setOverride(world, true));
+        assertFalse(state.setOverride(world, true));
+        assertTrue(state.isOpen(world));
+        assertEquals(version + 2, state.getVersion());
+    }
+    
+    @Test
+    void unknownDimensionsAreOpen() {
+        GateState state = new GateState();
+        
+        assertTrue(state.isDimensionOpen(GateState.NO_DIMENSION));
+        assertTrue(state.isOpen(state.destination("not_loaded_yet")));
+    }
+}
\ No newline at end of file
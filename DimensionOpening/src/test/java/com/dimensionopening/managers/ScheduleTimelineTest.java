@@ -0,0 +1,106 @@
+package com.dimensionopening.managers;
+
+import org.bukkit.World;
+import org.junit.jupiter.api.Test;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ScheduleTimelineTest {
+    
+    private static final World.Environment NETHER = World.Environment.NETHER;
+    
+    @Test
+    void alternatesBetweenOpenAndCloseSchedules() {
+        Schedule open = new Schedule("open", NETHER, true, 100, 200);
+        Schedule close = new Schedule("close", NETHER, false, 0, 200);
+        
+        List<ScheduleTimeline.Transition> transitions = upcoming(Arrays.asList(open, close), true, 0, 3);
+        
+        assertEquals(3, transitions.size());
+        assertTransition(transitions.get(0), 200, false, "close");
+        assertTransition(transitions.get(1), 300, true, "open");
+        assertTransition(transitions.get(2), 400, false, "close");
+    }
+    
+    @Test
+    void skipsRunsThatDoNotChangeTheState() {
+        Schedule open = new Schedule("open", NETHER, true, 10, 20);
+        
+        assertTrue(upcoming(Collections.singletonList(open), true, 0, 5).isEmpty());
+    }
+    
+    @Test
+    void lastRegisteredScheduleWinsAConflictingTick() {
+        Schedule open = new Schedule("open", NETHER, true, 50, 100);
+        Schedule close = new Schedule("close", NETHER, false, 50, 100);
+        
+        List<ScheduleTimeline.Transition> transitions = upcoming(Arrays.asList(open, close), true, 0, 1);
+        
+        assertEquals(1, transitions.size());
+        assertTransition(transitions.get(0), 50, false, "close");
+        assertTrue(transitions.get(0).isConflicting());
+    }
+    
+    @Test
+    void ignoresPausedSchedules() {
+        Schedule open = new Schedule("open", NETHER, true, 100, 200);
+        Schedule close = new Schedule("close", NETHER, false, 0, 200);
+        close.setPaused(true);
+        
+        assertTrue(upcoming(Arrays.asList(open, close), true, 0, 3).isEmpty());
+        assertTrue(ScheduleTimeline.findConflicts(Arrays.asList(open, close), 0).isEmpty());
+    }
+    
+    @Test
+    void firstCommonTickSolvesBothProgressions() {
+        // 3, 8, 13, 18 and 4, 11, 18 first meet at 18, then every 35 ticks
+        Schedule a = new Schedule("a", NETHER, true, 3, 5);
+        Schedule b = new Schedule("b", NETHER, false, 4, 7);
+        
+        assertEquals(18, ScheduleTimeline.firstCommonTick(a, b, 0));
+        assertEquals(18, ScheduleTimeline.firstCommonTick(b, a, 0));
+        assertEquals(53, ScheduleTimeline.firstCommonTick(a, b, 18));
+    }
+    
+    @Test
+    void firstCommonTickIsNegativeWhenProgressionsNeverMeet() {
+        // Even ticks and odd ticks
+        Schedule even = new Schedule("even", NETHER, true, 0, 4);
+        Schedule odd = new Schedule("odd", NETHER, false, 1, 2);
+        
+        assertEquals(-1, ScheduleTimeline.firstCommonTick(even, odd, 0));
+    }
+    
+    @Test
+    void findsConflictsOnlyWithinOneDimension() {
+        Schedule open = new Schedule("open", NETHER, true, 3, 5);
+        Schedule close = new Schedule("close", NETHER, false, 4, 7);
+        Schedule endClose = new Schedule("end", World.Environment.THE_END, false, 3, 5);
+        
+        List<ScheduleTimeline.Conflict> conflicts = ScheduleTimeline.findConflicts(Arrays.asList(open, close, endClose), 0);
+        
+        assertEquals(1, conflicts.size());
+        assertEquals("open", conflicts.get(0).getOpenSchedule().getName());
+        assertEquals("close", conflicts.get(0).getCloseSchedule().getName());
+        assertEquals(18, conflicts.get(0).getFirstTick());
+    }
+    
+    private static List<ScheduleTimeline.Transition> upcoming(List<Schedule> schedules, boolean open, long currentTick, int limit) {
+        Map<World.Environment, Boolean> states = new EnumMap<>(World.Environment.class);
+        states.put(NETHER, open);
+        return ScheduleTimeline.upcomingTransitions(schedules, states, currentTick, limit).get(NETHER);
+    }
+    
+    private static void assertTransition(ScheduleTimeline.Transition transition, long tick, boolean opens, String scheduleName) {
+        assertEquals(tick, transition.getTick());
+        assertEquals(opens, transition.opens());
+        assertEquals(NETHER, transition.getEnvironment());
+        assertEquals(scheduleName, transition.getScheduleName());
+    }
+}
\ No newline at end of file
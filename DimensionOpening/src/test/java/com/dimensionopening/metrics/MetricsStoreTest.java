@@ -0,0 +1,145 @@
+package com.dimensionopening.metrics;
+
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.lang.reflect.Proxy;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MetricsStoreTest {
+    
+    private static final Logger LOGGER = Logger.getLogger(MetricsStoreTest.class.getName());
+    private static final World.Environment NETHER = World.Environment.NETHER;
+    private static final World.Environment END = World.Environment.THE_END;
+    
+    @TempDir
+    File directory;
+    
+    @Test
+    void replaysJournalOnTopOfCheckpoint() {
+        MetricsManager metrics = load();
+        metrics.recordDimensionClose(NETHER);
+        metrics.cleanup();
+        metrics.recordDimensionClose(NETHER);
+        metrics.recordDimensionClose(END);
+        metrics.flush();
+        
+        MetricsManager reloaded = load();
+        
+        assertEquals(2, reloaded.getCloseCount(NETHER));
+        assertEquals(1, reloaded.getCloseCount(END));
+    }
+    
+    @Test
+    void restoresPlayerCounters() {
+        MetricsManager metrics = load();
+        Player steve = player("Steve");
+        metrics.recordPlayerAccessAttempt(steve, NETHER);
+        metrics.recordPlayerAccessAttempt(steve, NETHER);
+        metrics.recordPlayerAccessDenied(steve, NETHER);
+        metrics.flush();
+        
+        MetricsManager reloaded = load();
+        List<PlayerStat> top = reloaded.getTopPlayers(10, true);
+        
+        assertEquals(1, top.size());
+        assertEquals("Steve", top.get(0).getName());
+        assertEquals(2, top.get(0).getAttempts());
+        assertEquals(1, top.get(0).getDenied());
+        assertEquals(2, reloaded.getAttemptCount(NETHER));
+        assertEquals(1, reloaded.getDeniedCount(NETHER));
+    }
+    
+    @Test
+    void ignoresJournalFromAnotherGeneration() throws IOException {
+        MetricsManager metrics = load();
+        metrics.recordDimensionClose(NETHER);
+        metrics.flush();
+        File journal = new File(directory, "metrics.journal");
+        byte[] staleJournal = Files.readAllBytes(journal.toPath());
+        // The checkpoint folds the journal in and moves to the next generation
+        metrics.cleanup();
+        try (FileOutputStream out = new FileOutputStream(journal)) {
+            out.write(staleJournal);
+        }
+        
+        assertEquals(1, load().getCloseCount(NETHER));
+    }
+    
+    @Test
+    void dropsCorruptTailAndKeepsLaterBatches() throws IOException {
+        MetricsManager metrics = load();
+        metrics.recordDimensionClose(NETHER);
+        metrics.flush();
+        File journal = new File(directory, "metrics.journal");
+        appendGarbage(journal);
+        long damagedLength = journal.length();
+        
+        MetricsManager reloaded = load();
+        assertEquals(1, reloaded.getCloseCount(NETHER));
+        assertTrue(journal.length() < damagedLength, "damaged journal should be rewritten on load");
+        
+        // Later batches must not land behind the damaged one
+        reloaded.recordDimensionClose(NETHER);
+        reloaded.flush();
+        assertEquals(2, load().getCloseCount(NETHER));
+    }
+    
+    @Test
+    void dropsTornBatchAtEndOfJournal() throws IOException {
+        MetricsManager metrics = load();
+        metrics.recordDimensionClose(NETHER);
+        metrics.flush();
+        metrics.recordDimensionClose(NETHER);
+        metrics.flush();
+        File journal = new File(directory, "metrics.journal");
+        try (RandomAccessFile file = new RandomAccessFile(journal, "rw")) {
+            file.setLength(file.length() - 1);
+        }
+        
+        MetricsManager reloaded = load();
+        assertEquals(1, reloaded.getCloseCount(NETHER));
+        
+        reloaded.recordDimensionClose(END);
+        reloaded.flush();
+        MetricsManager again = load();
+        assertEquals(1, again.getCloseCount(NETHER));
+        assertEquals(1, again.getCloseCount(END));
+    }
+    
+    private MetricsManager load() {
+        return new MetricsManager(null, directory, LOGGER, 0);
+    }
+    
+    private static void appendGarbage(File file) throws IOException {
+        try (FileOutputStream out = new FileOutputStream(file, true)) {
+            // A length that fits, then a checksum that doesn't match the payload
+            out.write(new byte[] {0, 0, 0, 4, 1, 2, 3, 4, 9, 9, 9, 9});
+        }
+    }
+    
+    private static Player player(String name) {
+        UUID uuid = UUID.nameUUIDFromBytes(name.getBytes());
+        return (Player) Proxy.newProxyInstance(Player.class.getClassLoader(), new Class<?>[] {Player.class}, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "getUniqueId":
+                    return uuid;
+                case "getName":
+                    return name;
+                default:
+                    throw new UnsupportedOperationException(method.getName());
+            }
+        });
+    }
+}
\ No newline at end of file
@@ -0,0 +1,64 @@
+package com.dimensionopening.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class RollingCounterTest {
+    
+    private static final long MINUTE = RollingCounter.MINUTE_MILLIS;
+    
+    @Test
+    void windowLeavesOutTheMinuteStillBeingCounted() {
+        RollingCounter counter = new RollingCounter(60);
+        counter.add(10 * MINUTE, 3);
+        counter.add(10 * MINUTE + 30_000, 2);
+        
+        assertEquals(0, counter.sum(10 * MINUTE + 59_000, 5));
+        assertEquals(5, counter.sum(11 * MINUTE, 5));
+    }
+    
+    @Test
+    void windowCoversOnlyTheLastCompletedMinutes() {
+        RollingCounter counter = new RollingCounter(60);
+        for (int minute = 0; minute < 10; minute++) {
+            counter.add(minute * MINUTE, minute + 1);
+        }
+        
+        // Minutes 7, 8 and 9 hold 8, 9 and 10
+        assertEquals(27, counter.sum(10 * MINUTE, 3));
+        // Minutes 4, 5 and 6 hold 5, 6 and 7
+        assertEquals(18, counter.previousSum(10 * MINUTE, 3));
+    }
+    
+    @Test
+    void recycledBucketsDropTheOldCount() {
+        RollingCounter counter = new RollingCounter(5);
+        counter.record(2 * MINUTE);
+        // Minute 7 reuses minute 2's bucket
+        counter.add(7 * MINUTE, 4);
+        
+        assertEquals(4, counter.sum(8 * MINUTE, 5));
+        // Minute 2's event is gone even when asked for directly
+        assertEquals(0, counter.sum(3 * MINUTE, 1));
+    }
+    
+    @Test
+    void windowIsCappedAtCapacity() {
+        RollingCounter counter = new RollingCounter(3);
+        for (int minute = 0; minute < 6; minute++) {
+            counter.record(minute * MINUTE);
+        }
+        
+        assertEquals(3, counter.sum(6 * MINUTE, 60));
+    }
+    
+    @Test
+    void resetClearsEveryBucket() {
+        RollingCounter counter = new RollingCounter(10);
+        counter.add(MINUTE, 7);
+        counter.reset();
+        
+        assertEquals(0, counter.sum(2 * MINUTE, 10));
+    }
+}
\ No newline at end of file
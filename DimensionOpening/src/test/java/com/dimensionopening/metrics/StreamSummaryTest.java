@@ -0,0 +1,72 @@
+package com.dimensionopening.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StreamSummaryTest {
+    
+    @Test
+    void lightestFollowsIncrements() {
+        StreamSummary<String> summary = new StreamSummary<>();
+        summary.set("a", 1);
+        summary.set("b", 1);
+        summary.set("c", 3);
+        
+        summary.increment("a");
+        assertEquals("b", summary.getLightest());
+        summary.increment("b");
+        summary.increment("b");
+        assertEquals("a", summary.getLightest());
+        assertEquals(2, summary.getLightestWeight());
+        assertEquals(3, summary.getWeight("b"));
+    }
+    
+    @Test
+    void incrementIgnoresUnknownKeys() {
+        StreamSummary<String> summary = new StreamSummary<>();
+        summary.increment("missing");
+        
+        assertEquals(0, summary.size());
+        assertNull(summary.getLightest());
+        assertEquals(0, summary.getLightestWeight());
+    }
+    
+    @Test
+    void setMovesAKeyToItsSortedBucket() {
+        StreamSummary<String> summary = new StreamSummary<>();
+        summary.set("a", 5);
+        summary.set("b", 2);
+        summary.set("c", 9);
+        summary.set("b", 7);
+        
+        assertEquals("a", summary.getLightest());
+        assertEquals(7, summary.getWeight("b"));
+        summary.remove("a");
+        assertEquals("b", summary.getLightest());
+        summary.remove("b");
+        assertEquals("c", summary.getLightest());
+        assertEquals(9, summary.getLightestWeight());
+    }
+    
+    @Test
+    void removeAndClearForgetKeys() {
+        StreamSummary<String> summary = new StreamSummary<>();
+        summary.set("a", 1);
+        summary.set("b", 4);
+        summary.remove("a");
+        summary.remove("missing");
+        
+        assertFalse(summary.contains("a"));
+        assertTrue(summary.contains("b"));
+        assertEquals(1, summary.size());
+        assertEquals(0, summary.getWeight("a"));
+        
+        summary.clear();
+        assertEquals(0, summary.size());
+        assertNull(summary.getLightest());
+    }
+}
\ No newline at end of file
@@ -0,0 +1,206 @@
+package com.dimensionopening.sync;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StampTableTest {
+    
+    private static final String NETHER = "dimension:NETHER";
+    
+    /**
+     * One server: a stamp table, a loopback transport and the states it holds
+     */
+    private static final class Node {
+        final StampTable stamps;
+        final LoopbackTransport transport;
+        final Map<String, Byte> states = new HashMap<>();
+        boolean vetoing;
+        
+        Node(String serverId) {
+            this.stamps = new StampTable(serverId);
+            this.transport = new LoopbackTransport(serverId);
+        }
+        
+        void set(String key, byte state, long nowMillis) {
+            states.put(key, state);
+            stamps.record(key, state, nowMillis);
+        }
+        
+        void flush() throws IOException {
+            StateDelta delta = stamps.drain();
+            if (delta != null) {
+                transport.publish(delta.encode());
+            }
+        }
+        
+        void receive(byte[] payload) {
+            StateDelta delta;
+            try {
+                delta = StateDelta.decode(payload);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            stamps.receive(delta, change -> {
+                if (vetoing) {
+                    return false;
+                }
+                states.put(change.key, change.state);
+                return true;
+            });
+        }
+    }
+    
+    private final List<Node> nodes = new ArrayList<>();
+    
+    @AfterEach
+    void stopTransports() {
+        for (Node node : nodes) {
+            node.transport.stop();
+        }
+    }
+    
+    private Node start(String serverId) {
+        Node node = new Node(serverId);
+        nodes.add(node);
+        node.transport.start(node::receive);
+        return node;
+    }
+    
+    @Test
+    void drainBatchesTheLatestStatePerKey() {
+        StampTable table = new StampTable("lobby");
+        assertNull(table.drain());
+        
+        table.record(NETHER, StateDelta.CLOSED, 1000L);
+        table.record(NETHER, StateDelta.OPEN, 1000L);
+        StateDelta delta = table.drain();
+        
+        assertEquals(1, delta.getChanges().size());
+        assertEquals(StateDelta.OPEN, delta.getChanges().get(0).state);
+        // The clock moves past the previous stamp even when wall time doesn't
+        assertEquals(1001L, delta.getChanges().get(0).version);
+        assertNull(table.drain());
+    }
+    
+    @Test
+    void localClockRunsAheadOfRemoteVersions() {
+        StampTable table = new StampTable("lobby");
+        table.receive(delta("survival", new StateDelta.Change(NETHER, StateDelta.CLOSED, 9000L, "survival")), change -> true);
+        
+        table.record(NETHER, StateDelta.OPEN, 10L);
+        
+        assertEquals(9001L, table.drain().getChanges().get(0).version);
+    }
+    
+    @Test
+    void vetoedChangeLeavesNoStamp() {
+        StampTable table = new StampTable("lobby");
+        StateDelta delta = delta("survival", new StateDelta.Change(NETHER, StateDelta.CLOSED, 5000L, "survival"));
+        
+        assertEquals(0, table.receive(delta, change -> false));
+        // Not mistaken for the key's state, so the same change is still taken later
+        assertEquals(1, table.receive(delta, change -> true));
+        assertEquals(0, table.receive(delta, change -> true));
+    }
+    
+    @Test
+    void restoredStampsOutliveARestart() {
+        StampTable before = new StampTable("lobby");
+        before.receive(delta("survival", new StateDelta.Change(NETHER, StateDelta.CLOSED, 9000L, "survival")), change -> true);
+        before.record("world:arena", StateDelta.OPEN, 100L);
+        List<StateDelta.Change> saved = before.getStamps();
+        assertEquals(2, saved.size());
+        
+        StampTable after = new StampTable("lobby");
+        after.restore(saved);
+        
+        // An older change from before the restart still loses
+        StateDelta older = delta("creative", new StateDelta.Change(NETHER, StateDelta.OPEN, 8000L, "creative"));
+        assertEquals(0, after.receive(older, change -> true));
+        // And the clock resumes past every stamp, including the arena's 9001, so a new local change wins
+        after.record(NETHER, StateDelta.OPEN, 10L);
+        assertEquals(9002L, after.drain().getChanges().get(0).version);
+    }
+    
+    @Test
+    void conflictingWritesSettleOnTheLastWriter() throws IOException {
+        Node alpha = start("alpha");
+        Node beta = start("beta");
+        
+        alpha.set(NETHER, StateDelta.OPEN, 1000L);
+        beta.set(NETHER, StateDelta.CLOSED, 2000L);
+        alpha.flush();
+        beta.flush();
+        
+        assertEquals(StateDelta.CLOSED, (byte) alpha.states.get(NETHER));
+        assertEquals(StateDelta.CLOSED, (byte) beta.states.get(NETHER));
+    }
+    
+    @Test
+    void equalVersionsSettleOnTheHigherServerId() throws IOException {
+        Node alpha = start("alpha");
+        Node beta = start("beta");
+        
+        alpha.set(NETHER, StateDelta.CLOSED, 3000L);
+        beta.set(NETHER, StateDelta.OPEN, 3000L);
+        beta.flush();
+        alpha.flush();
+        
+        assertEquals(StateDelta.OPEN, (byte) alpha.states.get(NETHER));
+        assertEquals(StateDelta.OPEN, (byte) beta.states.get(NETHER));
+    }
+    
+    @Test
+    void lateJoinerCatchesUpWithAFullStateRequest() throws IOException {
+        Node alpha = start("alpha");
+        Node beta = start("beta");
+        alpha.set(NETHER, StateDelta.CLOSED, 1000L);
+        beta.set("world:arena", StateDelta.OPEN, 1500L);
+        alpha.flush();
+        beta.flush();
+        
+        Node gamma = start("gamma");
+        gamma.stamps.requestFullState();
+        gamma.flush();
+        alpha.flush();
+        beta.flush();
+        
+        assertEquals(StateDelta.CLOSED, (byte) gamma.states.get(NETHER));
+        assertEquals(StateDelta.OPEN, (byte) gamma.states.get("world:arena"));
+    }
+    
+    @Test
+    void vetoedRemoteChangeIsRetriedFromTheFullState() throws IOException {
+        Node alpha = start("alpha");
+        Node beta = start("beta");
+        beta.vetoing = true;
+        alpha.set(NETHER, StateDelta.CLOSED, 1000L);
+        alpha.flush();
+        assertFalse(beta.states.containsKey(NETHER));
+        
+        beta.vetoing = false;
+        beta.stamps.requestFullState();
+        beta.flush();
+        alpha.flush();
+        
+        assertTrue(beta.states.containsKey(NETHER));
+        assertEquals(StateDelta.CLOSED, (byte) beta.states.get(NETHER));
+    }
+    
+    private static StateDelta delta(String sender, StateDelta.Change change) {
+        return new StateDelta(sender, false, Collections.singletonList(change));
+    }
+}
\ No newline at end of file
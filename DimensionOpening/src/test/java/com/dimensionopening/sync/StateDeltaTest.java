@@ -0,0 +1,69 @@
+package com.dimensionopening.sync;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StateDeltaTest {
+    
+    @Test
+    void encodeDecodeRoundTrip() throws IOException {
+        StateDelta delta = new StateDelta("lobby", true, Arrays.asList(
+                new StateDelta.Change("dimension:NETHER", StateDelta.CLOSED, 1_700_000_000_000L, "lobby"),
+                new StateDelta.Change("world:arena", StateDelta.FOLLOW, 42L, "survival")));
+        
+        StateDelta decoded = StateDelta.decode(delta.encode());
+        
+        assertEquals("lobby", decoded.getSender());
+        assertTrue(decoded.isFullStateRequest());
+        assertEquals(2, decoded.getChanges().size());
+        StateDelta.Change relayed = decoded.getChanges().get(1);
+        assertEquals("world:arena", relayed.key);
+        assertEquals(StateDelta.FOLLOW, relayed.state);
+        assertEquals(42L, relayed.version);
+        assertEquals("survival", relayed.origin);
+    }
+    
+    @Test
+    void unknownFormatIsRejected() throws IOException {
+        byte[] payload = new StateDelta("lobby", false, Collections.emptyList()).encode();
+        payload[0] = 99;
+        
+        assertThrows(IOException.class, () -> StateDelta.decode(payload));
+    }
+    
+    @Test
+    void invalidStateIsRejected() throws IOException {
+        byte[] payload = new StateDelta("lobby", false, Collections.singletonList(
+                new StateDelta.Change("dimension:THE_END", (byte) 7, 1L, "lobby"))).encode();
+        
+        assertThrows(IOException.class, () -> StateDelta.decode(payload));
+    }
+    
+    @Test
+    void truncatedPayloadIsRejected() throws IOException {
+        byte[] payload = new StateDelta("lobby", false, Collections.singletonList(
+                new StateDelta.Change("dimension:NETHER", StateDelta.OPEN, 1L, "lobby"))).encode();
+        
+        assertThrows(IOException.class, () -> StateDelta.decode(Arrays.copyOf(payload, payload.length - 3)));
+    }
+    
+    @Test
+    void higherVersionWinsAndServerIdsBreakTies() {
+        StateDelta.Change change = new StateDelta.Change("dimension:NETHER", StateDelta.OPEN, 100L, "beta");
+        
+        assertTrue(change.isNewerThan(99L, "zeta"));
+        assertFalse(change.isNewerThan(101L, "alpha"));
+        assertTrue(change.isNewerThan(100L, "alpha"));
+        assertFalse(change.isNewerThan(100L, "gamma"));
+        // The same stamp seen again is not newer
+        assertFalse(change.isNewerThan(100L, "beta"));
+    }
+}
\ No newline at end of file